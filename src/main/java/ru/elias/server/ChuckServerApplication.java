@@ -2,12 +2,26 @@ package ru.elias.server;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class ChuckServerApplication {
 
+    /**
+     * Число шагов запуска, сохраняемых для эндпоинта {@code /actuator/startup}.
+     */
+    private static final int STARTUP_STEPS_CAPACITY = 4096;
+
+    private static final String TRAINING_RUN_PROPERTY = "app.startup.training-run";
+
     public static void main(String[] args) {
-        SpringApplication.run(ChuckServerApplication.class, args);
+        var application = new SpringApplication(ChuckServerApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+        var context = application.run(args);
+        // обучающий запуск при сборке образа: классы загружены, архив AppCDS записывается при выходе
+        if (context.getEnvironment().getProperty(TRAINING_RUN_PROPERTY, Boolean.class, false)) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
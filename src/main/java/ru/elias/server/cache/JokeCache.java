@@ -0,0 +1,73 @@
+package ru.elias.server.cache;
+
+import java.util.Optional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import ru.elias.server.config.properties.JokeCacheProperties;
+import ru.elias.server.dto.JokeDto;
+
+/**
+ * Кэш шуток по идентификатору. Caffeine использует политику W-TinyLFU: при вытеснении
+ * учитывается частота обращений, поэтому популярные шутки не вымываются единичными запросами.
+ */
+@Component
+public class JokeCache {
+
+    static final String CACHE_NAME = "jokes.by-id";
+
+    /**
+     * Приблизительные накладные расходы на запись: узел кэша, ключ Long, объект JokeDto и две строки.
+     */
+    private static final long ENTRY_OVERHEAD_BYTES = 160;
+
+    private final Cache<Long, JokeDto> cache;
+
+    public JokeCache(JokeCacheProperties properties, MeterRegistry meterRegistry) {
+        cache = Caffeine.newBuilder()
+                        .maximumSize(properties.getMaxSize())
+                        .expireAfterWrite(properties.getExpireAfterWrite())
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("cache.estimated.memory", this, JokeCache::estimateMemoryBytes)
+             .tag("cache", CACHE_NAME)
+             .baseUnit("bytes")
+             .register(meterRegistry);
+    }
+
+    public Optional<JokeDto> get(Long id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    public void put(Long id, JokeDto joke) {
+        cache.put(id, joke);
+    }
+
+    public void invalidate(Long id) {
+        if (id != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private double estimateMemoryBytes() {
+        long bytes = 0;
+        for (JokeDto joke : cache.asMap().values()) {
+            bytes += ENTRY_OVERHEAD_BYTES + length(joke.getJoke()) + length(joke.getCategory());
+        }
+        return bytes;
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+}
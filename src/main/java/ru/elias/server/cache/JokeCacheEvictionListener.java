@@ -0,0 +1,39 @@
+package ru.elias.server.cache;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.elias.server.model.Joke;
+
+/**
+ * Сбрасывает запись кэша при любом изменении шутки через JPA. Повторный сброс после коммита
+ * убирает значение, которое могло попасть в кэш из параллельного запроса до фиксации транзакции.
+ */
+@Component
+@RequiredArgsConstructor
+public class JokeCacheEvictionListener {
+
+    private final JokeCache jokeCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(Joke joke) {
+        var id = joke.getId();
+        jokeCache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    jokeCache.invalidate(id);
+                }
+            });
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package ru.elias.server.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.stereotype.Component;
+import ru.elias.server.config.properties.ShuffleProperties;
+import ru.elias.server.repository.JokeIdRepository;
+
+/**
+ * Отсортированные идентификаторы шуток, всех и по категориям. Позволяет выбрать шутку по номеру
+ * без обращения к бд. Индекс обновляется в фоне раз в {@code app.shuffle.index-refresh}; новые шутки
+ * получают наибольшие идентификаторы и добавляются в конец, поэтому номера существующих шуток не меняются.
+ * Мягко удаленные шутки остаются в индексе по той же причине.
+ */
+@Component
+public class JokeIdIndex {
+
+    /**
+     * Ключ индекса по всем шуткам. Идентификаторы категорий начинаются с 1.
+     */
+    private static final long ALL_CATEGORIES = 0L;
+
+    private final LoadingCache<Long, long[]> ids;
+
+    public JokeIdIndex(JokeIdRepository jokeIdRepository, ShuffleProperties properties) {
+        ids = Caffeine.newBuilder()
+                      .refreshAfterWrite(properties.getIndexRefresh())
+                      .build(key -> key == ALL_CATEGORIES
+                              ? jokeIdRepository.findAllIds()
+                              : jokeIdRepository.findIdsByCategoryId(key));
+    }
+
+    /**
+     * @param categoryId
+     *         Идентификатор категории или {@code null} для всех шуток.
+     *
+     * @return Идентификаторы шуток по возрастанию. Массив не должен изменяться.
+     */
+    public long[] getIds(Long categoryId) {
+        return ids.get(categoryId == null ? ALL_CATEGORIES : categoryId);
+    }
+
+    public void invalidateAll() {
+        ids.invalidateAll();
+    }
+
+}
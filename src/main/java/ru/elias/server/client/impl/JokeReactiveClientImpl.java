@@ -1,15 +1,21 @@
 package ru.elias.server.client.impl;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 import ru.elias.server.client.JokeReactiveClient;
+import ru.elias.server.monitoring.RequestTimings;
+import ru.elias.server.monitoring.TimingCategory;
 import static ru.elias.server.util.ApiPathConstants.CATEGORIES;
 import static ru.elias.server.util.ApiPathConstants.JOKES;
 import static ru.elias.server.util.ApiPathConstants.RANDOM_JOKE;
@@ -19,42 +25,81 @@ import static ru.elias.server.util.ApiPathConstants.RANDOM_JOKE;
 @Slf4j
 public class JokeReactiveClientImpl implements JokeReactiveClient {
 
+    private static final String NO_CATEGORY = "none";
+
+    private static final String SUCCESS_STATUS = "2xx";
+
+    private static final String IO_ERROR_STATUS = "IO_ERROR";
+
     private final WebClient jokeWebClient;
 
+    private final MeterRegistry meterRegistry;
+
     @Timed("getRandomJokeIntegrationGauge")
     @Override
     public Mono<String> getRandomJoke() {
-        return jokeWebClient.get()
+        return exchange("random-joke", NO_CATEGORY, jokeWebClient.get()
                             .uri(uriBuilder -> uriBuilder.path(JOKES + RANDOM_JOKE)
                                                          .build())
                             .retrieve()
                             .bodyToMono(new ParameterizedTypeReference<String>() {})
-                            .doOnError(error -> log.error(error.getMessage(), error));
+                            .doOnError(error -> log.error(error.getMessage(), error)));
     }
 
     @Timed("getRandomJokeByCategoryIntegrationGauge")
     @Override
     public Mono<String> getRandomJokeByCategory(String category) {
-        return jokeWebClient.get()
+        return exchange("random-joke-by-category", category, jokeWebClient.get()
                             .uri(uriBuilder -> uriBuilder
                                     .path(JOKES + RANDOM_JOKE)
                                     .queryParam("category", category)
                                     .build())
                             .retrieve()
                             .bodyToMono(new ParameterizedTypeReference<String>() {})
-                            .doOnError(error -> log.error(error.getMessage(), error));
+                            .doOnError(error -> log.error(error.getMessage(), error)));
     }
 
     @Timed("getAllCategoriesIntegrationGauge")
     @Override
     public Mono<List<String>> getAllCategories() {
-        return jokeWebClient.get()
+        return exchange("categories", NO_CATEGORY, jokeWebClient.get()
                             .uri(uriBuilder -> uriBuilder
                                     .path(JOKES + CATEGORIES)
                                     .build())
                             .retrieve()
                             .bodyToMono(new ParameterizedTypeReference<List<String>>() {})
-                            .doOnError(error -> log.error(error.getMessage(), error));
+                            .doOnError(error -> log.error(error.getMessage(), error)));
+    }
+
+    /**
+     * Время вызова измеряется от подписки до ответа: {@code @Timed} на методе, возвращающем {@link Mono},
+     * измеряет только сборку запроса. Результат публикуется метрикой {@code upstream.requests}
+     * с тегами {@code operation}, {@code status} и {@code category}.
+     */
+    private <T> Mono<T> exchange(String operation, String category, Mono<T> request) {
+        var observed = Mono.defer(() -> {
+            var started = System.nanoTime();
+            return request.doOnSuccess(value -> record(operation, category, SUCCESS_STATUS, started))
+                          .doOnError(error -> record(operation, category, getStatus(error), started));
+        });
+        return RequestTimings.timed(TimingCategory.UPSTREAM, observed);
+    }
+
+    private void record(String operation, String category, String status, long started) {
+        Timer.builder("upstream.requests")
+             .description("Calls to api.chucknorris.io")
+             .tag("operation", operation)
+             .tag("status", status)
+             .tag("category", category == null ? NO_CATEGORY : category)
+             .register(meterRegistry)
+             .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    private static String getStatus(Throwable error) {
+        if (error instanceof WebClientResponseException) {
+            return String.valueOf(((WebClientResponseException) error).getRawStatusCode());
+        }
+        return IO_ERROR_STATUS;
     }
 
 }
@@ -0,0 +1,65 @@
+package ru.elias.server.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import ru.elias.server.config.properties.JfrProperties;
+import ru.elias.server.config.properties.MonitoringProperties;
+import ru.elias.server.config.properties.TagCardinalityProperties;
+import ru.elias.server.config.properties.TraceProperties;
+import ru.elias.server.monitoring.CrawlerEndpoint;
+import ru.elias.server.monitoring.JfrEndpoint;
+import ru.elias.server.monitoring.JfrRecorder;
+import ru.elias.server.monitoring.RequestTimingFilter;
+import ru.elias.server.monitoring.TagCardinalityGuard;
+import ru.elias.server.monitoring.TraceRecorder;
+import ru.elias.server.monitoring.TracesEndpoint;
+import ru.elias.server.service.JokeCrawlerService;
+
+@Configuration
+public class MonitoringConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestTimingFilter> requestTimingFilter(MeterRegistry meterRegistry,
+                                                                           MonitoringProperties properties,
+                                                                           TraceRecorder traceRecorder) {
+        var registration = new FilterRegistrationBean<>(new RequestTimingFilter(meterRegistry,
+                                                                                properties,
+                                                                                traceRecorder));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public TraceRecorder traceRecorder(TraceProperties properties) {
+        return new TraceRecorder(properties);
+    }
+
+    @Bean
+    public TracesEndpoint tracesEndpoint(TraceRecorder traceRecorder) {
+        return new TracesEndpoint(traceRecorder);
+    }
+
+    @Bean
+    public JfrRecorder jfrRecorder(JfrProperties properties) {
+        return new JfrRecorder(properties);
+    }
+
+    @Bean
+    public JfrEndpoint jfrEndpoint(JfrRecorder jfrRecorder, JfrProperties properties) {
+        return new JfrEndpoint(jfrRecorder, properties);
+    }
+
+    @Bean
+    public CrawlerEndpoint crawlerEndpoint(JokeCrawlerService jokeCrawlerService) {
+        return new CrawlerEndpoint(jokeCrawlerService);
+    }
+
+    @Bean
+    public TagCardinalityGuard tagCardinalityGuard(TagCardinalityProperties properties) {
+        return new TagCardinalityGuard(properties.getMaxValues(), properties.getTags());
+    }
+
+}
@@ -1,20 +1,54 @@
 package ru.elias.server.config;
 
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.annotation.web.configurers.oauth2.server.resource.OAuth2ResourceServerConfigurer;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.util.StringUtils;
+import ru.elias.server.config.properties.JwtProperties;
+import ru.elias.server.security.CachingJwtDecoder;
+import ru.elias.server.security.JwkSetLoader;
+import ru.elias.server.security.RefreshingJwkSource;
+import ru.elias.server.security.impl.FileJwkSetLoader;
+import ru.elias.server.security.impl.RemoteJwkSetLoader;
 import static ru.elias.server.util.OpenApiConstants.OAUTH2_TOKEN_URL;
 
 @Configuration
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
-    @Value("${spring.security.oauth2.resource-server.jwt.jwk-set-uri}")
+    /**
+     * Endpoint actuator, требующие аутентификации: запись JFR раскрывает внутреннее состояние и нагружает JVM,
+     * сборщик шуток нагружает сервис шуток и бд, трассы раскрывают внутренние вызовы и SQL, а DELETE их очищает,
+     * хронология запуска раскрывает бины и конфигурацию, а POST сбрасывает ее буфер.
+     */
+    private static final String[] PROTECTED_ACTUATOR = {
+            "/actuator/jfr/**",
+            "/actuator/crawler/**",
+            "/actuator/traces/**",
+            "/actuator/startup/**"
+    };
+
+    @Value("${spring.security.oauth2.resource-server.jwt.jwk-set-uri:}")
     private String jwkUri;
 
     @Override
@@ -28,15 +62,43 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     public WebSecurityCustomizer webSecurityCustomizer() {
         return (web) -> web.ignoring()
                            .antMatchers("/")
-                           .antMatchers("/actuator/**")
+                           .requestMatchers(new AndRequestMatcher(
+                                   new AntPathRequestMatcher("/actuator/**"),
+                                   new NegatedRequestMatcher(new OrRequestMatcher(
+                                           Arrays.stream(PROTECTED_ACTUATOR)
+                                                 .map(AntPathRequestMatcher::new)
+                                                 .collect(Collectors.toList())))))
                            .antMatchers("/swagger-ui.html")
                            .antMatchers("/swagger-ui/**")
                            .antMatchers("/v3/api-docs/**");
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withJwkSetUri(jwkUri).build();
+    public JwkSetLoader jwkSetLoader(JwtProperties jwtProperties,
+                                     ResourceLoader resourceLoader) throws MalformedURLException {
+        if (StringUtils.hasText(jwtProperties.getJwkSetLocation())) {
+            return new FileJwkSetLoader(resourceLoader.getResource(jwtProperties.getJwkSetLocation()));
+        }
+        return new RemoteJwkSetLoader(new URL(jwkUri));
+    }
+
+    @Bean
+    public RefreshingJwkSource jwkSource(JwkSetLoader jwkSetLoader,
+                                         JwtProperties jwtProperties,
+                                         MeterRegistry meterRegistry) {
+        return new RefreshingJwkSource(jwkSetLoader, jwtProperties.getJwkMinRefreshInterval(), meterRegistry);
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(RefreshingJwkSource jwkSource,
+                                 JwtProperties jwtProperties,
+                                 MeterRegistry meterRegistry) {
+        var jwtProcessor = new DefaultJWTProcessor<SecurityContext>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // проверка claims выполняется валидаторами Spring Security, как в NimbusJwtDecoder.withJwkSetUri
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new CachingJwtDecoder(new NimbusJwtDecoder(jwtProcessor), jwtProperties, meterRegistry);
     }
 
 }
@@ -0,0 +1,30 @@
+package ru.elias.server.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Настройки запуска для профиля {@code fast-startup}, в котором бины создаются при первом обращении
+ * ({@code spring.main.lazy-initialization}).
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Бины с методами {@code @Scheduled} создаются сразу: задачи регистрируются только при создании бина,
+     * и ленивый бин, к которому никто не обращается, не запустил бы их никогда.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> !MethodIntrospector.selectMethods(
+                beanType,
+                (MethodIntrospector.MetadataLookup<Scheduled>) method ->
+                        AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class)
+        ).isEmpty();
+    }
+
+}
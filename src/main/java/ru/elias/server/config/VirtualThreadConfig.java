@@ -0,0 +1,42 @@
+package ru.elias.server.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import ru.elias.server.util.VirtualThreads;
+
+/**
+ * Режим обслуживания запросов на виртуальных потоках (требует JDK 21+).
+ * Обработка запросов Tomcat, генерация отчетов и задачи {@code @Scheduled} выполняются
+ * на виртуальных потоках, поэтому ожидание в {@code blockOptional()} и JDBC не занимает
+ * потоки платформы.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(value = "app.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        var executor = VirtualThreads.newVirtualThreadPerTaskExecutor("http-virtual-");
+        log.info("Tomcat request handling runs on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * Заменяет планировщик автоконфигурации, поэтому размер пула берется из {@code spring.task.scheduling.pool.size}.
+     */
+    @Bean
+    public TaskScheduler taskScheduler(TaskSchedulingProperties properties) {
+        var scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(properties.getPool().getSize());
+        scheduler.setThreadFactory(VirtualThreads.threadFactory("scheduling-virtual-"));
+        return scheduler;
+    }
+
+}
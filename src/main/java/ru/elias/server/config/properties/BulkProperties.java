@@ -0,0 +1,24 @@
+package ru.elias.server.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.bulk")
+public class BulkProperties {
+
+    /**
+     * Количество строк в одном JDBC-пакете.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Максимальное количество элементов в одном пакетном запросе.
+     */
+    private int maxItems = 100_000;
+
+}
@@ -0,0 +1,88 @@
+package ru.elias.server.config.properties;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.crawler")
+public class CrawlerProperties {
+
+    /**
+     * Запускать сборщик, пока администратор не запускал и не останавливал его.
+     */
+    private boolean autoStart = false;
+
+    /**
+     * Период проверки, не пора ли собрать шутки очередной категории.
+     */
+    private Duration tick = Duration.ofSeconds(1);
+
+    /**
+     * Период перечитывания из бд команды запуска или остановки сборщика. Команда, поданная на другом узле,
+     * применяется на этом узле с такой задержкой.
+     */
+    private Duration controlRefresh = Duration.ofSeconds(10);
+
+    /**
+     * Число запросов случайной шутки за один проход по категории.
+     */
+    private int batchSize = 10;
+
+    /**
+     * Число одновременных запросов к сервису шуток.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Максимальное время ответа сервиса шуток. Проход по категории длится не дольше
+     * {@code batch-size / concurrency} таких интервалов и должен укладываться в {@code app.scheduling.lease-ttl}.
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+
+    /**
+     * Наименьшая пауза между проходами по одной категории.
+     */
+    private Duration minDelay = Duration.ofSeconds(5);
+
+    /**
+     * Наибольшая пауза между проходами по одной категории и наибольшая пауза после ошибок сервиса шуток.
+     */
+    private Duration maxDelay = Duration.ofHours(1);
+
+    /**
+     * Доля дубликатов (сглаженная), начиная с которой пауза по категории увеличивается.
+     */
+    private double duplicateRatioThreshold = 0.8;
+
+    /**
+     * Доля ошибок в проходе, начиная с которой сборщик приостанавливает все запросы.
+     */
+    private double errorRatioThreshold = 0.5;
+
+    /**
+     * Вес последнего прохода в сглаженной доле дубликатов.
+     */
+    private double smoothing = 0.3;
+
+    /**
+     * Множитель паузы при насыщении категории и при ошибках сервиса шуток.
+     */
+    private double backoffMultiplier = 2.0;
+
+    /**
+     * Множитель паузы после прохода с новыми шутками.
+     */
+    private double recoveryMultiplier = 0.75;
+
+    /**
+     * Период обновления списка категорий из сервиса шуток.
+     */
+    private Duration categoriesRefresh = Duration.ofHours(1);
+
+}
@@ -0,0 +1,67 @@
+package ru.elias.server.config.properties;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import ru.elias.server.dedup.DuplicatePolicy;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.dedup")
+public class DedupProperties {
+
+    /**
+     * Включает поиск почти дубликатов при добавлении шуток.
+     */
+    private boolean enabled = true;
+
+    private DuplicatePolicy policy = DuplicatePolicy.REJECT;
+
+    /**
+     * Порог оценки коэффициента Жаккара шинглов, начиная с которого шутка считается почти дубликатом.
+     */
+    private double threshold = 0.8;
+
+    /**
+     * Число хеш-функций MinHash. Должно делиться на {@code bands}; сигнатуры другой длины не загружаются,
+     * поэтому после изменения сохраненные сигнатуры сбрасываются ({@code update jokes set minhash = null})
+     * и пересчитываются проверкой корпуса.
+     */
+    private int numHashes = 64;
+
+    /**
+     * Число полос LSH. При 64 хеш-функциях и 8 полосах кандидатами становятся шутки со сходством от ~0.75.
+     */
+    private int bands = 8;
+
+    /**
+     * Длина символьного шингла.
+     */
+    private int shingleSize = 5;
+
+    /**
+     * Минимальная длина нормализованного текста; более короткие шутки не проверяются.
+     */
+    private int minTextLength = 20;
+
+    /**
+     * Период загрузки в индекс сигнатур шуток, добавленных пакетами и другими репликами.
+     */
+    private Duration refresh = Duration.ofSeconds(10);
+
+    /**
+     * Сколько идентификаторов ниже наибольшего загруженного перечитывается при обновлении индекса: шутки,
+     * зафиксированные другими узлами не в порядке идентификаторов, попадают в индекс при следующем обновлении.
+     */
+    private int refreshOverlap = 1000;
+
+    /**
+     * Расписание проверки всего корпуса (cron); {@code -} выключает проверку.
+     */
+    private String corpusCron = "-";
+
+}
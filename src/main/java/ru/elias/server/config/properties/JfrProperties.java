@@ -0,0 +1,49 @@
+package ru.elias.server.config.properties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.monitoring.jfr")
+public class JfrProperties {
+
+    /**
+     * Длительность записи, если она не указана в запросе.
+     */
+    private Duration defaultDuration = Duration.ofMinutes(1);
+
+    /**
+     * Максимальная длительность записи.
+     */
+    private Duration maxDuration = Duration.ofMinutes(10);
+
+    /**
+     * Максимальный размер файла записи.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(200);
+
+    /**
+     * Разрешенные наборы настроек JFR ({@code $JAVA_HOME/lib/jfr/*.jfc}).
+     */
+    private List<String> settings = List.of("default", "profile");
+
+    /**
+     * Каталог для файлов записи. Хранится только файл последней записи.
+     */
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "chuck-jfr");
+
+    /**
+     * Число строк в каждом разделе сводки.
+     */
+    private int top = 20;
+
+}
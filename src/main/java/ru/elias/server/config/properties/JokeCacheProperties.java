@@ -0,0 +1,26 @@
+package ru.elias.server.config.properties;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.cache.jokes")
+public class JokeCacheProperties {
+
+    /**
+     * Максимальное количество шуток в кэше по идентификатору.
+     */
+    private long maxSize = 10_000;
+
+    /**
+     * Время жизни записи. Ограничивает устаревание данных, измененных другими репликами.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+}
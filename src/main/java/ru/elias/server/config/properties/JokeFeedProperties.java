@@ -0,0 +1,42 @@
+package ru.elias.server.config.properties;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.feed")
+public class JokeFeedProperties {
+
+    /**
+     * Емкость буфера подписчика. Подписчик, не успевающий забирать события, отключается и может
+     * переподключиться с заголовком {@code Last-Event-ID}.
+     */
+    private int bufferSize = 256;
+
+    /**
+     * Максимальное число событий, доступных для продолжения по {@code Last-Event-ID}.
+     */
+    private int replaySize = 1000;
+
+    /**
+     * Максимальный возраст событий, доступных для продолжения по {@code Last-Event-ID}.
+     */
+    private Duration replayAge = Duration.ofMinutes(5);
+
+    /**
+     * Интервал комментариев, поддерживающих соединение и выявляющих отключившихся клиентов.
+     */
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    /**
+     * Максимальное число одновременных подписчиков.
+     */
+    private int maxSubscribers = 5000;
+
+}
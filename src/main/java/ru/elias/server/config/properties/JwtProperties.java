@@ -0,0 +1,42 @@
+package ru.elias.server.config.properties;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.security.jwt")
+public class JwtProperties {
+
+    /**
+     * Максимальное количество проверенных токенов в кэше.
+     */
+    private long cacheMaxSize = 10_000;
+
+    /**
+     * Максимальное время хранения токена в кэше (меньше, если токен истекает раньше).
+     */
+    private Duration cacheMaxTtl = Duration.ofHours(1);
+
+    /**
+     * Локальный файл с набором ключей (JWKS), например {@code file:/etc/chuck/jwks.json}.
+     * Если не задан, ключи загружаются по {@code jwk-set-uri}.
+     */
+    private String jwkSetLocation;
+
+    /**
+     * Период фонового обновления набора ключей.
+     */
+    private Duration jwkRefreshInterval = Duration.ofMinutes(5);
+
+    /**
+     * Минимальный интервал между внеплановыми обновлениями при неизвестном идентификаторе ключа.
+     */
+    private Duration jwkMinRefreshInterval = Duration.ofSeconds(30);
+
+}
@@ -0,0 +1,20 @@
+package ru.elias.server.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.monitoring")
+public class MonitoringProperties {
+
+    /**
+     * Добавлять ли в ответы заголовок {@code Server-Timing} с разбивкой времени обработки запроса.
+     * Заголовок раскрывает внутреннее устройство сервиса, поэтому по умолчанию выключен.
+     */
+    private boolean serverTimingEnabled;
+
+}
@@ -0,0 +1,19 @@
+package ru.elias.server.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.random")
+public class RandomJokeProperties {
+
+    /**
+     * Максимальное количество шуток в одном запросе {@code /random?count=N}.
+     */
+    private int maxCount = 100;
+
+}
@@ -0,0 +1,60 @@
+package ru.elias.server.config.properties;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+import ru.elias.server.ratelimit.RateLimitedEndpoint;
+
+@Getter
+@Setter
+@Validated
+@Configuration
+@ConfigurationProperties("app.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Включает ограничение частоты запросов к дорогим операциям.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Максимальное число отслеживаемых клиентов на операцию. Корзины простаивающих клиентов удаляются,
+     * как только полностью восполнятся.
+     */
+    @Positive
+    private long maxClients = 10000;
+
+    /**
+     * Ограничения по операциям. Операции, отсутствующие в списке, не ограничиваются.
+     */
+    private Map<RateLimitedEndpoint, @Valid Limit> endpoints = new EnumMap<>(RateLimitedEndpoint.class);
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        /**
+         * Емкость корзины: сколько запросов клиент может выполнить подряд.
+         */
+        @Positive
+        private int capacity = 10;
+
+        /**
+         * Время полного восполнения корзины.
+         */
+        @DurationMin(millis = 1)
+        private Duration period = Duration.ofMinutes(1);
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package ru.elias.server.config.properties;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.report.concurrency")
+public class ReportConcurrencyProperties {
+
+    /**
+     * Начальный лимит одновременно формируемых отчетов, в разрешениях.
+     */
+    private int initialLimit = 4;
+
+    private int minLimit = 1;
+
+    private int maxLimit = 32;
+
+    /**
+     * Число строк отчета на одно разрешение. Отчет по категории из N шуток занимает {@code 1 + N / rowsPerPermit}
+     * разрешений, но не больше текущего лимита.
+     */
+    private long rowsPerPermit = 1000;
+
+    /**
+     * Формирование отчета дольше порога считается признаком перегрузки, и лимит уменьшается.
+     */
+    private Duration latencyThreshold = Duration.ofSeconds(10);
+
+    /**
+     * Множитель лимита при перегрузке.
+     */
+    private double backoffRatio = 0.75;
+
+    /**
+     * Максимальное число запросов, ожидающих освобождения разрешений. Остальные отклоняются сразу.
+     */
+    private int maxQueued = 16;
+
+    /**
+     * Максимальное время ожидания разрешений в очереди.
+     */
+    private Duration queueTimeout = Duration.ofSeconds(5);
+
+}
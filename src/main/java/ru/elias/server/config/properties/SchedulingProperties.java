@@ -0,0 +1,28 @@
+package ru.elias.server.config.properties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.scheduling")
+public class SchedulingProperties {
+
+    /**
+     * Идентификатор узла, под которым он захватывает аренду задач.
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Срок аренды задачи. Должен превышать период запуска задачи, иначе лидерство будет переходить
+     * между узлами на каждом запуске.
+     */
+    private Duration leaseTtl = Duration.ofSeconds(10);
+
+}
@@ -0,0 +1,27 @@
+package ru.elias.server.config.properties;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.shuffle")
+public class ShuffleProperties {
+
+    /**
+     * Ключ подписи курсоров перемешивания. Должен совпадать на всех репликах; если не задан,
+     * генерируется при запуске, и курсоры перестают приниматься после перезапуска.
+     */
+    private String secret;
+
+    /**
+     * Период обновления индекса идентификаторов шуток. Новые шутки попадают в следующий цикл перемешивания.
+     */
+    private Duration indexRefresh = Duration.ofMinutes(1);
+
+}
@@ -0,0 +1,60 @@
+package ru.elias.server.config.properties;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.monitoring.sql-log")
+public class SqlLogProperties {
+
+    /**
+     * Включает асинхронный журнал SQL-запросов вместо {@code spring.jpa.show-sql}.
+     */
+    private boolean enabled;
+
+    /**
+     * Доля запросов, попадающих в журнал (от 0 до 1). Медленные и неуспешные запросы пишутся всегда.
+     */
+    private double sampleRate = 0.01;
+
+    /**
+     * Запросы, выполнявшиеся дольше порога, пишутся в журнал всегда и с уровнем WARN.
+     */
+    private Duration slowThreshold = Duration.ofMillis(200);
+
+    /**
+     * Емкость очереди записей. При переполнении записи отбрасываются, поток запроса не блокируется.
+     */
+    private int queueCapacity = 8192;
+
+    /**
+     * Способ вывода значений параметров запроса. Параметры собираются только у запросов из выборки.
+     */
+    private ParameterMode parameters = ParameterMode.REDACTED;
+
+    public enum ParameterMode {
+
+        /**
+         * Параметры не собираются.
+         */
+        NONE,
+
+        /**
+         * Выводятся числа, логические значения и null, остальные значения заменяются типом и длиной.
+         */
+        REDACTED,
+
+        /**
+         * Значения выводятся как есть. Только для отладки: в журнал попадают персональные данные.
+         */
+        PLAIN
+
+    }
+
+}
@@ -0,0 +1,32 @@
+package ru.elias.server.config.properties;
+
+import java.time.Duration;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.monitoring.tag-cardinality")
+public class TagCardinalityProperties {
+
+    /**
+     * Максимальное число различных значений тега у одной метрики. Остальные значения заменяются на {@code other}.
+     */
+    private int maxValues = 50;
+
+    /**
+     * Период пересчета самых частых значений тега. Метрики с вытесненными значениями удаляются из реестра.
+     */
+    private Duration rerankInterval = Duration.ofMinutes(1);
+
+    /**
+     * Теги с неограниченным набором значений, например названия категорий.
+     */
+    private List<String> tags = List.of("category");
+
+}
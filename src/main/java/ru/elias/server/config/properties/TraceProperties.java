@@ -0,0 +1,40 @@
+package ru.elias.server.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.monitoring.traces")
+public class TraceProperties {
+
+    /**
+     * Включает запись трасс запросов, доступных через {@code /actuator/traces}.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Доля записываемых запросов. Запрос без трассы проходит аспект трассировки без измерений,
+     * поэтому накладные расходы растут вместе с долей; самые медленные трассы ищутся среди записанных.
+     */
+    private double sampleRate = 0.1;
+
+    /**
+     * Число самых медленных трасс, хранимых для каждой точки входа.
+     */
+    private int slowestPerEndpoint = 10;
+
+    /**
+     * Максимальное число интервалов в трассе. Интервалы сверх лимита не записываются, их число указывается в трассе.
+     */
+    private int maxSpans = 64;
+
+    /**
+     * Максимальное число точек входа, для которых хранятся трассы.
+     */
+    private int maxEndpoints = 100;
+
+}
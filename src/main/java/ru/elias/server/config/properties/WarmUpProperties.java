@@ -0,0 +1,46 @@
+package ru.elias.server.config.properties;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties("app.warm-up")
+public class WarmUpProperties {
+
+    /**
+     * Включает прогрев перед тем, как проба готовности (readiness) сообщит о готовности принимать трафик.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Максимальное число итераций синтетических вызовов.
+     */
+    private int iterations = 200;
+
+    /**
+     * Максимальная длительность прогрева. По ее истечении прогрев завершается, даже если итерации не исчерпаны.
+     */
+    private Duration timeBudget = Duration.ofSeconds(30);
+
+    /**
+     * Число итераций, в которых формируется отчет по самой маленькой категории.
+     */
+    private int reportIterations = 3;
+
+    /**
+     * Устанавливает соединение с api.chucknorris.io одним запросом списка категорий.
+     */
+    private boolean upstream = true;
+
+    /**
+     * Максимальное время ожидания ответа api.chucknorris.io.
+     */
+    private Duration upstreamTimeout = Duration.ofSeconds(5);
+
+}
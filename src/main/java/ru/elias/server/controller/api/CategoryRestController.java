@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ru.elias.server.dto.CategoryDto;
+import ru.elias.server.dto.bulk.BulkCreateResult;
 import ru.elias.server.service.CategoryService;
 import ru.elias.server.util.ApiPathConstants;
 
@@ -51,4 +52,10 @@ public class CategoryRestController {
         return categoryService.createCategories(flag, request);
     }
 
+    @Operation(summary = "Create categories in bulk (manual mode)")
+    @PostMapping(ApiPathConstants.BULK)
+    public ResponseEntity<BulkCreateResult> createBulk(@RequestBody List<CategoryDto> request) {
+        return categoryService.createCategories(request);
+    }
+
 }
@@ -1,5 +1,9 @@
 package ru.elias.server.controller.api;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
 import java.util.List;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -7,18 +11,30 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.api.annotations.ParameterObject;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import ru.elias.server.dto.JokeCreatedEvent;
 import ru.elias.server.dto.JokeDto;
+import ru.elias.server.dto.JokeImportStatus;
 import ru.elias.server.dto.JokesGeneralStatistic;
+import ru.elias.server.dto.bulk.BulkCreateResult;
 import ru.elias.server.filter.JokeQueryCriteria;
+import ru.elias.server.service.JokeExportService;
+import ru.elias.server.service.JokeFeedService;
+import ru.elias.server.service.JokeImportService;
 import ru.elias.server.service.JokeService;
+import ru.elias.server.service.JokeShuffleService;
+import ru.elias.server.transfer.JokeFileFormat;
 import ru.elias.server.util.ApiPathConstants;
 
 @Tag(name = "Jokes")
@@ -29,6 +45,14 @@ public class JokeRestController {
 
     private final JokeService jokeService;
 
+    private final JokeImportService jokeImportService;
+
+    private final JokeExportService jokeExportService;
+
+    private final JokeShuffleService jokeShuffleService;
+
+    private final JokeFeedService jokeFeedService;
+
     @Operation(summary = "Get joke by id")
     @GetMapping(ApiPathConstants.BY_ID)
     public ResponseEntity<JokeDto> getJokeById(
@@ -42,6 +66,27 @@ public class JokeRestController {
         return jokeService.getRandomJoke();
     }
 
+    @Operation(summary = "Get several distinct random jokes in one request")
+    @GetMapping(value = ApiPathConstants.RANDOM, params = "count")
+    public ResponseEntity<List<JokeDto>> getRandomJokes(
+            @Parameter(description = "Number of jokes")
+            @RequestParam("count") int count,
+            @Parameter(description = "Category name")
+            @RequestParam(value = "category", required = false) String category) {
+        return jokeService.getRandomJokes(category, count);
+    }
+
+    @Operation(summary = "Get several distinct random jokes of a category in one request")
+    @GetMapping(value = ApiPathConstants.RANDOM + ApiPathConstants.BY_CATEGORY_NAME, params = "count")
+    public ResponseEntity<List<JokeDto>> getRandomJokesByCategory(
+            @PathVariable("categoryName")
+            @Parameter(description = "Category name")
+            String categoryName,
+            @Parameter(description = "Number of jokes")
+            @RequestParam("count") int count) {
+        return jokeService.getRandomJokes(categoryName, count);
+    }
+
     @Operation(summary = "Get joke by category")
     @GetMapping(ApiPathConstants.RANDOM + ApiPathConstants.BY_CATEGORY_NAME)
     public ResponseEntity<JokeDto> getRandomJokeByCategory(
@@ -51,6 +96,35 @@ public class JokeRestController {
         return jokeService.getRandomJokeByCategory(categoryName);
     }
 
+    @Operation(summary = "Get next unseen random joke (shuffle-bag mode)")
+    @GetMapping(ApiPathConstants.SHUFFLE)
+    public ResponseEntity<JokeDto> getShuffledJoke(
+            @Parameter(description = "Cursor from the previous response, absent to start a new shuffle")
+            @RequestHeader(value = JokeShuffleService.CURSOR_HEADER, required = false) String cursor) {
+        return jokeShuffleService.getNextJoke(null, cursor);
+    }
+
+    @Operation(summary = "Get next unseen random joke by category (shuffle-bag mode)")
+    @GetMapping(ApiPathConstants.SHUFFLE + ApiPathConstants.BY_CATEGORY_NAME)
+    public ResponseEntity<JokeDto> getShuffledJokeByCategory(
+            @PathVariable("categoryName")
+            @Parameter(description = "Category name")
+            String categoryName,
+            @Parameter(description = "Cursor from the previous response, absent to start a new shuffle")
+            @RequestHeader(value = JokeShuffleService.CURSOR_HEADER, required = false) String cursor) {
+        return jokeShuffleService.getNextJoke(categoryName, cursor);
+    }
+
+    @Operation(summary = "Stream newly created jokes (Server-Sent Events)")
+    @GetMapping(value = ApiPathConstants.STREAM, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<JokeCreatedEvent>> streamJokes(
+            @Parameter(description = "Category name")
+            @RequestParam(value = "category", required = false) String category,
+            @Parameter(description = "Id of the last received event to resume after reconnect")
+            @RequestHeader(value = JokeFeedService.LAST_EVENT_ID_HEADER, required = false) Long lastEventId) {
+        return jokeFeedService.subscribe(category, lastEventId);
+    }
+
     @Operation(summary = "Create joke")
     @PostMapping
     public ResponseEntity<Void> create(
@@ -62,6 +136,40 @@ public class JokeRestController {
         return jokeService.createJoke(flag, category, request);
     }
 
+    @Operation(summary = "Create jokes in bulk (manual mode)")
+    @PostMapping(ApiPathConstants.BULK)
+    public ResponseEntity<BulkCreateResult> createBulk(@RequestBody List<JokeDto> request) {
+        return jokeService.createJokes(request);
+    }
+
+    @Operation(summary = "Import jokes from a CSV/NDJSON request body")
+    @PostMapping(ApiPathConstants.IMPORT)
+    public ResponseEntity<JokeImportStatus> importJokes(
+            @Parameter(description = "File format")
+            @RequestParam(value = "format") JokeFileFormat format,
+            HttpServletRequest request) throws IOException {
+        return jokeImportService.importJokes(format, request.getInputStream());
+    }
+
+    @Operation(summary = "Get progress of running imports")
+    @GetMapping(ApiPathConstants.IMPORT)
+    public ResponseEntity<List<JokeImportStatus>> getActiveImports() {
+        return jokeImportService.getActiveImports();
+    }
+
+    @Operation(summary = "Export all jokes as CSV/NDJSON")
+    @GetMapping(ApiPathConstants.EXPORT)
+    public void exportJokes(
+            @Parameter(description = "File format")
+            @RequestParam(value = "format", defaultValue = "CSV") JokeFileFormat format,
+            @Parameter(description = "Category name filter")
+            @RequestParam(value = "category", required = false) String category,
+            @Parameter(description = "Compress with gzip")
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        jokeExportService.exportJokes(format, category, gzip, response);
+    }
+
     @Operation(summary = "Get joke's count on categories")
     @GetMapping(ApiPathConstants.STATISTICS)
     public ResponseEntity<List<JokesGeneralStatistic>> getJokesCountStatistics() {
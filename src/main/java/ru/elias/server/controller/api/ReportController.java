@@ -16,6 +16,9 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.elias.server.dto.report.ReportFormat;
 import ru.elias.server.exception.BusinessException;
 import ru.elias.server.exception.ErrorType;
+import ru.elias.server.ratelimit.ClientRateLimiter;
+import ru.elias.server.ratelimit.RateLimitedEndpoint;
+import ru.elias.server.ratelimit.ReportConcurrencyLimiter;
 import ru.elias.server.service.report.BaseReportService;
 import ru.elias.server.util.ApiPathConstants;
 
@@ -28,6 +31,10 @@ public class ReportController {
 
     private final Map<String, BaseReportService> reports;
 
+    private final ClientRateLimiter clientRateLimiter;
+
+    private final ReportConcurrencyLimiter reportConcurrencyLimiter;
+
     @GetMapping(value = ApiPathConstants.JOKE_BY_CATEGORY_REPORT)
     public void getJokesByCategoriesReport(@Parameter(description = "Param (category name)")
                                            String param,
@@ -42,7 +49,10 @@ public class ReportController {
                                 ReportFormat format,
                                 HttpServletResponse response) {
         if (reports.containsKey(reportName)) {
-            reports.get(reportName).generateReport(params, format, response, reportName);
+            clientRateLimiter.acquire(RateLimitedEndpoint.REPORTS);
+            var report = reports.get(reportName);
+            reportConcurrencyLimiter.execute(report.estimateRows(params),
+                                             () -> report.generateReport(params, format, response, reportName));
         } else {
             throw new BusinessException(ErrorType.UNSUCCESSFUL_REPORT_EXPORT);
         }
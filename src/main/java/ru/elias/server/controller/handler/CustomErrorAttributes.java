@@ -1,6 +1,8 @@
 package ru.elias.server.controller.handler;
 
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,6 +15,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.context.request.WebRequest;
+import ru.elias.server.exception.BusinessException;
 
 @Slf4j
 @Component
@@ -24,6 +27,12 @@ public class CustomErrorAttributes extends DefaultErrorAttributes {
     private final WebRequest webRequest;
 
     public Map<String, Object> getErrorAttributes(Exception exception, HttpStatus httpStatus) {
+        if (exception instanceof BusinessException) {
+            var map = new LinkedHashMap<String, Object>(8);
+            map.put("timestamp", new Date());
+            putAttributes(map, httpStatus, exception, exception.getMessage());
+            return map;
+        }
         var map = super.getErrorAttributes(webRequest, OPTIONS);
         if (exception instanceof BindException) {
             var e = (BindException) exception;
@@ -1,23 +1,30 @@
 package ru.elias.server.controller.handler;
 
+import java.time.Duration;
 import java.util.Map;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.RateLimitExceededException;
 
 @Slf4j
 @RequiredArgsConstructor
 @RestControllerAdvice
 public class ErrorHandlerControllerAdvice {
 
+    private static final Duration EXPECTED_ERROR_LOG_INTERVAL = Duration.ofSeconds(10);
+
     private final CustomErrorAttributes customErrorAttributes;
 
+    private final ExpectedErrorLog expectedErrorLog = new ExpectedErrorLog(EXPECTED_ERROR_LOG_INTERVAL);
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleException(Exception e) {
         var status = HttpStatus.INTERNAL_SERVER_ERROR;
@@ -27,22 +34,23 @@ public class ErrorHandlerControllerAdvice {
     }
 
     @ExceptionHandler(BusinessException.class)
-    public ResponseEntity<Map<String, Object>> handleNotFoundException(BusinessException e) {
+    public ResponseEntity<Map<String, Object>> handleBusinessException(BusinessException e) {
         var errorType = e.getErrorType();
-        switch (errorType) {
-            case CATEGORY_NOT_FOUND_BY_NAME:
-            case JOKE_NOT_FOUND_BY_ID:
-            case JOKE_NOT_FOUND_FROM_INTEGRATION:
-            case USER_NOT_FOUND_BY_ID:
-            case USER_NOT_FOUND_BY_NAME:
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                                     .body(customErrorAttributes.getErrorAttributes(e, HttpStatus.NOT_FOUND));
-            default:
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                                     .body(customErrorAttributes.getErrorAttributes(
-                                             e,
-                                             HttpStatus.INTERNAL_SERVER_ERROR));
+        if (errorType.isExpected()) {
+            expectedErrorLog.log(e);
         }
+        var status = errorType.getHttpStatus();
+        return ResponseEntity.status(status)
+                             .body(customErrorAttributes.getErrorAttributes(e, status));
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimitExceededException(RateLimitExceededException e) {
+        expectedErrorLog.log(e);
+        var status = e.getErrorType().getHttpStatus();
+        return ResponseEntity.status(status)
+                             .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                             .body(customErrorAttributes.getErrorAttributes(e, status));
     }
 
     @ExceptionHandler(BindException.class)
@@ -0,0 +1,60 @@
+package ru.elias.server.controller.handler;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.ErrorType;
+
+/**
+ * Журнал ожидаемых ошибок: не чаще одной записи за интервал на каждый тип ошибки, с числом
+ * пропущенных с прошлой записи ошибок этого типа.
+ */
+@Slf4j
+class ExpectedErrorLog {
+
+    private final long intervalNanos;
+
+    private final Map<ErrorType, Window> windows = new ConcurrentHashMap<>();
+
+    ExpectedErrorLog(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * @return Была ли ошибка записана в журнал.
+     */
+    boolean log(BusinessException e) {
+        var errorType = e.getErrorType();
+        var window = windows.computeIfAbsent(errorType, type -> new Window(System.nanoTime()));
+        var now = System.nanoTime();
+        var nextLogAt = window.nextLogAt.get();
+        if (now - nextLogAt < 0 || !window.nextLogAt.compareAndSet(nextLogAt, now + intervalNanos)) {
+            window.suppressed.incrementAndGet();
+            return false;
+        }
+        var suppressed = window.suppressed.getAndSet(0);
+        if (suppressed > 0) {
+            log.info("{}: {} (and {} more since last record)", errorType.getCode(), e.getMessage(), suppressed);
+        } else {
+            log.info("{}: {}", errorType.getCode(), e.getMessage());
+        }
+        return true;
+    }
+
+    private static final class Window {
+
+        private final AtomicLong nextLogAt;
+
+        private final AtomicLong suppressed = new AtomicLong();
+
+        private Window(long nextLogAt) {
+            this.nextLogAt = new AtomicLong(nextLogAt);
+        }
+
+    }
+
+}
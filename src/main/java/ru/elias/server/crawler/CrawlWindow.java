@@ -0,0 +1,83 @@
+package ru.elias.server.crawler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.ToLongFunction;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Итоги проходов сборщика за скользящее окно: из них считаются число новых шуток за окно, доля дубликатов
+ * и доля ошибок сервиса шуток. Проходов в окне немного (не больше одного за период сборщика), поэтому
+ * суммы пересчитываются при каждом чтении.
+ */
+public final class CrawlWindow {
+
+    private final Duration length;
+
+    private final Clock clock;
+
+    private final Deque<Sample> samples = new ArrayDeque<>();
+
+    public CrawlWindow(Duration length, Clock clock) {
+        this.length = length;
+        this.clock = clock;
+    }
+
+    public synchronized void record(long requests, long errors, long pulled, long created) {
+        samples.addLast(new Sample(clock.millis(), requests, errors, pulled, created));
+        evict();
+    }
+
+    public synchronized long getCreated() {
+        evict();
+        return sum(sample -> sample.created);
+    }
+
+    /**
+     * @return Доля полученных шуток, которые уже были в корпусе, или {@code NaN}, если шуток не было.
+     */
+    public synchronized double getDuplicateRatio() {
+        evict();
+        var pulled = sum(sample -> sample.pulled);
+        return pulled == 0 ? Double.NaN : (double) (pulled - sum(sample -> sample.created)) / pulled;
+    }
+
+    /**
+     * @return Доля запросов к сервису шуток, завершившихся ошибкой, или {@code NaN}, если запросов не было.
+     */
+    public synchronized double getErrorRatio() {
+        evict();
+        var requests = sum(sample -> sample.requests);
+        return requests == 0 ? Double.NaN : (double) sum(sample -> sample.errors) / requests;
+    }
+
+    private void evict() {
+        var from = clock.millis() - length.toMillis();
+        while (!samples.isEmpty() && samples.peekFirst().recordedAt < from) {
+            samples.removeFirst();
+        }
+    }
+
+    private long sum(ToLongFunction<Sample> value) {
+        return samples.stream().mapToLong(value).sum();
+    }
+
+    @AllArgsConstructor
+    private static final class Sample {
+
+        private final long recordedAt;
+
+        private final long requests;
+
+        private final long errors;
+
+        private final long pulled;
+
+        private final long created;
+
+    }
+
+}
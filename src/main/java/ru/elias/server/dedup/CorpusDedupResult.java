@@ -0,0 +1,30 @@
+package ru.elias.server.dedup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Итоги проверки всего корпуса шуток.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CorpusDedupResult {
+
+    /**
+     * Шутки, для которых посчитаны недостающие сигнатуры.
+     */
+    private final int signed;
+
+    /**
+     * Шутки с сигнатурой, проверенные на почти дубликаты.
+     */
+    private final int checked;
+
+    /**
+     * Найденные почти дубликаты: удаленные или отмеченные в зависимости от политики.
+     */
+    private final int duplicates;
+
+}
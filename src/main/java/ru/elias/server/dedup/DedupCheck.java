@@ -0,0 +1,48 @@
+package ru.elias.server.dedup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Результат проверки текста шутки на почти дубликат.
+ */
+@Getter
+@AllArgsConstructor
+public class DedupCheck {
+
+    private static final DedupCheck SKIPPED = new DedupCheck(null, null, false);
+
+    /**
+     * Сигнатура MinHash или {@code null}, если текст не проверялся.
+     */
+    private final int[] signature;
+
+    /**
+     * Похожая шутка или {@code null}. Отрицательный идентификатор - похожий элемент того же пакета.
+     */
+    private final NearDuplicate duplicate;
+
+    /**
+     * Шутку не нужно сохранять по политике {@link DuplicatePolicy#REJECT}.
+     */
+    private final boolean rejected;
+
+    public static DedupCheck skipped() {
+        return SKIPPED;
+    }
+
+    /**
+     * @return Сигнатура для столбца {@code jokes.minhash}.
+     */
+    public byte[] getMinhash() {
+        return signature == null ? null : MinHasher.toBytes(signature);
+    }
+
+    /**
+     * @return Идентификатор похожей сохраненной шутки для столбца {@code jokes.duplicate_of}.
+     */
+    public Long getDuplicateOf() {
+        return duplicate == null || rejected || duplicate.getJokeId() < 0 ? null : duplicate.getJokeId();
+    }
+
+}
@@ -0,0 +1,18 @@
+package ru.elias.server.dedup;
+
+/**
+ * Обработка почти дубликатов при добавлении шуток и при проверке корпуса.
+ */
+public enum DuplicatePolicy {
+
+    /**
+     * Почти дубликат не сохраняется, а при проверке корпуса помечается удаленным.
+     */
+    REJECT,
+
+    /**
+     * Почти дубликат сохраняется с идентификатором похожей шутки в {@code duplicate_of}.
+     */
+    FLAG
+
+}
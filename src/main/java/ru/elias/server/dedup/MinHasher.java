@@ -0,0 +1,129 @@
+package ru.elias.server.dedup;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Сигнатура MinHash текста шутки: для каждой из {@code numHashes} хеш-функций - минимум хешей по всем
+ * символьным шинглам нормализованного текста. Доля совпадающих позиций двух сигнатур оценивает коэффициент
+ * Жаккара множеств шинглов, поэтому тексты с мелкими правками (регистр, пунктуация, замена слова)
+ * получают близкие сигнатуры.
+ */
+public final class MinHasher {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final int numHashes;
+
+    private final int shingleSize;
+
+    private final int minTextLength;
+
+    private final long[] seeds;
+
+    public MinHasher(int numHashes, int shingleSize, int minTextLength) {
+        if (numHashes <= 0 || shingleSize <= 0) {
+            throw new IllegalArgumentException("MinHash parameters must be positive: "
+                                                       + numHashes + ", " + shingleSize);
+        }
+        this.numHashes = numHashes;
+        this.shingleSize = shingleSize;
+        this.minTextLength = Math.max(minTextLength, shingleSize);
+        this.seeds = new long[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            seeds[i] = mix((i + 1) * GOLDEN_GAMMA);
+        }
+    }
+
+    /**
+     * @return Сигнатура или {@code null}, если нормализованный текст короче {@code minTextLength}:
+     * у коротких текстов мало шинглов, и одна правка меняет большую их часть.
+     */
+    public int[] signature(String text) {
+        if (text == null) {
+            return null;
+        }
+        var normalized = normalize(text);
+        if (normalized.length() < minTextLength) {
+            return null;
+        }
+        var signature = new int[numHashes];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int start = 0; start + shingleSize <= normalized.length(); start++) {
+            var shingle = shingleHash(normalized, start);
+            for (int i = 0; i < numHashes; i++) {
+                var value = (int) (mix(shingle ^ seeds[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        var buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    /**
+     * @return Сигнатура или {@code null}, если она сохранена с другим числом хеш-функций.
+     */
+    public int[] fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != numHashes * Integer.BYTES) {
+            return null;
+        }
+        var signature = new int[numHashes];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    /**
+     * Нижний регистр, последовательности символов кроме букв и цифр заменяются одним пробелом.
+     */
+    static String normalize(String text) {
+        var result = new StringBuilder(text.length());
+        var separator = false;
+        for (int i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (separator && result.length() > 0) {
+                    result.append(' ');
+                }
+                result.append(Character.toLowerCase(c));
+                separator = false;
+            } else {
+                separator = true;
+            }
+        }
+        return result.toString();
+    }
+
+    private long shingleHash(String text, int start) {
+        var hash = FNV_OFFSET;
+        for (int i = start; i < start + shingleSize; i++) {
+            hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Финализатор SplitMix64.
+     */
+    private static long mix(long value) {
+        var z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
@@ -0,0 +1,19 @@
+package ru.elias.server.dedup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Найденная похожая шутка и оценка коэффициента Жаккара ее шинглов.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class NearDuplicate {
+
+    private final long jokeId;
+
+    private final double similarity;
+
+}
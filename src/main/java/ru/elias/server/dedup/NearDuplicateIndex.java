@@ -0,0 +1,216 @@
+package ru.elias.server.dedup;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Индекс LSH по сигнатурам MinHash. Сигнатура делится на {@code bands} полос; шутки с совпадающей полосой
+ * попадают в одну корзину и становятся кандидатами, сходство кандидата оценивается по сохраненной сигнатуре.
+ * Для экономии памяти от каждого минимума хранится младший байт (b-bit MinHash): случайное совпадение байтов
+ * (вероятность 1/256) вычитается из оценки. Корзины - открытая адресация по ключу полосы со списками
+ * элементов в массиве {@code next}, без объектов на каждую шутку.
+ */
+public final class NearDuplicateIndex {
+
+    private static final int ABSENT = -1;
+
+    private static final long EMPTY_KEY = 0L;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final double CHANCE_MATCH = 1.0 / 256;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int numHashes;
+
+    private final int bands;
+
+    private final int rows;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] jokeIds = new long[INITIAL_CAPACITY];
+
+    private byte[] sketches;
+
+    private int[] next;
+
+    private long[] bucketKeys = new long[INITIAL_CAPACITY * 2];
+
+    private int[] bucketHeads = new int[INITIAL_CAPACITY * 2];
+
+    private int size;
+
+    private int usedBuckets;
+
+    public NearDuplicateIndex(int numHashes, int bands) {
+        if (bands <= 0 || numHashes % bands != 0) {
+            throw new IllegalArgumentException("Number of hashes " + numHashes
+                                                       + " must be a multiple of number of bands " + bands);
+        }
+        this.numHashes = numHashes;
+        this.bands = bands;
+        this.rows = numHashes / bands;
+        this.sketches = new byte[INITIAL_CAPACITY * numHashes];
+        this.next = new int[INITIAL_CAPACITY * bands];
+    }
+
+    public void add(long jokeId, int[] signature) {
+        checkLength(signature);
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(size + 1);
+            var entry = size++;
+            jokeIds[entry] = jokeId;
+            for (int i = 0; i < numHashes; i++) {
+                sketches[entry * numHashes + i] = (byte) signature[i];
+            }
+            for (int band = 0; band < bands; band++) {
+                if ((usedBuckets + 1) * 2 > bucketKeys.length) {
+                    rehash(bucketKeys.length * 2);
+                }
+                var key = bandKey(signature, band);
+                var slot = findSlot(bucketKeys, key);
+                if (bucketKeys[slot] == EMPTY_KEY) {
+                    bucketKeys[slot] = key;
+                    bucketHeads[slot] = ABSENT;
+                    usedBuckets++;
+                }
+                var ref = entry * bands + band;
+                next[ref] = bucketHeads[slot];
+                bucketHeads[slot] = ref;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<NearDuplicate> findMatch(int[] signature, double threshold) {
+        return findMatch(signature, threshold, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param beforeJokeId
+     *         Учитываются только шутки с меньшим идентификатором: при проверке всего корпуса дубликатом
+     *         считается более поздняя шутка.
+     *
+     * @return Самая похожая шутка со сходством не ниже порога.
+     */
+    public Optional<NearDuplicate> findMatch(int[] signature, double threshold, long beforeJokeId) {
+        checkLength(signature);
+        var sketch = new byte[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            sketch[i] = (byte) signature[i];
+        }
+        lock.readLock().lock();
+        try {
+            NearDuplicate best = null;
+            var checked = new HashSet<Integer>();
+            for (int band = 0; band < bands; band++) {
+                var slot = findSlot(bucketKeys, bandKey(signature, band));
+                if (bucketKeys[slot] == EMPTY_KEY) {
+                    continue;
+                }
+                for (int ref = bucketHeads[slot]; ref != ABSENT; ref = next[ref]) {
+                    var entry = ref / bands;
+                    if (jokeIds[entry] >= beforeJokeId || !checked.add(entry)) {
+                        continue;
+                    }
+                    var similarity = similarity(sketch, entry);
+                    if (similarity >= threshold && (best == null || similarity > best.getSimilarity())) {
+                        best = new NearDuplicate(jokeIds[entry], similarity);
+                    }
+                }
+            }
+            return Optional.ofNullable(best);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double similarity(byte[] sketch, int entry) {
+        var offset = entry * numHashes;
+        var matches = 0;
+        for (int i = 0; i < numHashes; i++) {
+            if (sketches[offset + i] == sketch[i]) {
+                matches++;
+            }
+        }
+        var estimate = ((double) matches / numHashes - CHANCE_MATCH) / (1 - CHANCE_MATCH);
+        return Math.max(0, estimate);
+    }
+
+    private long bandKey(int[] signature, int band) {
+        var key = (band + 1) * GOLDEN_GAMMA;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            key = mix(key ^ (signature[i] & 0xFFFFFFFFL));
+        }
+        return key == EMPTY_KEY ? 1 : key;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= jokeIds.length) {
+            return;
+        }
+        var length = jokeIds.length * 2;
+        jokeIds = Arrays.copyOf(jokeIds, length);
+        sketches = Arrays.copyOf(sketches, length * numHashes);
+        next = Arrays.copyOf(next, length * bands);
+    }
+
+    private void rehash(int length) {
+        var keys = new long[length];
+        var heads = new int[length];
+        for (int i = 0; i < bucketKeys.length; i++) {
+            if (bucketKeys[i] != EMPTY_KEY) {
+                var slot = findSlot(keys, bucketKeys[i]);
+                keys[slot] = bucketKeys[i];
+                heads[slot] = bucketHeads[i];
+            }
+        }
+        bucketKeys = keys;
+        bucketHeads = heads;
+    }
+
+    private void checkLength(int[] signature) {
+        if (signature.length != numHashes) {
+            throw new IllegalArgumentException("Signature length " + signature.length
+                                                       + " does not match number of hashes " + numHashes);
+        }
+    }
+
+    /**
+     * @return Ячейка с ключом или первая свободная ячейка (линейное пробирование, длина таблицы - степень двойки).
+     */
+    private static int findSlot(long[] keys, long key) {
+        var mask = keys.length - 1;
+        var slot = (int) (key ^ (key >>> 32)) & mask;
+        while (keys[slot] != EMPTY_KEY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Финализатор SplitMix64.
+     */
+    private static long mix(long value) {
+        var z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
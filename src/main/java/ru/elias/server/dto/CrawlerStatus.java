@@ -0,0 +1,32 @@
+package ru.elias.server.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.elias.server.model.CrawlerCheckpoint;
+
+/**
+ * Состояние сборщика шуток. Показатели за последнюю минуту относятся к узлу, который выполняет сбор.
+ */
+@Getter
+@Builder
+public class CrawlerStatus {
+
+    private final boolean running;
+
+    /**
+     * Время, до которого запросы приостановлены из-за ошибок сервиса шуток.
+     */
+    private final Instant upstreamPausedUntil;
+
+    private final long createdPerMinute;
+
+    private final double duplicateRatio;
+
+    private final double upstreamErrorRatio;
+
+    private final List<CrawlerCheckpoint> categories;
+
+}
@@ -0,0 +1,26 @@
+package ru.elias.server.dto;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Событие создания шутки")
+public class JokeCreatedEvent {
+
+    @Parameter(description = "Идентификатор шутки")
+    private Long id;
+
+    @Parameter(description = "Шутка")
+    private String joke;
+
+    @Parameter(description = "Наименование категории")
+    private String category;
+
+}
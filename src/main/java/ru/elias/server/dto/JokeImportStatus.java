@@ -0,0 +1,66 @@
+package ru.elias.server.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import ru.elias.server.transfer.JokeFileFormat;
+
+/**
+ * Состояние импорта. Счетчики обновляются потоком импорта и читаются запросами прогресса.
+ */
+@Getter
+@Schema(description = "Состояние импорта шуток")
+public class JokeImportStatus {
+
+    @Parameter(description = "Идентификатор импорта")
+    private final UUID id = UUID.randomUUID();
+
+    @Parameter(description = "Формат файла")
+    private final JokeFileFormat format;
+
+    @Parameter(description = "Время начала")
+    private final Instant startedAt;
+
+    @Parameter(description = "Время завершения")
+    private volatile Instant finishedAt;
+
+    @Parameter(description = "Количество добавленных шуток (известно после завершения)")
+    private volatile long rowsImported;
+
+    private final AtomicLong rowsRead = new AtomicLong();
+
+    private final AtomicLong rowsRejected = new AtomicLong();
+
+    public JokeImportStatus(JokeFileFormat format, Instant startedAt) {
+        this.format = format;
+        this.startedAt = startedAt;
+    }
+
+    @Parameter(description = "Количество прочитанных строк")
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    @Parameter(description = "Количество отклоненных строк")
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+
+    public void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    public void rowRejected() {
+        rowsRejected.incrementAndGet();
+    }
+
+    public void finish(long imported, Instant finishedAt) {
+        this.rowsImported = imported;
+        this.finishedAt = finishedAt;
+    }
+
+}
@@ -0,0 +1,35 @@
+package ru.elias.server.dto.bulk;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат пакетного создания")
+public class BulkCreateResult {
+
+    @Parameter(description = "Количество созданных элементов")
+    private int created;
+
+    @Parameter(description = "Количество отклоненных элементов")
+    private int failed;
+
+    @Parameter(description = "Результаты по каждому элементу в порядке запроса")
+    private List<BulkItemResult> items;
+
+    public static BulkCreateResult of(List<BulkItemResult> items) {
+        var failed = (int) items.stream()
+                                .filter(item -> item.getStatus() == BulkItemStatus.FAILED)
+                                .count();
+        return new BulkCreateResult(items.size() - failed, failed, items);
+    }
+
+}
@@ -0,0 +1,31 @@
+package ru.elias.server.dto.bulk;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Результат обработки элемента пакетного запроса")
+public class BulkItemResult {
+
+    @Parameter(description = "Позиция элемента в теле запроса")
+    private int index;
+
+    @Parameter(description = "Статус обработки элемента")
+    private BulkItemStatus status;
+
+    @Parameter(description = "Код ошибки")
+    private String code;
+
+    @Parameter(description = "Сообщение об ошибке")
+    private String message;
+
+}
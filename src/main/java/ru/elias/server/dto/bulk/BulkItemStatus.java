@@ -0,0 +1,9 @@
+package ru.elias.server.dto.bulk;
+
+public enum BulkItemStatus {
+
+    CREATED,
+
+    FAILED
+
+}
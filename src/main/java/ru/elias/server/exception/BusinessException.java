@@ -2,18 +2,21 @@ package ru.elias.server.exception;
 
 import lombok.Getter;
 
+/**
+ * Ошибка бизнес-логики. Для ожидаемых ошибок ({@link ErrorType#isExpected()}) стек вызовов не заполняется:
+ * они возникают часто, а место выброса однозначно определяется типом ошибки.
+ */
 @Getter
 public class BusinessException extends RuntimeException {
 
     private final ErrorType errorType;
 
     public BusinessException(ErrorType errorType) {
-        super(errorType.getMessage());
-        this.errorType = errorType;
+        this(errorType, errorType.getMessage());
     }
 
     public BusinessException(ErrorType errorType, String message) {
-        super(message);
+        super(message, null, false, !errorType.isExpected());
         this.errorType = errorType;
     }
 
@@ -2,30 +2,62 @@ package ru.elias.server.exception;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 
 @Getter
 @RequiredArgsConstructor
 public enum ErrorType {
 
-    INTERNAL_SERVER_ERROR("E001", "Internal server error"),
-    BAD_REQUEST("400", "Bad request"),
+    INTERNAL_SERVER_ERROR("E001", "Internal server error", HttpStatus.INTERNAL_SERVER_ERROR),
+    BAD_REQUEST("400", "Bad request", HttpStatus.BAD_REQUEST),
 
-    CATEGORY_NOT_FOUND_BY_NAME("C001", "Category not found by name!"),
+    BULK_LIMIT_EXCEEDED("B001", "Bulk request size exceeds limit", HttpStatus.BAD_REQUEST),
 
-    JOKE_NOT_FOUND_BY_ID("J001", "Joke not found by id!"),
+    CATEGORY_NOT_FOUND_BY_NAME("C001", "Category not found by name!", HttpStatus.NOT_FOUND),
 
-    JOKE_NOT_FOUND_FROM_INTEGRATION("J002", "Joke not found from integration"),
+    CATEGORY_NAME_INVALID("C002", "Category name must not be blank", HttpStatus.BAD_REQUEST),
 
-    JOKE_WITH_CATEGORIES_NOT_FOUND("J003", "Joke with categories not found"),
+    CATEGORY_ALREADY_EXISTS("C003", "Category already exists", HttpStatus.CONFLICT),
 
-    USER_NOT_FOUND_BY_ID("U001", "User not found by id"),
+    JOKE_NOT_FOUND_BY_ID("J001", "Joke not found by id!", HttpStatus.NOT_FOUND),
 
-    USER_NOT_FOUND_BY_NAME("U002", "User not found by name"),
+    JOKE_NOT_FOUND_FROM_INTEGRATION("J002", "Joke not found from integration", HttpStatus.NOT_FOUND),
 
-    UNSUCCESSFUL_REPORT_EXPORT("R001", "Can not export report");
+    JOKE_WITH_CATEGORIES_NOT_FOUND("J003", "Joke with categories not found", HttpStatus.INTERNAL_SERVER_ERROR),
+
+    JOKE_TEXT_INVALID("J004", "Joke text is invalid", HttpStatus.BAD_REQUEST),
+
+    JOKE_COUNT_INVALID("J005", "Requested joke count is out of range", HttpStatus.BAD_REQUEST),
+
+    JOKE_FEED_OVERLOADED("J006", "Too many joke feed subscribers", HttpStatus.SERVICE_UNAVAILABLE),
+
+    JOKE_NEAR_DUPLICATE("J007", "Joke is a near-duplicate of an existing joke", HttpStatus.CONFLICT),
+
+    IMPORT_FORMAT_INVALID("I001", "Import file is malformed", HttpStatus.BAD_REQUEST),
+
+    RATE_LIMIT_EXCEEDED("L001", "Rate limit exceeded", HttpStatus.TOO_MANY_REQUESTS),
+
+    SHUFFLE_CURSOR_INVALID("S001", "Shuffle cursor is invalid", HttpStatus.BAD_REQUEST),
+
+    USER_NOT_FOUND_BY_ID("U001", "User not found by id", HttpStatus.NOT_FOUND),
+
+    USER_NOT_FOUND_BY_NAME("U002", "User not found by name", HttpStatus.NOT_FOUND),
+
+    UNSUCCESSFUL_REPORT_EXPORT("R001", "Can not export report", HttpStatus.INTERNAL_SERVER_ERROR),
+
+    REPORT_OVERLOADED("R002", "Too many reports are being generated", HttpStatus.SERVICE_UNAVAILABLE);
 
     private final String code;
 
     private final String message;
 
+    /**
+     * Статус HTTP-ответа. Ошибки со статусом 4xx - ожидаемый результат обработки запроса.
+     */
+    private final HttpStatus httpStatus;
+
+    public boolean isExpected() {
+        return httpStatus.is4xxClientError();
+    }
+
 }
@@ -0,0 +1,21 @@
+package ru.elias.server.exception;
+
+import lombok.Getter;
+
+/**
+ * Клиент исчерпал лимит запросов к операции. Возвращается со статусом 429 и заголовком {@code Retry-After}.
+ */
+@Getter
+public class RateLimitExceededException extends BusinessException {
+
+    /**
+     * Время до появления свободного маркера в целых секундах, округленное вверх.
+     */
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(ErrorType.RATE_LIMIT_EXCEEDED, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+}
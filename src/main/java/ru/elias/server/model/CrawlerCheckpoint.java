@@ -0,0 +1,62 @@
+package ru.elias.server.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Состояние сборщика шуток по категории: счетчики, сглаженная доля дубликатов и текущая пауза.
+ * Сохраняется после каждого прохода, поэтому после перезапуска сборщик продолжает с той же скоростью
+ * и по тому же расписанию.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "crawler_checkpoints")
+public class CrawlerCheckpoint implements Serializable {
+
+    @Id
+    @EqualsAndHashCode.Include
+    @Column(name = "category_name")
+    private String categoryName;
+
+    @Column(nullable = false)
+    private long pulled;
+
+    @Column(nullable = false)
+    private long created;
+
+    @Column(nullable = false)
+    private long duplicates;
+
+    @Column(nullable = false)
+    private long errors;
+
+    @Column(name = "duplicate_ratio", nullable = false)
+    private double duplicateRatio;
+
+    @Column(name = "delay_ms", nullable = false)
+    private long delayMs;
+
+    @Column(name = "next_run_at", nullable = false)
+    private Instant nextRunAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+}
@@ -0,0 +1,42 @@
+package ru.elias.server.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Запуск и остановка сборщика администратором. Хранится в общей бд, чтобы команда действовала
+ * на узел, который сейчас выполняет сбор.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "crawler_control")
+public class CrawlerControl implements Serializable {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private String name;
+
+    @Column(nullable = false)
+    private boolean running;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+}
@@ -1,14 +1,18 @@
 package ru.elias.server.model;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 
 import java.io.Serializable;
+import java.time.Instant;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
@@ -17,6 +21,8 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Where;
+import ru.elias.server.cache.JokeCacheEvictionListener;
 
 @Getter
 @Setter
@@ -25,7 +31,12 @@ import lombok.Setter;
 @AllArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
 @Entity
-@Table(name = "jokes")
+@EntityListeners(JokeCacheEvictionListener.class)
+@Where(clause = "deleted_at is null")
+@Table(name = "jokes", indexes = {
+        @Index(name = "idx_jokes_name", columnList = "name"),
+        @Index(name = "idx_jokes_category_id_id", columnList = "category_id, id")
+})
 public class Joke extends AbstractAuditableEntity implements Serializable {
 
     @Id
@@ -36,8 +47,27 @@ public class Joke extends AbstractAuditableEntity implements Serializable {
     private String name;
 
     @ManyToOne
-    @JoinColumn(name = "category_id")
+    @JoinColumn(name = "category_id", nullable = false)
     @JsonIgnore
     private Category category;
 
+    /**
+     * Сигнатура MinHash текста для поиска почти дубликатов.
+     */
+    @JsonIgnore
+    @Column(columnDefinition = "bytea")
+    private byte[] minhash;
+
+    /**
+     * Идентификатор похожей шутки, если шутка сохранена как почти дубликат.
+     */
+    private Long duplicateOf;
+
+    /**
+     * Время удаления шутки проверкой корпуса. Удаленные шутки не читаются через JPA,
+     * нативные запросы фильтруют их явно.
+     */
+    @JsonIgnore
+    private Instant deletedAt;
+
 }
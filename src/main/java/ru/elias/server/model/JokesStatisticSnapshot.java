@@ -0,0 +1,42 @@
+package ru.elias.server.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Общий для всех узлов результат подсчета шуток по категориям, рассчитанный лидером.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "jokes_statistic_snapshots")
+public class JokesStatisticSnapshot implements Serializable {
+
+    @Id
+    @EqualsAndHashCode.Include
+    @Column(name = "category_name")
+    private String categoryName;
+
+    @Column(name = "jokes_count", nullable = false)
+    private Long jokesCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+}
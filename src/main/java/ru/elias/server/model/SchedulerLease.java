@@ -0,0 +1,46 @@
+package ru.elias.server.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Аренда (lease) запланированной задачи: задачу выполняет только владелец действующей аренды.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "scheduler_leases")
+public class SchedulerLease implements Serializable {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private String name;
+
+    private String owner;
+
+    @Column(name = "acquired_at", nullable = false)
+    private Instant acquiredAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+}
@@ -6,6 +6,7 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 
 import java.io.Serializable;
@@ -24,7 +25,7 @@ import lombok.experimental.Accessors;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = true)
 @Accessors(chain = true)
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_username", columnList = "username"))
 public class User extends AbstractAuditableEntity implements Serializable {
 
     @Id
@@ -0,0 +1,173 @@
+package ru.elias.server.monitoring;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.elias.server.config.properties.SqlLogProperties;
+import ru.elias.server.config.properties.SqlLogProperties.ParameterMode;
+
+/**
+ * Журнал SQL-запросов: поток запроса только решает, писать ли запрос, и кладет событие в ограниченную очередь;
+ * форматирование и запись выполняет отдельный поток. В журнал попадает выборка запросов
+ * ({@code app.monitoring.sql-log.sample-rate}), а также все медленные и неуспешные запросы. Выборка
+ * определяется при создании запроса, и параметры собираются только для запросов из нее, поэтому
+ * медленные и неуспешные запросы вне выборки пишутся без параметров.
+ */
+@Slf4j(topic = "sql")
+@Component
+@ConditionalOnProperty(value = "app.monitoring.sql-log.enabled", havingValue = "true")
+public class AsyncSqlLogger implements JdbcStatementListener {
+
+    private static final int MAX_SQL_LENGTH = 4000;
+
+    private final SqlLogProperties properties;
+
+    private final long slowThresholdNanos;
+
+    private final BlockingQueue<JdbcStatementEvent> queue;
+
+    private final Counter droppedCounter;
+
+    private final Thread writer;
+
+    public AsyncSqlLogger(SqlLogProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.droppedCounter = Counter.builder("sql.log.dropped")
+                                     .description("SQL log records dropped because the queue was full")
+                                     .register(meterRegistry);
+        meterRegistry.gauge("sql.log.queue.size", queue, BlockingQueue::size);
+        this.writer = new Thread(this::drain, "sql-log-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Override
+    public boolean sample() {
+        return ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+    }
+
+    @Override
+    public boolean requiresParameters() {
+        return properties.getParameters() != ParameterMode.NONE;
+    }
+
+    @Override
+    public void afterExecute(JdbcStatementEvent event) {
+        if (event.isSampled() || isSlow(event) || !event.isSuccess()) {
+            if (!queue.offer(event)) {
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    private void drain() {
+        var batch = new ArrayList<JdbcStatementEvent>();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                write(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        queue.drainTo(batch);
+        write(batch);
+    }
+
+    private void write(List<JdbcStatementEvent> batch) {
+        for (JdbcStatementEvent event : batch) {
+            if (!event.isSuccess() || isSlow(event)) {
+                log.warn(format(event));
+            } else {
+                log.info(format(event));
+            }
+        }
+        batch.clear();
+    }
+
+    private boolean isSlow(JdbcStatementEvent event) {
+        return event.getElapsedNanos() >= slowThresholdNanos;
+    }
+
+    String format(JdbcStatementEvent event) {
+        var record = new StringBuilder(128);
+        record.append(String.format(Locale.ROOT, "%.1f ms", event.getElapsedNanos() / 1_000_000.0));
+        if (isSlow(event)) {
+            record.append(", slow");
+        }
+        if (!event.isSuccess()) {
+            record.append(", failed");
+        }
+        if (event.getBatchSize() > 1) {
+            record.append(", batch=").append(event.getBatchSize());
+        }
+        record.append(" | ").append(abbreviate(event.getSql()));
+        if (!event.getParameters().isEmpty()) {
+            record.append(" | ");
+            appendParameters(record, event.getParameters());
+        }
+        return record.toString();
+    }
+
+    private void appendParameters(StringBuilder record, List<Object> parameters) {
+        record.append('[');
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                record.append(", ");
+            }
+            record.append(describe(parameters.get(i)));
+        }
+        record.append(']');
+    }
+
+    private String describe(Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean
+                || properties.getParameters() == ParameterMode.PLAIN) {
+            return String.valueOf(value);
+        }
+        if (value instanceof CharSequence) {
+            return "<String(" + ((CharSequence) value).length() + ")>";
+        }
+        if (value instanceof byte[]) {
+            return "<byte[" + ((byte[]) value).length + "]>";
+        }
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    private static String abbreviate(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        var normalized = sql.replaceAll("\\s+", " ").trim();
+        return normalized.length() <= MAX_SQL_LENGTH
+                ? normalized
+                : normalized.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+
+}
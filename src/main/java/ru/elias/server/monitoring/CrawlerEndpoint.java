@@ -0,0 +1,50 @@
+package ru.elias.server.monitoring;
+
+import java.util.Map;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import ru.elias.server.dto.CrawlerStatus;
+import ru.elias.server.service.JokeCrawlerService;
+
+/**
+ * Управление сборщиком шуток:
+ * <ul>
+ *     <li>{@code GET /actuator/crawler} - состояние сборщика и контрольные точки по категориям;</li>
+ *     <li>{@code POST /actuator/crawler} с телом {@code {"action": "start"}} или {@code {"action": "stop"}} -
+ *     запуск или остановка сбора на всех узлах.</li>
+ * </ul>
+ * Требует аутентификации (см. {@code SecurityConfig}).
+ */
+@Endpoint(id = "crawler")
+@RequiredArgsConstructor
+public class CrawlerEndpoint {
+
+    private static final String START = "start";
+
+    private static final String STOP = "stop";
+
+    private final JokeCrawlerService jokeCrawlerService;
+
+    @ReadOperation
+    public CrawlerStatus status() {
+        return jokeCrawlerService.getStatus();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> control(String action) {
+        if (START.equals(action)) {
+            jokeCrawlerService.start();
+        } else if (STOP.equals(action)) {
+            jokeCrawlerService.stop();
+        } else {
+            return new WebEndpointResponse<>(Map.of("message", "Action must be one of " + START + ", " + STOP),
+                                             WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        return new WebEndpointResponse<>(jokeCrawlerService.getStatus());
+    }
+
+}
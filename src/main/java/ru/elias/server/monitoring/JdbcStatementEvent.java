@@ -0,0 +1,44 @@
+package ru.elias.server.monitoring;
+
+import java.util.List;
+import java.util.Locale;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Выполненный JDBC-запрос. Параметры заполняются, только если запрос попал в выборку хотя бы одного
+ * {@link JdbcStatementListener}, которому они нужны.
+ */
+@Getter
+@RequiredArgsConstructor
+public class JdbcStatementEvent {
+
+    private final String sql;
+
+    private final List<Object> parameters;
+
+    private final int batchSize;
+
+    private final long elapsedNanos;
+
+    private final boolean success;
+
+    /**
+     * Запрос попал в выборку хотя бы одного {@link JdbcStatementListener}.
+     */
+    private final boolean sampled;
+
+    /**
+     * @return Первое ключевое слово запроса в нижнем регистре ({@code select}, {@code insert} и т.д.).
+     */
+    public String getStatementType() {
+        var trimmed = sql == null ? "" : sql.stripLeading();
+        var end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+}
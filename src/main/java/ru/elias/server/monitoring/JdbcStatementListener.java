@@ -0,0 +1,28 @@
+package ru.elias.server.monitoring;
+
+/**
+ * Получает уведомления о каждом JDBC-запросе, выполненном через {@link TimedDataSource}.
+ * Реализации регистрируются как бины и вызываются в потоке, выполнившем запрос.
+ */
+public interface JdbcStatementListener {
+
+    void afterExecute(JdbcStatementEvent event);
+
+    /**
+     * Вызывается при создании запроса, до установки его параметров: решение о выборке принимается до сбора
+     * параметров, который имеет накладные расходы. Решение действует на все выполнения запроса.
+     *
+     * @return Попадает ли запрос в выборку слушателя.
+     */
+    default boolean sample() {
+        return false;
+    }
+
+    /**
+     * @return Нужно ли сохранять значения параметров запросов из выборки слушателя.
+     */
+    default boolean requiresParameters() {
+        return false;
+    }
+
+}
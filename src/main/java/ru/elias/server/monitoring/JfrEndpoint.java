@@ -0,0 +1,87 @@
+package ru.elias.server.monitoring;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import ru.elias.server.config.properties.JfrProperties;
+
+/**
+ * Профилирование без доступа к {@code jcmd}:
+ * <ul>
+ *     <li>{@code POST /actuator/jfr?duration=60s&settings=profile} - запуск записи;</li>
+ *     <li>{@code GET /actuator/jfr} - состояние последней записи и ее сводка после завершения;</li>
+ *     <li>{@code GET /actuator/jfr/{id}} - файл {@code .jfr} завершенной записи.</li>
+ * </ul>
+ * В отличие от остальных endpoint actuator требует аутентификации (см. {@code SecurityConfig}).
+ */
+@Endpoint(id = "jfr")
+@RequiredArgsConstructor
+public class JfrEndpoint {
+
+    private static final String JFR_MEDIA_TYPE = "application/octet-stream";
+
+    private static final int STATUS_CONFLICT = 409;
+
+    private final JfrRecorder jfrRecorder;
+
+    private final JfrProperties properties;
+
+    @WriteOperation
+    public WebEndpointResponse<Object> start(@Nullable Duration duration, @Nullable String settings)
+            throws IOException, ParseException {
+        var recordingDuration = duration == null ? properties.getDefaultDuration() : duration;
+        var recordingSettings = settings == null ? properties.getSettings().get(0) : settings;
+        if (recordingDuration.isNegative() || recordingDuration.isZero()
+                || recordingDuration.compareTo(properties.getMaxDuration()) > 0) {
+            return error("Duration must be positive and not longer than " + properties.getMaxDuration(),
+                         WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (!properties.getSettings().contains(recordingSettings)) {
+            return error("Settings must be one of " + properties.getSettings(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        var session = jfrRecorder.start(recordingDuration, recordingSettings);
+        if (session == null) {
+            return error("Another recording is in progress", STATUS_CONFLICT);
+        }
+        return new WebEndpointResponse<>(session);
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Object> status() throws IOException {
+        var session = jfrRecorder.getCurrent();
+        if (session == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        var result = new LinkedHashMap<String, Object>();
+        result.put("recording", session);
+        if (session.isFinished()) {
+            result.put("summary", session.summarize(properties.getTop()));
+        }
+        return new WebEndpointResponse<>(result);
+    }
+
+    @ReadOperation(produces = JFR_MEDIA_TYPE)
+    public WebEndpointResponse<Resource> download(@Selector long id) {
+        var session = jfrRecorder.getCurrent();
+        if (session == null || session.getId() != id || !session.isFinished()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(session.toResource());
+    }
+
+    private static WebEndpointResponse<Object> error(String message, int status) {
+        return new WebEndpointResponse<>(Map.of("message", message), status);
+    }
+
+}
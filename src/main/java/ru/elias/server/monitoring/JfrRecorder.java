@@ -0,0 +1,73 @@
+package ru.elias.server.monitoring;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.elias.server.config.properties.JfrProperties;
+
+/**
+ * Запуск ограниченных по времени записей Java Flight Recorder. Одновременно выполняется не больше одной записи;
+ * хранится только последняя запись и ее файл; файл предыдущей записи удаляется после завершения его скачиваний.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JfrRecorder {
+
+    private final JfrProperties properties;
+
+    private final AtomicReference<JfrSession> current = new AtomicReference<>();
+
+    /**
+     * @return Запущенная запись или {@code null}, если уже выполняется другая запись.
+     */
+    public JfrSession start(Duration duration, String settings) throws IOException, ParseException {
+        var previous = current.get();
+        if (previous != null && previous.isActive()) {
+            return null;
+        }
+        var recording = new Recording(Configuration.getConfiguration(settings));
+        Files.createDirectories(properties.getDirectory());
+        var file = properties.getDirectory().resolve("recording-" + recording.getId() + ".jfr");
+        recording.setName("chuck-server-" + recording.getId());
+        recording.setToDisk(true);
+        recording.setMaxSize(properties.getMaxSize().toBytes());
+        recording.setDuration(duration);
+        recording.setDestination(file);
+        var session = new JfrSession(recording, settings, file);
+        if (!current.compareAndSet(previous, session)) {
+            recording.close();
+            return null;
+        }
+        try {
+            recording.start();
+        } catch (RuntimeException e) {
+            current.set(previous);
+            recording.close();
+            throw e;
+        }
+        log.info("JFR recording {} started: settings {}, duration {}", recording.getId(), settings, duration);
+        if (previous != null) {
+            previous.close();
+        }
+        return session;
+    }
+
+    public JfrSession getCurrent() {
+        return current.get();
+    }
+
+    public void close() throws IOException {
+        var session = current.getAndSet(null);
+        if (session != null) {
+            session.close();
+        }
+    }
+
+}
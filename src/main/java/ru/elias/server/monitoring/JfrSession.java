@@ -0,0 +1,164 @@
+package ru.elias.server.monitoring;
+
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Запись JFR, запущенная через {@link JfrEndpoint}. Запись останавливается самой JVM по истечении длительности,
+ * файл записывается при остановке; сводка строится один раз при первом обращении.
+ * Файл замененной записи удаляется, когда завершатся все его скачивания.
+ */
+@Getter
+public class JfrSession {
+
+    private final long id;
+
+    private final String settings;
+
+    private final Instant startedAt;
+
+    private final long durationSeconds;
+
+    @Getter(AccessLevel.NONE)
+    private final Recording recording;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final Path file;
+
+    @Getter(AccessLevel.NONE)
+    private final ReentrantLock summaryLock = new ReentrantLock();
+
+    @Getter(AccessLevel.NONE)
+    private final ReentrantLock fileLock = new ReentrantLock();
+
+    @Getter(AccessLevel.NONE)
+    private JfrSummary summary;
+
+    @Getter(AccessLevel.NONE)
+    private int readers;
+
+    @Getter(AccessLevel.NONE)
+    private boolean closed;
+
+    JfrSession(Recording recording, String settings, Path file) {
+        this.id = recording.getId();
+        this.settings = settings;
+        this.startedAt = Instant.now();
+        this.durationSeconds = recording.getDuration().toSeconds();
+        this.recording = recording;
+        this.file = file;
+    }
+
+    public RecordingState getState() {
+        return recording.getState();
+    }
+
+    public boolean isFinished() {
+        var state = recording.getState();
+        return (state == RecordingState.STOPPED || state == RecordingState.CLOSED) && Files.exists(file);
+    }
+
+    boolean isActive() {
+        var state = recording.getState();
+        return state != RecordingState.STOPPED && state != RecordingState.CLOSED;
+    }
+
+    JfrSummary summarize(int top) throws IOException {
+        summaryLock.lock();
+        try {
+            if (summary == null) {
+                summary = JfrSummary.of(file, top);
+            }
+            return summary;
+        } finally {
+            summaryLock.unlock();
+        }
+    }
+
+    /**
+     * Файл записи для скачивания. Пока поток чтения открыт, файл не удаляется, даже если запись заменена.
+     */
+    Resource toResource() {
+        return new FileSystemResource(file) {
+
+            @Override
+            public InputStream getInputStream() throws IOException {
+                retain();
+                try {
+                    return new FilterInputStream(super.getInputStream()) {
+
+                        private boolean released;
+
+                        @Override
+                        public void close() throws IOException {
+                            try {
+                                super.close();
+                            } finally {
+                                if (!released) {
+                                    released = true;
+                                    release();
+                                }
+                            }
+                        }
+
+                    };
+                } catch (IOException | RuntimeException e) {
+                    release();
+                    throw e;
+                }
+            }
+
+        };
+    }
+
+    void close() throws IOException {
+        recording.close();
+        fileLock.lock();
+        try {
+            closed = true;
+            if (readers == 0) {
+                Files.deleteIfExists(file);
+            }
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    private void retain() throws IOException {
+        fileLock.lock();
+        try {
+            if (closed) {
+                throw new FileNotFoundException("Recording " + id + " was replaced by a newer one");
+            }
+            readers++;
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    private void release() throws IOException {
+        fileLock.lock();
+        try {
+            readers--;
+            if (closed && readers == 0) {
+                Files.deleteIfExists(file);
+            }
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+}
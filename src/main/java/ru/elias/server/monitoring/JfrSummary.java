@@ -0,0 +1,135 @@
+package ru.elias.server.monitoring;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Сводка записи JFR: горячие методы по выборкам {@code jdk.ExecutionSample}, места выделения памяти
+ * по событиям {@code jdk.ObjectAllocationInNewTLAB}/{@code jdk.ObjectAllocationOutsideTLAB} (Java 11)
+ * или {@code jdk.ObjectAllocationSample} (Java 16+) и конкуренция
+ * за блокировки по событиям {@code jdk.JavaMonitorEnter} и {@code jdk.ThreadPark}. Ожидание на {@code Condition}
+ * (в том числе простаивающие потоки пулов) конкуренцией не считается.
+ */
+@Getter
+@RequiredArgsConstructor
+public class JfrSummary {
+
+    private static final String UNKNOWN_FRAME = "<unknown>";
+
+    private static final String CONDITION_OBJECT = "$ConditionObject";
+
+    private final long executionSamples;
+
+    /**
+     * Верхний кадр стека и число выборок.
+     */
+    private final List<Site> hotMethods;
+
+    /**
+     * Место выделения и оценка выделенных байт.
+     */
+    private final List<Site> allocationSites;
+
+    /**
+     * Класс блокировки с местом ожидания и суммарное время ожидания в микросекундах.
+     */
+    private final List<Site> lockContention;
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Site {
+
+        private final String name;
+
+        private final long events;
+
+        private final long total;
+
+    }
+
+    static JfrSummary of(Path file, int top) throws IOException {
+        var samples = 0L;
+        var hotMethods = new HashMap<String, long[]>();
+        var allocations = new HashMap<String, long[]>();
+        var locks = new HashMap<String, long[]>();
+        try (var recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                var event = recording.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample":
+                        samples++;
+                        add(hotMethods, topFrame(event, false), 1);
+                        break;
+                    case "jdk.ObjectAllocationInNewTLAB":
+                        add(allocations, topFrame(event, true), event.getLong("tlabSize"));
+                        break;
+                    case "jdk.ObjectAllocationOutsideTLAB":
+                        add(allocations, topFrame(event, true), event.getLong("allocationSize"));
+                        break;
+                    case "jdk.ObjectAllocationSample":
+                        add(allocations, topFrame(event, true), event.getLong("weight"));
+                        break;
+                    case "jdk.JavaMonitorEnter":
+                        addLock(locks, event, "monitorClass");
+                        break;
+                    case "jdk.ThreadPark":
+                        addLock(locks, event, "parkedClass");
+                        break;
+                    default:
+                        // остальные события в сводку не входят
+                }
+            }
+        }
+        return new JfrSummary(samples, top(hotMethods, top), top(allocations, top), top(locks, top));
+    }
+
+    private static void addLock(Map<String, long[]> locks, RecordedEvent event, String classField) {
+        var lockClass = event.getClass(classField);
+        if (lockClass == null || lockClass.getName().endsWith(CONDITION_OBJECT)) {
+            return;
+        }
+        add(locks, lockClass.getName() + " at " + topFrame(event, true), micros(event.getDuration()));
+    }
+
+    private static void add(Map<String, long[]> sites, String name, long value) {
+        var counters = sites.computeIfAbsent(name, key -> new long[2]);
+        counters[0]++;
+        counters[1] += value;
+    }
+
+    private static List<Site> top(Map<String, long[]> sites, int top) {
+        return sites.entrySet()
+                    .stream()
+                    .map(entry -> new Site(entry.getKey(), entry.getValue()[0], entry.getValue()[1]))
+                    .sorted(Comparator.comparingLong(Site::getTotal).reversed())
+                    .limit(top)
+                    .collect(Collectors.toList());
+    }
+
+    private static String topFrame(RecordedEvent event, boolean withLine) {
+        var stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return UNKNOWN_FRAME;
+        }
+        var frame = stackTrace.getFrames().get(0);
+        var method = frame.getMethod().getType().getName() + '.' + frame.getMethod().getName();
+        return withLine && frame.getLineNumber() > 0 ? method + ':' + frame.getLineNumber() : method;
+    }
+
+    private static long micros(Duration duration) {
+        return TimeUnit.NANOSECONDS.toMicros(duration.toNanos());
+    }
+
+}
@@ -0,0 +1,82 @@
+package ru.elias.server.monitoring;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.elias.server.config.properties.MonitoringProperties;
+
+/**
+ * Привязывает {@link RequestTimings} к потоку запроса и после обработки публикует разбивку времени
+ * в метрики {@code request.breakdown} и {@code request.jdbc.statements} с тегом {@code uri},
+ * а при включенном {@code app.monitoring.server-timing-enabled} - в заголовок {@code Server-Timing}.
+ * Трасса запроса передается в {@link TraceRecorder}.
+ */
+@RequiredArgsConstructor
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    private final MonitoringProperties monitoringProperties;
+
+    private final TraceRecorder traceRecorder;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        var trace = traceRecorder.start();
+        var timings = RequestTimings.start(trace);
+        ServerTimingResponseWrapper wrapper = null;
+        if (monitoringProperties.isServerTimingEnabled()) {
+            wrapper = new ServerTimingResponseWrapper(response, timings);
+        }
+        try {
+            filterChain.doFilter(request, wrapper == null ? response : wrapper);
+            if (wrapper != null) {
+                wrapper.writeHeader();
+            }
+        } finally {
+            RequestTimings.clear();
+            var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            var uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+            record(request, uri, timings);
+            if (trace != null) {
+                traceRecorder.finish(trace, request.getMethod() + ' ' + uri, response.getStatus());
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, String uri, RequestTimings timings) {
+        for (TimingCategory category : TimingCategory.values()) {
+            if (timings.getCount(category) > 0) {
+                Timer.builder("request.breakdown")
+                     .description("Time spent by a request in a component")
+                     .tag("uri", uri)
+                     .tag("method", request.getMethod())
+                     .tag("component", category.getMetricName())
+                     .register(meterRegistry)
+                     .record(timings.getNanos(category), TimeUnit.NANOSECONDS);
+            }
+        }
+        DistributionSummary.builder("request.jdbc.statements")
+                           .description("JDBC statements executed by a request")
+                           .tag("uri", uri)
+                           .tag("method", request.getMethod())
+                           .register(meterRegistry)
+                           .record(timings.getCount(TimingCategory.DB));
+    }
+
+}
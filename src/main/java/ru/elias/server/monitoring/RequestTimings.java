@@ -0,0 +1,114 @@
+package ru.elias.server.monitoring;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import lombok.Getter;
+import reactor.core.publisher.Mono;
+
+/**
+ * Учет времени обработки текущего запроса по составляющим. Экземпляр привязывается к потоку запроса
+ * фильтром {@link RequestTimingFilter}; вне запроса измерения не накапливаются. Счетчики потокобезопасны,
+ * так как ответ внешнего сервиса обрабатывается в потоках Reactor. Если запись трасс включена, каждое измерение
+ * добавляется и в {@link RequestTrace} запроса.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private static final int CATEGORIES = TimingCategory.values().length;
+
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicLongArray nanos = new AtomicLongArray(CATEGORIES);
+
+    private final AtomicLongArray counts = new AtomicLongArray(CATEGORIES);
+
+    @Getter
+    private final RequestTrace trace;
+
+    private RequestTimings(RequestTrace trace) {
+        this.trace = trace;
+    }
+
+    static RequestTimings start(RequestTrace trace) {
+        var timings = new RequestTimings(trace);
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Добавляет измерение к текущему запросу, если он есть.
+     */
+    public static void record(TimingCategory category, long elapsedNanos) {
+        var timings = CURRENT.get();
+        if (timings != null) {
+            timings.add(category, elapsedNanos);
+        }
+    }
+
+    /**
+     * Оборачивает {@link Mono} так, что время от подписки до завершения засчитывается запросу,
+     * в потоке которого {@code Mono} был создан.
+     */
+    public static <T> Mono<T> timed(TimingCategory category, Mono<T> mono) {
+        var timings = CURRENT.get();
+        if (timings == null) {
+            return mono;
+        }
+        return Mono.defer(() -> {
+            var started = System.nanoTime();
+            return mono.doFinally(signal -> timings.add(category, System.nanoTime() - started));
+        });
+    }
+
+    public void add(TimingCategory category, long elapsedNanos) {
+        nanos.addAndGet(category.ordinal(), elapsedNanos);
+        counts.incrementAndGet(category.ordinal());
+        if (trace != null) {
+            trace.leaf(category.getMetricName(), elapsedNanos);
+        }
+    }
+
+    public long getNanos(TimingCategory category) {
+        return nanos.get(category.ordinal());
+    }
+
+    public long getCount(TimingCategory category) {
+        return counts.get(category.ordinal());
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * @return Значение заголовка {@code Server-Timing} с длительностями в миллисекундах.
+     */
+    public String toServerTiming() {
+        var header = new StringBuilder();
+        for (TimingCategory category : TimingCategory.values()) {
+            var count = getCount(category);
+            if (count > 0) {
+                header.append(category.getMetricName())
+                      .append(";dur=").append(millis(getNanos(category)))
+                      .append(";desc=\"").append(category.getDescription()).append(" (").append(count).append(")\", ");
+            }
+        }
+        return header.append("total;dur=").append(millis(getElapsedNanos())).toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+}
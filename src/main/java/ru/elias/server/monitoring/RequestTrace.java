@@ -0,0 +1,110 @@
+package ru.elias.server.monitoring;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Трасса одного запроса. Интервалы записываются в массив фиксированного размера без блокировок:
+ * номер ячейки выдается атомарным счетчиком, интервалы сверх емкости отбрасываются. Интервалы вложенных
+ * вызовов открываются в потоке запроса, интервалы {@link TimingCategory} могут приходить из потоков Reactor.
+ */
+public final class RequestTrace {
+
+    @Getter
+    private final Instant startedAt = Instant.now();
+
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicReferenceArray<TraceSpan> spans;
+
+    private final AtomicInteger spanCount = new AtomicInteger();
+
+    private volatile int currentSpan = TraceSpan.NO_PARENT;
+
+    @Getter
+    private String endpoint;
+
+    @Getter
+    private int status;
+
+    @Getter(AccessLevel.PACKAGE)
+    private long durationNanos;
+
+    RequestTrace(int maxSpans) {
+        spans = new AtomicReferenceArray<>(maxSpans);
+    }
+
+    /**
+     * Открывает вложенный интервал в потоке запроса.
+     *
+     * @return Интервал или {@code null}, если трасса заполнена.
+     */
+    TraceSpan enter(String kind, String type, String operation) {
+        var id = spanCount.getAndIncrement();
+        if (id >= spans.length()) {
+            return null;
+        }
+        var span = new TraceSpan(id, currentSpan, kind, type, operation, System.nanoTime() - startNanos);
+        currentSpan = id;
+        return span;
+    }
+
+    void exit(TraceSpan span, boolean error) {
+        span.finish(System.nanoTime() - startNanos - span.getStartNanos(), error);
+        spans.set(span.getId(), span);
+        currentSpan = span.getParentId();
+    }
+
+    /**
+     * Записывает завершившийся интервал, вложенный в открытый в этот момент интервал.
+     */
+    void leaf(String kind, long elapsedNanos) {
+        var id = spanCount.getAndIncrement();
+        if (id >= spans.length()) {
+            return;
+        }
+        var span = new TraceSpan(id, currentSpan, kind, null, kind, System.nanoTime() - startNanos - elapsedNanos);
+        span.finish(elapsedNanos, false);
+        spans.set(id, span);
+    }
+
+    RequestTrace finish(String endpoint, int status) {
+        this.endpoint = endpoint;
+        this.status = status;
+        this.durationNanos = System.nanoTime() - startNanos;
+        return this;
+    }
+
+    public long getDurationMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(durationNanos);
+    }
+
+    public int getDroppedSpans() {
+        return Math.max(0, spanCount.get() - spans.length());
+    }
+
+    /**
+     * @return Записанные интервалы в порядке начала.
+     */
+    public List<TraceSpan> getSpans() {
+        var result = new ArrayList<TraceSpan>();
+        var length = Math.min(spanCount.get(), spans.length());
+        for (var i = 0; i < length; i++) {
+            var span = spans.get(i);
+            if (span != null) {
+                result.add(span);
+            }
+        }
+        result.sort(Comparator.comparingLong(TraceSpan::getStartNanos));
+        return result;
+    }
+
+}
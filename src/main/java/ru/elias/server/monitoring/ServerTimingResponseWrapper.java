@@ -0,0 +1,70 @@
+package ru.elias.server.monitoring;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Добавляет заголовок {@code Server-Timing} непосредственно перед фиксацией ответа: после этого
+ * заголовки изменить уже нельзя. Время, потраченное на запись тела ответа, в заголовок не попадает.
+ */
+class ServerTimingResponseWrapper extends HttpServletResponseWrapper {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private final RequestTimings timings;
+
+    private boolean headerWritten;
+
+    ServerTimingResponseWrapper(HttpServletResponse response, RequestTimings timings) {
+        super(response);
+        this.timings = timings;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        writeHeader();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        writeHeader();
+        return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        writeHeader();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        writeHeader();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        writeHeader();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        writeHeader();
+        super.sendRedirect(location);
+    }
+
+    void writeHeader() {
+        if (!headerWritten && !isCommitted()) {
+            headerWritten = true;
+            setHeader(SERVER_TIMING, timings.toServerTiming());
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package ru.elias.server.monitoring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Самые медленные трассы одной точки входа. Ячейки заменяются через compare-and-set: новая трасса вытесняет
+ * самую быструю из хранимых, если она медленнее. Проверка сводится к чтению нескольких ячеек,
+ * поэтому быстрые запросы почти ничего не стоят.
+ */
+final class SlowestTraces {
+
+    private final AtomicReferenceArray<RequestTrace> slots;
+
+    SlowestTraces(int capacity) {
+        slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    boolean offer(RequestTrace trace) {
+        while (true) {
+            var victim = -1;
+            RequestTrace fastest = null;
+            for (var i = 0; i < slots.length(); i++) {
+                var current = slots.get(i);
+                if (current == null) {
+                    victim = i;
+                    fastest = null;
+                    break;
+                }
+                if (fastest == null || current.getDurationNanos() < fastest.getDurationNanos()) {
+                    victim = i;
+                    fastest = current;
+                }
+            }
+            if (victim < 0 || fastest != null && fastest.getDurationNanos() >= trace.getDurationNanos()) {
+                return false;
+            }
+            if (slots.compareAndSet(victim, fastest, trace)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return Трассы от самой медленной к самой быстрой.
+     */
+    List<RequestTrace> snapshot() {
+        var result = new ArrayList<RequestTrace>(slots.length());
+        for (var i = 0; i < slots.length(); i++) {
+            var trace = slots.get(i);
+            if (trace != null) {
+                result.add(trace);
+            }
+        }
+        result.sort(Comparator.comparingLong(RequestTrace::getDurationNanos).reversed());
+        return result;
+    }
+
+}
@@ -0,0 +1,214 @@
+package ru.elias.server.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Ограничивает число различных значений тегов с неограниченным набором значений (например, названий категорий).
+ * Для каждой пары метрика - тег допускаются {@code maxValues} самых частых значений, остальные заменяются
+ * на {@value #OTHER}, поэтому число временных рядов в Prometheus не растет вместе с числом категорий.
+ * <p>
+ * Фильтр вызывается при каждом получении метрики из реестра и считает обращения к значениям. Пока есть свободные
+ * места, новое значение допускается сразу; раз в {@code rerankInterval} допущенными становятся самые частые
+ * значения, метрики с вытесненными значениями удаляются из реестров, а счетчики уменьшаются вдвое, чтобы рейтинг
+ * следовал за текущей нагрузкой. Проверка допуска не блокирует потоки и не создает объектов, пока значение
+ * не заменяется на {@value #OTHER}.
+ */
+public class TagCardinalityGuard implements MeterFilter, MeterBinder {
+
+    public static final String OTHER = "other";
+
+    /**
+     * Во сколько раз число отслеживаемых значений превышает число допускаемых.
+     */
+    private static final int TRACKED_VALUES_FACTOR = 4;
+
+    private final int maxValues;
+
+    private final Set<String> tagKeys;
+
+    private final Map<String, Map<String, TagValues>> meters = new ConcurrentHashMap<>();
+
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+    public TagCardinalityGuard(int maxValues, Collection<String> tagKeys) {
+        this.maxValues = maxValues;
+        this.tagKeys = Set.copyOf(tagKeys);
+    }
+
+    /**
+     * Запоминает реестр, из которого удаляются метрики с вытесненными значениями.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+    }
+
+    @Override
+    public Meter.Id map(Meter.Id id) {
+        List<Tag> mapped = null;
+        var index = 0;
+        for (var tag : id.getTagsAsIterable()) {
+            var folded = tagKeys.contains(tag.getKey()) && !admit(id.getName(), tag);
+            if (folded && mapped == null) {
+                mapped = new ArrayList<>(id.getTags().subList(0, index));
+            }
+            if (mapped != null) {
+                mapped.add(folded ? Tag.of(tag.getKey(), OTHER) : tag);
+            }
+            index++;
+        }
+        return mapped == null ? id : id.replaceTags(mapped);
+    }
+
+    /**
+     * Пересчитывает самые частые значения и удаляет из реестров метрики с остальными значениями. Метрика,
+     * созданная одновременно с пересчетом под уже вытесненным значением, удаляется следующим пересчетом.
+     */
+    @Scheduled(fixedDelayString = "${app.monitoring.tag-cardinality.rerank-interval:1m}")
+    public void rerank() {
+        meters.forEach((meterName, tags) -> tags.forEach((tagKey, values) -> {
+            var admitted = values.rerank(maxValues, maxValues * TRACKED_VALUES_FACTOR);
+            for (var registry : registries) {
+                registry.find(meterName)
+                        .meters()
+                        .stream()
+                        .filter(meter -> isDemoted(meter.getId().getTag(tagKey), admitted))
+                        .forEach(registry::remove);
+            }
+        }));
+    }
+
+    private boolean admit(String meterName, Tag tag) {
+        var values = getValues(meterName, tag.getKey());
+        var value = tag.getValue();
+        values.count(value, maxValues * TRACKED_VALUES_FACTOR);
+        return values.admission.admit(value, maxValues);
+    }
+
+    /**
+     * Сначала ищет без {@code computeIfAbsent}: он может блокировать корзину таблицы и на существующем ключе.
+     */
+    private TagValues getValues(String meterName, String tagKey) {
+        var tags = meters.get(meterName);
+        if (tags == null) {
+            tags = meters.computeIfAbsent(meterName, name -> new ConcurrentHashMap<>());
+        }
+        var values = tags.get(tagKey);
+        if (values == null) {
+            values = tags.computeIfAbsent(tagKey, key -> new TagValues());
+        }
+        return values;
+    }
+
+    private static boolean isDemoted(String value, Set<String> admitted) {
+        return value != null && !OTHER.equals(value) && !admitted.contains(value);
+    }
+
+    private static final class TagValues {
+
+        private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+        private final AtomicInteger trackedCount = new AtomicInteger();
+
+        private volatile Admission admission = new Admission(ConcurrentHashMap.newKeySet());
+
+        /**
+         * Новые значения сверх {@code maxTracked} не считаются до следующего пересчета рейтинга.
+         */
+        private void count(String value, int maxTracked) {
+            var counter = counts.get(value);
+            if (counter == null) {
+                if (trackedCount.get() >= maxTracked) {
+                    return;
+                }
+                var created = new LongAdder();
+                counter = counts.putIfAbsent(value, created);
+                if (counter == null) {
+                    trackedCount.incrementAndGet();
+                    counter = created;
+                }
+            }
+            counter.increment();
+        }
+
+        /**
+         * Выполняется одним потоком планировщика.
+         *
+         * @return Допущенные значения. Множество продолжает пополняться свободными местами до следующего пересчета.
+         */
+        private Set<String> rerank(int maxValues, int maxTracked) {
+            var ranked = counts.entrySet()
+                               .stream()
+                               .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                               .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                               .collect(Collectors.toList());
+            Set<String> top = ConcurrentHashMap.newKeySet();
+            for (var i = 0; i < ranked.size(); i++) {
+                var entry = ranked.get(i);
+                if (i < maxValues) {
+                    top.add(entry.getKey());
+                }
+                var counter = counts.get(entry.getKey());
+                if (i >= maxTracked / 2 || entry.getValue() <= 1) {
+                    counts.remove(entry.getKey());
+                } else if (counter != null) {
+                    counter.add(-entry.getValue() / 2);
+                }
+            }
+            trackedCount.set(counts.size());
+            admission = new Admission(top);
+            return top;
+        }
+
+    }
+
+    /**
+     * Допущенные значения и число занятых мест меняются вместе: пересчет заменяет объект целиком, и место
+     * всегда занимается в том же множестве, куда добавляется значение.
+     */
+    private static final class Admission {
+
+        private final Set<String> values;
+
+        private final AtomicInteger size;
+
+        private Admission(Set<String> values) {
+            this.values = values;
+            this.size = new AtomicInteger(values.size());
+        }
+
+        private boolean admit(String value, int maxValues) {
+            if (values.contains(value)) {
+                return true;
+            }
+            for (var current = size.get(); current < maxValues; current = size.get()) {
+                if (size.compareAndSet(current, current + 1)) {
+                    if (!values.add(value)) {
+                        size.decrementAndGet();
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+}
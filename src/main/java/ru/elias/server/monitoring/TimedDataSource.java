@@ -0,0 +1,198 @@
+package ru.elias.server.monitoring;
+
+import javax.sql.DataSource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Обертка над пулом соединений: измеряет ожидание соединения и время выполнения каждого запроса,
+ * засчитывает их текущему запросу ({@link RequestTimings}) и передает события {@link JdbcStatementListener}.
+ */
+public class TimedDataSource extends DelegatingDataSource {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    private final Supplier<List<JdbcStatementListener>> listeners;
+
+    public TimedDataSource(DataSource target, Supplier<List<JdbcStatementListener>> listeners) {
+        super(target);
+        this.listeners = listeners;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        var started = System.nanoTime();
+        var connection = super.getConnection();
+        RequestTimings.record(TimingCategory.DB_CONNECTION, System.nanoTime() - started);
+        return wrap(connection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        var started = System.nanoTime();
+        var connection = super.getConnection(username, password);
+        RequestTimings.record(TimingCategory.DB_CONNECTION, System.nanoTime() - started);
+        return wrap(connection);
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                   new Class<?>[] {Connection.class},
+                                                   new ConnectionHandler(connection));
+    }
+
+    private void dispatch(String sql,
+                          List<Object> parameters,
+                          int batchSize,
+                          long elapsedNanos,
+                          boolean success,
+                          boolean sampled) {
+        RequestTimings.record(TimingCategory.DB, elapsedNanos);
+        var current = listeners.get();
+        if (current.isEmpty()) {
+            return;
+        }
+        var event = new JdbcStatementEvent(sql, parameters, batchSize, elapsedNanos, success, sampled);
+        for (JdbcStatementListener listener : current) {
+            listener.afterExecute(event);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            var result = TimedDataSource.invoke(target, method, args);
+            if (!STATEMENT_FACTORIES.contains(method.getName())) {
+                return result;
+            }
+            var sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            var type = method.getReturnType();
+            var sampled = false;
+            var capture = false;
+            for (JdbcStatementListener listener : listeners.get()) {
+                if (listener.sample()) {
+                    sampled = true;
+                    capture |= listener.requiresParameters();
+                }
+            }
+            capture &= PreparedStatement.class.isAssignableFrom(type);
+            return Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(),
+                                          new Class<?>[] {type},
+                                          new StatementHandler((Statement) result, sql, sampled, capture));
+        }
+
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+
+        private final String preparedSql;
+
+        private final boolean sampled;
+
+        private final TreeMap<Integer, Object> parameters;
+
+        private final List<String> batch = new ArrayList<>();
+
+        private int batchSize;
+
+        private StatementHandler(Statement target, String preparedSql, boolean sampled, boolean captureParameters) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.sampled = sampled;
+            this.parameters = captureParameters ? new TreeMap<>() : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            var name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if ("addBatch".equals(name)) {
+                batchSize++;
+                if (args != null && args.length == 1) {
+                    batch.add((String) args[0]);
+                }
+            } else if ("clearBatch".equals(name)) {
+                batchSize = 0;
+                batch.clear();
+            } else if (parameters != null) {
+                captureParameter(method, name, args);
+            }
+            return TimedDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            var sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            var batched = "executeBatch".equals(method.getName()) || "executeLargeBatch".equals(method.getName());
+            if (batched && preparedSql == null) {
+                sql = String.join(";\n", batch);
+            }
+            List<Object> parameterValues = parameters == null
+                    ? Collections.emptyList()
+                    : Collections.unmodifiableList(new ArrayList<>(parameters.values()));
+            var success = false;
+            var started = System.nanoTime();
+            try {
+                var result = TimedDataSource.invoke(target, method, args);
+                success = true;
+                return result;
+            } finally {
+                dispatch(sql,
+                         parameterValues,
+                         batched ? batchSize : 1,
+                         System.nanoTime() - started,
+                         success,
+                         sampled);
+                if (batched) {
+                    batchSize = 0;
+                    batch.clear();
+                }
+            }
+        }
+
+        private void captureParameter(Method method, String name, Object[] args) {
+            if ("clearParameters".equals(name)) {
+                parameters.clear();
+            } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer
+                    && method.getParameterTypes()[0] == int.class) {
+                parameters.put((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,44 @@
+package ru.elias.server.monitoring;
+
+import javax.sql.DataSource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Оборачивает все {@link DataSource} приложения в {@link TimedDataSource}. Слушатели запросов
+ * получаются при первом запросе, чтобы не создавать их раньше источника данных.
+ */
+@Component
+public class TimedDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<JdbcStatementListener> listenerProvider;
+
+    private volatile List<JdbcStatementListener> listeners;
+
+    public TimedDataSourcePostProcessor(ObjectProvider<JdbcStatementListener> listenerProvider) {
+        this.listenerProvider = listenerProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof TimedDataSource)) {
+            return new TimedDataSource((DataSource) bean, this::getListeners);
+        }
+        return bean;
+    }
+
+    private List<JdbcStatementListener> getListeners() {
+        var current = listeners;
+        if (current == null) {
+            current = listenerProvider.orderedStream().collect(Collectors.toUnmodifiableList());
+            listeners = current;
+        }
+        return current;
+    }
+
+}
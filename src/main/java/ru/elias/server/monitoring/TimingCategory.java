@@ -0,0 +1,28 @@
+package ru.elias.server.monitoring;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Составляющие времени обработки запроса. Имя используется в заголовке {@code Server-Timing}
+ * и в теге {@code component} метрики {@code request.breakdown}.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TimingCategory {
+
+    DB("db", "JDBC statements"),
+
+    DB_CONNECTION("db-conn", "Connection acquire"),
+
+    UPSTREAM("upstream", "Upstream API"),
+
+    REPORT_FILL("report-fill", "Report fill"),
+
+    REPORT_EXPORT("report-export", "Report export");
+
+    private final String metricName;
+
+    private final String description;
+
+}
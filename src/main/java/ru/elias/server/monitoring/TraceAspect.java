@@ -0,0 +1,85 @@
+package ru.elias.server.monitoring;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Записывает вызовы контроллеров, сервисов и репозиториев приложения в трассу текущего запроса.
+ * Вне запроса (планировщик, прогрев) и в запросе, не попавшем в выборку {@code app.monitoring.traces.sample-rate},
+ * трассы нет, и вызов выполняется без измерений.
+ * Аспект выполняется первым, поэтому интервал сервиса включает открытие и фиксацию транзакции.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(value = "app.monitoring.traces.enabled", havingValue = "true", matchIfMissing = true)
+public class TraceAspect {
+
+    private final Map<Class<?>, String> typeNames = new ConcurrentHashMap<>();
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController) && within(ru.elias.server..*)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "controller");
+    }
+
+    @Around("@within(org.springframework.stereotype.Service) && within(ru.elias.server..*)")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "service");
+    }
+
+    @Around("(@within(org.springframework.stereotype.Repository) && within(ru.elias.server..*)) "
+            + "|| this(org.springframework.data.repository.Repository)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "repository");
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String kind) throws Throwable {
+        var timings = RequestTimings.current();
+        var trace = timings == null ? null : timings.getTrace();
+        if (trace == null) {
+            return joinPoint.proceed();
+        }
+        var span = trace.enter(kind, getTypeName(joinPoint.getTarget()), joinPoint.getSignature().getName());
+        if (span == null) {
+            return joinPoint.proceed();
+        }
+        var error = true;
+        try {
+            var result = joinPoint.proceed();
+            error = false;
+            return result;
+        } finally {
+            trace.exit(span, error);
+        }
+    }
+
+    private String getTypeName(Object target) {
+        return typeNames.computeIfAbsent(target.getClass(), TraceAspect::resolveTypeName);
+    }
+
+    /**
+     * Для репозиториев Spring Data целевой объект - динамический прокси, поэтому берется имя интерфейса репозитория.
+     */
+    private static String resolveTypeName(Class<?> type) {
+        if (Proxy.isProxyClass(type)) {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (Repository.class.isAssignableFrom(candidate)) {
+                    return candidate.getSimpleName();
+                }
+            }
+        }
+        return ClassUtils.getUserClass(type).getSimpleName();
+    }
+
+}
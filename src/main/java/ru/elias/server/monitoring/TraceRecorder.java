@@ -0,0 +1,57 @@
+package ru.elias.server.monitoring;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.RequiredArgsConstructor;
+import ru.elias.server.config.properties.TraceProperties;
+
+/**
+ * Хранит самые медленные трассы запросов для каждой точки входа. Трасса начинается фильтром
+ * {@link RequestTimingFilter} и заполняется {@link TraceAspect} и измерениями {@link RequestTimings}.
+ */
+@RequiredArgsConstructor
+public class TraceRecorder {
+
+    private final TraceProperties properties;
+
+    private final Map<String, SlowestTraces> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * @return Новая трасса или {@code null}, если запись трасс выключена или запрос не попал в выборку.
+     */
+    RequestTrace start() {
+        if (!properties.isEnabled() || ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) {
+            return null;
+        }
+        return new RequestTrace(properties.getMaxSpans());
+    }
+
+    void finish(RequestTrace trace, String endpoint, int status) {
+        var slowest = endpoints.get(endpoint);
+        if (slowest == null) {
+            if (endpoints.size() >= properties.getMaxEndpoints()) {
+                return;
+            }
+            slowest = endpoints.computeIfAbsent(endpoint, key -> new SlowestTraces(properties.getSlowestPerEndpoint()));
+        }
+        slowest.offer(trace.finish(endpoint, status));
+    }
+
+    /**
+     * @return Самые медленные трассы по точкам входа; внутри точки входа - от самой медленной.
+     */
+    public Map<String, List<RequestTrace>> getSlowestTraces() {
+        var result = new TreeMap<String, List<RequestTrace>>();
+        endpoints.forEach((endpoint, traces) -> result.put(endpoint, traces.snapshot()));
+        return result;
+    }
+
+    public void clear() {
+        endpoints.clear();
+    }
+
+}
@@ -0,0 +1,63 @@
+package ru.elias.server.monitoring;
+
+import java.util.concurrent.TimeUnit;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Интервал трассы запроса: вызов контроллера, сервиса или репозитория либо измерение {@link TimingCategory}.
+ * Время начала отсчитывается от начала запроса.
+ */
+@Getter
+public final class TraceSpan {
+
+    static final int NO_PARENT = -1;
+
+    private final int id;
+
+    private final int parentId;
+
+    private final String kind;
+
+    @Getter(AccessLevel.NONE)
+    private final String type;
+
+    @Getter(AccessLevel.NONE)
+    private final String operation;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final long startNanos;
+
+    @Getter(AccessLevel.PACKAGE)
+    private long durationNanos;
+
+    private boolean error;
+
+    TraceSpan(int id, int parentId, String kind, String type, String operation, long startNanos) {
+        this.id = id;
+        this.parentId = parentId;
+        this.kind = kind;
+        this.type = type;
+        this.operation = operation;
+        this.startNanos = startNanos;
+    }
+
+    void finish(long durationNanos, boolean error) {
+        this.durationNanos = durationNanos;
+        this.error = error;
+    }
+
+    public String getName() {
+        return type == null ? operation : type + '.' + operation;
+    }
+
+    public long getStartMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(startNanos);
+    }
+
+    public long getDurationMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(durationNanos);
+    }
+
+}
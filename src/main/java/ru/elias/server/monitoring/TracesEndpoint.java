@@ -0,0 +1,31 @@
+package ru.elias.server.monitoring;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * {@code GET /actuator/traces} - самые медленные трассы по точкам входа с вложенными интервалами,
+ * {@code DELETE /actuator/traces} - очистка накопленных трасс.
+ */
+@Endpoint(id = "traces")
+@RequiredArgsConstructor
+public class TracesEndpoint {
+
+    private final TraceRecorder traceRecorder;
+
+    @ReadOperation
+    public Map<String, List<RequestTrace>> traces() {
+        return traceRecorder.getSlowestTraces();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        traceRecorder.clear();
+    }
+
+}
@@ -0,0 +1,136 @@
+package ru.elias.server.ratelimit;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import ru.elias.server.config.properties.RateLimitProperties;
+import ru.elias.server.exception.ErrorType;
+import ru.elias.server.exception.RateLimitExceededException;
+import ru.elias.server.service.MessageSourceHelper;
+
+/**
+ * Ограничение частоты запросов к дорогим операциям для каждого клиента (subject JWT).
+ * Корзины клиентов хранятся в ограниченном по размеру кэше и удаляются после простоя, за который
+ * корзина полностью восполняется, - такая корзина неотличима от новой. Отказы публикуются метрикой
+ * {@code rate.limit.rejections} с тегом {@code endpoint}.
+ */
+@Component
+public class ClientRateLimiter {
+
+    static final String ANONYMOUS = "anonymous";
+
+    private static final long NANOS_PER_SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final Map<RateLimitedEndpoint, EndpointLimiter> limiters = new EnumMap<>(RateLimitedEndpoint.class);
+
+    private final MessageSourceHelper messageSourceHelper;
+
+    private final Ticker ticker;
+
+    @Autowired
+    public ClientRateLimiter(RateLimitProperties properties,
+                             MessageSourceHelper messageSourceHelper,
+                             MeterRegistry meterRegistry) {
+        this(properties, messageSourceHelper, meterRegistry, Ticker.systemTicker());
+    }
+
+    ClientRateLimiter(RateLimitProperties properties,
+                      MessageSourceHelper messageSourceHelper,
+                      MeterRegistry meterRegistry,
+                      Ticker ticker) {
+        this.messageSourceHelper = messageSourceHelper;
+        this.ticker = ticker;
+        if (properties.isEnabled()) {
+            properties.getEndpoints().forEach((endpoint, limit) -> limiters.put(
+                    endpoint,
+                    new EndpointLimiter(endpoint, limit, properties.getMaxClients(), ticker, meterRegistry)
+            ));
+        }
+    }
+
+    /**
+     * Расходует маркер текущего клиента для указанной операции.
+     *
+     * @param endpoint
+     *         Операция.
+     *
+     * @throws RateLimitExceededException
+     *         Если маркеров не осталось.
+     */
+    public void acquire(RateLimitedEndpoint endpoint) {
+        var limiter = limiters.get(endpoint);
+        if (limiter == null) {
+            return;
+        }
+        var wait = limiter.tryAcquire(getCurrentClient(), ticker.read());
+        if (wait > 0) {
+            limiter.rejections.increment();
+            var retryAfterSeconds = (wait + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+            throw new RateLimitExceededException(
+                    messageSourceHelper.getMessage(ErrorType.RATE_LIMIT_EXCEEDED,
+                                                   endpoint.getMetricName(),
+                                                   retryAfterSeconds),
+                    retryAfterSeconds
+            );
+        }
+    }
+
+    private static String getCurrentClient() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getName() == null) {
+            return ANONYMOUS;
+        }
+        return authentication.getName();
+    }
+
+    private static final class EndpointLimiter {
+
+        private final long emissionInterval;
+
+        private final int capacity;
+
+        private final Cache<String, TokenBucket> buckets;
+
+        private final Counter rejections;
+
+        private EndpointLimiter(RateLimitedEndpoint endpoint,
+                                RateLimitProperties.Limit limit,
+                                long maxClients,
+                                Ticker ticker,
+                                MeterRegistry meterRegistry) {
+            this.capacity = limit.getCapacity();
+            // емкость и период проверяются при запуске, интервал не меньше наносекунды и при большой емкости
+            this.emissionInterval = Math.max(1, limit.getPeriod().toNanos() / capacity);
+            this.buckets = Caffeine.newBuilder()
+                                   .maximumSize(maxClients)
+                                   .expireAfterAccess(Duration.ofNanos(emissionInterval * capacity))
+                                   .ticker(ticker)
+                                   .build();
+            this.rejections = Counter.builder("rate.limit.rejections")
+                                     .description("Requests rejected by the per-client rate limit")
+                                     .tag("endpoint", endpoint.getMetricName())
+                                     .register(meterRegistry);
+            Gauge.builder("rate.limit.clients", buckets, Cache::estimatedSize)
+                 .description("Clients with a partially drained rate limit bucket")
+                 .tag("endpoint", endpoint.getMetricName())
+                 .register(meterRegistry);
+        }
+
+        private long tryAcquire(String client, long now) {
+            return buckets.get(client, key -> new TokenBucket(now))
+                          .tryAcquire(now, emissionInterval, capacity);
+        }
+
+    }
+
+}
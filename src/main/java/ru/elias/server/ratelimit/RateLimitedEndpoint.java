@@ -0,0 +1,33 @@
+package ru.elias.server.ratelimit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Дорогие операции, для которых действует ограничение частоты запросов каждого клиента.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RateLimitedEndpoint {
+
+    /**
+     * Создание шутки в автоматическом режиме (запрос к api.chucknorris.io).
+     */
+    JOKES_AUTO_CREATE("jokes-auto-create"),
+
+    /**
+     * Создание категорий в автоматическом режиме (запрос к api.chucknorris.io).
+     */
+    CATEGORIES_AUTO_CREATE("categories-auto-create"),
+
+    /**
+     * Формирование отчетов JasperReports.
+     */
+    REPORTS("reports");
+
+    /**
+     * Значение тега {@code endpoint} в метриках и ключ в {@code app.rate-limit.endpoints}.
+     */
+    private final String metricName;
+
+}
@@ -0,0 +1,222 @@
+package ru.elias.server.ratelimit;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import ru.elias.server.config.properties.ReportConcurrencyProperties;
+import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.ErrorType;
+import ru.elias.server.service.MessageSourceHelper;
+
+/**
+ * Адаптивный лимит одновременно формируемых отчетов (AIMD). Каждый отчет держит в памяти {@code JasperPrint},
+ * поэтому отчет занимает число разрешений, пропорциональное числу строк. Пока отчеты формируются быстрее
+ * {@code latency-threshold}, лимит растет примерно на одно разрешение за каждый полностью использованный лимит;
+ * медленное формирование или {@link Error} (например, {@link OutOfMemoryError}) уменьшают лимит
+ * в {@code backoff-ratio} раз. Время передачи отчета клиенту не учитывается: медленный клиент не перегружает сервер.
+ * <p>
+ * Запросы сверх лимита ждут в ограниченной очереди по порядку поступления, затем отклоняются со статусом 503.
+ * Пока очередь не пуста, новые запросы встают в нее, даже если свободных разрешений им хватает: иначе поток
+ * небольших отчетов не дал бы дождаться разрешений большому.
+ * Используется {@link ReentrantLock}, а не {@code synchronized}: ожидание не закрепляет виртуальный поток за носителем.
+ */
+@Component
+public class ReportConcurrencyLimiter {
+
+    private final ReportConcurrencyProperties properties;
+
+    private final MessageSourceHelper messageSourceHelper;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition released = lock.newCondition();
+
+    /**
+     * Ожидающие разрешений запросы в порядке поступления.
+     */
+    private final Deque<Object> waiters = new ArrayDeque<>();
+
+    private final Counter rejections;
+
+    private final Timer latency;
+
+    private double limit;
+
+    private int inFlight;
+
+    public ReportConcurrencyLimiter(ReportConcurrencyProperties properties,
+                                    MessageSourceHelper messageSourceHelper,
+                                    MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.messageSourceHelper = messageSourceHelper;
+        this.limit = properties.getInitialLimit();
+        this.rejections = Counter.builder("report.concurrency.rejections")
+                                 .description("Report requests rejected by the adaptive concurrency limit")
+                                 .register(meterRegistry);
+        this.latency = Timer.builder("report.concurrency.latency")
+                            .description("Report data loading and fill time under the adaptive concurrency limit")
+                            .register(meterRegistry);
+        Gauge.builder("report.concurrency.limit", this, ReportConcurrencyLimiter::getLimit)
+             .description("Current adaptive limit of concurrent report permits")
+             .register(meterRegistry);
+        Gauge.builder("report.concurrency.in-flight", this, ReportConcurrencyLimiter::getInFlight)
+             .description("Report permits currently held")
+             .register(meterRegistry);
+        Gauge.builder("report.concurrency.queued", this, ReportConcurrencyLimiter::getQueued)
+             .description("Report requests waiting for permits")
+             .register(meterRegistry);
+    }
+
+    /**
+     * Выполняет формирование отчета в пределах лимита.
+     *
+     * @param estimatedRows
+     *         Оценка числа строк отчета.
+     * @param task
+     *         Формирование отчета. Возвращает время работы сервера в наносекундах (загрузка данных и заполнение
+     *         отчета) без передачи отчета клиенту; по нему изменяется лимит.
+     *
+     * @throws BusinessException
+     *         {@link ErrorType#REPORT_OVERLOADED}, если разрешения не освободились за {@code queue-timeout}
+     *         или очередь заполнена.
+     */
+    public void execute(long estimatedRows, LongSupplier task) {
+        var permits = acquire(1 + estimatedRows / properties.getRowsPerPermit());
+        long elapsed;
+        try {
+            elapsed = task.getAsLong();
+        } catch (Error e) {
+            release(permits, Outcome.OVERLOADED);
+            throw e;
+        } catch (RuntimeException e) {
+            release(permits, Outcome.FAILED);
+            throw e;
+        }
+        latency.record(elapsed, TimeUnit.NANOSECONDS);
+        release(permits, elapsed > properties.getLatencyThreshold().toNanos()
+                ? Outcome.OVERLOADED
+                : Outcome.SUCCEEDED);
+    }
+
+    public double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int acquire(long cost) {
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && inFlight + permitsFor(cost) <= limit) {
+                return take(cost);
+            }
+            if (waiters.size() >= properties.getMaxQueued()) {
+                throw reject();
+            }
+            var waiter = new Object();
+            waiters.addLast(waiter);
+            try {
+                var remaining = properties.getQueueTimeout().toNanos();
+                while (waiters.peekFirst() != waiter || inFlight + permitsFor(cost) > limit) {
+                    if (remaining <= 0) {
+                        throw reject();
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject();
+            } finally {
+                waiters.remove(waiter);
+                // следующему в очереди может хватить оставшихся разрешений
+                released.signalAll();
+            }
+            return take(cost);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Отчет, оцененный дороже текущего лимита, занимает весь лимит: он выполняется один, но не отклоняется навсегда.
+     */
+    private int permitsFor(long cost) {
+        return (int) Math.min(cost, Math.max(1, (long) limit));
+    }
+
+    private int take(long cost) {
+        var permits = permitsFor(cost);
+        inFlight += permits;
+        return permits;
+    }
+
+    private void release(int permits, Outcome outcome) {
+        lock.lock();
+        try {
+            switch (outcome) {
+                case SUCCEEDED:
+                    // лимит растет, только если он действительно использовался
+                    if (!waiters.isEmpty() || inFlight * 2 >= limit) {
+                        limit = Math.min(properties.getMaxLimit(), limit + permits / limit);
+                    }
+                    break;
+                case OVERLOADED:
+                    limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+                    break;
+                default:
+                    // ошибка не связана с нагрузкой, лимит не меняется
+            }
+            inFlight -= permits;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private BusinessException reject() {
+        rejections.increment();
+        var errorType = ErrorType.REPORT_OVERLOADED;
+        return new BusinessException(errorType, messageSourceHelper.getMessage(errorType));
+    }
+
+    private enum Outcome {
+
+        SUCCEEDED,
+
+        OVERLOADED,
+
+        FAILED
+
+    }
+
+}
@@ -0,0 +1,43 @@
+package ru.elias.server.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина маркеров одного клиента в виде GCRA: все состояние - теоретическое время прихода следующего запроса (TAT).
+ * Запрос допускается, если TAT опережает текущее время не больше чем на емкость корзины; TAT сдвигается
+ * через compareAndSet, поэтому конкурирующие запросы одного клиента не блокируют друг друга.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long now) {
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * @param now
+     *         Текущее время, нс.
+     * @param emissionInterval
+     *         Время восполнения одного маркера, нс.
+     * @param capacity
+     *         Емкость корзины в маркерах.
+     *
+     * @return 0, если маркер получен, иначе время до появления маркера, нс.
+     */
+    long tryAcquire(long now, long emissionInterval, int capacity) {
+        var burstTolerance = emissionInterval * capacity;
+        while (true) {
+            var current = theoreticalArrival.get();
+            var next = Math.max(current, now) + emissionInterval;
+            var wait = next - now - burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+package ru.elias.server.repository;
+
+import java.util.List;
+
+import ru.elias.server.model.Joke;
+
+/**
+ * Пакетная вставка через JDBC. Hibernate не группирует INSERT для сущностей с IDENTITY-ключом,
+ * поэтому массовое создание выполняется в обход EntityManager.
+ */
+public interface BatchInsertRepository {
+
+    void insertCategories(List<String> names);
+
+    /**
+     * Вставляет шутки и заполняет их идентификаторы сгенерированными ключами.
+     */
+    void insertJokes(List<Joke> jokes);
+
+}
@@ -1,5 +1,7 @@
 package ru.elias.server.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,4 +11,6 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     Optional<Category> findCategoryByName(String name);
 
+    List<Category> findAllByNameIn(Collection<String> names);
+
 }
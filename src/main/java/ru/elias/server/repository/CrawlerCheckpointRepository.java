@@ -0,0 +1,8 @@
+package ru.elias.server.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.elias.server.model.CrawlerCheckpoint;
+
+public interface CrawlerCheckpointRepository extends JpaRepository<CrawlerCheckpoint, String> {
+
+}
@@ -0,0 +1,8 @@
+package ru.elias.server.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.elias.server.model.CrawlerControl;
+
+public interface CrawlerControlRepository extends JpaRepository<CrawlerControl, String> {
+
+}
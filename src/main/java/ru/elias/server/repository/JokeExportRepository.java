@@ -0,0 +1,27 @@
+package ru.elias.server.repository;
+
+import java.io.IOException;
+
+/**
+ * Чтение всех шуток однонаправленным курсором без загрузки выборки в память.
+ */
+public interface JokeExportRepository {
+
+    /**
+     * Передает шутки в обработчик в порядке идентификаторов.
+     *
+     * @param categoryName
+     *         Название категории или {@code null} для всех категорий.
+     * @param handler
+     *         Обработчик строк.
+     */
+    void streamJokes(String categoryName, RowHandler handler) throws IOException;
+
+    @FunctionalInterface
+    interface RowHandler {
+
+        void accept(String joke, String category) throws IOException;
+
+    }
+
+}
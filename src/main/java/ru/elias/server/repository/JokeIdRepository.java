@@ -0,0 +1,15 @@
+package ru.elias.server.repository;
+
+public interface JokeIdRepository {
+
+    /**
+     * @return Идентификаторы всех шуток по возрастанию.
+     */
+    long[] findAllIds();
+
+    /**
+     * @return Идентификаторы шуток категории по возрастанию.
+     */
+    long[] findIdsByCategoryId(Long categoryId);
+
+}
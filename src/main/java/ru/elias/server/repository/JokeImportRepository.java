@@ -0,0 +1,32 @@
+package ru.elias.server.repository;
+
+import java.io.IOException;
+
+import ru.elias.server.model.Joke;
+
+/**
+ * Потоковая загрузка шуток с подавлением дубликатов по тексту шутки.
+ */
+public interface JokeImportRepository {
+
+    /**
+     * Загружает все строки источника в текущей транзакции.
+     *
+     * @param source
+     *         Источник строк. У каждой шутки должна быть заполнена категория с идентификатором.
+     *
+     * @return Количество добавленных шуток.
+     */
+    long importJokes(RowSource source) throws IOException;
+
+    @FunctionalInterface
+    interface RowSource {
+
+        /**
+         * @return Следующая шутка или {@code null}, если строки закончились.
+         */
+        Joke next() throws IOException;
+
+    }
+
+}
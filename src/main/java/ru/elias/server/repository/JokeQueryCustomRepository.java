@@ -12,6 +12,11 @@ public interface JokeQueryCustomRepository {
     @Timed("gettingJokesByPredicateDataLayerGauge")
     List<Joke> findJokesByPredicate(Predicate predicate);
 
+    /**
+     * @return Идентификаторы категорий, подходящих под условие по {@link ru.elias.server.model.QCategory}.
+     */
+    List<Long> findCategoryIdsByPredicate(Predicate predicate);
+
     @Timed("gettingCountByCategoriesDataLayerGauge")
     List<JokesGeneralStatistic> countByCategories();
 
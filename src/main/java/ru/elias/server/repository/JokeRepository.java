@@ -1,41 +1,86 @@
 package ru.elias.server.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import ru.elias.server.model.Joke;
 
+/**
+ * Случайная шутка выбирается как первая шутка с идентификатором не меньше случайного значения
+ * из диапазона [min(id), max(id)]: границы диапазона и сама шутка читаются по индексу, без сортировки
+ * всей таблицы. При пропусках в идентификаторах шутки, следующие за пропуском, выбираются чаще.
+ * <p>
+ * Таблица {@code jokes} в PostgreSQL секционирована хешем по {@code category_id}, поэтому запросы по категории
+ * фильтруют именно по {@code category_id}: по значению параметра или по результату подзапроса к категориям
+ * секции отсекаются при планировании или при выполнении. Поиск по одному идентификатору проверяет все секции.
+ * <p>
+ * Шутки, удаленные проверкой корпуса ({@code deleted_at is not null}), JPA-запросы пропускают по {@link Joke},
+ * нативные запросы фильтруют их явно.
+ */
 public interface JokeRepository extends CrudRepository<Joke, Long>, QuerydslPredicateExecutor<Joke> {
 
     @Query(nativeQuery = true,
            value = "select j.* "
                    + "from jokes j "
-                   + "order by random() "
+                   + "where j.id >= (select floor(random() * (max(r.id) - min(r.id) + 1)) + min(r.id) "
+                   + "               from jokes r) "
+                   + "and j.deleted_at is null "
+                   + "order by j.id "
                    + "limit 1")
     Joke findRandomJoke();
 
+    /**
+     * Объявленные запросы не получают транзакцию Spring Data по умолчанию, поэтому вызов вне транзакции
+     * (промах кэша шуток) открывает свою транзакцию только для чтения.
+     */
+    @Transactional(readOnly = true)
     @Query("select j "
-            + "from Category c "
-            + "join c.jokes j "
-            + "where c.name = :categoryName")
+            + "from Joke j "
+            + "join fetch j.category c "
+            + "where j.id = :id")
+    Optional<Joke> findJokeById(@Param("id") Long id);
+
+    @Query("select j "
+            + "from Joke j "
+            + "join fetch j.category "
+            + "where j.id in :ids")
+    List<Joke> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select j "
+            + "from Joke j "
+            + "join fetch j.category c "
+            + "where j.category.id = (select sc.id from Category sc where sc.name = :categoryName)")
     List<Joke> findAllByCategory(@Param("categoryName") String categoryName);
 
     @Query(nativeQuery = true,
            value = "select j.* "
                    + "from jokes j "
-                   + "where category_id = :categoryId "
-                   + "order by random() "
+                   + "where j.category_id = :categoryId "
+                   + "and j.id >= (select floor(random() * (max(r.id) - min(r.id) + 1)) + min(r.id) "
+                   + "             from jokes r "
+                   + "             where r.category_id = :categoryId) "
+                   + "and j.deleted_at is null "
+                   + "order by j.id "
                    + "limit 1")
     Joke findRandomJokeByCategoryId(@Param("categoryId") Long categoryId);
 
     @Query("select count(j) "
-            + "from Category c "
-            + "left join c.jokes j "
-            + "where c.name = :categoryName "
-            + "group by c.id")
+            + "from Joke j "
+            + "where j.category.id = (select c.id from Category c where c.name = :categoryName)")
     Long countJokeByCategoryName(@Param("categoryName") String categoryName);
 
+    boolean existsByName(String name);
+
+    @Query("select j.name "
+            + "from Joke j "
+            + "where j.name in :names")
+    Set<String> findExistingNames(@Param("names") Collection<String> names);
+
 }
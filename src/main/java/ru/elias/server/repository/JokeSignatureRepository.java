@@ -0,0 +1,57 @@
+package ru.elias.server.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import ru.elias.server.model.Joke;
+
+/**
+ * Сигнатуры MinHash хранятся в столбце {@code jokes.minhash}, отметки почти дубликатов - в {@code duplicate_of}.
+ */
+public interface JokeSignatureRepository {
+
+    /**
+     * Передает сохраненные сигнатуры в обработчик в порядке идентификаторов, порциями по {@code fetchSize}
+     * внутри транзакции только для чтения. Среди сигнатур есть пустые отметки коротких текстов.
+     *
+     * @param afterId
+     *         Передаются шутки с большим идентификатором.
+     */
+    void streamSignatures(long afterId, SignatureHandler handler);
+
+    /**
+     * @return Не более {@code limit} шуток без сигнатуры с идентификатором больше {@code afterId},
+     * у шуток заполнены только идентификатор и текст.
+     */
+    List<Joke> findUnsigned(long afterId, int limit);
+
+    /**
+     * @param signatures
+     *         Сигнатуры по идентификаторам шуток. Пустой массив отмечает текст, для которого сигнатура
+     *         не вычисляется, чтобы он не выбирался {@link #findUnsigned} повторно.
+     */
+    void updateSignatures(Map<Long, byte[]> signatures);
+
+    /**
+     * @param duplicates
+     *         Идентификаторы похожих шуток по идентификаторам почти дубликатов.
+     */
+    void markDuplicates(Map<Long, Long> duplicates);
+
+    /**
+     * Помечает почти дубликаты удаленными: строки остаются в таблице с отметкой {@code deleted_at}
+     * и пропускаются запросами чтения, поэтому другие узлы перестают отдавать шутку по истечении своих кэшей.
+     *
+     * @param duplicates
+     *         Идентификаторы похожих шуток по идентификаторам почти дубликатов.
+     */
+    void softDeleteJokes(Map<Long, Long> duplicates);
+
+    @FunctionalInterface
+    interface SignatureHandler {
+
+        void accept(long jokeId, byte[] signature);
+
+    }
+
+}
@@ -0,0 +1,16 @@
+package ru.elias.server.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.elias.server.dto.JokesGeneralStatistic;
+import ru.elias.server.model.JokesStatisticSnapshot;
+
+public interface JokesStatisticSnapshotRepository extends JpaRepository<JokesStatisticSnapshot, String> {
+
+    @Query("select new ru.elias.server.dto.JokesGeneralStatistic(s.categoryName, s.jokesCount) "
+            + "from JokesStatisticSnapshot s")
+    List<JokesGeneralStatistic> findAllStatistics();
+
+}
@@ -0,0 +1,19 @@
+package ru.elias.server.repository;
+
+import javax.persistence.LockModeType;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.elias.server.model.SchedulerLease;
+
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from SchedulerLease l where l.name = :name")
+    Optional<SchedulerLease> findForUpdate(@Param("name") String name);
+
+}
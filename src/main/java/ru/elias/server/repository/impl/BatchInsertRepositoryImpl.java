@@ -0,0 +1,72 @@
+package ru.elias.server.repository.impl;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.elias.server.config.properties.BulkProperties;
+import ru.elias.server.model.Joke;
+import ru.elias.server.repository.BatchInsertRepository;
+
+@Repository
+@RequiredArgsConstructor
+public class BatchInsertRepositoryImpl implements BatchInsertRepository {
+
+    private static final String INSERT_CATEGORY = "insert into categories (name, created_at) values (?, ?)";
+
+    private static final String INSERT_JOKE =
+            "insert into jokes (name, category_id, created_at, minhash, duplicate_of) values (?, ?, ?, ?, ?)";
+
+    private static final String[] GENERATED_KEYS = {"id"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BulkProperties bulkProperties;
+
+    @Override
+    public void insertCategories(List<String> names) {
+        var createdAt = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_CATEGORY, names, bulkProperties.getBatchSize(), (ps, name) -> {
+            ps.setString(1, name);
+            ps.setTimestamp(2, createdAt);
+        });
+    }
+
+    @Override
+    public void insertJokes(List<Joke> jokes) {
+        var createdAt = Timestamp.from(Instant.now());
+        var batchSize = bulkProperties.getBatchSize();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (var ps = connection.prepareStatement(INSERT_JOKE, GENERATED_KEYS)) {
+                for (int from = 0; from < jokes.size(); from += batchSize) {
+                    var batch = jokes.subList(from, Math.min(from + batchSize, jokes.size()));
+                    for (var joke : batch) {
+                        ps.setString(1, joke.getName());
+                        ps.setLong(2, joke.getCategory().getId());
+                        ps.setTimestamp(3, createdAt);
+                        ps.setBytes(4, joke.getMinhash());
+                        ps.setObject(5, joke.getDuplicateOf(), Types.BIGINT);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (var keys = ps.getGeneratedKeys()) {
+                        for (var joke : batch) {
+                            if (!keys.next()) {
+                                throw new IncorrectResultSizeDataAccessException(batch.size());
+                            }
+                            joke.setId(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,56 @@
+package ru.elias.server.repository.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.elias.server.config.properties.BulkProperties;
+import ru.elias.server.repository.JokeExportRepository;
+
+/**
+ * PostgreSQL читает выборку порциями по {@code fetchSize} строк только внутри транзакции
+ * (при выключенном autocommit), поэтому вызывающий метод должен быть транзакционным.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JokeExportRepositoryImpl implements JokeExportRepository {
+
+    private static final String SELECT_JOKES = "select j.name, c.name from jokes j "
+            + "join categories c on c.id = j.category_id "
+            + "where j.deleted_at is null ";
+
+    private static final String BY_CATEGORY = "and j.category_id = (select id from categories where name = ?) ";
+
+    private static final String ORDER_BY_ID = "order by j.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BulkProperties bulkProperties;
+
+    @Override
+    public void streamJokes(String categoryName, RowHandler handler) throws IOException {
+        var sql = SELECT_JOKES + (categoryName == null ? "" : BY_CATEGORY) + ORDER_BY_ID;
+        try {
+            jdbcTemplate.query(connection -> {
+                var ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(bulkProperties.getBatchSize());
+                if (categoryName != null) {
+                    ps.setString(1, categoryName);
+                }
+                return ps;
+            }, (ResultSet rs) -> {
+                try {
+                    handler.accept(rs.getString(1), rs.getString(2));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+}
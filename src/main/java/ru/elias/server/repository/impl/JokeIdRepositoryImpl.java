@@ -0,0 +1,65 @@
+package ru.elias.server.repository.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import ru.elias.server.repository.JokeIdRepository;
+
+@Repository
+@RequiredArgsConstructor
+public class JokeIdRepositoryImpl implements JokeIdRepository {
+
+    /*
+     * Мягко удаленные шутки остаются в индексе: курсор перемешивания хранит номера в отсортированном массиве,
+     * и исключение строки сдвинуло бы номера всех следующих. Такие шутки пропускаются при чтении по идентификатору.
+     */
+
+    private static final String SELECT_IDS = "select id from jokes order by id";
+
+    private static final String SELECT_IDS_BY_CATEGORY = "select id from jokes where category_id = ? order by id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long[] findAllIds() {
+        var ids = new LongArrayCollector();
+        jdbcTemplate.query(SELECT_IDS, ids);
+        return ids.toArray();
+    }
+
+    @Override
+    public long[] findIdsByCategoryId(Long categoryId) {
+        var ids = new LongArrayCollector();
+        jdbcTemplate.query(SELECT_IDS_BY_CATEGORY, ids, categoryId);
+        return ids.toArray();
+    }
+
+    /**
+     * Собирает идентификаторы в массив примитивов, без упаковки каждого значения в {@link Long}.
+     */
+    private static final class LongArrayCollector implements RowCallbackHandler {
+
+        private long[] values = new long[1024];
+
+        private int size;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = rs.getLong(1);
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+    }
+
+}
@@ -0,0 +1,168 @@
+package ru.elias.server.repository.impl;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+import ru.elias.server.config.properties.BulkProperties;
+import ru.elias.server.model.Joke;
+import ru.elias.server.repository.JokeImportRepository;
+
+/**
+ * На PostgreSQL строки загружаются через {@code COPY ... FROM STDIN} во временную таблицу, которая затем
+ * одним запросом сливается в {@code jokes} без уже существующих шуток. На остальных СУБД (H2 в тестах)
+ * строки вставляются JDBC-пакетами с проверкой существования.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class JokeImportRepositoryImpl implements JokeImportRepository {
+
+    private static final String CREATE_STAGING = "create temp table jokes_import "
+            + "(name varchar(255) not null, category_id int not null, minhash bytea, duplicate_of int) on commit drop";
+
+    private static final String COPY_STAGING =
+            "copy jokes_import (name, category_id, minhash, duplicate_of) from stdin with (format csv)";
+
+    private static final String ANALYZE_STAGING = "analyze jokes_import";
+
+    private static final String MERGE_STAGING =
+            "insert into jokes (name, category_id, created_at, minhash, duplicate_of) "
+            + "select s.name, min(s.category_id), now(), (array_agg(s.minhash))[1], min(s.duplicate_of) "
+            + "from jokes_import s "
+            + "where not exists (select 1 from jokes j where j.name = s.name) "
+            + "group by s.name";
+
+    private static final String INSERT_IF_ABSENT =
+            "insert into jokes (name, category_id, created_at, minhash, duplicate_of) "
+            + "select cast(? as varchar(255)), cast(? as int), cast(? as timestamp), "
+            + "cast(? as bytea), cast(? as int) "
+            + "where not exists (select 1 from jokes j where j.name = ?)";
+
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+
+    private final DataSource dataSource;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BulkProperties bulkProperties;
+
+    @Override
+    public long importJokes(RowSource source) throws IOException {
+        var connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                return copyAndMerge(connection.unwrap(PGConnection.class), source);
+            }
+        } catch (SQLException e) {
+            throw jdbcTemplate.getExceptionTranslator().translate("COPY", COPY_STAGING, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        return insertInBatches(source);
+    }
+
+    private long copyAndMerge(PGConnection connection, RowSource source) throws SQLException, IOException {
+        jdbcTemplate.execute(CREATE_STAGING);
+        var copyIn = connection.getCopyAPI().copyIn(COPY_STAGING);
+        try {
+            var buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+            Joke joke;
+            while ((joke = source.next()) != null) {
+                appendCsvRow(buffer, joke);
+                if (buffer.length() >= COPY_BUFFER_CHARS) {
+                    flush(copyIn, buffer);
+                }
+            }
+            flush(copyIn, buffer);
+            var staged = copyIn.endCopy();
+            log.debug("Staged {} rows for import", staged);
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+        jdbcTemplate.execute(ANALYZE_STAGING);
+        return jdbcTemplate.update(MERGE_STAGING);
+    }
+
+    private long insertInBatches(RowSource source) throws IOException {
+        var createdAt = Timestamp.from(Instant.now());
+        var batchSize = bulkProperties.getBatchSize();
+        var batch = new ArrayList<Joke>(batchSize);
+        long inserted = 0;
+        Joke joke;
+        while ((joke = source.next()) != null) {
+            batch.add(joke);
+            if (batch.size() == batchSize) {
+                inserted += insertBatch(batch, createdAt);
+                batch.clear();
+            }
+        }
+        return inserted + insertBatch(batch, createdAt);
+    }
+
+    private long insertBatch(List<Joke> batch, Timestamp createdAt) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long inserted = 0;
+        var counts = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, batch, batch.size(), (ps, joke) -> {
+            ps.setString(1, joke.getName());
+            ps.setLong(2, joke.getCategory().getId());
+            ps.setTimestamp(3, createdAt);
+            ps.setBytes(4, joke.getMinhash());
+            ps.setObject(5, joke.getDuplicateOf(), Types.BIGINT);
+            ps.setString(6, joke.getName());
+        });
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                inserted += Math.max(count, 0);
+            }
+        }
+        return inserted;
+    }
+
+    private static void appendCsvRow(StringBuilder buffer, Joke joke) {
+        buffer.append('"')
+              .append(joke.getName().replace("\"", "\"\""))
+              .append("\",")
+              .append(joke.getCategory().getId())
+              .append(',');
+        if (joke.getMinhash() != null) {
+            buffer.append("\\x");
+            for (byte b : joke.getMinhash()) {
+                buffer.append(Character.forDigit((b >> 4) & 0xF, 16))
+                      .append(Character.forDigit(b & 0xF, 16));
+            }
+        }
+        buffer.append(',');
+        if (joke.getDuplicateOf() != null) {
+            buffer.append(joke.getDuplicateOf());
+        }
+        buffer.append('\n');
+    }
+
+    private static void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.length() > 0) {
+            var bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+}
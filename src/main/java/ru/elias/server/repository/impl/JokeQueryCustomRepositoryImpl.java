@@ -33,7 +33,16 @@ public class JokeQueryCustomRepositoryImpl implements JokeQueryCustomRepository
         return queryFactory
                 .select(QEntities.JOKE)
                 .from(QEntities.JOKE)
-                .join(QEntities.JOKE.category, QEntities.CATEGORY)
+                .join(QEntities.JOKE.category, QEntities.CATEGORY).fetchJoin()
+                .where(predicate)
+                .fetch();
+    }
+
+    @Override
+    public List<Long> findCategoryIdsByPredicate(Predicate predicate) {
+        return queryFactory
+                .select(CATEGORIES.id)
+                .from(CATEGORIES)
                 .where(predicate)
                 .fetch();
     }
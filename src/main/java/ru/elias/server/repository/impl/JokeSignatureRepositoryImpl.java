@@ -0,0 +1,110 @@
+package ru.elias.server.repository.impl;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.elias.server.config.properties.BulkProperties;
+import ru.elias.server.model.Joke;
+import ru.elias.server.repository.JokeSignatureRepository;
+
+@Repository
+public class JokeSignatureRepositoryImpl implements JokeSignatureRepository {
+
+    private static final String SELECT_SIGNATURES = "select id, minhash from jokes "
+            + "where id > ? and minhash is not null and deleted_at is null order by id";
+
+    private static final String SELECT_UNSIGNED = "select id, name from jokes "
+            + "where id > ? and minhash is null and deleted_at is null order by id limit ?";
+
+    private static final String UPDATE_SIGNATURE = "update jokes set minhash = ? where id = ?";
+
+    private static final String UPDATE_DUPLICATE_OF = "update jokes set duplicate_of = ? where id = ?";
+
+    private static final String SOFT_DELETE_JOKE = "update jokes set duplicate_of = ?, deleted_at = ? "
+            + "where id = ? and deleted_at is null";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BulkProperties bulkProperties;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public JokeSignatureRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                       BulkProperties bulkProperties,
+                                       PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bulkProperties = bulkProperties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Выборка читается в собственной транзакции только для чтения (или в транзакции вызывающего): вне транзакции
+     * драйвер PostgreSQL игнорирует {@code fetchSize} и загружает все сигнатуры в память.
+     */
+    @Override
+    public void streamSignatures(long afterId, SignatureHandler handler) {
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(SELECT_SIGNATURES,
+                                                 ResultSet.TYPE_FORWARD_ONLY,
+                                                 ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(bulkProperties.getBatchSize());
+            ps.setLong(1, afterId);
+            return ps;
+        }, (ResultSet rs) -> handler.accept(rs.getLong(1), rs.getBytes(2))));
+    }
+
+    @Override
+    public List<Joke> findUnsigned(long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_UNSIGNED,
+                                  (rs, rowNum) -> Joke.builder()
+                                                      .id(rs.getLong(1))
+                                                      .name(rs.getString(2))
+                                                      .build(),
+                                  afterId, limit);
+    }
+
+    @Override
+    public void updateSignatures(Map<Long, byte[]> signatures) {
+        jdbcTemplate.batchUpdate(UPDATE_SIGNATURE,
+                                 new ArrayList<>(signatures.entrySet()),
+                                 bulkProperties.getBatchSize(),
+                                 (ps, signature) -> {
+                                     ps.setBytes(1, signature.getValue());
+                                     ps.setLong(2, signature.getKey());
+                                 });
+    }
+
+    @Override
+    public void markDuplicates(Map<Long, Long> duplicates) {
+        jdbcTemplate.batchUpdate(UPDATE_DUPLICATE_OF,
+                                 new ArrayList<>(duplicates.entrySet()),
+                                 bulkProperties.getBatchSize(),
+                                 (ps, duplicate) -> {
+                                     ps.setLong(1, duplicate.getValue());
+                                     ps.setLong(2, duplicate.getKey());
+                                 });
+    }
+
+    @Override
+    public void softDeleteJokes(Map<Long, Long> duplicates) {
+        var deletedAt = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(SOFT_DELETE_JOKE,
+                                 new ArrayList<>(duplicates.entrySet()),
+                                 bulkProperties.getBatchSize(),
+                                 (ps, duplicate) -> {
+                                     ps.setLong(1, duplicate.getValue());
+                                     ps.setTimestamp(2, deletedAt);
+                                     ps.setLong(3, duplicate.getKey());
+                                 });
+    }
+
+}
@@ -0,0 +1,105 @@
+package ru.elias.server.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import ru.elias.server.config.properties.JwtProperties;
+
+/**
+ * Декодер JWT, кэширующий успешно проверенные токены до истечения их срока действия.
+ * Ключ кэша - SHA-256 от токена, поэтому сами токены в памяти как ключи не хранятся.
+ * Ошибки проверки не кэшируются.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private static final String CACHE_NAME = "jwt.tokens";
+
+    private final JwtDecoder delegate;
+
+    private final Cache<String, Jwt> verifiedTokens;
+
+    private final Timer verificationTimer;
+
+    public CachingJwtDecoder(JwtDecoder delegate, JwtProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.verifiedTokens = Caffeine.newBuilder()
+                                      .maximumSize(properties.getCacheMaxSize())
+                                      .expireAfter(new TokenExpiry(properties.getCacheMaxTtl()))
+                                      .recordStats()
+                                      .build();
+        this.verificationTimer = Timer.builder("jwt.verification")
+                                      .description("Full JWT signature and claims verification")
+                                      .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, CACHE_NAME);
+        meterRegistry.gauge("jwt.cache.hit.ratio", verifiedTokens, cache -> cache.stats().hitRate());
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        var key = hash(token);
+        var jwt = verifiedTokens.getIfPresent(key);
+        if (jwt != null && isNotExpired(jwt)) {
+            return jwt;
+        }
+        var verified = verificationTimer.record(() -> delegate.decode(token));
+        verifiedTokens.put(key, verified);
+        return verified;
+    }
+
+    private boolean isNotExpired(Jwt jwt) {
+        return jwt.getExpiresAt() == null || Instant.now().isBefore(jwt.getExpiresAt());
+    }
+
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256")
+                                      .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, Jwt> {
+
+        private final long maxTtlNanos;
+
+        private TokenExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            if (jwt.getExpiresAt() == null) {
+                return maxTtlNanos;
+            }
+            var untilExpiry = Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos();
+            return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
@@ -0,0 +1,15 @@
+package ru.elias.server.security;
+
+import java.io.IOException;
+import java.text.ParseException;
+
+import com.nimbusds.jose.jwk.JWKSet;
+
+/**
+ * Источник набора ключей для проверки подписи JWT.
+ */
+public interface JwkSetLoader {
+
+    JWKSet load() throws IOException, ParseException;
+
+}
@@ -0,0 +1,139 @@
+package ru.elias.server.security;
+
+import javax.annotation.PreDestroy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Набор ключей JWT, обновляемый в фоне.
+ * Запросы читают последний успешно загруженный набор и не обращаются к источнику ключей;
+ * при ошибке загрузки продолжает использоваться предыдущий набор. Внеплановая загрузка выполняется
+ * в отдельном потоке, а не в общем пуле {@code ForkJoinPool}: загрузка блокируется на HTTP-запросе.
+ */
+@Slf4j
+public class RefreshingJwkSource implements JWKSource<SecurityContext> {
+
+    private final JwkSetLoader loader;
+
+    private final Duration minRefreshInterval;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Clock clock;
+
+    private final AtomicReference<JWKSet> current = new AtomicReference<>();
+
+    private final AtomicReference<Instant> lastRefreshAttempt = new AtomicReference<>(Instant.MIN);
+
+    /**
+     * Выполняющаяся загрузка; {@code null}, если загрузки нет.
+     */
+    private final AtomicReference<CompletableFuture<Void>> refreshInProgress = new AtomicReference<>();
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "jwks-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RefreshingJwkSource(JwkSetLoader loader, Duration minRefreshInterval, MeterRegistry meterRegistry) {
+        this(loader, minRefreshInterval, meterRegistry, Clock.systemUTC());
+    }
+
+    RefreshingJwkSource(JwkSetLoader loader,
+                        Duration minRefreshInterval,
+                        MeterRegistry meterRegistry,
+                        Clock clock) {
+        this.loader = loader;
+        this.minRefreshInterval = minRefreshInterval;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        meterRegistry.gauge("jwt.jwks.keys", current, set -> set.get() == null ? 0 : set.get().getKeys().size());
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        var jwkSet = current.get();
+        if (jwkSet == null) {
+            // ключи еще не загружены фоновой задачей: единственный случай загрузки в потоке запроса;
+            // если загрузка уже идет в другом потоке, запрос дожидается ее
+            load().join();
+            jwkSet = current.get();
+            if (jwkSet == null) {
+                throw new KeySourceException("JWK set is not available from " + loader);
+            }
+        }
+        var keys = jwkSelector.select(jwkSet);
+        if (keys.isEmpty()) {
+            requestRefresh();
+        }
+        return keys;
+    }
+
+    /**
+     * Плановое обновление набора ключей.
+     */
+    @Scheduled(fixedDelayString = "${app.security.jwt.jwk-refresh-interval:PT5M}")
+    public void refresh() {
+        load();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Загружает набор ключей в текущем потоке или, если загрузка уже идет, возвращает ее.
+     *
+     * @return Завершается после окончания загрузки, в том числе неуспешной.
+     */
+    private CompletableFuture<Void> load() {
+        var loading = new CompletableFuture<Void>();
+        var running = refreshInProgress.compareAndExchange(null, loading);
+        if (running != null) {
+            return running;
+        }
+        try {
+            lastRefreshAttempt.set(clock.instant());
+            current.set(loader.load());
+            meterRegistry.counter("jwt.jwks.refresh", "result", "success").increment();
+        } catch (Exception e) {
+            meterRegistry.counter("jwt.jwks.refresh", "result", "failure").increment();
+            log.warn("Can not refresh JWK set from {}, keeping last known good set", loader, e);
+        } finally {
+            refreshInProgress.set(null);
+            loading.complete(null);
+        }
+        return loading;
+    }
+
+    /**
+     * Внеплановое обновление (например, после ротации ключей) без блокировки запроса.
+     */
+    private void requestRefresh() {
+        var now = clock.instant();
+        var last = lastRefreshAttempt.get();
+        if (last.plus(minRefreshInterval).isBefore(now) && lastRefreshAttempt.compareAndSet(last, now)) {
+            CompletableFuture.runAsync(this::refresh, refreshExecutor);
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package ru.elias.server.security.impl;
+
+import java.io.IOException;
+import java.text.ParseException;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import ru.elias.server.security.JwkSetLoader;
+
+/**
+ * Загрузка ключей из локального файла (тесты и изолированные от сети окружения).
+ */
+@RequiredArgsConstructor
+public class FileJwkSetLoader implements JwkSetLoader {
+
+    private final Resource jwkSetFile;
+
+    @Override
+    public JWKSet load() throws IOException, ParseException {
+        try (var inputStream = jwkSetFile.getInputStream()) {
+            return JWKSet.load(inputStream);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return jwkSetFile.getDescription();
+    }
+
+}
@@ -0,0 +1,32 @@
+package ru.elias.server.security.impl;
+
+import java.io.IOException;
+import java.net.URL;
+import java.text.ParseException;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import lombok.RequiredArgsConstructor;
+import ru.elias.server.security.JwkSetLoader;
+
+@RequiredArgsConstructor
+public class RemoteJwkSetLoader implements JwkSetLoader {
+
+    private static final int CONNECT_TIMEOUT_MS = 5_000;
+
+    private static final int READ_TIMEOUT_MS = 5_000;
+
+    private static final int SIZE_LIMIT_BYTES = 512 * 1024;
+
+    private final URL jwkSetUrl;
+
+    @Override
+    public JWKSet load() throws IOException, ParseException {
+        return JWKSet.load(jwkSetUrl, CONNECT_TIMEOUT_MS, READ_TIMEOUT_MS, SIZE_LIMIT_BYTES);
+    }
+
+    @Override
+    public String toString() {
+        return jwkSetUrl.toString();
+    }
+
+}
@@ -0,0 +1,77 @@
+package ru.elias.server.service;
+
+import java.util.List;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import ru.elias.server.config.properties.BulkProperties;
+import ru.elias.server.dto.bulk.BulkCreateResult;
+import ru.elias.server.dto.bulk.BulkItemResult;
+import ru.elias.server.dto.bulk.BulkItemStatus;
+import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.ErrorType;
+
+@Service
+@RequiredArgsConstructor
+public class BulkRequestHelper {
+
+    /**
+     * Максимальная длина наименований шуток и категорий в схеме БД.
+     */
+    public static final int NAME_MAX_LENGTH = 255;
+
+    private final BulkProperties bulkProperties;
+
+    private final MessageSourceHelper messageSourceHelper;
+
+    /**
+     * Проверяет размер пакетного запроса до начала обработки.
+     *
+     * @param size
+     *         Количество элементов в запросе.
+     */
+    public void checkLimit(int size) {
+        if (size > bulkProperties.getMaxItems()) {
+            var errorType = ErrorType.BULK_LIMIT_EXCEEDED;
+            var msg = messageSourceHelper.getMessage(errorType, size, bulkProperties.getMaxItems());
+            throw new BusinessException(errorType, msg);
+        }
+    }
+
+    public boolean isValidName(String name) {
+        return name != null && !name.isBlank() && name.length() <= NAME_MAX_LENGTH;
+    }
+
+    public BulkItemResult created(int index) {
+        return BulkItemResult.builder()
+                             .index(index)
+                             .status(BulkItemStatus.CREATED)
+                             .build();
+    }
+
+    public BulkItemResult failed(int index, ErrorType errorType, Object... placeholders) {
+        return BulkItemResult.builder()
+                             .index(index)
+                             .status(BulkItemStatus.FAILED)
+                             .code(errorType.getCode())
+                             .message(messageSourceHelper.getMessage(errorType, placeholders))
+                             .build();
+    }
+
+    /**
+     * Формирует ответ: 201, если созданы все элементы, иначе 207 с результатами по каждому элементу.
+     *
+     * @param items
+     *         Результаты по элементам в порядке запроса.
+     *
+     * @return Ответ с итогами пакетной операции.
+     */
+    public ResponseEntity<BulkCreateResult> toResponse(List<BulkItemResult> items) {
+        var result = BulkCreateResult.of(items);
+        var status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(result);
+    }
+
+}
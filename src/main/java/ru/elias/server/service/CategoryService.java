@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.http.ResponseEntity;
 import ru.elias.server.dto.CategoryDto;
+import ru.elias.server.dto.bulk.BulkCreateResult;
 
 public interface CategoryService {
 
@@ -13,4 +14,6 @@ public interface CategoryService {
 
     ResponseEntity<Void> createCategories(boolean flag, CategoryDto categoryRequest);
 
+    ResponseEntity<BulkCreateResult> createCategories(List<CategoryDto> categories);
+
 }
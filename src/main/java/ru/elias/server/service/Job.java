@@ -2,44 +2,116 @@ package ru.elias.server.service;
 
 import javax.annotation.PostConstruct;
 
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import ru.elias.server.dto.StatisticGauge;
 import ru.elias.server.mapper.CategoryMapper;
-import ru.elias.server.repository.JokeQueryCustomRepository;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class Job {
 
-    private final JokeQueryCustomRepository jokeQueryCustomRepository;
+    private static final String STATISTIC_GAUGE_TASK = "jokes-statistic-gauge";
+
+    private static final String CORPUS_DEDUP_TASK = "jokes-corpus-dedup";
+
+    private static final String CRAWLER_TASK = "jokes-crawler";
+
+    private final StatisticSnapshotService statisticSnapshotService;
+
+    private final LeaderLeaseService leaderLeaseService;
+
+    private final JokeDedupService jokeDedupService;
+
+    private final JokeCrawlerService jokeCrawlerService;
 
     private final CategoryMapper mapper;
 
     private final MeterRegistry meterRegistry;
 
+    private final AtomicLong statisticCompletedAt = new AtomicLong();
+
     private MultiGauge multiGauge;
 
+    private Timer statisticRunTimer;
+
     @PostConstruct
     protected void init() {
         multiGauge = MultiGauge.builder("jokes_grouped_by_category_metric")
                                .register(meterRegistry);
+        statisticRunTimer = Timer.builder("scheduler.task.duration")
+                                 .tag("task", STATISTIC_GAUGE_TASK)
+                                 .register(meterRegistry);
+        Gauge.builder("scheduler.task.lag", statisticCompletedAt, Job::secondsSince)
+             .description("Seconds since the leader last completed the task")
+             .baseUnit("seconds")
+             .tag("task", STATISTIC_GAUGE_TASK)
+             .register(meterRegistry);
     }
 
+    /**
+     * Подсчет выполняет только узел-лидер, остальные узлы читают общий результат.
+     */
     @Scheduled(fixedDelay = 3000)
     public void updateStatisticGauge() {
-        multiGauge.register(jokeQueryCustomRepository.countByCategories()
-                                                     .stream()
-                                                     .map(mapper::map)
-                                                     .map(StatisticGauge::toRow)
-                                                     .collect(Collectors.toList()), true);
+        if (leaderLeaseService.tryAcquire(STATISTIC_GAUGE_TASK)) {
+            statisticRunTimer.record(statisticSnapshotService::refresh);
+            leaderLeaseService.markCompleted(STATISTIC_GAUGE_TASK);
+        }
+        leaderLeaseService.getLastCompletedAt(STATISTIC_GAUGE_TASK)
+                          .ifPresent(completedAt -> statisticCompletedAt.set(completedAt.toEpochMilli()));
+        multiGauge.register(statisticSnapshotService.getSnapshot()
+                                                    .stream()
+                                                    .map(mapper::map)
+                                                    .map(StatisticGauge::toRow)
+                                                    .collect(Collectors.toList()), true);
+    }
+
+    /**
+     * Проверку корпуса выполняет один узел. Индексы остальных узлов продолжают содержать удаленные
+     * дубликаты, что не меняет результат проверки: удаленная шутка похожа на оставшуюся.
+     */
+    @Scheduled(cron = "${app.dedup.corpus-cron:-}")
+    public void dedupeCorpus() {
+        if (leaderLeaseService.tryAcquire(CORPUS_DEDUP_TASK)) {
+            Timer.builder("scheduler.task.duration")
+                 .tag("task", CORPUS_DEDUP_TASK)
+                 .register(meterRegistry)
+                 .record(jokeDedupService::dedupeCorpus);
+            leaderLeaseService.markCompleted(CORPUS_DEDUP_TASK);
+        }
+    }
+
+    /**
+     * Сбор выполняет один узел. Аренда захватывается, только когда по данным узла подошло время прохода,
+     * поэтому остановленный или ожидающий сборщик не обращается к аренде на каждом такте.
+     */
+    @Scheduled(fixedDelayString = "${app.crawler.tick:1s}")
+    public void crawlJokes() {
+        if (!jokeCrawlerService.isRunning() || !jokeCrawlerService.isDue()) {
+            return;
+        }
+        if (leaderLeaseService.tryAcquire(CRAWLER_TASK)) {
+            jokeCrawlerService.crawl();
+            leaderLeaseService.markCompleted(CRAWLER_TASK);
+        } else {
+            jokeCrawlerService.deferToLeader();
+        }
+    }
+
+    private static double secondsSince(AtomicLong epochMillis) {
+        var value = epochMillis.get();
+        return value == 0 ? Double.NaN : (System.currentTimeMillis() - value) / 1000.0;
     }
 
 }
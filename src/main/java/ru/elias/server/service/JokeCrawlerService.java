@@ -0,0 +1,37 @@
+package ru.elias.server.service;
+
+import ru.elias.server.dto.CrawlerStatus;
+
+/**
+ * Фоновый сбор шуток из сервиса шуток по всем его категориям.
+ */
+public interface JokeCrawlerService {
+
+    /**
+     * Собирает шутки одной категории, для которой подошло время очередного прохода. Вызывается по расписанию
+     * на узле-лидере.
+     */
+    void crawl();
+
+    /**
+     * Проверка без обращения к бд, выполняется до захвата аренды.
+     *
+     * @return {@code true}, если по данным этого узла подошло время прохода и запросы к сервису шуток
+     * не приостановлены.
+     */
+    boolean isDue();
+
+    /**
+     * Откладывает проверку на {@code app.crawler.min-delay}, если сбор выполняет другой узел.
+     */
+    void deferToLeader();
+
+    void start();
+
+    void stop();
+
+    boolean isRunning();
+
+    CrawlerStatus getStatus();
+
+}
@@ -0,0 +1,42 @@
+package ru.elias.server.service;
+
+import ru.elias.server.dedup.CorpusDedupResult;
+import ru.elias.server.dedup.DedupCheck;
+
+/**
+ * Поиск почти дубликатов шуток по сигнатурам MinHash в индексе LSH, который хранится в памяти
+ * и пополняется из {@code jokes.minhash}. Проверка не обращается к бд.
+ */
+public interface JokeDedupService {
+
+    DedupCheck check(String joke);
+
+    /**
+     * @return Проверка пакета: элементы сравниваются с индексом и с ранее принятыми элементами того же пакета.
+     */
+    Batch newBatch();
+
+    /**
+     * Добавляет сохраненную шутку в индекс, не дожидаясь его обновления из бд. Внутри транзакции шутка
+     * добавляется после ее фиксации.
+     */
+    void register(Long jokeId, DedupCheck check);
+
+    /**
+     * Загружает в индекс сигнатуры шуток, добавленных после предыдущей загрузки.
+     */
+    void refresh();
+
+    /**
+     * Считает недостающие сигнатуры, находит почти дубликаты во всем корпусе и помечает их удаленными или отмечает
+     * по политике, после чего перестраивает индекс. Более поздняя шутка считается дубликатом более ранней.
+     */
+    CorpusDedupResult dedupeCorpus();
+
+    interface Batch {
+
+        DedupCheck check(String joke);
+
+    }
+
+}
@@ -0,0 +1,14 @@
+package ru.elias.server.service;
+
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+import ru.elias.server.transfer.JokeFileFormat;
+
+public interface JokeExportService {
+
+    void exportJokes(JokeFileFormat format, String categoryName, boolean gzip, HttpServletResponse response)
+            throws IOException;
+
+}
@@ -0,0 +1,25 @@
+package ru.elias.server.service;
+
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import ru.elias.server.dto.JokeCreatedEvent;
+
+public interface JokeFeedService {
+
+    String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    /**
+     * Лента созданных шуток. События публикуются после фиксации транзакции, в которой шутка создана.
+     * Место подписчика занимается при вызове и освобождается, когда возвращенный поток завершается.
+     *
+     * @param categoryName
+     *         Категория или {@code null} для всех шуток.
+     * @param lastEventId
+     *         Идентификатор последнего полученного события для продолжения после переподключения
+     *         или {@code null}, чтобы получать только новые события.
+     *
+     * @return События {@code joke} и периодические комментарии.
+     */
+    Flux<ServerSentEvent<JokeCreatedEvent>> subscribe(String categoryName, Long lastEventId);
+
+}
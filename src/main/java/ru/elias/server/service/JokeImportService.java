@@ -0,0 +1,16 @@
+package ru.elias.server.service;
+
+import java.io.InputStream;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import ru.elias.server.dto.JokeImportStatus;
+import ru.elias.server.transfer.JokeFileFormat;
+
+public interface JokeImportService {
+
+    ResponseEntity<JokeImportStatus> importJokes(JokeFileFormat format, InputStream body);
+
+    ResponseEntity<List<JokeImportStatus>> getActiveImports();
+
+}
@@ -6,6 +6,7 @@ import java.util.Optional;
 import org.springframework.http.ResponseEntity;
 import ru.elias.server.dto.JokeDto;
 import ru.elias.server.dto.JokesGeneralStatistic;
+import ru.elias.server.dto.bulk.BulkCreateResult;
 import ru.elias.server.dto.report.JokesByCategoriesReportData;
 import ru.elias.server.filter.JokeQueryCriteria;
 
@@ -13,16 +14,29 @@ public interface JokeService {
 
     ResponseEntity<Void> createJoke(boolean flag, String category, JokeDto jokeDto);
 
+    ResponseEntity<BulkCreateResult> createJokes(List<JokeDto> jokes);
+
     ResponseEntity<JokeDto> getJokeById(Long id);
 
     ResponseEntity<JokeDto> getRandomJoke();
 
     ResponseEntity<JokeDto> getRandomJokeByCategory(String categoryName);
 
+    /**
+     * Отдает {@code count} различных случайных шуток, всех или одной категории, одним запросом в бд.
+     * Если шуток меньше, возвращаются все.
+     */
+    ResponseEntity<List<JokeDto>> getRandomJokes(String categoryName, int count);
+
     ResponseEntity<List<JokesGeneralStatistic>> getJokesCountStatistics();
 
     ResponseEntity<List<JokeDto>> getRandomJokeByCriteria(JokeQueryCriteria criteria);
 
     Optional<List<JokesByCategoriesReportData>> getAllJokesByCategory(String categoryName);
 
+    /**
+     * Отдает число шуток в категории, 0 - если категории нет.
+     */
+    long countJokesByCategory(String categoryName);
+
 }
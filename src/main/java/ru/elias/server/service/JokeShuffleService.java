@@ -0,0 +1,23 @@
+package ru.elias.server.service;
+
+import org.springframework.http.ResponseEntity;
+import ru.elias.server.dto.JokeDto;
+
+public interface JokeShuffleService {
+
+    String CURSOR_HEADER = "X-Shuffle-Cursor";
+
+    /**
+     * Отдает следующую не показанную клиенту шутку. Курсор нового состояния возвращается
+     * в заголовке {@link #CURSOR_HEADER}; после показа всех шуток начинается новый цикл.
+     *
+     * @param categoryName
+     *         Категория или {@code null} для всех шуток.
+     * @param cursor
+     *         Курсор из предыдущего ответа или {@code null} для начала нового цикла.
+     *
+     * @return Шутка или 204, если шуток нет.
+     */
+    ResponseEntity<JokeDto> getNextJoke(String categoryName, String cursor);
+
+}
@@ -0,0 +1,31 @@
+package ru.elias.server.service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Выбор лидера для запланированных задач через аренду в общей базе данных.
+ */
+public interface LeaderLeaseService {
+
+    /**
+     * Захватывает свободную (истекшую) аренду или продлевает собственную.
+     *
+     * @param leaseName
+     *         Имя аренды (задачи).
+     *
+     * @return {@code true}, если текущий узел является лидером до истечения аренды.
+     */
+    boolean tryAcquire(String leaseName);
+
+    /**
+     * Отмечает успешное завершение задачи лидером.
+     *
+     * @param leaseName
+     *         Имя аренды (задачи).
+     */
+    void markCompleted(String leaseName);
+
+    Optional<Instant> getLastCompletedAt(String leaseName);
+
+}
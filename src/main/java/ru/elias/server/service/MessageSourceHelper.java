@@ -1,6 +1,9 @@
 package ru.elias.server.service;
 
+import java.text.MessageFormat;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
@@ -13,6 +16,12 @@ public class MessageSourceHelper {
 
     private final MessageSource messageSource;
 
+    /**
+     * Разобранные шаблоны сообщений по локали и типу ошибки. {@link MessageFormat} не потокобезопасен,
+     * поэтому для форматирования используется копия шаблона.
+     */
+    private final Map<Locale, Map<ErrorType, MessageFormat>> formats = new ConcurrentHashMap<>();
+
     /**
      * Отдает сообщение об ошибке, соответствующее указанному типу, с указанными аргументами.
      *
@@ -41,10 +50,16 @@ public class MessageSourceHelper {
      * @return Сообщение.
      */
     public String getMessage(Locale locale, ErrorType errorType, Object... placeholders) {
-        return messageSource.getMessage(
-                errorType.name().toLowerCase(),
-                placeholders,
-                locale
-        );
+        var format = getFormat(locale, errorType);
+        return ((MessageFormat) format.clone()).format(placeholders);
     }
+
+    private MessageFormat getFormat(Locale locale, ErrorType errorType) {
+        return formats.computeIfAbsent(locale, key -> new ConcurrentHashMap<>())
+                      .computeIfAbsent(errorType, type -> new MessageFormat(
+                              messageSource.getMessage(type.name().toLowerCase(), null, locale),
+                              locale
+                      ));
+    }
+
 }
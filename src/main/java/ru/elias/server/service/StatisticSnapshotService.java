@@ -0,0 +1,16 @@
+package ru.elias.server.service;
+
+import java.util.List;
+
+import ru.elias.server.dto.JokesGeneralStatistic;
+
+/**
+ * Общая для всех узлов статистика шуток по категориям.
+ */
+public interface StatisticSnapshotService {
+
+    void refresh();
+
+    List<JokesGeneralStatistic> getSnapshot();
+
+}
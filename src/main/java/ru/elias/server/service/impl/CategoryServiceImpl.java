@@ -1,25 +1,33 @@
 package ru.elias.server.service.impl;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.elias.server.client.JokeReactiveClient;
 import ru.elias.server.dto.CategoryDto;
+import ru.elias.server.dto.bulk.BulkCreateResult;
+import ru.elias.server.dto.bulk.BulkItemResult;
 import ru.elias.server.exception.BusinessException;
 import ru.elias.server.exception.ErrorType;
 import ru.elias.server.mapper.CategoryMapper;
 import ru.elias.server.model.Category;
+import ru.elias.server.ratelimit.ClientRateLimiter;
+import ru.elias.server.ratelimit.RateLimitedEndpoint;
+import ru.elias.server.repository.BatchInsertRepository;
 import ru.elias.server.repository.CategoryRepository;
+import ru.elias.server.service.BulkRequestHelper;
 import ru.elias.server.service.CategoryService;
 import ru.elias.server.service.MessageSourceHelper;
 
-@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
@@ -32,6 +40,12 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final MessageSourceHelper messageSourceHelper;
 
+    private final BatchInsertRepository batchInsertRepository;
+
+    private final BulkRequestHelper bulkRequestHelper;
+
+    private final ClientRateLimiter clientRateLimiter;
+
     @Override
     @Transactional
     public ResponseEntity<CategoryDto> getCategoryByName(String name) {
@@ -41,7 +55,6 @@ public class CategoryServiceImpl implements CategoryService {
                                   .orElseThrow(() -> {
                                       var errorType = ErrorType.CATEGORY_NOT_FOUND_BY_NAME;
                                       var msg = messageSourceHelper.getMessage(errorType, name);
-                                      log.warn(msg);
                                       throw new BusinessException(errorType, msg);
                                   })
         );
@@ -62,6 +75,7 @@ public class CategoryServiceImpl implements CategoryService {
     @Transactional
     public ResponseEntity<Void> createCategories(boolean flag, CategoryDto categoryRequest) {
         if (flag) {
+            clientRateLimiter.acquire(RateLimitedEndpoint.CATEGORIES_AUTO_CREATE);
             saveCategoriesFromIntegration();
         } else {
             saveCategory(categoryRequest);
@@ -69,27 +83,62 @@ public class CategoryServiceImpl implements CategoryService {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    @Override
+    @Transactional
+    public ResponseEntity<BulkCreateResult> createCategories(List<CategoryDto> categories) {
+        bulkRequestHelper.checkLimit(categories.size());
+        var requestedNames = categories.stream()
+                                       .filter(Objects::nonNull)
+                                       .map(CategoryDto::getName)
+                                       .filter(Objects::nonNull)
+                                       .collect(Collectors.toSet());
+        var takenNames = categoryRepository.findAllByNameIn(requestedNames)
+                                           .stream()
+                                           .map(Category::getName)
+                                           .collect(Collectors.toCollection(HashSet::new));
+        var items = new ArrayList<BulkItemResult>(categories.size());
+        var toInsert = new ArrayList<String>();
+        for (int i = 0; i < categories.size(); i++) {
+            var dto = categories.get(i);
+            if (dto == null || !bulkRequestHelper.isValidName(dto.getName())) {
+                items.add(bulkRequestHelper.failed(i,
+                                                   ErrorType.CATEGORY_NAME_INVALID,
+                                                   BulkRequestHelper.NAME_MAX_LENGTH));
+                continue;
+            }
+            if (!takenNames.add(dto.getName())) {
+                items.add(bulkRequestHelper.failed(i, ErrorType.CATEGORY_ALREADY_EXISTS, dto.getName()));
+                continue;
+            }
+            toInsert.add(dto.getName());
+            items.add(bulkRequestHelper.created(i));
+        }
+        batchInsertRepository.insertCategories(toInsert);
+        return bulkRequestHelper.toResponse(items);
+    }
+
     private void saveCategory(CategoryDto categoryRequest) {
         var category = categoryMapper.map(categoryRequest);
         categoryRepository.save(category);
     }
 
     private void saveCategoriesFromIntegration() {
+        var existingCategoryNames = getExistingCategoryNames();
         var categories = jokeClient.getAllCategories()
                                    .blockOptional()
                                    .orElseThrow()
                                    .stream()
-                                   .filter(el -> !getExistingCategoryNames().contains(el))
+                                   .filter(el -> !existingCategoryNames.contains(el))
                                    .map(categoryMapper::map)
                                    .collect(Collectors.toList());
         categoryRepository.saveAll(categories);
     }
 
-    private List<String> getExistingCategoryNames() {
+    private Set<String> getExistingCategoryNames() {
         return categoryRepository.findAll()
                                  .stream()
                                  .map(Category::getName)
-                                 .collect(Collectors.toList());
+                                 .collect(Collectors.toSet());
     }
 
 }
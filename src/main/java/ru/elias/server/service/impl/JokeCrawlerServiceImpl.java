@@ -0,0 +1,465 @@
+package ru.elias.server.service.impl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.elias.server.client.JokeReactiveClient;
+import ru.elias.server.config.properties.CrawlerProperties;
+import ru.elias.server.crawler.CrawlWindow;
+import ru.elias.server.dto.CrawlerStatus;
+import ru.elias.server.dto.JokeCreatedEvent;
+import ru.elias.server.model.Category;
+import ru.elias.server.model.CrawlerCheckpoint;
+import ru.elias.server.model.CrawlerControl;
+import ru.elias.server.model.Joke;
+import ru.elias.server.repository.BatchInsertRepository;
+import ru.elias.server.repository.CategoryRepository;
+import ru.elias.server.repository.CrawlerCheckpointRepository;
+import ru.elias.server.repository.CrawlerControlRepository;
+import ru.elias.server.repository.JokeRepository;
+import ru.elias.server.service.BulkRequestHelper;
+import ru.elias.server.service.JokeCrawlerService;
+import ru.elias.server.service.JokeDedupService;
+
+/**
+ * За один вызов собирается одна категория - та, у которой раньше всех наступило время прохода. Проход
+ * запрашивает {@code app.crawler.batch-size} случайных шуток категории, отбрасывает уже сохраненные шутки
+ * и почти дубликаты и записывает остальные одним пакетом вместе с контрольной точкой категории.
+ * <p>
+ * Скорость подстраивается по принципу AIMD на паузах: если сглаженная доля дубликатов по категории достигла
+ * порога, пауза до следующего прохода по ней умножается на {@code backoff-multiplier}, иначе уменьшается
+ * в {@code recovery-multiplier} раз. Если в проходе много ошибок сервиса шуток, приостанавливаются запросы
+ * по всем категориям, и пауза растет с каждым таким проходом до первого успешного.
+ */
+@Slf4j
+@Service
+public class JokeCrawlerServiceImpl implements JokeCrawlerService {
+
+    private static final String CONTROL_NAME = "jokes-crawler";
+
+    private static final Duration RATE_WINDOW = Duration.ofMinutes(1);
+
+    private final CrawlerControlRepository controlRepository;
+
+    private final CrawlerCheckpointRepository checkpointRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final JokeRepository jokeRepository;
+
+    private final BatchInsertRepository batchInsertRepository;
+
+    private final JokeReactiveClient jokeClient;
+
+    private final JokeDedupService jokeDedupService;
+
+    private final BulkRequestHelper bulkRequestHelper;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CrawlerProperties properties;
+
+    private final Clock clock;
+
+    private final CrawlWindow window;
+
+    private final Counter createdJokes;
+
+    private final Counter duplicateJokes;
+
+    private final Counter successfulRequests;
+
+    private final Counter failedRequests;
+
+    private volatile boolean running;
+
+    private volatile Instant controlLoadedAt = Instant.EPOCH;
+
+    private volatile Map<String, Category> categories = Map.of();
+
+    private volatile Instant categoriesLoadedAt = Instant.EPOCH;
+
+    private volatile Instant upstreamPausedUntil = Instant.EPOCH;
+
+    private volatile Instant nextRunAt = Instant.EPOCH;
+
+    private Duration upstreamBackoff = Duration.ZERO;
+
+    @Autowired
+    public JokeCrawlerServiceImpl(CrawlerControlRepository controlRepository,
+                                  CrawlerCheckpointRepository checkpointRepository,
+                                  CategoryRepository categoryRepository,
+                                  JokeRepository jokeRepository,
+                                  BatchInsertRepository batchInsertRepository,
+                                  JokeReactiveClient jokeClient,
+                                  JokeDedupService jokeDedupService,
+                                  BulkRequestHelper bulkRequestHelper,
+                                  ObjectMapper objectMapper,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  CrawlerProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this(controlRepository,
+             checkpointRepository,
+             categoryRepository,
+             jokeRepository,
+             batchInsertRepository,
+             jokeClient,
+             jokeDedupService,
+             bulkRequestHelper,
+             objectMapper,
+             eventPublisher,
+             transactionManager,
+             properties,
+             meterRegistry,
+             Clock.systemUTC());
+    }
+
+    public JokeCrawlerServiceImpl(CrawlerControlRepository controlRepository,
+                                  CrawlerCheckpointRepository checkpointRepository,
+                                  CategoryRepository categoryRepository,
+                                  JokeRepository jokeRepository,
+                                  BatchInsertRepository batchInsertRepository,
+                                  JokeReactiveClient jokeClient,
+                                  JokeDedupService jokeDedupService,
+                                  BulkRequestHelper bulkRequestHelper,
+                                  ObjectMapper objectMapper,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  CrawlerProperties properties,
+                                  MeterRegistry meterRegistry,
+                                  Clock clock) {
+        this.controlRepository = controlRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.categoryRepository = categoryRepository;
+        this.jokeRepository = jokeRepository;
+        this.batchInsertRepository = batchInsertRepository;
+        this.jokeClient = jokeClient;
+        this.jokeDedupService = jokeDedupService;
+        this.bulkRequestHelper = bulkRequestHelper;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.clock = clock;
+        this.window = new CrawlWindow(RATE_WINDOW, clock);
+        this.createdJokes = meterRegistry.counter("crawler.jokes", "result", "created");
+        this.duplicateJokes = meterRegistry.counter("crawler.jokes", "result", "duplicate");
+        this.successfulRequests = meterRegistry.counter("crawler.upstream.requests", "result", "success");
+        this.failedRequests = meterRegistry.counter("crawler.upstream.requests", "result", "error");
+        Gauge.builder("crawler.jokes.created.per.minute", window, CrawlWindow::getCreated)
+             .description("Jokes added by the crawler during the last minute")
+             .register(meterRegistry);
+        Gauge.builder("crawler.duplicate.ratio", window, CrawlWindow::getDuplicateRatio)
+             .description("Share of crawled jokes that were already stored during the last minute")
+             .register(meterRegistry);
+        Gauge.builder("crawler.upstream.error.ratio", window, CrawlWindow::getErrorRatio)
+             .description("Share of failed upstream requests of the crawler during the last minute")
+             .register(meterRegistry);
+        Gauge.builder("crawler.running", this, service -> service.running ? 1 : 0)
+             .register(meterRegistry);
+    }
+
+    @Override
+    public void crawl() {
+        var now = clock.instant();
+        if (now.isBefore(upstreamPausedUntil)) {
+            return;
+        }
+        if (!refreshCategories(now)) {
+            nextRunAt = now.plus(properties.getMinDelay());
+            return;
+        }
+        var checkpoints = checkpointRepository.findAll()
+                                              .stream()
+                                              .collect(Collectors.toMap(CrawlerCheckpoint::getCategoryName,
+                                                                        Function.identity()));
+        var pending = categories.keySet()
+                                .stream()
+                                .map(name -> checkpoints.getOrDefault(name, newCheckpoint(name, now)))
+                                .collect(Collectors.toList());
+        pending.stream()
+               .filter(checkpoint -> !checkpoint.getNextRunAt().isAfter(now))
+               .min(Comparator.comparing(CrawlerCheckpoint::getNextRunAt))
+               .ifPresent(checkpoint -> crawl(checkpoint, categories.get(checkpoint.getCategoryName())));
+        // контрольная точка собранной категории уже сдвинута на следующий проход
+        nextRunAt = pending.stream()
+                           .map(CrawlerCheckpoint::getNextRunAt)
+                           .min(Comparator.naturalOrder())
+                           .orElse(now.plus(properties.getMinDelay()));
+    }
+
+    /**
+     * Время следующего прохода известно по контрольным точкам, прочитанным при последнем сборе на этом узле.
+     */
+    @Override
+    public boolean isDue() {
+        var now = clock.instant();
+        return !now.isBefore(nextRunAt) && !now.isBefore(upstreamPausedUntil);
+    }
+
+    @Override
+    public void deferToLeader() {
+        nextRunAt = clock.instant().plus(properties.getMinDelay());
+    }
+
+    @Override
+    public void start() {
+        setRunning(true);
+    }
+
+    @Override
+    public void stop() {
+        setRunning(false);
+    }
+
+    /**
+     * Вызывается на каждом такте расписания, поэтому состояние перечитывается из бд
+     * не чаще раза в {@code app.crawler.control-refresh}.
+     */
+    @Override
+    public boolean isRunning() {
+        var now = clock.instant();
+        if (now.isBefore(controlLoadedAt.plus(properties.getControlRefresh()))) {
+            return running;
+        }
+        return loadRunning(now);
+    }
+
+    @Override
+    public CrawlerStatus getStatus() {
+        var pausedUntil = upstreamPausedUntil;
+        return CrawlerStatus.builder()
+                            .running(loadRunning(clock.instant()))
+                            .upstreamPausedUntil(pausedUntil.isAfter(clock.instant()) ? pausedUntil : null)
+                            .createdPerMinute(window.getCreated())
+                            .duplicateRatio(window.getDuplicateRatio())
+                            .upstreamErrorRatio(window.getErrorRatio())
+                            .categories(checkpointRepository.findAll(Sort.by("categoryName")))
+                            .build();
+    }
+
+    private boolean loadRunning(Instant now) {
+        running = controlRepository.findById(CONTROL_NAME)
+                                   .map(CrawlerControl::isRunning)
+                                   .orElse(properties.isAutoStart());
+        controlLoadedAt = now;
+        return running;
+    }
+
+    private void setRunning(boolean value) {
+        var now = clock.instant();
+        controlRepository.save(CrawlerControl.builder()
+                                             .name(CONTROL_NAME)
+                                             .running(value)
+                                             .updatedAt(now)
+                                             .build());
+        running = value;
+        controlLoadedAt = now;
+        log.info("Joke crawler {}", value ? "started" : "stopped");
+    }
+
+    /**
+     * Загружает категории сервиса шуток раз в {@code app.crawler.categories-refresh} и создает недостающие.
+     *
+     * @return {@code true}, если список категорий загружен.
+     */
+    private boolean refreshCategories(Instant now) {
+        if (!categories.isEmpty() && now.isBefore(categoriesLoadedAt.plus(properties.getCategoriesRefresh()))) {
+            return true;
+        }
+        List<String> names;
+        try {
+            names = jokeClient.getAllCategories()
+                              .timeout(properties.getTimeout())
+                              .blockOptional()
+                              .orElse(List.of());
+            successfulRequests.increment();
+        } catch (RuntimeException e) {
+            failedRequests.increment();
+            window.record(1, 1, 0, 0);
+            backOffUpstream(now);
+            return !categories.isEmpty();
+        }
+        var existing = categoryRepository.findAllByNameIn(names)
+                                         .stream()
+                                         .map(Category::getName)
+                                         .collect(Collectors.toSet());
+        var missing = names.stream()
+                           .filter(bulkRequestHelper::isValidName)
+                           .filter(name -> !existing.contains(name))
+                           .distinct()
+                           .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            batchInsertRepository.insertCategories(missing);
+            log.info("Joke crawler created categories {}", missing);
+        }
+        categories = categoryRepository.findAllByNameIn(names)
+                                       .stream()
+                                       .collect(Collectors.toMap(Category::getName, Function.identity()));
+        categoriesLoadedAt = now;
+        return !categories.isEmpty();
+    }
+
+    private void crawl(CrawlerCheckpoint checkpoint, Category category) {
+        var requests = properties.getBatchSize();
+        var errors = new AtomicInteger();
+        var pulled = fetch(category.getName(), requests, errors);
+        var seen = new HashSet<String>();
+        if (!pulled.isEmpty()) {
+            seen.addAll(jokeRepository.findExistingNames(new HashSet<>(pulled)));
+        }
+        var dedupBatch = jokeDedupService.newBatch();
+        var toInsert = new ArrayList<Joke>();
+        for (var text : pulled) {
+            if (!seen.add(text)) {
+                continue;
+            }
+            var check = dedupBatch.check(text);
+            if (check.isRejected()) {
+                continue;
+            }
+            toInsert.add(Joke.builder()
+                             .name(text)
+                             .category(category)
+                             .minhash(check.getMinhash())
+                             .duplicateOf(check.getDuplicateOf())
+                             .build());
+        }
+        var now = clock.instant();
+        advance(checkpoint, requests, errors.get(), pulled.size(), toInsert.size(), now);
+        transactionTemplate.executeWithoutResult(status -> {
+            batchInsertRepository.insertJokes(toInsert);
+            checkpointRepository.save(checkpoint);
+            toInsert.forEach(joke -> publishCreated(joke, category));
+        });
+        if (!toInsert.isEmpty()) {
+            jokeDedupService.refresh();
+        }
+        successfulRequests.increment(requests - errors.get());
+        failedRequests.increment(errors.get());
+        createdJokes.increment(toInsert.size());
+        duplicateJokes.increment(pulled.size() - toInsert.size());
+        window.record(requests, errors.get(), pulled.size(), toInsert.size());
+        log.debug("Crawled category {}: {} new of {} pulled, {} errors, next run in {} ms",
+                  category.getName(), toInsert.size(), pulled.size(), errors.get(), checkpoint.getDelayMs());
+    }
+
+    /**
+     * Ошибка или превышение времени ответа на запрос учитывается и не прерывает проход.
+     *
+     * @return Тексты полученных шуток, пригодные для сохранения, включая повторы: повторы в одном проходе
+     * тоже говорят о том, что новых шуток в категории мало.
+     */
+    private List<String> fetch(String categoryName, int requests, AtomicInteger errors) {
+        var texts = Flux.range(0, requests)
+                        .flatMap(i -> jokeClient.getRandomJokeByCategory(categoryName)
+                                                .timeout(properties.getTimeout())
+                                                .map(this::getJokeFromResponse)
+                                                .onErrorResume(error -> {
+                                                    errors.incrementAndGet();
+                                                    return Mono.empty();
+                                                }),
+                                 properties.getConcurrency())
+                        .collectList()
+                        .block();
+        return texts == null
+                ? List.of()
+                : texts.stream()
+                       .filter(bulkRequestHelper::isValidName)
+                       .collect(Collectors.toList());
+    }
+
+    private void advance(CrawlerCheckpoint checkpoint, int requests, int errors, int pulled, int created,
+                         Instant now) {
+        if ((double) errors / requests >= properties.getErrorRatioThreshold()) {
+            backOffUpstream(now);
+        } else {
+            upstreamBackoff = Duration.ZERO;
+        }
+        if (pulled > 0) {
+            var ratio = (double) (pulled - created) / pulled;
+            var smoothed = checkpoint.getPulled() == 0
+                    ? ratio
+                    : properties.getSmoothing() * ratio
+                            + (1 - properties.getSmoothing()) * checkpoint.getDuplicateRatio();
+            var multiplier = smoothed >= properties.getDuplicateRatioThreshold()
+                    ? properties.getBackoffMultiplier()
+                    : properties.getRecoveryMultiplier();
+            checkpoint.setDuplicateRatio(smoothed);
+            checkpoint.setDelayMs(clampDelay((long) (checkpoint.getDelayMs() * multiplier)));
+        }
+        checkpoint.setPulled(checkpoint.getPulled() + pulled);
+        checkpoint.setCreated(checkpoint.getCreated() + created);
+        checkpoint.setDuplicates(checkpoint.getDuplicates() + pulled - created);
+        checkpoint.setErrors(checkpoint.getErrors() + errors);
+        checkpoint.setNextRunAt(now.plusMillis(checkpoint.getDelayMs()));
+        checkpoint.setUpdatedAt(now);
+    }
+
+    private void backOffUpstream(Instant now) {
+        upstreamBackoff = upstreamBackoff.isZero()
+                ? properties.getMinDelay()
+                : Duration.ofMillis(clampDelay((long) (upstreamBackoff.toMillis()
+                        * properties.getBackoffMultiplier())));
+        upstreamPausedUntil = now.plus(upstreamBackoff);
+        log.warn("Joke crawler pauses upstream requests for {} after errors", upstreamBackoff);
+    }
+
+    private long clampDelay(long delayMs) {
+        return Math.max(properties.getMinDelay().toMillis(), Math.min(properties.getMaxDelay().toMillis(), delayMs));
+    }
+
+    /**
+     * Событие обрабатывается лентой шуток после фиксации транзакции.
+     */
+    private void publishCreated(Joke joke, Category category) {
+        eventPublisher.publishEvent(JokeCreatedEvent.builder()
+                                                    .id(joke.getId())
+                                                    .joke(joke.getName())
+                                                    .category(category.getName())
+                                                    .build());
+    }
+
+    private CrawlerCheckpoint newCheckpoint(String categoryName, Instant now) {
+        return CrawlerCheckpoint.builder()
+                                .categoryName(categoryName)
+                                .delayMs(properties.getMinDelay().toMillis())
+                                .nextRunAt(now)
+                                .updatedAt(now)
+                                .build();
+    }
+
+    @SneakyThrows
+    private String getJokeFromResponse(String response) {
+        return objectMapper.readTree(response).path("value").asText();
+    }
+
+}
@@ -0,0 +1,331 @@
+package ru.elias.server.service.impl;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.elias.server.cache.JokeCache;
+import ru.elias.server.cache.JokeIdIndex;
+import ru.elias.server.config.properties.BulkProperties;
+import ru.elias.server.config.properties.DedupProperties;
+import ru.elias.server.dedup.CorpusDedupResult;
+import ru.elias.server.dedup.DedupCheck;
+import ru.elias.server.dedup.DuplicatePolicy;
+import ru.elias.server.dedup.MinHasher;
+import ru.elias.server.dedup.NearDuplicateIndex;
+import ru.elias.server.repository.JokeSignatureRepository;
+import ru.elias.server.service.JokeDedupService;
+
+/**
+ * Индекс загружается при первом обновлении после запуска и затем пополняется шутками с идентификатором больше
+ * {@code loadedUpTo - refresh-overlap}: идентификаторы выдаются последовательностью до фиксации, поэтому шутка
+ * другого узла может появиться в бд позже шутки с большим идентификатором. Идентификаторы этого окна, уже
+ * добавленные в индекс, хранятся в {@code recentIds}, чтобы не добавлять шутки повторно.
+ * <p>
+ * Шутки, сохраненные этим узлом по одной, добавляются в индекс сразу. Проверка корпуса строит новый индекс
+ * и подменяет им текущий; шутки, зарегистрированные во время проверки и не попавшие в ее выборку, переносятся
+ * в новый индекс перед подменой.
+ */
+@Slf4j
+@Service
+public class JokeDedupServiceImpl implements JokeDedupService {
+
+    /**
+     * Отметка текста короче {@code min-text-length}: сигнатура не вычисляется, и при чтении такая отметка
+     * пропускается. После уменьшения {@code min-text-length} отметки нужно сбросить
+     * ({@code update jokes set minhash = null where octet_length(minhash) = 0}).
+     */
+    private static final byte[] NO_SIGNATURE = new byte[0];
+
+    private final JokeSignatureRepository signatureRepository;
+
+    private final JokeCache jokeCache;
+
+    private final JokeIdIndex jokeIdIndex;
+
+    private final DedupProperties properties;
+
+    private final BulkProperties bulkProperties;
+
+    private final MinHasher minHasher;
+
+    /**
+     * Защищает подмену индекса, {@code recentIds} и {@code registered}.
+     */
+    private final Object indexLock = new Object();
+
+    private final NavigableSet<Long> recentIds = new TreeSet<>();
+
+    /**
+     * Сигнатуры шуток, зарегистрированных этим узлом с начала последней проверки корпуса.
+     */
+    private final Map<Long, int[]> registered = new HashMap<>();
+
+    private final Timer uniqueChecks;
+
+    private final Timer duplicateChecks;
+
+    private final Timer skippedChecks;
+
+    private volatile NearDuplicateIndex index;
+
+    private long loadedUpTo;
+
+    public JokeDedupServiceImpl(JokeSignatureRepository signatureRepository,
+                                JokeCache jokeCache,
+                                JokeIdIndex jokeIdIndex,
+                                DedupProperties properties,
+                                BulkProperties bulkProperties,
+                                MeterRegistry meterRegistry) {
+        this.signatureRepository = signatureRepository;
+        this.jokeCache = jokeCache;
+        this.jokeIdIndex = jokeIdIndex;
+        this.properties = properties;
+        this.bulkProperties = bulkProperties;
+        this.minHasher = new MinHasher(properties.getNumHashes(),
+                                       properties.getShingleSize(),
+                                       properties.getMinTextLength());
+        this.index = newIndex();
+        this.uniqueChecks = checkTimer("unique", meterRegistry);
+        this.duplicateChecks = checkTimer("duplicate", meterRegistry);
+        this.skippedChecks = checkTimer("skipped", meterRegistry);
+        meterRegistry.gauge("jokes.dedup.index.size", this, service -> service.index.size());
+    }
+
+    @Override
+    public DedupCheck check(String joke) {
+        return check(joke, null);
+    }
+
+    @Override
+    public Batch newBatch() {
+        var local = newIndex();
+        var nextId = new long[] {-1};
+        return joke -> {
+            var check = check(joke, local);
+            if (check.getSignature() != null && !check.isRejected()) {
+                local.add(nextId[0]--, check.getSignature());
+            }
+            return check;
+        };
+    }
+
+    /**
+     * Внутри транзакции шутка добавляется в индекс только после фиксации: при откате в индексе остался бы
+     * идентификатор несуществующей шутки, и похожие на нее шутки отклонялись бы.
+     */
+    @Override
+    public void register(Long jokeId, DedupCheck check) {
+        if (jokeId == null || check.getSignature() == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addRegistered(jokeId, check.getSignature());
+                }
+            });
+        } else {
+            addRegistered(jokeId, check.getSignature());
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.dedup.refresh:10s}")
+    public synchronized void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        var overlap = properties.getRefreshOverlap();
+        var maxId = new long[] {loadedUpTo};
+        signatureRepository.streamSignatures(Math.max(0, loadedUpTo - overlap), (jokeId, bytes) -> {
+            maxId[0] = Math.max(maxId[0], jokeId);
+            var signature = minHasher.fromBytes(bytes);
+            if (signature != null) {
+                synchronized (indexLock) {
+                    if (recentIds.add(jokeId)) {
+                        index.add(jokeId, signature);
+                    }
+                    if (recentIds.size() > 2 * overlap) {
+                        recentIds.headSet(jokeId - overlap).clear();
+                    }
+                }
+            }
+        });
+        loadedUpTo = maxId[0];
+        synchronized (indexLock) {
+            var floor = loadedUpTo - overlap;
+            recentIds.headSet(floor).clear();
+            registered.keySet().removeIf(jokeId -> jokeId < floor);
+        }
+    }
+
+    @Override
+    public synchronized CorpusDedupResult dedupeCorpus() {
+        synchronized (indexLock) {
+            registered.clear();
+        }
+        var signed = signMissing();
+        var ids = new ArrayList<Long>();
+        var signatures = new ArrayList<int[]>();
+        var corpus = newIndex();
+        signatureRepository.streamSignatures(0, (jokeId, bytes) -> {
+            var signature = minHasher.fromBytes(bytes);
+            if (signature != null) {
+                ids.add(jokeId);
+                signatures.add(signature);
+                corpus.add(jokeId, signature);
+            }
+        });
+        var matches = new ConcurrentHashMap<Long, Long>();
+        IntStream.range(0, ids.size())
+                 .parallel()
+                 .forEach(i -> corpus.findMatch(signatures.get(i), properties.getThreshold(), ids.get(i))
+                                     .ifPresent(match -> matches.put(ids.get(i), match.getJokeId())));
+        var duplicates = toEarliestJoke(matches);
+        if (properties.getPolicy() == DuplicatePolicy.REJECT) {
+            signatureRepository.softDeleteJokes(duplicates);
+            jokeCache.invalidateAll();
+            jokeIdIndex.invalidateAll();
+        } else {
+            signatureRepository.markDuplicates(duplicates);
+        }
+        var rebuilt = corpus;
+        if (properties.getPolicy() == DuplicatePolicy.REJECT && !duplicates.isEmpty()) {
+            rebuilt = newIndex();
+            for (int i = 0; i < ids.size(); i++) {
+                if (!duplicates.containsKey(ids.get(i))) {
+                    rebuilt.add(ids.get(i), signatures.get(i));
+                }
+            }
+        }
+        loadedUpTo = ids.isEmpty() ? loadedUpTo : Math.max(loadedUpTo, ids.get(ids.size() - 1));
+        swapIndex(rebuilt, ids, duplicates);
+        var result = new CorpusDedupResult(signed, ids.size(), duplicates.size());
+        log.info("Corpus deduplication finished with policy {}: {}", properties.getPolicy(), result);
+        return result;
+    }
+
+    private void addRegistered(long jokeId, int[] signature) {
+        synchronized (indexLock) {
+            if (recentIds.add(jokeId)) {
+                registered.put(jokeId, signature);
+                index.add(jokeId, signature);
+            }
+        }
+    }
+
+    /**
+     * @param ids
+     *         Идентификаторы шуток выборки проверки корпуса по возрастанию.
+     */
+    private void swapIndex(NearDuplicateIndex rebuilt, List<Long> ids, Map<Long, Long> duplicates) {
+        synchronized (indexLock) {
+            registered.forEach((jokeId, signature) -> {
+                if (Collections.binarySearch(ids, jokeId) < 0 && !duplicates.containsKey(jokeId)) {
+                    rebuilt.add(jokeId, signature);
+                }
+            });
+            index = rebuilt;
+            var floor = loadedUpTo - properties.getRefreshOverlap();
+            recentIds.clear();
+            for (int i = ids.size() - 1; i >= 0 && ids.get(i) >= floor; i--) {
+                recentIds.add(ids.get(i));
+            }
+            recentIds.addAll(registered.keySet());
+        }
+    }
+
+    private DedupCheck check(String joke, NearDuplicateIndex local) {
+        if (!properties.isEnabled()) {
+            return DedupCheck.skipped();
+        }
+        var started = System.nanoTime();
+        var signature = minHasher.signature(joke);
+        if (signature == null) {
+            skippedChecks.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return DedupCheck.skipped();
+        }
+        var match = index.findMatch(signature, properties.getThreshold());
+        if (match.isEmpty() && local != null) {
+            match = local.findMatch(signature, properties.getThreshold());
+        }
+        var timer = match.isPresent() ? duplicateChecks : uniqueChecks;
+        timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        var rejected = match.isPresent() && properties.getPolicy() == DuplicatePolicy.REJECT;
+        return new DedupCheck(signature, match.orElse(null), rejected);
+    }
+
+    /**
+     * Считает сигнатуры шуток без сигнатуры порциями по {@code app.bulk.batch-size}, порция обрабатывается
+     * параллельно. Короткие тексты получают отметку {@link #NO_SIGNATURE}, чтобы не читать их при каждой проверке.
+     *
+     * @return Число вычисленных сигнатур.
+     */
+    private int signMissing() {
+        var batchSize = bulkProperties.getBatchSize();
+        var signed = 0;
+        var afterId = 0L;
+        while (true) {
+            var page = signatureRepository.findUnsigned(afterId, batchSize);
+            if (page.isEmpty()) {
+                return signed;
+            }
+            Map<Long, byte[]> signatures = page.parallelStream()
+                                               .map(joke -> new AbstractMap.SimpleEntry<>(
+                                                       joke.getId(), toBytes(minHasher.signature(joke.getName()))))
+                                               .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+            signatureRepository.updateSignatures(signatures);
+            signed += (int) signatures.values().stream().filter(bytes -> bytes != NO_SIGNATURE).count();
+            afterId = page.get(page.size() - 1).getId();
+            if (page.size() < batchSize) {
+                return signed;
+            }
+        }
+    }
+
+    /**
+     * Цепочки дубликатов сводятся к самой ранней шутке: похожая шутка имеет меньший идентификатор,
+     * поэтому при обходе по возрастанию она уже сведена.
+     */
+    private static Map<Long, Long> toEarliestJoke(Map<Long, Long> matches) {
+        var duplicates = new TreeMap<Long, Long>();
+        new TreeMap<>(matches).forEach((jokeId, similarId) ->
+                duplicates.put(jokeId, duplicates.getOrDefault(similarId, similarId)));
+        return duplicates;
+    }
+
+    private static byte[] toBytes(int[] signature) {
+        return signature == null ? NO_SIGNATURE : MinHasher.toBytes(signature);
+    }
+
+    private NearDuplicateIndex newIndex() {
+        return new NearDuplicateIndex(properties.getNumHashes(), properties.getBands());
+    }
+
+    private static Timer checkTimer(String result, MeterRegistry meterRegistry) {
+        return Timer.builder("jokes.dedup.check")
+                    .description("Near-duplicate lookup of a joke text")
+                    .tag("result", result)
+                    .register(meterRegistry);
+    }
+
+}
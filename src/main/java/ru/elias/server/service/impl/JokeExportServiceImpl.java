@@ -0,0 +1,91 @@
+package ru.elias.server.service.impl;
+
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.ErrorType;
+import ru.elias.server.repository.CategoryRepository;
+import ru.elias.server.repository.JokeExportRepository;
+import ru.elias.server.service.JokeExportService;
+import ru.elias.server.service.MessageSourceHelper;
+import ru.elias.server.transfer.JokeFileFormat;
+import ru.elias.server.transfer.JokeRecordWriter;
+
+/**
+ * Экспорт пишет строки курсора сразу в поток ответа, поэтому расход памяти не зависит от размера таблицы.
+ * Транзакция и соединение удерживаются до конца передачи.
+ */
+@Slf4j
+@Service
+public class JokeExportServiceImpl implements JokeExportService {
+
+    private static final String GZIP_CONTENT_TYPE = "application/gzip";
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final CategoryRepository categoryRepository;
+
+    private final JokeExportRepository jokeExportRepository;
+
+    private final MessageSourceHelper messageSourceHelper;
+
+    private final ObjectMapper objectMapper;
+
+    private final Counter rowsExported;
+
+    public JokeExportServiceImpl(CategoryRepository categoryRepository,
+                                 JokeExportRepository jokeExportRepository,
+                                 MessageSourceHelper messageSourceHelper,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry) {
+        this.categoryRepository = categoryRepository;
+        this.jokeExportRepository = jokeExportRepository;
+        this.messageSourceHelper = messageSourceHelper;
+        this.objectMapper = objectMapper;
+        this.rowsExported = meterRegistry.counter("jokes.export.rows");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportJokes(JokeFileFormat format,
+                            String categoryName,
+                            boolean gzip,
+                            HttpServletResponse response) throws IOException {
+        if (categoryName != null && categoryRepository.findCategoryByName(categoryName).isEmpty()) {
+            var errorType = ErrorType.CATEGORY_NOT_FOUND_BY_NAME;
+            var msg = messageSourceHelper.getMessage(errorType, categoryName);
+            throw new BusinessException(errorType, msg);
+        }
+        var fileName = "jokes." + format.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? GZIP_CONTENT_TYPE : format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                           ContentDisposition.attachment().filename(fileName).build().toString());
+        var out = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER_SIZE)
+                : response.getOutputStream();
+        var rows = new AtomicLong();
+        try (var writer = JokeRecordWriter.open(format, out, objectMapper)) {
+            jokeExportRepository.streamJokes(categoryName, (joke, category) -> {
+                writer.write(joke, category);
+                rows.incrementAndGet();
+            });
+        } finally {
+            rowsExported.increment(rows.get());
+        }
+        log.info("Exported {} jokes as {}", rows.get(), fileName);
+    }
+
+}
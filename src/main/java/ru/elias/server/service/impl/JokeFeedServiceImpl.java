@@ -0,0 +1,168 @@
+package ru.elias.server.service.impl;
+
+import javax.annotation.PreDestroy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import ru.elias.server.config.properties.JokeFeedProperties;
+import ru.elias.server.dto.JokeCreatedEvent;
+import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.ErrorType;
+import ru.elias.server.repository.CategoryRepository;
+import ru.elias.server.service.JokeFeedService;
+import ru.elias.server.service.MessageSourceHelper;
+
+/**
+ * Лента созданных шуток. События публикуются одним потоком {@code joke-feed} в replay-sink Reactor:
+ * подписчики хранятся в массиве, изменяемом через compare-and-set, а последние события остаются доступными
+ * для продолжения по {@code Last-Event-ID}. У каждого подписчика свой ограниченный буфер; при его переполнении
+ * подписчик отключается, не задерживая остальных.
+ */
+@Slf4j
+@Service
+public class JokeFeedServiceImpl implements JokeFeedService {
+
+    private static final String EVENT_NAME = "joke";
+
+    private static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private static final long MICROS_PER_MILLI = 1_000;
+
+    private final JokeFeedProperties properties;
+
+    private final CategoryRepository categoryRepository;
+
+    private final MessageSourceHelper messageSourceHelper;
+
+    private final Scheduler scheduler = Schedulers.newSingle("joke-feed");
+
+    private final Sinks.Many<FeedEntry> sink;
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    private final Counter publishedCounter;
+
+    private final Counter evictedCounter;
+
+    /**
+     * Идентификатор последнего события; изменяется только потоком {@code joke-feed}. Отсчет начинается с времени
+     * запуска в микросекундах, поэтому после перезапуска идентификаторы больше выданных ранее.
+     */
+    private volatile long lastEventId = System.currentTimeMillis() * MICROS_PER_MILLI;
+
+    public JokeFeedServiceImpl(JokeFeedProperties properties,
+                               CategoryRepository categoryRepository,
+                               MessageSourceHelper messageSourceHelper,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.categoryRepository = categoryRepository;
+        this.messageSourceHelper = messageSourceHelper;
+        this.sink = Sinks.many().replay().limit(properties.getReplaySize(), properties.getReplayAge());
+        Gauge.builder("joke.feed.subscribers", subscribers, AtomicInteger::get)
+             .description("Current joke feed subscribers")
+             .register(meterRegistry);
+        this.publishedCounter = Counter.builder("joke.feed.events")
+                                       .description("Events published to the joke feed")
+                                       .register(meterRegistry);
+        this.evictedCounter = Counter.builder("joke.feed.evictions")
+                                     .description("Joke feed subscribers disconnected for falling behind")
+                                     .register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onJokeCreated(JokeCreatedEvent event) {
+        scheduler.schedule(() -> publish(event));
+    }
+
+    @Override
+    public Flux<ServerSentEvent<JokeCreatedEvent>> subscribe(String categoryName, Long resumeFromId) {
+        if (categoryName != null && categoryRepository.findCategoryByName(categoryName).isEmpty()) {
+            var errorType = ErrorType.CATEGORY_NOT_FOUND_BY_NAME;
+            throw new BusinessException(errorType, messageSourceHelper.getMessage(errorType, categoryName));
+        }
+        // слот резервируется сразу, иначе параллельные подписки успевают пройти проверку до увеличения счетчика
+        if (subscribers.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscribers.decrementAndGet();
+            var errorType = ErrorType.JOKE_FEED_OVERLOADED;
+            throw new BusinessException(errorType, messageSourceHelper.getMessage(errorType));
+        }
+        try {
+            return createStream(categoryName, resumeFromId).doFinally(signal -> subscribers.decrementAndGet());
+        } catch (RuntimeException e) {
+            subscribers.decrementAndGet();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sink.tryEmitComplete();
+        scheduler.dispose();
+    }
+
+    private Flux<ServerSentEvent<JokeCreatedEvent>> createStream(String categoryName, Long resumeFromId) {
+        var current = lastEventId;
+        var after = resumeFromId == null || resumeFromId > current ? current : resumeFromId;
+        var evicted = Sinks.empty();
+        var events = sink.asFlux()
+                         .filter(entry -> entry.id > after)
+                         .filter(entry -> categoryName == null || categoryName.equals(entry.event.getCategory()))
+                         .map(JokeFeedServiceImpl::toServerSentEvent);
+        var heartbeats = Flux.interval(properties.getHeartbeat(), scheduler)
+                             .map(tick -> ServerSentEvent.<JokeCreatedEvent>builder()
+                                                         .comment(HEARTBEAT_COMMENT)
+                                                         .build());
+        return events.mergeWith(heartbeats)
+                     .onBackpressureBuffer(properties.getBufferSize(),
+                                           dropped -> evict(evicted),
+                                           BufferOverflowStrategy.DROP_LATEST)
+                     .takeUntilOther(evicted.asMono());
+    }
+
+    private void publish(JokeCreatedEvent event) {
+        var id = lastEventId + 1;
+        var result = sink.tryEmitNext(new FeedEntry(id, event));
+        if (result.isFailure()) {
+            log.warn("Joke {} was not published to the feed: {}", event.getId(), result);
+            return;
+        }
+        lastEventId = id;
+        publishedCounter.increment();
+    }
+
+    private void evict(Sinks.Empty<Object> evicted) {
+        if (evicted.tryEmitEmpty().isSuccess()) {
+            evictedCounter.increment();
+        }
+    }
+
+    private static ServerSentEvent<JokeCreatedEvent> toServerSentEvent(FeedEntry entry) {
+        return ServerSentEvent.builder(entry.event)
+                              .id(String.valueOf(entry.id))
+                              .event(EVENT_NAME)
+                              .build();
+    }
+
+    @RequiredArgsConstructor
+    private static final class FeedEntry {
+
+        private final long id;
+
+        private final JokeCreatedEvent event;
+
+    }
+
+}
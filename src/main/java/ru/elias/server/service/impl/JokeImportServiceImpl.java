@@ -0,0 +1,161 @@
+package ru.elias.server.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.elias.server.dto.JokeDto;
+import ru.elias.server.dto.JokeImportStatus;
+import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.ErrorType;
+import ru.elias.server.model.Category;
+import ru.elias.server.model.Joke;
+import ru.elias.server.repository.CategoryRepository;
+import ru.elias.server.repository.JokeImportRepository;
+import ru.elias.server.service.BulkRequestHelper;
+import ru.elias.server.service.JokeDedupService;
+import ru.elias.server.service.JokeImportService;
+import ru.elias.server.service.MessageSourceHelper;
+import ru.elias.server.transfer.JokeFileFormat;
+import ru.elias.server.transfer.JokeRecordReader;
+import ru.elias.server.transfer.MalformedRecordException;
+
+/**
+ * Импорт читает тело запроса потоком и передает строки в {@link JokeImportRepository} по мере чтения.
+ * Категории загружаются один раз в справочник по названию; строки с неизвестной категорией
+ * или некорректным текстом пропускаются и учитываются как отклоненные. Почти дубликаты существующих шуток
+ * и ранее прочитанных строк отклоняются или отмечаются по политике {@code app.dedup.policy}.
+ */
+@Slf4j
+@Service
+public class JokeImportServiceImpl implements JokeImportService {
+
+    private final CategoryRepository categoryRepository;
+
+    private final JokeImportRepository jokeImportRepository;
+
+    private final BulkRequestHelper bulkRequestHelper;
+
+    private final MessageSourceHelper messageSourceHelper;
+
+    private final ObjectMapper objectMapper;
+
+    private final JokeDedupService jokeDedupService;
+
+    private final Map<UUID, JokeImportStatus> activeImports = new ConcurrentHashMap<>();
+
+    private final Counter rowsRead;
+
+    private final Counter rowsRejected;
+
+    private final Counter rowsImported;
+
+    private final DistributionSummary throughput;
+
+    public JokeImportServiceImpl(CategoryRepository categoryRepository,
+                                 JokeImportRepository jokeImportRepository,
+                                 BulkRequestHelper bulkRequestHelper,
+                                 MessageSourceHelper messageSourceHelper,
+                                 ObjectMapper objectMapper,
+                                 JokeDedupService jokeDedupService,
+                                 MeterRegistry meterRegistry) {
+        this.categoryRepository = categoryRepository;
+        this.jokeImportRepository = jokeImportRepository;
+        this.bulkRequestHelper = bulkRequestHelper;
+        this.messageSourceHelper = messageSourceHelper;
+        this.objectMapper = objectMapper;
+        this.jokeDedupService = jokeDedupService;
+        this.rowsRead = meterRegistry.counter("jokes.import.rows", "result", "read");
+        this.rowsRejected = meterRegistry.counter("jokes.import.rows", "result", "rejected");
+        this.rowsImported = meterRegistry.counter("jokes.import.rows", "result", "imported");
+        this.throughput = DistributionSummary.builder("jokes.import.throughput")
+                                             .description("Rows read per second by a finished import")
+                                             .baseUnit("rows/s")
+                                             .register(meterRegistry);
+        meterRegistry.gaugeMapSize("jokes.import.active", List.of(), activeImports);
+    }
+
+    @Override
+    @Transactional
+    public ResponseEntity<JokeImportStatus> importJokes(JokeFileFormat format, InputStream body) {
+        var categories = categoryRepository.findAll()
+                                           .stream()
+                                           .collect(Collectors.toMap(Category::getName, Function.identity()));
+        var status = new JokeImportStatus(format, Instant.now());
+        activeImports.put(status.getId(), status);
+        var dedupBatch = jokeDedupService.newBatch();
+        try (var reader = JokeRecordReader.open(format, body, objectMapper)) {
+            var imported = jokeImportRepository.importJokes(() -> nextRow(reader, categories, dedupBatch, status));
+            status.finish(imported, Instant.now());
+            record(status);
+            return ResponseEntity.ok(status);
+        } catch (MalformedRecordException e) {
+            var errorType = ErrorType.IMPORT_FORMAT_INVALID;
+            var msg = messageSourceHelper.getMessage(errorType, e.getLine(), e.getMessage());
+            throw new BusinessException(errorType, msg);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            activeImports.remove(status.getId());
+        }
+    }
+
+    @Override
+    public ResponseEntity<List<JokeImportStatus>> getActiveImports() {
+        return ResponseEntity.ok(new ArrayList<>(activeImports.values()));
+    }
+
+    private Joke nextRow(JokeRecordReader reader,
+                         Map<String, Category> categories,
+                         JokeDedupService.Batch dedupBatch,
+                         JokeImportStatus status) throws IOException {
+        JokeDto record;
+        while ((record = reader.read()) != null) {
+            status.rowRead();
+            var category = categories.get(record.getCategory());
+            if (category != null && bulkRequestHelper.isValidName(record.getJoke())) {
+                var check = dedupBatch.check(record.getJoke());
+                if (!check.isRejected()) {
+                    return Joke.builder()
+                               .name(record.getJoke())
+                               .category(category)
+                               .minhash(check.getMinhash())
+                               .duplicateOf(check.getDuplicateOf())
+                               .build();
+                }
+            }
+            status.rowRejected();
+        }
+        return null;
+    }
+
+    private void record(JokeImportStatus status) {
+        rowsRead.increment(status.getRowsRead());
+        rowsRejected.increment(status.getRowsRejected());
+        rowsImported.increment(status.getRowsImported());
+        var seconds = Duration.between(status.getStartedAt(), status.getFinishedAt()).toMillis() / 1000.0;
+        if (seconds > 0) {
+            throughput.record(status.getRowsRead() / seconds);
+        }
+        log.info("Import {} finished: read {}, rejected {}, imported {} rows in {} s",
+                 status.getId(), status.getRowsRead(), status.getRowsRejected(), status.getRowsImported(), seconds);
+    }
+
+}
@@ -1,7 +1,14 @@
 package ru.elias.server.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -9,14 +16,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.querydsl.core.BooleanBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.elias.server.cache.JokeCache;
+import ru.elias.server.cache.JokeIdIndex;
 import ru.elias.server.client.JokeReactiveClient;
+import ru.elias.server.config.properties.RandomJokeProperties;
+import ru.elias.server.dedup.NearDuplicate;
+import ru.elias.server.dto.JokeCreatedEvent;
 import ru.elias.server.dto.JokeDto;
 import ru.elias.server.dto.JokesGeneralStatistic;
+import ru.elias.server.dto.bulk.BulkCreateResult;
+import ru.elias.server.dto.bulk.BulkItemResult;
 import ru.elias.server.dto.report.JokesByCategoriesReportData;
 import ru.elias.server.exception.BusinessException;
 import ru.elias.server.exception.ErrorType;
@@ -26,16 +40,20 @@ import ru.elias.server.mapper.JokeCategoryReportMapper;
 import ru.elias.server.mapper.JokeMapper;
 import ru.elias.server.model.Category;
 import ru.elias.server.model.Joke;
+import ru.elias.server.ratelimit.ClientRateLimiter;
+import ru.elias.server.ratelimit.RateLimitedEndpoint;
+import ru.elias.server.repository.BatchInsertRepository;
 import ru.elias.server.repository.CategoryRepository;
 import ru.elias.server.repository.JokeQueryCustomRepository;
 import ru.elias.server.repository.JokeRepository;
+import ru.elias.server.service.BulkRequestHelper;
+import ru.elias.server.service.JokeDedupService;
 import ru.elias.server.service.JokeService;
 import ru.elias.server.service.MessageSourceHelper;
 import ru.elias.server.util.QEntities;
 
 @Service
 @RequiredArgsConstructor
-@Slf4j
 public class JokeServiceImpl implements JokeService {
 
     private final JokeRepository jokeRepository;
@@ -56,17 +74,83 @@ public class JokeServiceImpl implements JokeService {
 
     private final ObjectMapper objectMapper;
 
+    private final JokeCache jokeCache;
+
+    private final BatchInsertRepository batchInsertRepository;
+
+    private final BulkRequestHelper bulkRequestHelper;
+
+    private final JokeIdIndex jokeIdIndex;
+
+    private final RandomJokeProperties randomJokeProperties;
+
+    private final ClientRateLimiter clientRateLimiter;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final JokeDedupService jokeDedupService;
+
     @Override
     @Transactional
     public ResponseEntity<Void> createJoke(boolean flag, String category, JokeDto jokeDto) {
         if (flag) {
-            getAndSaveJoke(category);
+            clientRateLimiter.acquire(RateLimitedEndpoint.JOKES_AUTO_CREATE);
+            getAndSaveJoke(category).ifPresent(this::publishCreated);
         } else {
-            jokeRepository.save(jokeMapper.map(jokeDto));
+            var joke = jokeMapper.map(jokeDto);
+            jokeRepository.save(joke);
+            publishCreated(joke);
         }
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    @Override
+    @Transactional
+    public ResponseEntity<BulkCreateResult> createJokes(List<JokeDto> jokes) {
+        bulkRequestHelper.checkLimit(jokes.size());
+        var categoryNames = jokes.stream()
+                                 .filter(Objects::nonNull)
+                                 .map(JokeDto::getCategory)
+                                 .filter(Objects::nonNull)
+                                 .collect(Collectors.toSet());
+        var categories = categoryRepository.findAllByNameIn(categoryNames)
+                                           .stream()
+                                           .collect(Collectors.toMap(Category::getName, Function.identity()));
+        var items = new ArrayList<BulkItemResult>(jokes.size());
+        var toInsert = new ArrayList<Joke>();
+        var dedupBatch = jokeDedupService.newBatch();
+        for (int i = 0; i < jokes.size(); i++) {
+            var dto = jokes.get(i);
+            if (dto == null || !bulkRequestHelper.isValidName(dto.getJoke())) {
+                items.add(bulkRequestHelper.failed(i,
+                                                   ErrorType.JOKE_TEXT_INVALID,
+                                                   BulkRequestHelper.NAME_MAX_LENGTH));
+                continue;
+            }
+            var category = categories.get(dto.getCategory());
+            if (category == null) {
+                items.add(bulkRequestHelper.failed(i, ErrorType.CATEGORY_NOT_FOUND_BY_NAME, dto.getCategory()));
+                continue;
+            }
+            var check = dedupBatch.check(dto.getJoke());
+            if (check.isRejected()) {
+                items.add(bulkRequestHelper.failed(i,
+                                                   ErrorType.JOKE_NEAR_DUPLICATE,
+                                                   formatSimilarity(check.getDuplicate())));
+                continue;
+            }
+            toInsert.add(Joke.builder()
+                             .name(dto.getJoke())
+                             .category(category)
+                             .minhash(check.getMinhash())
+                             .duplicateOf(check.getDuplicateOf())
+                             .build());
+            items.add(bulkRequestHelper.created(i));
+        }
+        batchInsertRepository.insertJokes(toInsert);
+        return bulkRequestHelper.toResponse(items);
+    }
+
     @Override
     @Transactional
     public ResponseEntity<JokeDto> getRandomJoke() {
@@ -82,16 +166,39 @@ public class JokeServiceImpl implements JokeService {
         );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<JokeDto>> getRandomJokes(String categoryName, int count) {
+        var maxCount = randomJokeProperties.getMaxCount();
+        if (count < 1 || count > maxCount) {
+            var errorType = ErrorType.JOKE_COUNT_INVALID;
+            throw new BusinessException(errorType, messageSourceHelper.getMessage(errorType, maxCount, count));
+        }
+        var categoryId = categoryName == null ? null : getCategory(categoryName).getId();
+        var ids = jokeIdIndex.getIds(categoryId);
+        if (ids.length == 0) {
+            return ResponseEntity.ok(Collections.emptyList());
+        }
+        var jokes = jokeRepository.findAllWithCategoryByIdIn(sampleIds(ids, count))
+                                  .stream()
+                                  .map(jokeMapper::map)
+                                  .collect(Collectors.toList());
+        Collections.shuffle(jokes, ThreadLocalRandom.current());
+        return ResponseEntity.ok(jokes);
+    }
+
     @Override
     @Transactional
     public ResponseEntity<List<JokesGeneralStatistic>> getJokesCountStatistics() {
-        var statistic = jokeQueryCustomRepository.countByCategories();
         return ResponseEntity.ok(jokeQueryCustomRepository.countByCategories());
     }
 
     @Override
     public ResponseEntity<List<JokeDto>> getRandomJokeByCriteria(JokeQueryCriteria criteria) {
         BooleanBuilder filter = getBooleanBuilder(criteria);
+        if (filter == null) {
+            return ResponseEntity.ok(Collections.emptyList());
+        }
         return ResponseEntity.ok(jokeQueryCustomRepository.findJokesByPredicate(filter)
                                                           .stream()
                                                           .map(jokeMapper::map)
@@ -107,22 +214,34 @@ public class JokeServiceImpl implements JokeService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    public long countJokesByCategory(String categoryName) {
+        var count = jokeRepository.countJokeByCategoryName(categoryName);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Попадание в кэш обслуживается без транзакции и соединения с бд; при промахе шутка читается
+     * в транзакции только для чтения {@link JokeRepository#findJokeById}.
+     */
+    @Override
     public ResponseEntity<JokeDto> getJokeById(Long id) {
-        var predicate = QEntities.JOKE.id.eq(id);
-        return ResponseEntity.ok(
-                jokeRepository.findOne(predicate)
-                              .map(jokeMapper::map)
-                              .orElseThrow(() -> {
-                                  var errorType = ErrorType.JOKE_NOT_FOUND_BY_ID;
-                                  var msg = messageSourceHelper.getMessage(errorType, id);
-                                  log.error(msg);
-                                  throw new BusinessException(errorType, msg);
-                              })
-        );
+        var cached = jokeCache.get(id);
+        if (cached.isPresent()) {
+            return ResponseEntity.ok(cached.get());
+        }
+        var joke = jokeRepository.findJokeById(id)
+                                 .map(jokeMapper::map)
+                                 .orElseThrow(() -> {
+                                     var errorType = ErrorType.JOKE_NOT_FOUND_BY_ID;
+                                     var msg = messageSourceHelper.getMessage(errorType, id);
+                                     throw new BusinessException(errorType, msg);
+                                 });
+        jokeCache.put(id, joke);
+        return ResponseEntity.ok(joke);
     }
 
-    private void getAndSaveJoke(String categoryName) {
+    private Optional<Joke> getAndSaveJoke(String categoryName) {
         var category = getCategory(categoryName);
         var randomJoke = getJokeFromResponse(
                 jokeClient.getRandomJokeByCategory(category.getName())
@@ -133,17 +252,66 @@ public class JokeServiceImpl implements JokeService {
                                       errorType,
                                       categoryName
                               );
-                              log.error(msg);
                               throw new BusinessException(errorType, msg);
                           })
         );
+        if (jokeRepository.existsByName(randomJoke)) {
+            return Optional.empty();
+        }
+        var check = jokeDedupService.check(randomJoke);
+        if (check.isRejected()) {
+            return Optional.empty();
+        }
         var joke = Joke.builder()
                        .name(randomJoke)
                        .category(category)
+                       .minhash(check.getMinhash())
+                       .duplicateOf(check.getDuplicateOf())
                        .build();
-        if (!jokeRepository.exists(QEntities.JOKE.name.eq(joke.getName()))) {
-            jokeRepository.save(joke);
+        jokeRepository.save(joke);
+        jokeDedupService.register(joke.getId(), check);
+        return Optional.of(joke);
+    }
+
+    private static String formatSimilarity(NearDuplicate duplicate) {
+        return String.format(Locale.ROOT, "%.2f", duplicate.getSimilarity());
+    }
+
+    /**
+     * Событие обрабатывается лентой шуток после фиксации транзакции.
+     */
+    private void publishCreated(Joke joke) {
+        var category = joke.getCategory();
+        eventPublisher.publishEvent(JokeCreatedEvent.builder()
+                                                    .id(joke.getId())
+                                                    .joke(joke.getName())
+                                                    .category(category == null ? null : category.getName())
+                                                    .build());
+    }
+
+    /**
+     * Выбирает {@code count} различных идентификаторов алгоритмом Флойда: O(count) операций
+     * независимо от количества шуток и без копирования массива идентификаторов.
+     */
+    private static List<Long> sampleIds(long[] ids, int count) {
+        if (count >= ids.length) {
+            var all = new ArrayList<Long>(ids.length);
+            for (long id : ids) {
+                all.add(id);
+            }
+            return all;
+        }
+        var random = ThreadLocalRandom.current();
+        var positions = new HashSet<Integer>(count * 2);
+        for (int j = ids.length - count; j < ids.length; j++) {
+            var position = random.nextInt(j + 1);
+            positions.add(positions.contains(position) ? j : position);
+        }
+        var sample = new ArrayList<Long>(count);
+        for (int position : positions) {
+            sample.add(ids[position]);
         }
+        return sample;
     }
 
     @SneakyThrows
@@ -160,19 +328,32 @@ public class JokeServiceImpl implements JokeService {
                                              errorType,
                                              categoryName
                                      );
-                                     log.error(msg);
                                      throw new BusinessException(errorType, msg);
                                  });
     }
 
+    /**
+     * Фильтр по названию категории заменяется фильтром по {@code jokes.category_id} с идентификаторами
+     * подходящих категорий: со списком значений PostgreSQL отсекает секции {@code jokes} при планировании.
+     *
+     * @return Фильтр шуток или {@code null}, если под фильтр категории не подходит ни одна категория.
+     */
     private BooleanBuilder getBooleanBuilder(JokeQueryCriteria criteria) {
         var booleanBuilder = new BooleanBuilder();
         commonBooleanBuilder.andMatchStringFilter(booleanBuilder,
                                                   criteria.getJokeName(),
                                                   QEntities.JOKE.name);
-        commonBooleanBuilder.andMatchStringFilter(booleanBuilder,
+        var categoryFilter = new BooleanBuilder();
+        commonBooleanBuilder.andMatchStringFilter(categoryFilter,
                                                   criteria.getCategoryName(),
                                                   QEntities.CATEGORY.name);
+        if (categoryFilter.hasValue()) {
+            var categoryIds = jokeQueryCustomRepository.findCategoryIdsByPredicate(categoryFilter);
+            if (categoryIds.isEmpty()) {
+                return null;
+            }
+            booleanBuilder.and(QEntities.JOKE.category.id.in(categoryIds));
+        }
         return booleanBuilder;
     }
 
@@ -0,0 +1,115 @@
+package ru.elias.server.service.impl;
+
+import java.util.Optional;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.elias.server.cache.JokeCache;
+import ru.elias.server.cache.JokeIdIndex;
+import ru.elias.server.dto.JokeDto;
+import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.ErrorType;
+import ru.elias.server.mapper.JokeMapper;
+import ru.elias.server.repository.CategoryRepository;
+import ru.elias.server.repository.JokeRepository;
+import ru.elias.server.service.JokeShuffleService;
+import ru.elias.server.service.MessageSourceHelper;
+import ru.elias.server.shuffle.ShuffleCursor;
+import ru.elias.server.shuffle.ShuffleCursorCodec;
+
+@Service
+@RequiredArgsConstructor
+public class JokeShuffleServiceImpl implements JokeShuffleService {
+
+    /**
+     * Текущий цикл и один новый: шутки, удаленные после построения индекса, пропускаются.
+     * <p>
+     * Номера в курсоре стабильны, пока новые шутки добавляются в конец индекса. Идентификатор из
+     * последовательности выдается до фиксации транзакции, поэтому шутка с меньшим идентификатором, зафиксированная
+     * после обновления индекса, встает в его середину и сдвигает номера следующих: в текущем цикле клиента одна
+     * шутка может повториться или пропуститься. Следующий цикл строится по новому индексу и не затронут.
+     */
+    private static final int MAX_CYCLES = 2;
+
+    private static final long ALL_CATEGORIES = 0L;
+
+    private final CategoryRepository categoryRepository;
+
+    private final JokeRepository jokeRepository;
+
+    private final JokeIdIndex jokeIdIndex;
+
+    private final JokeCache jokeCache;
+
+    private final JokeMapper jokeMapper;
+
+    private final ShuffleCursorCodec cursorCodec;
+
+    private final MessageSourceHelper messageSourceHelper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseEntity<JokeDto> getNextJoke(String categoryName, String cursorToken) {
+        var categoryId = categoryName == null ? null : getCategoryId(categoryName);
+        var ids = jokeIdIndex.getIds(categoryId);
+        if (ids.length == 0) {
+            return ResponseEntity.noContent().build();
+        }
+        var cursorCategoryId = categoryId == null ? ALL_CATEGORIES : categoryId;
+        var cursor = cursorToken == null
+                ? ShuffleCursor.start(cursorCategoryId, ids)
+                : decode(cursorToken, cursorCategoryId);
+        for (int cycle = 0; cycle < MAX_CYCLES; cycle++) {
+            if (cursor.isExhausted()) {
+                cursor = ShuffleCursor.start(cursorCategoryId, ids);
+            }
+            var permutation = cursor.permutation();
+            var position = cursor.getPosition();
+            while (position < cursor.getSize()) {
+                var index = permutation.apply(position++);
+                if (index < ids.length && cursor.contains(ids[index])) {
+                    var joke = findJoke(ids[index]);
+                    if (joke.isPresent()) {
+                        return ResponseEntity.ok()
+                                             .header(CURSOR_HEADER, cursorCodec.encode(cursor.withPosition(position)))
+                                             .body(joke.get());
+                    }
+                }
+            }
+            cursor = cursor.withPosition(position);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private Optional<JokeDto> findJoke(long id) {
+        return jokeCache.get(id)
+                        .or(() -> jokeRepository.findJokeById(id)
+                                                .map(jokeMapper::map)
+                                                .map(joke -> {
+                                                    jokeCache.put(id, joke);
+                                                    return joke;
+                                                }));
+    }
+
+    private ShuffleCursor decode(String cursorToken, long categoryId) {
+        return cursorCodec.decode(cursorToken)
+                          .filter(cursor -> cursor.getCategoryId() == categoryId)
+                          .orElseThrow(() -> new BusinessException(
+                                  ErrorType.SHUFFLE_CURSOR_INVALID,
+                                  messageSourceHelper.getMessage(ErrorType.SHUFFLE_CURSOR_INVALID)
+                          ));
+    }
+
+    private Long getCategoryId(String categoryName) {
+        return categoryRepository.findCategoryByName(categoryName)
+                                 .orElseThrow(() -> {
+                                     var errorType = ErrorType.CATEGORY_NOT_FOUND_BY_NAME;
+                                     var msg = messageSourceHelper.getMessage(errorType, categoryName);
+                                     throw new BusinessException(errorType, msg);
+                                 })
+                                 .getId();
+    }
+
+}
@@ -0,0 +1,137 @@
+package ru.elias.server.service.impl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.elias.server.config.properties.SchedulingProperties;
+import ru.elias.server.model.SchedulerLease;
+import ru.elias.server.repository.SchedulerLeaseRepository;
+import ru.elias.server.service.LeaderLeaseService;
+
+/**
+ * Аренда хранится строкой в таблице {@code scheduler_leases} и захватывается под блокировкой строки
+ * ({@code select ... for update}), поэтому в каждый момент времени у задачи не больше одного лидера.
+ * Если лидер перестал продлевать аренду, после ее истечения лидерство переходит к другому узлу.
+ */
+@Slf4j
+@Service
+public class LeaderLeaseServiceImpl implements LeaderLeaseService {
+
+    private final SchedulerLeaseRepository leaseRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final String nodeId;
+
+    private final Duration leaseTtl;
+
+    private final Clock clock;
+
+    private final Map<String, AtomicInteger> leadership = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LeaderLeaseServiceImpl(SchedulerLeaseRepository leaseRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  SchedulingProperties properties) {
+        this(leaseRepository,
+             transactionManager,
+             meterRegistry,
+             properties.getNodeId(),
+             properties.getLeaseTtl(),
+             Clock.systemUTC());
+    }
+
+    public LeaderLeaseServiceImpl(SchedulerLeaseRepository leaseRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  String nodeId,
+                                  Duration leaseTtl,
+                                  Clock clock) {
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.nodeId = nodeId;
+        this.leaseTtl = leaseTtl;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean tryAcquire(String leaseName) {
+        boolean acquired;
+        try {
+            acquired = Boolean.TRUE.equals(transactionTemplate.execute(status -> acquireOrRenew(leaseName)));
+        } catch (DataIntegrityViolationException e) {
+            // другой узел одновременно создал аренду с тем же именем
+            acquired = false;
+        }
+        leaderGauge(leaseName).set(acquired ? 1 : 0);
+        return acquired;
+    }
+
+    @Override
+    public void markCompleted(String leaseName) {
+        transactionTemplate.executeWithoutResult(status -> leaseRepository.findById(leaseName)
+                .filter(lease -> nodeId.equals(lease.getOwner()))
+                .ifPresent(lease -> lease.setCompletedAt(clock.instant())));
+    }
+
+    @Override
+    public Optional<Instant> getLastCompletedAt(String leaseName) {
+        return leaseRepository.findById(leaseName)
+                              .map(SchedulerLease::getCompletedAt);
+    }
+
+    private boolean acquireOrRenew(String leaseName) {
+        var now = clock.instant();
+        var lease = leaseRepository.findForUpdate(leaseName).orElse(null);
+        if (lease == null) {
+            leaseRepository.saveAndFlush(SchedulerLease.builder()
+                                                       .name(leaseName)
+                                                       .owner(nodeId)
+                                                       .acquiredAt(now)
+                                                       .expiresAt(now.plus(leaseTtl))
+                                                       .build());
+            log.info("Node {} acquired new lease {}", nodeId, leaseName);
+            return true;
+        }
+        if (nodeId.equals(lease.getOwner())) {
+            lease.setExpiresAt(now.plus(leaseTtl));
+            return true;
+        }
+        if (lease.getExpiresAt().isAfter(now)) {
+            return false;
+        }
+        log.info("Node {} takes over expired lease {} from {}", nodeId, leaseName, lease.getOwner());
+        meterRegistry.counter("scheduler.lease.handovers", "lease", leaseName).increment();
+        lease.setOwner(nodeId);
+        lease.setAcquiredAt(now);
+        lease.setExpiresAt(now.plus(leaseTtl));
+        return true;
+    }
+
+    private AtomicInteger leaderGauge(String leaseName) {
+        return leadership.computeIfAbsent(leaseName, name -> meterRegistry.gauge(
+                "scheduler.lease.leader",
+                Tags.of("lease", name, "node", nodeId),
+                new AtomicInteger()));
+    }
+
+}
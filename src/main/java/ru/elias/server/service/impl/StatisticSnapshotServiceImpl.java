@@ -0,0 +1,46 @@
+package ru.elias.server.service.impl;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.elias.server.dto.JokesGeneralStatistic;
+import ru.elias.server.model.JokesStatisticSnapshot;
+import ru.elias.server.repository.JokeQueryCustomRepository;
+import ru.elias.server.repository.JokesStatisticSnapshotRepository;
+import ru.elias.server.service.StatisticSnapshotService;
+
+@Service
+@RequiredArgsConstructor
+public class StatisticSnapshotServiceImpl implements StatisticSnapshotService {
+
+    private final JokeQueryCustomRepository jokeQueryCustomRepository;
+
+    private final JokesStatisticSnapshotRepository snapshotRepository;
+
+    @Override
+    @Transactional
+    public void refresh() {
+        var updatedAt = Instant.now();
+        var snapshot = jokeQueryCustomRepository.countByCategories()
+                                                .stream()
+                                                .map(statistic -> JokesStatisticSnapshot.builder()
+                                                        .categoryName(statistic.getName())
+                                                        .jokesCount(statistic.getJokesCount())
+                                                        .updatedAt(updatedAt)
+                                                        .build())
+                                                .collect(Collectors.toList());
+        snapshotRepository.deleteAllInBatch();
+        snapshotRepository.saveAll(snapshot);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<JokesGeneralStatistic> getSnapshot() {
+        return snapshotRepository.findAllStatistics();
+    }
+
+}
@@ -6,7 +6,10 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.jasperreports.engine.JREmptyDataSource;
 import net.sf.jasperreports.engine.JRException;
@@ -24,10 +27,11 @@ import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
 import org.springframework.context.ApplicationContext;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import ru.elias.server.dto.report.ReportFormat;
 import ru.elias.server.exception.BusinessException;
 import ru.elias.server.exception.ErrorType;
+import ru.elias.server.monitoring.RequestTimings;
+import ru.elias.server.monitoring.TimingCategory;
 import ru.elias.server.service.MessageSourceHelper;
 
 @Slf4j
@@ -35,15 +39,23 @@ public abstract class BaseReportService<P, R> {
 
     private static final String ATTACHMENT_PREFIX = "attachment; filename=report";
 
+    private static final String SYSTEM_USER = "system";
+
+    private static final String NO_CATEGORY = "none";
+
     protected final MessageSourceHelper messageSourceHelper;
 
     private final JasperReport reportTemplate;
 
+    private final MeterRegistry meterRegistry;
+
     protected BaseReportService(ApplicationContext context,
-                                MessageSourceHelper messageSourceHelper)
+                                MessageSourceHelper messageSourceHelper,
+                                MeterRegistry meterRegistry)
             throws JRException, IOException {
         reportTemplate = getJasperReport(context, getReportTemplateName());
         this.messageSourceHelper = messageSourceHelper;
+        this.meterRegistry = meterRegistry;
     }
 
     protected abstract String getReportTemplateName();
@@ -52,13 +64,44 @@ public abstract class BaseReportService<P, R> {
 
     public abstract R getData(P params);
 
-   public void generateReport(P params, ReportFormat format,
+    /**
+     * Значение тега {@code category} метрики {@code report.render}. Неограниченные значения сворачиваются
+     * в {@code other} фильтром {@code TagCardinalityGuard}.
+     */
+    protected String getMetricCategory(P params) {
+        return NO_CATEGORY;
+    }
+
+    /**
+     * Оценка числа строк отчета до его формирования; используется для ограничения одновременно формируемых отчетов.
+     */
+    public long estimateRows(P params) {
+        return 0;
+    }
+
+    /**
+     * Формирует отчет и передает его в ответ.
+     *
+     * @return Время загрузки данных и заполнения отчета в наносекундах, без выгрузки отчета клиенту: выгрузка
+     * пишет прямо в ответ, и ее длительность зависит от скорости клиента.
+     */
+    public long generateReport(P params, ReportFormat format,
                                HttpServletResponse response, String reportName) {
+        var started = System.nanoTime();
         var dataForOutput = getData(params);
         try (OutputStream os = response.getOutputStream()) {
             putResponseHeaders(format, response);
             var jasperPrint = generateReport(dataForOutput);
+            var filled = System.nanoTime() - started;
             exportReport(jasperPrint, os, format);
+            Timer.builder("report.render")
+                 .description("Report generation time from data loading to export")
+                 .tag("report", reportName)
+                 .tag("format", format.name())
+                 .tag("category", getMetricCategory(params))
+                 .register(meterRegistry)
+                 .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return filled;
         } catch (IOException e) {
             var errorType = ErrorType.UNSUCCESSFUL_REPORT_EXPORT;
             log.warn(messageSourceHelper.getMessage(errorType), e);
@@ -67,6 +110,13 @@ public abstract class BaseReportService<P, R> {
 
     }
 
+    /**
+     * Формирует отчет в указанный поток без HTTP-ответа, например для прогрева шаблона и шрифтов.
+     */
+    public void writeReport(P params, ReportFormat format, OutputStream outputStream) {
+        exportReport(generateReport(getData(params)), outputStream, format);
+    }
+
     private void generateDocx(OutputStream outputStream, JasperPrint jasperPrint) throws JRException {
         final var exporter = new JRDocxExporter();
         final OutputStreamExporterOutput outputStreamExporterOutput =
@@ -105,6 +155,7 @@ public abstract class BaseReportService<P, R> {
     }
 
     private void exportReport(JasperPrint jasperPrint, OutputStream outputStream, ReportFormat format) {
+        var started = System.nanoTime();
         try {
             switch (format) {
                 case PDF:
@@ -121,6 +172,8 @@ public abstract class BaseReportService<P, R> {
             }
         } catch (JRException e) {
             throwReportExportException(e);
+        } finally {
+            RequestTimings.record(TimingCategory.REPORT_EXPORT, System.nanoTime() - started);
         }
     }
 
@@ -135,10 +188,13 @@ public abstract class BaseReportService<P, R> {
     }
 
     private JasperPrint fillReportTemplate(Map<String, Object> params) {
+        var started = System.nanoTime();
         try {
             return JasperFillManager.fillReport(reportTemplate, params, new JREmptyDataSource());
         } catch (JRException e) {
             return throwReportExportException(e);
+        } finally {
+            RequestTimings.record(TimingCategory.REPORT_FILL, System.nanoTime() - started);
         }
     }
 
@@ -149,9 +205,12 @@ public abstract class BaseReportService<P, R> {
         return JasperCompileManager.compileReport(reportTemplateFile);
     }
 
+    /**
+     * Имя текущего пользователя (subject JWT). Вне запроса, например при прогреве, - {@value #SYSTEM_USER}.
+     */
     protected String getCurrentUser() {
-        var principal = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return principal.getUsername();
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? SYSTEM_USER : authentication.getName();
     }
 
 }
@@ -6,6 +6,7 @@ import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.Map;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.log4j.Log4j2;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
@@ -32,8 +33,9 @@ public class JokesByCategoriesReportServiceImpl extends BaseReportService<String
 
     public JokesByCategoriesReportServiceImpl(ApplicationContext context,
                                               MessageSourceHelper messageSourceHelper,
+                                              MeterRegistry meterRegistry,
                                               JokeService jokeService) throws JRException, IOException {
-        super(context, messageSourceHelper);
+        super(context, messageSourceHelper, meterRegistry);
         this.jokeService = jokeService;
     }
 
@@ -54,6 +56,16 @@ public class JokesByCategoriesReportServiceImpl extends BaseReportService<String
         return params;
     }
 
+    @Override
+    protected String getMetricCategory(String params) {
+        return params == null ? super.getMetricCategory(null) : params;
+    }
+
+    @Override
+    public long estimateRows(String params) {
+        return jokeService.countJokesByCategory(params);
+    }
+
     @Override
     public JokesByCategoriesReport getData(String params) {
         var jokes = jokeService.getAllJokesByCategory(params)
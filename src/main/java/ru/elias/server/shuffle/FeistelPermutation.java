@@ -0,0 +1,73 @@
+package ru.elias.server.shuffle;
+
+/**
+ * Псевдослучайная перестановка чисел {@code [0, size)}, заданная зерном. Строится сетью Фейстеля
+ * на ближайшем сверху диапазоне {@code [0, 4^k)}; значения за пределами {@code size} пропускаются
+ * повторным шифрованием (cycle walking). Диапазон не более чем в 4 раза больше {@code size},
+ * поэтому вычисление элемента занимает в среднем O(1) и не требует памяти.
+ */
+public final class FeistelPermutation {
+
+    private static final int ROUNDS = 4;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+
+    private final int size;
+
+    private final int halfBits;
+
+    private final long halfMask;
+
+    public FeistelPermutation(long seed, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Permutation size must be positive: " + size);
+        }
+        var bits = Math.max(2, 64 - Long.numberOfLeadingZeros(size - 1L));
+        this.seed = seed;
+        this.size = size;
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+    }
+
+    /**
+     * @return Элемент перестановки с номером {@code index}.
+     */
+    public int apply(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of permutation size " + size);
+        }
+        var value = (long) index;
+        do {
+            value = encrypt(value);
+        } while (value >= size);
+        return (int) value;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    private long encrypt(long value) {
+        var left = value >>> halfBits;
+        var right = value & halfMask;
+        for (int round = 0; round < ROUNDS; round++) {
+            var next = left ^ (mix((seed + (round + 1) * GOLDEN_GAMMA) ^ right) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    /**
+     * Финализатор SplitMix64.
+     */
+    private static long mix(long value) {
+        var z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
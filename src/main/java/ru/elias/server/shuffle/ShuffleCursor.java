@@ -0,0 +1,64 @@
+package ru.elias.server.shuffle;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Позиция клиента в перестановке шуток: зерно перестановки, ее размер и наибольший идентификатор индекса
+ * на момент начала цикла и номер следующего элемента. Просмотренные шутки не хранятся - ими являются элементы
+ * с номерами меньше {@code position}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ShuffleCursor {
+
+    /**
+     * Идентификатор категории или 0 для всех шуток.
+     */
+    private final long categoryId;
+
+    private final long seed;
+
+    private final int size;
+
+    /**
+     * Наибольший идентификатор индекса на момент начала цикла. Шутки с большими идентификаторами, добавленные
+     * после начала цикла, в него не попадают.
+     */
+    private final long maxId;
+
+    private final int position;
+
+    /**
+     * Начинает новый цикл перемешивания со случайным зерном.
+     *
+     * @param ids
+     *         Непустой индекс идентификаторов по возрастанию.
+     */
+    public static ShuffleCursor start(long categoryId, long[] ids) {
+        var seed = ThreadLocalRandom.current().nextLong();
+        return new ShuffleCursor(categoryId, seed, ids.length, ids[ids.length - 1], 0);
+    }
+
+    /**
+     * @return Идентификатор входит в снимок индекса, по которому начат цикл.
+     */
+    public boolean contains(long id) {
+        return id <= maxId;
+    }
+
+    public boolean isExhausted() {
+        return position >= size;
+    }
+
+    public FeistelPermutation permutation() {
+        return new FeistelPermutation(seed, size);
+    }
+
+    public ShuffleCursor withPosition(int nextPosition) {
+        return new ShuffleCursor(categoryId, seed, size, maxId, nextPosition);
+    }
+
+}
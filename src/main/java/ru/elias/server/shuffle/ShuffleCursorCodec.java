@@ -0,0 +1,114 @@
+package ru.elias.server.shuffle;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import ru.elias.server.config.properties.ShuffleProperties;
+
+/**
+ * Кодирует курсор в подписанный токен: 33 байта состояния и 16 байт HMAC-SHA256, всего 66 символов
+ * Base64 URL. Сервер не хранит состояние клиентов; подпись не позволяет подделать курсор. Токены первой версии
+ * (без наибольшего идентификатора) принимаются, чтобы курсоры клиентов пережили обновление сервера.
+ */
+@Component
+public class ShuffleCursorCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final byte VERSION = 2;
+
+    private static final byte VERSION_WITHOUT_MAX_ID = 1;
+
+    private static final int PAYLOAD_LENGTH = 1 + Long.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES
+            + Integer.BYTES;
+
+    private static final int PAYLOAD_LENGTH_WITHOUT_MAX_ID = PAYLOAD_LENGTH - Long.BYTES;
+
+    private static final int MAC_LENGTH = 16;
+
+    private final ThreadLocal<Mac> mac;
+
+    public ShuffleCursorCodec(ShuffleProperties properties) {
+        var key = new SecretKeySpec(secret(properties), ALGORITHM);
+        mac = ThreadLocal.withInitial(() -> {
+            try {
+                var instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public String encode(ShuffleCursor cursor) {
+        var buffer = ByteBuffer.allocate(PAYLOAD_LENGTH + MAC_LENGTH)
+                               .put(VERSION)
+                               .putLong(cursor.getCategoryId())
+                               .putLong(cursor.getSeed())
+                               .putInt(cursor.getSize())
+                               .putLong(cursor.getMaxId())
+                               .putInt(cursor.getPosition());
+        buffer.put(sign(buffer.array(), PAYLOAD_LENGTH));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @return Курсор или пустое значение, если токен поврежден или подписан другим ключом.
+     */
+    public Optional<ShuffleCursor> decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        var payloadLength = bytes.length - MAC_LENGTH;
+        if (payloadLength != PAYLOAD_LENGTH && payloadLength != PAYLOAD_LENGTH_WITHOUT_MAX_ID
+                || !MessageDigest.isEqual(sign(bytes, payloadLength),
+                                          Arrays.copyOfRange(bytes, payloadLength, bytes.length))) {
+            return Optional.empty();
+        }
+        var buffer = ByteBuffer.wrap(bytes, 0, payloadLength);
+        var version = payloadLength == PAYLOAD_LENGTH ? VERSION : VERSION_WITHOUT_MAX_ID;
+        if (buffer.get() != version) {
+            return Optional.empty();
+        }
+        var categoryId = buffer.getLong();
+        var seed = buffer.getLong();
+        var size = buffer.getInt();
+        var maxId = version == VERSION ? buffer.getLong() : Long.MAX_VALUE;
+        var cursor = new ShuffleCursor(categoryId, seed, size, maxId, buffer.getInt());
+        if (cursor.getSize() <= 0 || cursor.getPosition() < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(cursor);
+    }
+
+    private byte[] sign(byte[] bytes, int payloadLength) {
+        var instance = mac.get();
+        instance.update(bytes, 0, payloadLength);
+        return Arrays.copyOf(instance.doFinal(), MAC_LENGTH);
+    }
+
+    private static byte[] secret(ShuffleProperties properties) {
+        if (StringUtils.hasText(properties.getSecret())) {
+            return properties.getSecret().getBytes(StandardCharsets.UTF_8);
+        }
+        var random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+
+}
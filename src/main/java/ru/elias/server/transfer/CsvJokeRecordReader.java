@@ -0,0 +1,117 @@
+package ru.elias.server.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import ru.elias.server.dto.JokeDto;
+
+/**
+ * Чтение CSV по RFC 4180: поля в двойных кавычках могут содержать запятые, переводы строк
+ * и экранированные кавычки ({@code ""}). Пустые строки пропускаются.
+ */
+public class CsvJokeRecordReader implements JokeRecordReader {
+
+    private static final String JOKE_COLUMN = "joke";
+
+    private static final String CATEGORY_COLUMN = "category";
+
+    private final BufferedReader reader;
+
+    private final StringBuilder field = new StringBuilder();
+
+    private long line = 1;
+
+    private boolean headerChecked;
+
+    public CsvJokeRecordReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public JokeDto read() throws IOException {
+        var record = readRecord();
+        if (!headerChecked) {
+            headerChecked = true;
+            if (record != null && isHeader(record)) {
+                record = readRecord();
+            }
+        }
+        if (record == null) {
+            return null;
+        }
+        if (record.size() != 2) {
+            throw new MalformedRecordException(line, "Expected 2 columns but found " + record.size());
+        }
+        return JokeDto.builder()
+                      .joke(record.get(0))
+                      .category(record.get(1))
+                      .build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readRecord() throws IOException {
+        var fields = new ArrayList<String>(2);
+        field.setLength(0);
+        var quoted = false;
+        var started = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            var ch = (char) c;
+            if (quoted) {
+                if (ch != '"') {
+                    if (ch == '\n') {
+                        line++;
+                    }
+                    field.append(ch);
+                    continue;
+                }
+                reader.mark(1);
+                if (reader.read() == '"') {
+                    field.append('"');
+                } else {
+                    quoted = false;
+                    reader.reset();
+                }
+            } else if (ch == '"') {
+                quoted = true;
+                started = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                started = true;
+            } else if (ch == '\n') {
+                line++;
+                if (started || field.length() > 0) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+        }
+        if (quoted) {
+            throw new MalformedRecordException(line, "Unterminated quoted field");
+        }
+        if (!started && field.length() == 0) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private boolean isHeader(List<String> record) {
+        return record.size() == 2
+                && JOKE_COLUMN.equalsIgnoreCase(record.get(0).trim())
+                && CATEGORY_COLUMN.equalsIgnoreCase(record.get(1).trim());
+    }
+
+}
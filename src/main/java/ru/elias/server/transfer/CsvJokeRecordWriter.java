@@ -0,0 +1,47 @@
+package ru.elias.server.transfer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Запись CSV с заголовком {@code joke,category}; результат читается {@link CsvJokeRecordReader}.
+ */
+public class CsvJokeRecordWriter implements JokeRecordWriter {
+
+    private static final String HEADER = "joke,category\n";
+
+    private final Writer writer;
+
+    public CsvJokeRecordWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.writer.write(HEADER);
+    }
+
+    @Override
+    public void write(String joke, String category) throws IOException {
+        writeField(joke);
+        writer.write(',');
+        writeField(category);
+        writer.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value.indexOf('"') < 0 && value.indexOf(',') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+}
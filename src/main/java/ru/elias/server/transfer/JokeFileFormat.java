@@ -0,0 +1,22 @@
+package ru.elias.server.transfer;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Форматы файлов импорта и экспорта шуток. CSV содержит колонки {@code joke,category}
+ * (строка заголовка необязательна), NDJSON - по одному объекту {@code {"joke": ..., "category": ...}} в строке.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum JokeFileFormat {
+
+    CSV("text/csv", "csv"),
+
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+
+    private final String extension;
+
+}
@@ -0,0 +1,37 @@
+package ru.elias.server.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.elias.server.dto.JokeDto;
+
+/**
+ * Потоковое чтение шуток из файла импорта. Записи читаются по одной, файл целиком в память не загружается.
+ */
+public interface JokeRecordReader extends Closeable {
+
+    /**
+     * Читает следующую запись.
+     *
+     * @return Шутка или {@code null}, если записи закончились.
+     *
+     * @throws MalformedRecordException
+     *         Если запись не соответствует формату.
+     */
+    JokeDto read() throws IOException;
+
+    static JokeRecordReader open(JokeFileFormat format, InputStream in, ObjectMapper objectMapper)
+            throws IOException {
+        switch (format) {
+            case CSV:
+                return new CsvJokeRecordReader(in);
+            case NDJSON:
+                return new NdjsonJokeRecordReader(in, objectMapper);
+            default:
+                throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+    }
+
+}
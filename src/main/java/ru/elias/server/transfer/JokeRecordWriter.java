@@ -0,0 +1,28 @@
+package ru.elias.server.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Потоковая запись шуток в файл экспорта. Каждая строка пишется сразу в выходной поток.
+ */
+public interface JokeRecordWriter extends Closeable {
+
+    void write(String joke, String category) throws IOException;
+
+    static JokeRecordWriter open(JokeFileFormat format, OutputStream out, ObjectMapper objectMapper)
+            throws IOException {
+        switch (format) {
+            case CSV:
+                return new CsvJokeRecordWriter(out);
+            case NDJSON:
+                return new NdjsonJokeRecordWriter(out, objectMapper);
+            default:
+                throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package ru.elias.server.transfer;
+
+import java.io.IOException;
+
+import lombok.Getter;
+
+@Getter
+public class MalformedRecordException extends IOException {
+
+    private final long line;
+
+    public MalformedRecordException(long line, String message) {
+        super(message);
+        this.line = line;
+    }
+
+    public MalformedRecordException(long line, String message, Throwable cause) {
+        super(message, cause);
+        this.line = line;
+    }
+
+}
@@ -0,0 +1,37 @@
+package ru.elias.server.transfer;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.elias.server.dto.JokeDto;
+
+/**
+ * Чтение NDJSON через {@link MappingIterator}: Jackson разбирает объекты из потока по одному.
+ */
+public class NdjsonJokeRecordReader implements JokeRecordReader {
+
+    private final MappingIterator<JokeDto> iterator;
+
+    public NdjsonJokeRecordReader(InputStream in, ObjectMapper objectMapper) throws IOException {
+        this.iterator = objectMapper.readerFor(JokeDto.class).readValues(in);
+    }
+
+    @Override
+    public JokeDto read() throws IOException {
+        try {
+            return iterator.hasNextValue() ? iterator.nextValue() : null;
+        } catch (JsonProcessingException e) {
+            var location = e.getLocation();
+            throw new MalformedRecordException(location == null ? 0 : location.getLineNr(), e.getOriginalMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        iterator.close();
+    }
+
+}
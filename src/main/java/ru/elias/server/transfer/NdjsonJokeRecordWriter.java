@@ -0,0 +1,36 @@
+package ru.elias.server.transfer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Запись NDJSON напрямую через {@link JsonGenerator}, без создания промежуточных объектов.
+ */
+public class NdjsonJokeRecordWriter implements JokeRecordWriter {
+
+    private final JsonGenerator generator;
+
+    public NdjsonJokeRecordWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+    }
+
+    @Override
+    public void write(String joke, String category) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("joke", joke);
+        generator.writeStringField("category", category);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeRaw('\n');
+        generator.close();
+    }
+
+}
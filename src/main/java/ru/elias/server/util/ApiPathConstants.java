@@ -19,10 +19,20 @@ public class ApiPathConstants {
 
     public static final String RANDOM = "/random";
 
+    public static final String SHUFFLE = "/shuffle";
+
     public static final String STATISTICS = "/statistics";
 
     public static final String QUERY = "/query";
 
+    public static final String STREAM = "/stream";
+
+    public static final String BULK = "/bulk";
+
+    public static final String IMPORT = "/import";
+
+    public static final String EXPORT = "/export";
+
     public static final String RANDOM_JOKE = "/random";
 
     public static final String REPORT = "/reports";
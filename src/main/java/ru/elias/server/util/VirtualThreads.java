@@ -0,0 +1,79 @@
+package ru.elias.server.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Доступ к виртуальным потокам (JDK 21+) без повышения уровня языка проекта.
+ * Код собирается под Java 11, поэтому API вызывается через рефлексию.
+ */
+@UtilityClass
+public class VirtualThreads {
+
+    private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+
+    /**
+     * Проверяет, поддерживает ли текущая JVM виртуальные потоки.
+     *
+     * @return {@code true}, если приложение запущено на JDK 21+.
+     */
+    public boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Создает исполнитель, запускающий каждую задачу в отдельном виртуальном потоке.
+     *
+     * @param prefix
+     *         Префикс имени потока.
+     *
+     * @return Исполнитель на виртуальных потоках.
+     */
+    public ExecutorService newVirtualThreadPerTaskExecutor(String prefix) {
+        var threadFactory = threadFactory(prefix);
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                                                    .invoke(null, threadFactory);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Can not create virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Создает фабрику именованных виртуальных потоков.
+     *
+     * @param prefix
+     *         Префикс имени потока.
+     *
+     * @return Фабрика потоков.
+     */
+    public ThreadFactory threadFactory(String prefix) {
+        if (!isSupported()) {
+            throw new IllegalStateException("Virtual threads require JDK 21 or newer, current is "
+                                                    + Runtime.version());
+        }
+        try {
+            var builderClass = Class.forName("java.lang.Thread$Builder");
+            var builder = OF_VIRTUAL.invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException
+                | InvocationTargetException e) {
+            throw new IllegalStateException("Can not create virtual thread factory", e);
+        }
+    }
+
+    private static Method findMethod(Class<?> type, String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package ru.elias.server.warmup;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Состояние прогрева для группы {@code readiness}. Пока прогрев не запускался (или выключен), состояние
+ * {@code UNKNOWN} и на готовность не влияет; во время прогрева - {@code OUT_OF_SERVICE}.
+ */
+@Component
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private volatile Health health = Health.unknown().build();
+
+    @Override
+    public Health health() {
+        return health;
+    }
+
+    void started() {
+        health = Health.outOfService()
+                       .withDetail("phase", "warming up")
+                       .build();
+    }
+
+    void finished(Duration duration, int iterations, List<String> failedSteps) {
+        health = Health.up()
+                       .withDetail("durationMs", duration.toMillis())
+                       .withDetail("iterations", iterations)
+                       .withDetail("failedSteps", failedSteps)
+                       .build();
+    }
+
+}
@@ -0,0 +1,154 @@
+package ru.elias.server.warmup;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.elias.server.client.JokeReactiveClient;
+import ru.elias.server.config.properties.RandomJokeProperties;
+import ru.elias.server.config.properties.WarmUpProperties;
+import ru.elias.server.dto.JokeDto;
+import ru.elias.server.dto.JokesGeneralStatistic;
+import ru.elias.server.dto.report.ReportFormat;
+import ru.elias.server.service.CategoryService;
+import ru.elias.server.service.JokeService;
+import ru.elias.server.service.report.BaseReportService;
+import ru.elias.server.util.ApiPathConstants;
+
+/**
+ * Прогрев после запуска: синтетические вызовы сервисов шуток и категорий, JSON-сериализация ответов
+ * и формирование небольшого отчета прогревают JIT, планы запросов Hibernate, пул соединений с бд,
+ * шрифты и шаблон JasperReports. Spring Boot переводит readiness в {@code ACCEPTING_TRAFFIC} только после
+ * выполнения всех {@link ApplicationRunner}, поэтому трафик приходит на прогретый экземпляр.
+ * Прогрев ограничен числом итераций и временем; ошибка шага записывается в журнал, и шаг больше не выполняется.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "app.warm-up.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final int RANDOM_JOKES_COUNT = 10;
+
+    private final WarmUpProperties properties;
+
+    private final RandomJokeProperties randomJokeProperties;
+
+    private final JokeService jokeService;
+
+    private final CategoryService categoryService;
+
+    private final JokeReactiveClient jokeClient;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, BaseReportService> reports;
+
+    private final WarmUpHealthIndicator healthIndicator;
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        healthIndicator.started();
+        var started = System.nanoTime();
+        var deadline = started + properties.getTimeBudget().toNanos();
+        var failedSteps = new LinkedHashSet<String>();
+        if (properties.isUpstream()) {
+            runStep("upstream", this::warmUpUpstream, failedSteps);
+        }
+        var reportCategory = findSmallestCategory();
+        var iterations = 0;
+        while (iterations < properties.getIterations() && System.nanoTime() - deadline < 0) {
+            runStep("jokes", this::warmUpJokes, failedSteps);
+            runStep("categories", this::warmUpCategories, failedSteps);
+            if (reportCategory != null && iterations < properties.getReportIterations()) {
+                runStep("report", () -> warmUpReport(reportCategory), failedSteps);
+            }
+            iterations++;
+        }
+        var duration = Duration.ofNanos(System.nanoTime() - started);
+        Timer.builder("warmup.duration")
+             .description("Time spent warming up before accepting traffic")
+             .register(meterRegistry)
+             .record(duration);
+        healthIndicator.finished(duration, iterations, new ArrayList<>(failedSteps));
+        log.info("Warm-up finished in {} ms, {} iterations, failed steps: {}",
+                 duration.toMillis(), iterations, failedSteps);
+    }
+
+    private void runStep(String name, Runnable step, Set<String> failedSteps) {
+        if (failedSteps.contains(name)) {
+            return;
+        }
+        try {
+            step.run();
+        } catch (Exception e) {
+            failedSteps.add(name);
+            log.warn("Warm-up step '{}' failed and is skipped: {}", name, e.toString());
+        }
+    }
+
+    private void warmUpUpstream() {
+        jokeClient.getAllCategories().block(properties.getUpstreamTimeout());
+    }
+
+    @SneakyThrows
+    private void warmUpJokes() {
+        var joke = jokeService.getRandomJoke().getBody();
+        objectMapper.readValue(objectMapper.writeValueAsBytes(joke), JokeDto.class);
+        var count = Math.min(RANDOM_JOKES_COUNT, randomJokeProperties.getMaxCount());
+        objectMapper.writeValueAsBytes(jokeService.getRandomJokes(null, count).getBody());
+        objectMapper.writeValueAsBytes(jokeService.getJokesCountStatistics().getBody());
+    }
+
+    @SneakyThrows
+    private void warmUpCategories() {
+        var categories = categoryService.getAllCategories().getBody();
+        objectMapper.writeValueAsBytes(categories);
+        if (categories != null && !categories.isEmpty()) {
+            var name = categories.get(0).getName();
+            objectMapper.writeValueAsBytes(categoryService.getCategoryByName(name).getBody());
+            objectMapper.writeValueAsBytes(jokeService.getRandomJokeByCategory(name).getBody());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void warmUpReport(String category) {
+        reports.get(ApiPathConstants.JOKE_BY_CATEGORY_REPORT)
+               .writeReport(category, ReportFormat.PDF, OutputStream.nullOutputStream());
+    }
+
+    private String findSmallestCategory() {
+        try {
+            var statistics = jokeService.getJokesCountStatistics().getBody();
+            if (statistics == null) {
+                return null;
+            }
+            return statistics.stream()
+                             .filter(statistic -> statistic.getJokesCount() != null
+                                     && statistic.getJokesCount() > 0)
+                             .min(Comparator.comparing(JokesGeneralStatistic::getJokesCount))
+                             .map(JokesGeneralStatistic::getName)
+                             .orElse(null);
+        } catch (RuntimeException e) {
+            log.warn("Warm-up could not choose a report category: {}", e.toString());
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,21 @@
+--liquibase formatted sql
+
+--changeset elias:4
+CREATE TABLE IF NOT EXISTS scheduler_leases
+(
+    name         VARCHAR(255) PRIMARY KEY,
+    owner        VARCHAR(255) NOT NULL,
+    acquired_at  TIMESTAMP    NOT NULL,
+    expires_at   TIMESTAMP    NOT NULL,
+    completed_at TIMESTAMP
+);
+--rollback DROP TABLE scheduler_leases;
+
+--changeset elias:5
+CREATE TABLE IF NOT EXISTS jokes_statistic_snapshots
+(
+    category_name VARCHAR(255) PRIMARY KEY,
+    jokes_count   BIGINT    NOT NULL,
+    updated_at    TIMESTAMP NOT NULL
+);
+--rollback DROP TABLE jokes_statistic_snapshots;
@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+--changeset elias:6 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_jokes_name ON jokes (name);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_jokes_name;
+
+--changeset elias:7 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_jokes_category_id_id ON jokes (category_id, id);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_jokes_category_id_id;
+
+--changeset elias:8 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username ON users (username);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_users_username;
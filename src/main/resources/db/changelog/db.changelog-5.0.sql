@@ -0,0 +1,105 @@
+--liquibase formatted sql
+
+--changeset elias:9 dbms:postgresql
+--preconditions onFail:HALT onError:HALT
+--precondition-sql-check expectedResult:0 SELECT count(*) FROM jokes WHERE category_id IS NULL
+CREATE TABLE jokes_partitioned
+(
+    id          INT          NOT NULL DEFAULT nextval('jokes_id_seq'),
+    name        VARCHAR(255) NOT NULL,
+    category_id INT          NOT NULL REFERENCES categories (id),
+    created_at  TIMESTAMP,
+    CONSTRAINT jokes_partitioned_pkey PRIMARY KEY (id, category_id)
+) PARTITION BY HASH (category_id);
+CREATE TABLE jokes_p0 PARTITION OF jokes_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE jokes_p1 PARTITION OF jokes_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE jokes_p2 PARTITION OF jokes_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE jokes_p3 PARTITION OF jokes_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE jokes_p4 PARTITION OF jokes_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE jokes_p5 PARTITION OF jokes_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE jokes_p6 PARTITION OF jokes_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE jokes_p7 PARTITION OF jokes_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+CREATE INDEX idx_jokes_partitioned_name ON jokes_partitioned (name);
+CREATE INDEX idx_jokes_partitioned_category_id_id ON jokes_partitioned (category_id, id);
+--rollback DROP TABLE IF EXISTS jokes_partitioned;
+
+--changeset elias:10 dbms:postgresql splitStatements:false
+CREATE FUNCTION jokes_mirror() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM jokes_partitioned WHERE id = OLD.id AND category_id = OLD.category_id;
+    END IF;
+    IF TG_OP = 'DELETE' THEN
+        RETURN OLD;
+    END IF;
+    INSERT INTO jokes_partitioned (id, name, category_id, created_at)
+    VALUES (NEW.id, NEW.name, NEW.category_id, NEW.created_at);
+    RETURN NEW;
+END
+$$;
+CREATE TRIGGER jokes_mirror
+    AFTER INSERT OR UPDATE OR DELETE
+    ON jokes
+    FOR EACH ROW
+EXECUTE FUNCTION jokes_mirror();
+--rollback DROP TRIGGER IF EXISTS jokes_mirror ON jokes;
+--rollback DROP FUNCTION IF EXISTS jokes_mirror();
+
+--changeset elias:11 dbms:postgresql splitStatements:false
+CREATE PROCEDURE jokes_backfill(batch_size INT)
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    last_id INT := 0;
+    max_id  INT;
+BEGIN
+    SELECT max(id) INTO max_id FROM jokes;
+    WHILE last_id < coalesce(max_id, 0)
+        LOOP
+            INSERT INTO jokes_partitioned (id, name, category_id, created_at)
+            SELECT j.id, j.name, j.category_id, j.created_at
+            FROM jokes j
+            WHERE j.id > last_id
+              AND j.id <= last_id + batch_size
+            FOR SHARE
+            ON CONFLICT DO NOTHING;
+            last_id := last_id + batch_size;
+            COMMIT;
+        END LOOP;
+END
+$$;
+--rollback DROP PROCEDURE IF EXISTS jokes_backfill(INT);
+
+--changeset elias:12 dbms:postgresql runInTransaction:false
+CALL jokes_backfill(10000);
+ANALYZE jokes_partitioned;
+--rollback TRUNCATE jokes_partitioned;
+
+--changeset elias:13 dbms:postgresql
+LOCK TABLE jokes IN ACCESS EXCLUSIVE MODE;
+DROP TRIGGER jokes_mirror ON jokes;
+ALTER TABLE jokes RENAME TO jokes_old;
+ALTER INDEX jokes_pkey RENAME TO jokes_old_pkey;
+ALTER INDEX idx_jokes_name RENAME TO idx_jokes_old_name;
+ALTER INDEX idx_jokes_category_id_id RENAME TO idx_jokes_old_category_id_id;
+ALTER TABLE jokes_partitioned RENAME TO jokes;
+ALTER INDEX jokes_partitioned_pkey RENAME TO jokes_pkey;
+ALTER INDEX idx_jokes_partitioned_name RENAME TO idx_jokes_name;
+ALTER INDEX idx_jokes_partitioned_category_id_id RENAME TO idx_jokes_category_id_id;
+ALTER TABLE jokes RENAME CONSTRAINT jokes_partitioned_category_id_fkey TO jokes_category_id_fkey;
+ALTER SEQUENCE jokes_id_seq OWNED BY jokes.id;
+DROP PROCEDURE jokes_backfill(INT);
+DROP FUNCTION jokes_mirror();
+--rollback LOCK TABLE jokes IN ACCESS EXCLUSIVE MODE;
+--rollback ALTER SEQUENCE jokes_id_seq OWNED BY jokes_old.id;
+--rollback ALTER TABLE jokes RENAME CONSTRAINT jokes_category_id_fkey TO jokes_partitioned_category_id_fkey;
+--rollback ALTER INDEX idx_jokes_category_id_id RENAME TO idx_jokes_partitioned_category_id_id;
+--rollback ALTER INDEX idx_jokes_name RENAME TO idx_jokes_partitioned_name;
+--rollback ALTER INDEX jokes_pkey RENAME TO jokes_partitioned_pkey;
+--rollback ALTER TABLE jokes RENAME TO jokes_partitioned;
+--rollback ALTER INDEX idx_jokes_old_category_id_id RENAME TO idx_jokes_category_id_id;
+--rollback ALTER INDEX idx_jokes_old_name RENAME TO idx_jokes_name;
+--rollback ALTER INDEX jokes_old_pkey RENAME TO jokes_pkey;
+--rollback ALTER TABLE jokes_old RENAME TO jokes;
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset elias:14
+ALTER TABLE jokes ADD COLUMN IF NOT EXISTS minhash BYTEA;
+ALTER TABLE jokes ADD COLUMN IF NOT EXISTS duplicate_of INT;
+--rollback ALTER TABLE jokes DROP COLUMN duplicate_of;
+--rollback ALTER TABLE jokes DROP COLUMN minhash;
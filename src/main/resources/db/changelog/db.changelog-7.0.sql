@@ -0,0 +1,25 @@
+--liquibase formatted sql
+
+--changeset elias:15
+CREATE TABLE IF NOT EXISTS crawler_checkpoints
+(
+    category_name   VARCHAR(255) PRIMARY KEY,
+    pulled          BIGINT           NOT NULL,
+    created         BIGINT           NOT NULL,
+    duplicates      BIGINT           NOT NULL,
+    errors          BIGINT           NOT NULL,
+    duplicate_ratio DOUBLE PRECISION NOT NULL,
+    delay_ms        BIGINT           NOT NULL,
+    next_run_at     TIMESTAMP        NOT NULL,
+    updated_at      TIMESTAMP        NOT NULL
+);
+--rollback DROP TABLE crawler_checkpoints;
+
+--changeset elias:16
+CREATE TABLE IF NOT EXISTS crawler_control
+(
+    name       VARCHAR(255) PRIMARY KEY,
+    running    BOOLEAN   NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+--rollback DROP TABLE crawler_control;
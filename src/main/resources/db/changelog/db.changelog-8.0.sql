@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset elias:17
+ALTER TABLE jokes ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+--rollback ALTER TABLE jokes DROP COLUMN deleted_at;
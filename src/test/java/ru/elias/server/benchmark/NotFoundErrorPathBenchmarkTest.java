@@ -0,0 +1,163 @@
+package ru.elias.server.benchmark;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+import lombok.extern.slf4j.Slf4j;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.ArgumentMatchers;
+import static org.mockito.Mockito.doAnswer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.elias.server.controller.api.JokeRestController;
+import ru.elias.server.controller.handler.CustomErrorAttributes;
+import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.ErrorType;
+import ru.elias.server.model.Role;
+import ru.elias.server.service.JokeExportService;
+import ru.elias.server.service.JokeFeedService;
+import ru.elias.server.service.JokeImportService;
+import ru.elias.server.service.JokeService;
+import ru.elias.server.service.JokeShuffleService;
+import ru.elias.server.service.MessageSourceHelper;
+
+/**
+ * Пропускная способность ответа 404 на {@code GET /api/v1/jokes/{id}}: запрос проходит MockMvc, контроллер,
+ * {@code ErrorHandlerControllerAdvice} и сериализацию тела ошибки. До изменения сервис выбрасывал исключение
+ * со стеком вызовов и разбирал сообщение через {@link MessageSource} на каждый запрос, после - исключение
+ * без стека с закэшированным шаблоном сообщения. Исключение "до" - как прежний {@link BusinessException}:
+ * наследник {@link RuntimeException} с обычным {@code fillInStackTrace}. Запуск:
+ * {@code mvn test -Dbenchmark=true -Dtest=NotFoundErrorPathBenchmarkTest}.
+ */
+@Slf4j
+@AutoConfigureMockMvc
+@WebMvcTest(JokeRestController.class)
+@Import(NotFoundErrorPathBenchmarkTest.LegacyErrorAdvice.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NotFoundErrorPathBenchmarkTest {
+
+    private static final String URL = "/api/v1/jokes/{id}";
+
+    private static final int WARMUP_REQUESTS = 20_000;
+
+    private static final int REQUESTS = 100_000;
+
+    private static final Locale LOCALE = new Locale("ru");
+
+    private final MessageSource messageSource = messageSource();
+
+    private final MessageSourceHelper messageSourceHelper = new MessageSourceHelper(messageSource);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JokeService jokeService;
+
+    @MockBean
+    private JokeImportService jokeImportService;
+
+    @MockBean
+    private JokeExportService jokeExportService;
+
+    @MockBean
+    private JokeShuffleService jokeShuffleService;
+
+    @MockBean
+    private JokeFeedService jokeFeedService;
+
+    @Test
+    void whenErrorIsStacklessAndMessageIsCachedThenNotFoundThroughputIsHigher() throws Exception {
+        var before = measure(id -> new StackfulBusinessException(messageSource.getMessage(
+                ErrorType.JOKE_NOT_FOUND_BY_ID.name().toLowerCase(), new Object[] {id}, LOCALE)));
+        var after = measure(id -> new BusinessException(ErrorType.JOKE_NOT_FOUND_BY_ID,
+                                                        messageSourceHelper.getMessage(LOCALE,
+                                                                                       ErrorType.JOKE_NOT_FOUND_BY_ID,
+                                                                                       id)));
+        log.info("404 throughput: before {} req/s, after {} req/s",
+                 String.format("%.0f", before),
+                 String.format("%.0f", after));
+        assertThat(after).isGreaterThan(before);
+    }
+
+    private double measure(LongFunction<RuntimeException> errorFactory) throws Exception {
+        doAnswer(invocation -> {
+            throw errorFactory.apply(invocation.<Long>getArgument(0));
+        }).when(jokeService).getJokeById(ArgumentMatchers.anyLong());
+        run(WARMUP_REQUESTS);
+        var started = System.nanoTime();
+        run(REQUESTS);
+        var elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        return REQUESTS / elapsedSeconds;
+    }
+
+    private void run(int requests) throws Exception {
+        for (int i = 0; i < requests; i++) {
+            var status = mockMvc.perform(MockMvcRequestBuilders.get(URL, i)
+                                                               .with(user("test@gmail.com").authorities(Role.ADMIN)))
+                                .andReturn()
+                                .getResponse()
+                                .getStatus();
+            assertThat(status).isEqualTo(404);
+        }
+    }
+
+    private static MessageSource messageSource() {
+        var source = new ResourceBundleMessageSource();
+        source.setBasename("i18n/messages");
+        source.setDefaultEncoding("UTF-8");
+        return source;
+    }
+
+    /**
+     * Ошибка "не найдено" до изменения: стек вызовов заполняется при каждом создании.
+     */
+    private static class StackfulBusinessException extends RuntimeException {
+
+        StackfulBusinessException(String message) {
+            super(message);
+        }
+
+    }
+
+    /**
+     * Ответ на ошибку "до" строится тем же путем, что и ответ на {@link BusinessException}.
+     */
+    @RestControllerAdvice
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    static class LegacyErrorAdvice {
+
+        private final CustomErrorAttributes customErrorAttributes;
+
+        LegacyErrorAdvice(CustomErrorAttributes customErrorAttributes) {
+            this.customErrorAttributes = customErrorAttributes;
+        }
+
+        @ExceptionHandler(StackfulBusinessException.class)
+        ResponseEntity<Map<String, Object>> handle(StackfulBusinessException e) {
+            var status = HttpStatus.NOT_FOUND;
+            var error = new BusinessException(ErrorType.JOKE_NOT_FOUND_BY_ID, e.getMessage());
+            return ResponseEntity.status(status)
+                                 .body(customErrorAttributes.getErrorAttributes(error, status));
+        }
+
+    }
+
+}
@@ -0,0 +1,57 @@
+package ru.elias.server.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import lombok.extern.slf4j.Slf4j;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import ru.elias.server.ChuckServerApplication;
+
+/**
+ * Время запуска контекста приложения (медиана нескольких запусков) в обычном режиме и в профиле
+ * {@code fast-startup}. Каждый запуск получает свою бд H2 в памяти со схемой Hibernate, поэтому внешняя бд
+ * не нужна; миграции Liquibase (PostgreSQL) выключены в обоих режимах, и выигрыш профиля в эксплуатации
+ * больше измеренного. Прогрев работает как в поставляемой конфигурации (в обычном режиме включен,
+ * в профиле выключен), кроме обращения к внешнему сервису шуток.
+ * Запуск: {@code mvn test -Dbenchmark=true -Dtest=StartupTimeBenchmarkTest}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StartupTimeBenchmarkTest {
+
+    private static final int RUNS = 5;
+
+    private int run;
+
+    @Test
+    void whenFastStartupProfileIsActiveThenContextStartsFaster() {
+        var standard = measureMedianStartup();
+        var fast = measureMedianStartup("fast-startup");
+        log.info("Startup: standard {} ms, fast-startup {} ms", standard.toMillis(), fast.toMillis());
+        assertThat(fast).isLessThan(standard);
+    }
+
+    private Duration measureMedianStartup(String... profiles) {
+        var samples = new ArrayList<Long>(RUNS);
+        for (int i = 0; i < RUNS; i++) {
+            var started = System.nanoTime();
+            try (var context = new SpringApplicationBuilder(ChuckServerApplication.class)
+                    .profiles(profiles)
+                    .properties("server.port=0",
+                                "spring.datasource.url=jdbc:h2:mem:startup-" + run++
+                                        + ";MODE=LEGACY;DATABASE_TO_UPPER=FALSE",
+                                "spring.liquibase.enabled=false",
+                                "app.warm-up.upstream=false")
+                    .run()) {
+                samples.add(System.nanoTime() - started);
+            }
+        }
+        Collections.sort(samples);
+        return Duration.ofNanos(samples.get(RUNS / 2));
+    }
+
+}
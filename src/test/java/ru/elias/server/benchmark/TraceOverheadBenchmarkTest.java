@@ -0,0 +1,169 @@
+package ru.elias.server.benchmark;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.stereotype.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.elias.server.config.properties.MonitoringProperties;
+import ru.elias.server.config.properties.TraceProperties;
+import ru.elias.server.monitoring.RequestTimingFilter;
+import ru.elias.server.monitoring.TraceAspect;
+import ru.elias.server.monitoring.TraceRecorder;
+
+/**
+ * Накладные расходы трассировки запросов. Запрос проходит {@link RequestTimingFilter} и цепочку
+ * контроллер - сервис - репозиторий, репозиторий занят 200 мкс (порядок запроса к бд). Без трассировки
+ * запись трасс выключена и аспекта нет; с трассировкой вызовы проходят {@link TraceAspect}, а трассы
+ * записываются с долей {@code app.monitoring.traces.sample-rate} по умолчанию. Сравниваются лучшие из
+ * нескольких чередующихся прогонов. Запуск: {@code mvn test -Dbenchmark=true -Dtest=TraceOverheadBenchmarkTest}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TraceOverheadBenchmarkTest {
+
+    private static final String URI = "/api/v1/jokes/{id}";
+
+    private static final long WORK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private static final int WARMUP_REQUESTS = 20_000;
+
+    private static final int REQUESTS = 20_000;
+
+    private static final int ROUNDS = 5;
+
+    private static final double MAX_OVERHEAD = 0.01;
+
+    @Test
+    void whenRequestsAreSampledThenTracingOverheadIsWithinOnePercent() throws Exception {
+        var disabled = new TraceProperties();
+        disabled.setEnabled(false);
+        var untracedFilter = filter(disabled);
+        var untracedController = new BenchmarkController(new BenchmarkService(new BenchmarkRepository()));
+        var tracedFilter = filter(new TraceProperties());
+        var aspect = new TraceAspect();
+        var tracedController = traced(new BenchmarkController(
+                traced(new BenchmarkService(traced(new BenchmarkRepository(), aspect)), aspect)), aspect);
+
+        run(untracedFilter, untracedController, WARMUP_REQUESTS);
+        run(tracedFilter, tracedController, WARMUP_REQUESTS);
+        var untraced = Double.MAX_VALUE;
+        var traced = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            untraced = Math.min(untraced, measure(untracedFilter, untracedController));
+            traced = Math.min(traced, measure(tracedFilter, tracedController));
+        }
+        var overhead = traced / untraced - 1;
+        log.info("Untraced: {} us/request, traced: {} us/request, overhead: {}%",
+                 String.format("%.1f", untraced / 1_000),
+                 String.format("%.1f", traced / 1_000),
+                 String.format("%.2f", overhead * 100));
+        assertThat(overhead).isLessThan(MAX_OVERHEAD);
+    }
+
+    /**
+     * @return Среднее время запроса в наносекундах.
+     */
+    private double measure(RequestTimingFilter filter, Call controller) throws ServletException, IOException {
+        var started = System.nanoTime();
+        var blackhole = run(filter, controller, REQUESTS);
+        var elapsed = System.nanoTime() - started;
+        assertThat(blackhole).isPositive();
+        return (double) elapsed / REQUESTS;
+    }
+
+    private long run(RequestTimingFilter filter, Call controller, int requests) throws ServletException, IOException {
+        var blackhole = new long[1];
+        FilterChain chain = (request, response) -> blackhole[0] += controller.call();
+        for (int i = 0; i < requests; i++) {
+            var request = new MockHttpServletRequest("GET", "/api/v1/jokes/" + i);
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI);
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+        }
+        return blackhole[0];
+    }
+
+    private static RequestTimingFilter filter(TraceProperties traceProperties) {
+        return new RequestTimingFilter(new SimpleMeterRegistry(),
+                                       new MonitoringProperties(),
+                                       new TraceRecorder(traceProperties));
+    }
+
+    private static Call traced(Call target, TraceAspect aspect) {
+        var factory = new AspectJProxyFactory(target);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    interface Call {
+
+        long call();
+
+    }
+
+    /*
+     * Классы с аннотациями компонентов - внутренние, а не статические: такие классы не попадают
+     * в сканирование компонентов контекстов других тестов.
+     */
+
+    @RestController
+    class BenchmarkController implements Call {
+
+        private final Call service;
+
+        BenchmarkController(Call service) {
+            this.service = service;
+        }
+
+        @Override
+        public long call() {
+            return service.call();
+        }
+
+    }
+
+    @Service
+    class BenchmarkService implements Call {
+
+        private final Call repository;
+
+        BenchmarkService(Call repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public long call() {
+            return repository.call();
+        }
+
+    }
+
+    @Repository
+    class BenchmarkRepository implements Call {
+
+        @Override
+        public long call() {
+            var started = System.nanoTime();
+            var spins = 0L;
+            while (System.nanoTime() - started < WORK_NANOS) {
+                spins++;
+            }
+            return spins;
+        }
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package ru.elias.server.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import reactor.core.publisher.Mono;
+import ru.elias.server.client.JokeReactiveClient;
+import ru.elias.server.util.VirtualThreads;
+
+/**
+ * Сравнение пропускной способности при 5000 одновременных медленных вызовах внешнего сервиса
+ * в режиме потоков платформы (пул Tomcat по умолчанию) и в режиме виртуальных потоков.
+ * Запуск: {@code mvn test -Dbenchmark=true -Dtest=VirtualThreadThroughputBenchmarkTest}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadThroughputBenchmarkTest {
+
+    private static final int CONCURRENT_CALLS = 5_000;
+
+    private static final int TOMCAT_DEFAULT_MAX_THREADS = 200;
+
+    private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(200);
+
+    private final JokeReactiveClient slowClient = new SlowJokeReactiveClient();
+
+    @Test
+    void whenUpstreamIsSlowThenVirtualThreadsServeMoreRequestsPerSecond() throws InterruptedException {
+        Assumptions.assumeTrue(VirtualThreads.isSupported(), "Virtual threads require JDK 21+");
+        var platform = measure(Executors.newFixedThreadPool(TOMCAT_DEFAULT_MAX_THREADS));
+        var virtual = measure(VirtualThreads.newVirtualThreadPerTaskExecutor("benchmark-"));
+        log.info("Platform threads: {} req/s, virtual threads: {} req/s",
+                 String.format("%.0f", platform),
+                 String.format("%.0f", virtual));
+        assertThat(virtual).isGreaterThan(platform);
+    }
+
+    private double measure(ExecutorService executor) throws InterruptedException {
+        var latch = new CountDownLatch(CONCURRENT_CALLS);
+        var completed = new AtomicInteger();
+        var started = System.nanoTime();
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            executor.execute(() -> {
+                slowClient.getRandomJoke()
+                          .blockOptional()
+                          .ifPresent(response -> completed.incrementAndGet());
+                latch.countDown();
+            });
+        }
+        latch.await(1, TimeUnit.MINUTES);
+        var elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        executor.shutdownNow();
+        assertThat(completed).hasValue(CONCURRENT_CALLS);
+        return CONCURRENT_CALLS / elapsedSeconds;
+    }
+
+    private static class SlowJokeReactiveClient implements JokeReactiveClient {
+
+        @Override
+        public Mono<String> getRandomJoke() {
+            return Mono.delay(UPSTREAM_LATENCY).thenReturn("{\"value\": \"joke\"}");
+        }
+
+        @Override
+        public Mono<String> getRandomJokeByCategory(String category) {
+            return getRandomJoke();
+        }
+
+        @Override
+        public Mono<List<String>> getAllCategories() {
+            return Mono.delay(UPSTREAM_LATENCY).thenReturn(List.of("dev"));
+        }
+
+    }
+
+}
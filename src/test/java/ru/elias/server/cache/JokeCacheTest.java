@@ -0,0 +1,41 @@
+package ru.elias.server.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.elias.server.config.properties.JokeCacheProperties;
+import ru.elias.server.dto.JokeDto;
+
+class JokeCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private JokeCache jokeCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jokeCache = new JokeCache(new JokeCacheProperties(), meterRegistry);
+    }
+
+    @Test
+    void whenJokeIsCachedThenHitsAndMissesAreReported() {
+        var joke = JokeDto.builder().joke("some-joke").category("some-cat").build();
+        assertThat(jokeCache.get(1L)).isEmpty();
+        jokeCache.put(1L, joke);
+        assertThat(jokeCache.get(1L)).containsSame(joke);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.estimated.memory").gauge().value()).isPositive();
+    }
+
+    @Test
+    void whenJokeIsInvalidatedThenItIsLoadedAgain() {
+        jokeCache.put(1L, JokeDto.builder().joke("some-joke").category("some-cat").build());
+        jokeCache.invalidate(1L);
+        assertThat(jokeCache.get(1L)).isEmpty();
+        assertThat(meterRegistry.get("cache.estimated.memory").gauge().value()).isZero();
+    }
+
+}
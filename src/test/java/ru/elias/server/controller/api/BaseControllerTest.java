@@ -2,6 +2,7 @@ package ru.elias.server.controller.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.hamcrest.CoreMatchers;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -115,6 +116,49 @@ public abstract class BaseControllerTest {
                ));
     }
 
+    /**
+     * Выполнение POST-запроса с ответом 429 Too Many Requests.
+     *
+     * @param requestUrl
+     *          URL, по которому выполняется запрос
+     * @param retryAfterSeconds
+     *          Ожидаемое значение заголовка Retry-After
+     * @throws Exception
+     *          Если выполнить запрос не удается
+     */
+    protected void performTooManyRequestsRequest(String requestUrl, long retryAfterSeconds) throws Exception {
+        mockMvc.perform(identifyMockRequestBuilder(HttpMethod.POST, requestUrl))
+               .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+               .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER,
+                                                                String.valueOf(retryAfterSeconds)))
+               .andExpect(MockMvcResultMatchers.jsonPath(
+                       ERRORS_FIRST_STATUS,
+                       CoreMatchers.is(HttpStatus.TOO_MANY_REQUESTS.value())
+               ));
+    }
+
+    /**
+     * Выполнение запроса потока Server-Sent Events с ожиданием его завершения.
+     *
+     * @param requestUrl
+     *          URL, по которому выполняется запрос
+     *
+     * @return Тело ответа
+     * @throws Exception
+     *          Если выполнить запрос не удается
+     */
+    protected String performEventStreamRequest(String requestUrl) throws Exception {
+        var result = mockMvc.perform(identifyMockRequestBuilder(HttpMethod.GET, requestUrl)
+                                             .accept(MediaType.TEXT_EVENT_STREAM))
+                            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                            .andReturn();
+        return mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                      .andExpect(MockMvcResultMatchers.status().isOk())
+                      .andReturn()
+                      .getResponse()
+                      .getContentAsString();
+    }
+
     /**
      * Определяет {@link MockHttpServletRequestBuilder} для дальнейшего тестирования.
      *
@@ -16,6 +16,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.elias.server.dto.CategoryDto;
+import ru.elias.server.dto.bulk.BulkCreateResult;
 import ru.elias.server.exception.BusinessException;
 import ru.elias.server.exception.ErrorType;
 import ru.elias.server.service.CategoryService;
@@ -85,4 +86,14 @@ class CategoryRestControllerTest extends BaseControllerTest {
                                                                    .build());
     }
 
+    @Test
+    void whenCreateCategoriesInBulkThenReturn201() throws Exception {
+        when(categoryService.createCategories(ArgumentMatchers.anyList()))
+                .thenReturn(ResponseEntity.status(HttpStatus.CREATED)
+                                          .body(BulkCreateResult.of(List.of())));
+        performCreatedRequest(BASE_PATH, "/bulk", List.of(CategoryDto.builder()
+                                                                     .name("some-category")
+                                                                     .build()));
+    }
+
 }
\ No newline at end of file
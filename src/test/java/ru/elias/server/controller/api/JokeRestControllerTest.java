@@ -3,6 +3,7 @@ package ru.elias.server.controller.api;
 import java.util.List;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,14 +17,24 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Flux;
+import ru.elias.server.dto.JokeCreatedEvent;
 import ru.elias.server.dto.JokeDto;
 import ru.elias.server.dto.JokesGeneralStatistic;
+import ru.elias.server.dto.bulk.BulkCreateResult;
 import ru.elias.server.exception.BusinessException;
 import ru.elias.server.exception.ErrorType;
+import ru.elias.server.exception.RateLimitExceededException;
 import ru.elias.server.filter.JokeQueryCriteria;
 import ru.elias.server.filter.base.StringFilter;
+import ru.elias.server.service.JokeExportService;
+import ru.elias.server.service.JokeFeedService;
+import ru.elias.server.service.JokeImportService;
 import ru.elias.server.service.JokeService;
+import ru.elias.server.service.JokeShuffleService;
+import ru.elias.server.transfer.JokeFileFormat;
 
 @AutoConfigureMockMvc
 @WebMvcTest(JokeRestController.class)
@@ -40,11 +51,48 @@ class JokeRestControllerTest extends BaseControllerTest {
     @MockBean
     private JokeService jokeService;
 
+    @MockBean
+    private JokeImportService jokeImportService;
+
+    @MockBean
+    private JokeExportService jokeExportService;
+
+    @MockBean
+    private JokeShuffleService jokeShuffleService;
+
+    @MockBean
+    private JokeFeedService jokeFeedService;
+
     @BeforeEach
     public void setUp() {
         super.setUp(mockMvc, objectMapper);
     }
 
+    @Test
+    void whenGetRandomJokesWithCountThenReturn200() throws Exception {
+        when(jokeService.getRandomJokes(ArgumentMatchers.isNull(), ArgumentMatchers.eq(2)))
+                .thenReturn(ResponseEntity.ok(List.of(JokeDto.builder().joke("some-joke").category("dev").build())));
+        performOkRequest(BASE_PATH + "/random?count=2");
+        Mockito.verify(jokeService).getRandomJokes(null, 2);
+    }
+
+    @Test
+    void whenStreamJokesByCategoryThenWriteServerSentEvents() throws Exception {
+        var event = JokeCreatedEvent.builder().id(1L).joke("some-joke").category("dev").build();
+        when(jokeFeedService.subscribe("dev", null))
+                .thenReturn(Flux.just(ServerSentEvent.builder(event).id("7").event("joke").build()));
+        var body = performEventStreamRequest(BASE_PATH + "/stream?category=dev");
+        assertThat(body).contains("id:7", "event:joke", "\"joke\":\"some-joke\"");
+    }
+
+    @Test
+    void whenGetShuffledJokeByCategoryThenReturn200() throws Exception {
+        when(jokeShuffleService.getNextJoke(ArgumentMatchers.eq("dev"), ArgumentMatchers.isNull()))
+                .thenReturn(ResponseEntity.ok(JokeDto.builder().joke("some-joke").category("dev").build()));
+        performOkRequest(BASE_PATH + "/shuffle/dev");
+        Mockito.verify(jokeShuffleService).getNextJoke("dev", null);
+    }
+
     @Test
     void whenGetJokeByIdThenReturn200() throws Exception {
         when(jokeService.getJokeById(Mockito.anyLong()))
@@ -94,6 +142,15 @@ class JokeRestControllerTest extends BaseControllerTest {
         performCreatedRequest(BASE_PATH, "?auto=true&category=some-cat", null);
     }
 
+    @Test
+    void whenCreateJokeWithAutoModeAndRateLimitExceededThenReturn429() throws Exception {
+        when(jokeService.createJoke(ArgumentMatchers.anyBoolean(),
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.any()))
+               .thenThrow(new RateLimitExceededException(ErrorType.RATE_LIMIT_EXCEEDED.getMessage(), 6));
+        performTooManyRequestsRequest(BASE_PATH + "?auto=true&category=some-cat", 6);
+    }
+
     @Test
     void whenCreateJokeWithManualModeThenReturn201() throws Exception {
         when(jokeService.createJoke(ArgumentMatchers.anyBoolean(),
@@ -108,6 +165,28 @@ class JokeRestControllerTest extends BaseControllerTest {
                                      .build());
     }
 
+    @Test
+    void whenCreateJokesInBulkThenReturn201() throws Exception {
+        when(jokeService.createJokes(ArgumentMatchers.anyList()))
+               .thenReturn(ResponseEntity.status(HttpStatus.CREATED)
+                                         .body(BulkCreateResult.of(List.of())));
+        performCreatedRequest(BASE_PATH,
+                              "/bulk",
+                              List.of(JokeDto.builder()
+                                             .joke("joke")
+                                             .category("cat")
+                                             .build()));
+    }
+
+    @Test
+    void whenExportJokesThenReturn200() throws Exception {
+        performOkRequest(BASE_PATH + "/export?format=NDJSON&category=cat");
+        Mockito.verify(jokeExportService).exportJokes(ArgumentMatchers.eq(JokeFileFormat.NDJSON),
+                                                      ArgumentMatchers.eq("cat"),
+                                                      ArgumentMatchers.eq(false),
+                                                      ArgumentMatchers.any());
+    }
+
     @Test
     void getJokesCountStatistics() throws Exception {
         when(jokeService.getJokesCountStatistics())
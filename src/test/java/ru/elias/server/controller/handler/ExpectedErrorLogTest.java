@@ -0,0 +1,35 @@
+package ru.elias.server.controller.handler;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.ErrorType;
+
+class ExpectedErrorLogTest {
+
+    @Test
+    void whenSameErrorRepeatsWithinIntervalThenOnlyFirstIsLogged() {
+        var errorLog = new ExpectedErrorLog(Duration.ofMinutes(1));
+        var notFound = new BusinessException(ErrorType.JOKE_NOT_FOUND_BY_ID);
+        assertThat(errorLog.log(notFound)).isTrue();
+        assertThat(errorLog.log(notFound)).isFalse();
+        assertThat(errorLog.log(new BusinessException(ErrorType.CATEGORY_NOT_FOUND_BY_NAME))).isTrue();
+    }
+
+    @Test
+    void whenIntervalPassedThenErrorIsLoggedAgain() {
+        var errorLog = new ExpectedErrorLog(Duration.ZERO);
+        var notFound = new BusinessException(ErrorType.JOKE_NOT_FOUND_BY_ID);
+        assertThat(errorLog.log(notFound)).isTrue();
+        assertThat(errorLog.log(notFound)).isTrue();
+    }
+
+    @Test
+    void whenErrorIsExpectedThenStackTraceIsNotCaptured() {
+        assertThat(new BusinessException(ErrorType.JOKE_NOT_FOUND_BY_ID).getStackTrace()).isEmpty();
+        assertThat(new BusinessException(ErrorType.UNSUCCESSFUL_REPORT_EXPORT).getStackTrace()).isNotEmpty();
+    }
+
+}
@@ -0,0 +1,92 @@
+package ru.elias.server.dedup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NearDuplicateIndexTest {
+
+    private static final String JOKE =
+            "Chuck Norris can divide by zero and the result is always a roundhouse kick to the face.";
+
+    private final MinHasher minHasher = new MinHasher(64, 5, 20);
+
+    private NearDuplicateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NearDuplicateIndex(64, 8);
+        index.add(1L, minHasher.signature(JOKE));
+        index.add(2L,
+                  minHasher.signature("Chuck Norris counted to infinity twice and then had coffee with Bruce Lee."));
+    }
+
+    @Test
+    void whenTextDiffersByPunctuationAndCaseThenFindOriginal() {
+        var match = index.findMatch(minHasher.signature(JOKE.toUpperCase().replace(".", "!!!")), 0.8);
+
+        assertThat(match).get()
+                         .extracting(NearDuplicate::getJokeId, NearDuplicate::getSimilarity)
+                         .containsExactly(1L, 1.0);
+    }
+
+    @Test
+    void whenTextHasSmallEditsThenFindOriginalAboveThreshold() {
+        var edited = "chuck norris can divide by zero, and the result is always a roundhouse kick to your face";
+
+        assertThat(index.findMatch(minHasher.signature(edited), 0.8))
+                .get()
+                .satisfies(match -> {
+                    assertThat(match.getJokeId()).isEqualTo(1L);
+                    assertThat(match.getSimilarity()).isBetween(0.8, 1.0);
+                });
+    }
+
+    @Test
+    void whenTextIsDifferentThenNoMatch() {
+        var other = "Chuck Norris does not sleep. He waits, and the night gets nervous about it.";
+
+        assertThat(index.findMatch(minHasher.signature(other), 0.8)).isEmpty();
+    }
+
+    @Test
+    void whenSearchingBeforeJokeIdThenIgnoreLaterJokes() {
+        assertThat(index.findMatch(minHasher.signature(JOKE), 0.8, 1L)).isEmpty();
+        assertThat(index.findMatch(minHasher.signature(JOKE), 0.8, 2L)).get()
+                                                                     .extracting(NearDuplicate::getJokeId)
+                                                                     .isEqualTo(1L);
+    }
+
+    @Test
+    void whenIndexGrowsThenKeepFindingEarlierJokes() {
+        for (long id = 3; id < 5_000; id++) {
+            index.add(id, minHasher.signature("joke number " + id + " about " + Long.toHexString(id * 7919)));
+        }
+
+        assertThat(index.size()).isEqualTo(4_999);
+        assertThat(index.findMatch(minHasher.signature(JOKE), 0.8)).get()
+                                                                  .extracting(NearDuplicate::getJokeId)
+                                                                  .isEqualTo(1L);
+    }
+
+    @Test
+    void whenTextIsTooShortThenNoSignature() {
+        assertThat(minHasher.signature("bulk-joke-1")).isNull();
+        assertThat(minHasher.signature(null)).isNull();
+    }
+
+    @Test
+    void whenSignatureIsStoredThenRestoreIt() {
+        var signature = minHasher.signature(JOKE);
+
+        assertThat(minHasher.fromBytes(MinHasher.toBytes(signature))).containsExactly(signature);
+        assertThat(new MinHasher(32, 5, 20).fromBytes(MinHasher.toBytes(signature))).isNull();
+    }
+
+    @Test
+    void whenBandsDoNotDivideHashesThenThrow() {
+        assertThatThrownBy(() -> new NearDuplicateIndex(64, 7)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
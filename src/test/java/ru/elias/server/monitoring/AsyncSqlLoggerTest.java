@@ -0,0 +1,72 @@
+package ru.elias.server.monitoring;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.elias.server.config.properties.SqlLogProperties;
+import ru.elias.server.config.properties.SqlLogProperties.ParameterMode;
+
+class AsyncSqlLoggerTest {
+
+    private static final String SQL = "select j.id,\n       j.name from jokes j where j.name = ? and j.id > ?";
+
+    private SqlLogProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SqlLogProperties();
+        properties.setSampleRate(0);
+        properties.setSlowThreshold(Duration.ofMillis(100));
+        properties.setQueueCapacity(1);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void whenParametersAreRedactedThenOnlyStringLengthIsLogged() {
+        var logger = new AsyncSqlLogger(properties, meterRegistry);
+        var record = logger.format(event(Arrays.asList("Chuck Norris", 42L, null), 150));
+        assertThat(record)
+                .isEqualTo("150.0 ms, slow | select j.id, j.name from jokes j where j.name = ? and j.id > ? "
+                        + "| [<String(12)>, 42, null]")
+                .doesNotContain("Chuck");
+    }
+
+    @Test
+    void whenParametersArePlainThenValuesAreLogged() {
+        properties.setParameters(ParameterMode.PLAIN);
+        var logger = new AsyncSqlLogger(properties, meterRegistry);
+        assertThat(logger.format(event(List.of("Chuck Norris", 42L), 1))).endsWith("| [Chuck Norris, 42]");
+    }
+
+    @Test
+    void whenQueueIsFullThenSlowStatementsAreDroppedWithoutBlocking() {
+        var logger = new AsyncSqlLogger(properties, meterRegistry);
+        logger.afterExecute(event(List.of(), 1));
+        logger.afterExecute(event(List.of(), 150));
+        logger.afterExecute(event(List.of(), 150));
+        assertThat(meterRegistry.get("sql.log.dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("sql.log.queue.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void whenStatementIsNotSampledThenLogItOnlyIfSlowOrFailed() {
+        var logger = new AsyncSqlLogger(properties, meterRegistry);
+        assertThat(logger.sample()).isFalse();
+        logger.afterExecute(event(List.of(), 1));
+        assertThat(meterRegistry.get("sql.log.queue.size").gauge().value()).isZero();
+        logger.afterExecute(new JdbcStatementEvent(SQL, List.of(), 1, Duration.ofMillis(1).toNanos(), true, true));
+        assertThat(meterRegistry.get("sql.log.queue.size").gauge().value()).isEqualTo(1);
+    }
+
+    private static JdbcStatementEvent event(List<Object> parameters, long millis) {
+        return new JdbcStatementEvent(SQL, parameters, 1, Duration.ofMillis(millis).toNanos(), true, false);
+    }
+
+}
@@ -0,0 +1,76 @@
+package ru.elias.server.monitoring;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.elias.server.config.properties.JfrProperties;
+
+class JfrRecorderTest {
+
+    @TempDir
+    Path directory;
+
+    private JfrRecorder jfrRecorder;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new JfrProperties();
+        properties.setDirectory(directory);
+        jfrRecorder = new JfrRecorder(properties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        jfrRecorder.close();
+    }
+
+    @Test
+    void whenRecordingFinishesThenSummarizeHotMethodsAndAllocations() throws Exception {
+        var session = jfrRecorder.start(Duration.ofSeconds(1), "profile");
+
+        assertThat(jfrRecorder.start(Duration.ofSeconds(1), "profile")).isNull();
+        awaitFinished(session);
+
+        assertThat(session.isFinished()).isTrue();
+        var summary = session.summarize(5);
+        assertThat(summary.getExecutionSamples()).isPositive();
+        assertThat(summary.getHotMethods()).isNotEmpty().hasSizeLessThanOrEqualTo(5);
+        assertThat(summary.getAllocationSites()).isNotEmpty();
+        assertThat(jfrRecorder.start(Duration.ofSeconds(1), "default")).isNotNull();
+    }
+
+    @Test
+    void whenRecordingIsReplacedDuringDownloadThenDeleteFileAfterDownload() throws Exception {
+        var session = jfrRecorder.start(Duration.ofSeconds(1), "default");
+        awaitFinished(session);
+        assertThat(session.isFinished()).isTrue();
+
+        try (var download = session.toResource().getInputStream()) {
+            assertThat(jfrRecorder.start(Duration.ofSeconds(1), "default")).isNotNull();
+
+            assertThat(Files.exists(session.getFile())).isTrue();
+            assertThat(download.readAllBytes()).isNotEmpty();
+        }
+
+        assertThat(Files.exists(session.getFile())).isFalse();
+    }
+
+    private static void awaitFinished(JfrSession session) {
+        var deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        var garbage = new ArrayList<byte[]>();
+        while (!session.isFinished() && System.nanoTime() < deadline) {
+            garbage.add(new byte[64 * 1024]);
+            if (garbage.size() > 100) {
+                garbage.clear();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package ru.elias.server.monitoring;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.elias.server.config.properties.MonitoringProperties;
+import ru.elias.server.config.properties.TraceProperties;
+
+class RequestTimingFilterTest {
+
+    private static final String URI = "/api/v1/jokes/{id}";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MonitoringProperties properties;
+
+    private TraceRecorder traceRecorder;
+
+    private RequestTimingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new MonitoringProperties();
+        var traceProperties = new TraceProperties();
+        traceProperties.setSampleRate(1);
+        traceRecorder = new TraceRecorder(traceProperties);
+        filter = new RequestTimingFilter(meterRegistry, properties, traceRecorder);
+    }
+
+    @Test
+    void whenServerTimingEnabledThenHeaderIsWrittenBeforeBody() throws Exception {
+        properties.setServerTimingEnabled(true);
+        var request = new MockHttpServletRequest("GET", "/api/v1/jokes/1");
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI);
+                RequestTimings.record(TimingCategory.DB, 2_000_000);
+                RequestTimings.record(TimingCategory.DB, 1_000_000);
+                resp.getWriter().write("joke");
+                RequestTimings.record(TimingCategory.REPORT_EXPORT, 5_000_000);
+            }
+        }));
+
+        assertThat(response.getHeader("Server-Timing"))
+                .startsWith("db;dur=3.0;desc=\"JDBC statements (2)\", total;dur=")
+                .doesNotContain("report-export");
+        assertThat(meterRegistry.get("request.breakdown").tag("uri", URI).tag("component", "db").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("request.breakdown").tag("component", "report-export").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("request.jdbc.statements").tag("uri", URI).summary().totalAmount())
+                .isEqualTo(2);
+        assertThat(RequestTimings.current()).isNull();
+    }
+
+    @Test
+    void whenServerTimingDisabledThenHeaderIsAbsent() throws Exception {
+        var response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/jokes/1"), response, new MockFilterChain());
+
+        assertThat(response.getHeader("Server-Timing")).isNull();
+        assertThat(meterRegistry.get("request.jdbc.statements").tag("uri", "UNKNOWN").summary().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void whenRequestIsTracedThenKeepSpansUnderEnteredCall() throws Exception {
+        var response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/jokes/1"), response, new MockFilterChain(
+                new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                        req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI);
+                        var trace = RequestTimings.current().getTrace();
+                        var service = trace.enter("service", "JokeServiceImpl", "getJokeById");
+                        RequestTimings.record(TimingCategory.DB, 1_000_000);
+                        trace.exit(service, false);
+                    }
+                }));
+
+        var traces = traceRecorder.getSlowestTraces().get("GET " + URI);
+        assertThat(traces).hasSize(1);
+        var spans = traces.get(0).getSpans();
+        assertThat(spans).extracting(TraceSpan::getName).containsExactly("JokeServiceImpl.getJokeById", "db");
+        assertThat(spans.get(1).getParentId()).isEqualTo(spans.get(0).getId());
+        assertThat(traces.get(0).getStatus()).isEqualTo(200);
+    }
+
+}
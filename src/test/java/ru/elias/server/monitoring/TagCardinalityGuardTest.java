@@ -0,0 +1,99 @@
+package ru.elias.server.monitoring;
+
+import java.util.List;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TagCardinalityGuardTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TagCardinalityGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        guard = new TagCardinalityGuard(2, List.of("category"));
+        meterRegistry.config().meterFilter(guard);
+        guard.bindTo(meterRegistry);
+    }
+
+    @Test
+    void whenTagValuesExceedLimitThenFoldThemIntoOther() {
+        meterRegistry.counter("report.render", "category", "dev", "format", "PDF").increment();
+        meterRegistry.counter("report.render", "category", "sport", "format", "PDF").increment();
+        meterRegistry.counter("report.render", "category", "food", "format", "PDF").increment();
+        meterRegistry.counter("report.render", "category", "music", "format", "PDF").increment();
+        meterRegistry.counter("report.render", "category", "dev", "format", "PDF").increment();
+
+        assertThat(meterRegistry.get("report.render").tag("category", "dev").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("report.render").tag("category", "sport").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("report.render").tag("category", TagCardinalityGuard.OTHER).counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("report.render").tag("category", TagCardinalityGuard.OTHER).counter().getId()
+                                .getTag("format")).isEqualTo("PDF");
+        assertThat(meterRegistry.find("report.render").tag("category", "food").counter()).isNull();
+    }
+
+    @Test
+    void whenLateValueIsMorePopularThenAdmitItAfterRerankAndRemoveDemotedMeter() {
+        meterRegistry.counter("report.render", "category", "dev").increment();
+        meterRegistry.counter("report.render", "category", "sport").increment();
+        meterRegistry.counter("report.render", "category", "sport").increment();
+        for (var i = 0; i < 5; i++) {
+            meterRegistry.counter("report.render", "category", "food").increment();
+        }
+
+        guard.rerank();
+        meterRegistry.counter("report.render", "category", "food").increment();
+        meterRegistry.counter("report.render", "category", "dev").increment();
+
+        assertThat(meterRegistry.get("report.render").tag("category", "food").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("report.render").tag("category", "sport").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.find("report.render").tag("category", "dev").counter()).isNull();
+        assertThat(meterRegistry.get("report.render").tag("category", TagCardinalityGuard.OTHER).counter().count())
+                .isEqualTo(6);
+    }
+
+    @Test
+    void whenValuesChangeBetweenReranksThenRegisteredMetersStayBounded() {
+        for (var round = 0; round < 5; round++) {
+            for (var i = 0; i < 5; i++) {
+                meterRegistry.counter("report.render", "category", "popular-" + round).increment();
+            }
+            for (var i = 0; i < 3; i++) {
+                meterRegistry.counter("report.render", "category", "frequent-" + round).increment();
+            }
+            meterRegistry.counter("report.render", "category", "rare-" + round).increment();
+
+            guard.rerank();
+
+            assertThat(meterRegistry.find("report.render").meters()).hasSizeLessThanOrEqualTo(3);
+        }
+        assertThat(meterRegistry.find("report.render").tag("category", "popular-0").counter()).isNull();
+        meterRegistry.counter("report.render", "category", "popular-4").increment();
+        assertThat(meterRegistry.get("report.render").tag("category", "popular-4").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenMetersDifferThenLimitEachSeparately() {
+        meterRegistry.counter("upstream.requests", "category", "dev").increment();
+        meterRegistry.counter("upstream.requests", "category", "sport").increment();
+        meterRegistry.counter("report.render", "category", "food").increment();
+
+        assertThat(meterRegistry.get("report.render").tag("category", "food").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenTagIsNotGuardedThenKeepValue() {
+        for (var status = 200; status < 210; status++) {
+            meterRegistry.counter("upstream.requests", "status", String.valueOf(status)).increment();
+        }
+
+        assertThat(meterRegistry.get("upstream.requests").tag("status", "209").counter().count()).isEqualTo(1);
+    }
+
+}
@@ -0,0 +1,73 @@
+package ru.elias.server.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.elias.server.config.properties.TraceProperties;
+
+class TraceRecorderTest {
+
+    private static final String ENDPOINT = "GET /api/v1/jokes/random";
+
+    private TraceProperties properties;
+
+    private TraceRecorder traceRecorder;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TraceProperties();
+        properties.setSampleRate(1);
+        properties.setSlowestPerEndpoint(2);
+        properties.setMaxSpans(2);
+        properties.setMaxEndpoints(1);
+        traceRecorder = new TraceRecorder(properties);
+    }
+
+    @Test
+    void whenTracesExceedCapacityThenKeepSlowest() throws InterruptedException {
+        var slow = traceRecorder.start();
+        Thread.sleep(20);
+        traceRecorder.finish(slow, ENDPOINT, 200);
+        var slower = traceRecorder.start();
+        Thread.sleep(40);
+        traceRecorder.finish(slower, ENDPOINT, 200);
+        traceRecorder.finish(traceRecorder.start(), ENDPOINT, 200);
+
+        assertThat(traceRecorder.getSlowestTraces().get(ENDPOINT)).containsExactly(slower, slow);
+    }
+
+    @Test
+    void whenEndpointLimitReachedThenSkipNewEndpoints() {
+        traceRecorder.finish(traceRecorder.start(), ENDPOINT, 200);
+        traceRecorder.finish(traceRecorder.start(), "GET /api/v1/categories", 200);
+
+        assertThat(traceRecorder.getSlowestTraces()).containsOnlyKeys(ENDPOINT);
+    }
+
+    @Test
+    void whenSpansExceedCapacityThenCountDropped() {
+        var trace = traceRecorder.start();
+        var controller = trace.enter("controller", "JokeRestController", "getRandomJoke");
+        trace.leaf("db", 1_000);
+        trace.leaf("db", 1_000);
+        trace.exit(controller, false);
+
+        assertThat(trace.getSpans()).hasSize(2);
+        assertThat(trace.getDroppedSpans()).isEqualTo(1);
+    }
+
+    @Test
+    void whenRequestNotSampledThenDoNotStartTrace() {
+        properties.setSampleRate(0);
+
+        assertThat(traceRecorder.start()).isNull();
+    }
+
+    @Test
+    void whenDisabledThenDoNotStartTrace() {
+        properties.setEnabled(false);
+
+        assertThat(traceRecorder.start()).isNull();
+    }
+
+}
@@ -0,0 +1,37 @@
+package ru.elias.server.plan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Запоминает SQL, который Hibernate отправляет в БД, чтобы построить план именно для него.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.get().clear();
+    }
+
+    /**
+     * @return Первый запрос после последнего вызова {@link #clear()}. Следующие за ним запросы
+     *         (например, загрузка связанных сущностей) не учитываются.
+     */
+    public static String first() {
+        var statements = STATEMENTS.get();
+        if (statements.isEmpty()) {
+            throw new IllegalStateException("No SQL statement was captured");
+        }
+        return statements.get(0);
+    }
+
+}
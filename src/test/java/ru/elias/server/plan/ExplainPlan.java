@@ -0,0 +1,116 @@
+package ru.elias.server.plan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * План запроса PostgreSQL, полученный через {@code EXPLAIN (FORMAT JSON)}. Секции таблицы {@code <relation>}
+ * называются {@code <relation>_p<N>} и считаются той же таблицей.
+ */
+class ExplainPlan {
+
+    private static final Set<String> SORT_NODES = Set.of("Sort", "Incremental Sort");
+
+    private final String sql;
+
+    private final JsonNode root;
+
+    private ExplainPlan(String sql, JsonNode root) {
+        this.sql = sql;
+        this.root = root;
+    }
+
+    static ExplainPlan parse(ObjectMapper objectMapper, String sql, String json) throws JsonProcessingException {
+        return new ExplainPlan(sql, objectMapper.readTree(json).get(0).get("Plan"));
+    }
+
+    double totalCost() {
+        return root.get("Total Cost").asDouble();
+    }
+
+    boolean hasSeqScan(String relation) {
+        return nodes().stream()
+                      .anyMatch(node -> "Seq Scan".equals(text(node, "Node Type"))
+                              && isRelation(text(node, "Relation Name"), relation));
+    }
+
+    boolean hasSort() {
+        return nodes().stream().anyMatch(node -> SORT_NODES.contains(text(node, "Node Type")));
+    }
+
+    /**
+     * @return Есть ли сортировка, на вход которой планировщик ожидает больше указанного числа строк.
+     */
+    boolean hasSortOver(long rows) {
+        return nodes().stream()
+                      .anyMatch(node -> SORT_NODES.contains(text(node, "Node Type"))
+                              && node.get("Plan Rows").asLong() > rows);
+    }
+
+    boolean usesIndex(String indexName) {
+        return nodes().stream().anyMatch(node -> indexName.equals(text(node, "Index Name")));
+    }
+
+    /**
+     * @return Используется ли индекс, имя которого соответствует шаблону: индексы секций именуются PostgreSQL.
+     */
+    boolean usesIndexMatching(String indexNamePattern) {
+        var pattern = Pattern.compile(indexNamePattern);
+        return nodes().stream()
+                      .map(node -> text(node, "Index Name"))
+                      .anyMatch(name -> name != null && pattern.matcher(name).matches());
+    }
+
+    /**
+     * @return Секции таблицы, которые читает план. В плане {@code EXPLAIN ANALYZE} не учитываются узлы,
+     * отсеченные при выполнении ({@code Actual Loops = 0}).
+     */
+    Set<String> scannedPartitions(String relation) {
+        return nodes().stream()
+                      .filter(node -> isPartition(text(node, "Relation Name"), relation))
+                      .filter(node -> !node.has("Actual Loops") || node.get("Actual Loops").asLong() > 0)
+                      .map(node -> text(node, "Relation Name"))
+                      .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    List<JsonNode> nodes() {
+        var nodes = new ArrayList<JsonNode>();
+        collect(root, nodes);
+        return nodes;
+    }
+
+    @Override
+    public String toString() {
+        return sql + System.lineSeparator() + root.toPrettyString();
+    }
+
+    private static void collect(JsonNode node, List<JsonNode> nodes) {
+        nodes.add(node);
+        var children = node.get("Plans");
+        if (children != null) {
+            children.forEach(child -> collect(child, nodes));
+        }
+    }
+
+    private static boolean isRelation(String name, String relation) {
+        return relation.equals(name) || isPartition(name, relation);
+    }
+
+    private static boolean isPartition(String name, String relation) {
+        return name != null && name.matches(Pattern.quote(relation) + "_p\\d+");
+    }
+
+    private static String text(JsonNode node, String field) {
+        var value = node.get(field);
+        return value == null ? null : value.asText();
+    }
+
+}
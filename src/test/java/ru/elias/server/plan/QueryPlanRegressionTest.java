@@ -0,0 +1,300 @@
+package ru.elias.server.plan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.elias.server.repository.CategoryRepository;
+import ru.elias.server.repository.JokeExportRepository;
+import ru.elias.server.repository.JokeIdRepository;
+import ru.elias.server.repository.JokeQueryCustomRepository;
+import ru.elias.server.repository.JokeRepository;
+import ru.elias.server.repository.UserRepository;
+import ru.elias.server.sql.SqlStatementCounter;
+import ru.elias.server.util.QEntities;
+
+/**
+ * Регрессионная проверка планов запросов репозиториев на PostgreSQL с синтетическим набором данных.
+ * Схема создается миграциями Liquibase, таблицы {@code jokes}, {@code categories} и {@code users}
+ * перед запуском очищаются, поэтому нужна отдельная БД:
+ * {@code mvn test -Dtest=QueryPlanRegressionTest -Dplan.datasource.url=jdbc:postgresql://localhost:5432/chuck_plan}.
+ * Объем данных задается {@code -Dplan.jokes} (по умолчанию 500 000 шуток).
+ * Запросы по категории дополнительно выполняются через {@code EXPLAIN ANALYZE}: секции {@code jokes},
+ * кроме секции категории, должны быть отсечены при планировании или при выполнении. Запросы через
+ * {@link JdbcTemplate} (индекс идентификаторов, выгрузка) перехватываются {@link SqlStatementCounter}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQL10Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.liquibase.enabled=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.elias.server.plan.CapturingStatementInspector"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "plan.datasource.url", matches = ".+")
+class QueryPlanRegressionTest {
+
+    private static final int CATEGORIES = 1_000;
+
+    private static final int JOKES = Integer.getInteger("plan.jokes", 500_000);
+
+    private static final int USERS = 100_000;
+
+    /**
+     * Предельная оценка стоимости запроса, читающего несколько строк по индексу.
+     */
+    private static final double POINT_QUERY_MAX_COST = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JokeRepository jokeRepository;
+
+    @Autowired
+    private JokeQueryCustomRepository jokeQueryCustomRepository;
+
+    @Autowired
+    private JokeIdRepository jokeIdRepository;
+
+    @Autowired
+    private JokeExportRepository jokeExportRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Стоимость полного чтения таблицы шуток - база для порогов запросов по категории.
+     */
+    private double fullScanCost;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("plan.datasource.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("plan.datasource.username", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("plan.datasource.password", "pass"));
+    }
+
+    @BeforeAll
+    void seed() throws Exception {
+        jdbcTemplate.execute("truncate table jokes, categories, users restart identity cascade");
+        jdbcTemplate.update("insert into categories (name, created_at) "
+                                    + "select 'category-' || g, now() from generate_series(1, ?) g",
+                            CATEGORIES);
+        jdbcTemplate.update("insert into jokes (name, category_id, created_at) "
+                                    + "select 'joke-' || md5(g::text), g % ? + 1, now() from generate_series(1, ?) g",
+                            CATEGORIES, JOKES);
+        jdbcTemplate.update("insert into users (username, role, created_at) "
+                                    + "select 'user-' || g || '@example.com', 'USER', now() "
+                                    + "from generate_series(1, ?) g",
+                            USERS);
+        jdbcTemplate.execute("analyze");
+        fullScanCost = explain("select * from jokes").totalCost();
+    }
+
+    @Test
+    void findRandomJokeReadsIndexWithoutSort() throws Exception {
+        var plan = explainCaptured(() -> jokeRepository.findRandomJoke());
+        assertPointQuery(plan, "jokes");
+    }
+
+    @Test
+    void findRandomJokeByCategoryIdReadsIndexWithoutSort() throws Exception {
+        var plan = explainCaptured(() -> jokeRepository.findRandomJokeByCategoryId(1L), 1L, 1L);
+        assertPointQuery(plan, "jokes");
+        assertThat(plan.usesIndexMatching("jokes_p\\d+_category_id_id_idx")).as("%s", plan).isTrue();
+        assertReadsOnlyCategoryPartition(analyzeCaptured(() -> jokeRepository.findRandomJokeByCategoryId(1L), 1L, 1L),
+                                         1L);
+    }
+
+    @Test
+    void existsByNameUsesNameIndex() throws Exception {
+        var plan = explainCaptured(() -> jokeRepository.existsByName("joke-x"), "joke-x", 1);
+        assertPointQuery(plan, "jokes");
+        assertThat(plan.usesIndexMatching("jokes_p\\d+_name_idx")).as("%s", plan).isTrue();
+    }
+
+    @Test
+    void findJokeByIdUsesPrimaryKey() throws Exception {
+        var plan = explainCaptured(() -> jokeRepository.findJokeById(42L), 42L);
+        assertPointQuery(plan, "jokes");
+    }
+
+    @Test
+    void findAllByCategoryReadsOnlyCategoryRows() throws Exception {
+        var plan = explainCaptured(() -> jokeRepository.findAllByCategory("category-1"), "category-1");
+        assertCategoryQuery(plan);
+        assertReadsOnlyCategoryPartition(analyzeCaptured(() -> jokeRepository.findAllByCategory("category-1"),
+                                                         "category-1"),
+                                         1L);
+    }
+
+    @Test
+    void countJokeByCategoryNameReadsOnlyCategoryRows() throws Exception {
+        var plan = explainCaptured(() -> jokeRepository.countJokeByCategoryName("category-1"), "category-1");
+        assertCategoryQuery(plan);
+        assertReadsOnlyCategoryPartition(analyzeCaptured(() -> jokeRepository.countJokeByCategoryName("category-1"),
+                                                         "category-1"),
+                                         1L);
+    }
+
+    @Test
+    void findJokesByNamePredicateUsesNameIndex() throws Exception {
+        var plan = explainCaptured(
+                () -> jokeQueryCustomRepository.findJokesByPredicate(QEntities.JOKE.name.eq("joke-x")),
+                "joke-x");
+        assertPointQuery(plan, "jokes", "categories");
+    }
+
+    /**
+     * Сервис заменяет фильтр по названию категории фильтром по {@code jokes.category_id}.
+     */
+    @Test
+    void findJokesByCategoryIdPredicateReadsOnlyCategoryPartition() throws Exception {
+        Runnable query = () -> jokeQueryCustomRepository.findJokesByPredicate(QEntities.JOKE.category.id.in(1L));
+        var plan = explainCaptured(query, 1L);
+        assertCategoryQuery(plan);
+        assertReadsOnlyCategoryPartition(analyzeCaptured(query, 1L), 1L);
+    }
+
+    @Test
+    void findCategoryIdsByPredicateUsesUniqueIndex() throws Exception {
+        var plan = explainCaptured(
+                () -> jokeQueryCustomRepository.findCategoryIdsByPredicate(QEntities.CATEGORY.name.in("category-1")),
+                "category-1");
+        assertPointQuery(plan, "categories");
+    }
+
+    @Test
+    void findIdsByCategoryIdReadsOnlyCategoryPartition() throws Exception {
+        Runnable query = () -> jokeIdRepository.findIdsByCategoryId(1L);
+        var plan = explain(captureJdbc(query, 1L), 1L);
+        assertCategoryQuery(plan);
+        assertReadsOnlyCategoryPartition(analyze(captureJdbc(query, 1L), 1L), 1L);
+    }
+
+    @Test
+    void streamJokesByCategoryReadsOnlyCategoryPartition() throws Exception {
+        Runnable query = () -> {
+            try {
+                jokeExportRepository.streamJokes("category-1", (joke, category) -> { });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        var plan = explain(captureJdbc(query, "category-1"), "category-1");
+        assertCategoryQuery(plan);
+        assertReadsOnlyCategoryPartition(analyze(captureJdbc(query, "category-1"), "category-1"), 1L);
+    }
+
+    @Test
+    void countByCategoriesAggregatesWithoutFullSort() throws Exception {
+        var plan = explainCaptured(() -> jokeQueryCustomRepository.countByCategories());
+        assertThat(plan.hasSortOver(JOKES / 10)).as("%s", plan).isFalse();
+        assertThat(plan.totalCost()).as("%s", plan).isLessThan(fullScanCost * 3);
+    }
+
+    @Test
+    void findCategoryByNameUsesUniqueIndex() throws Exception {
+        var plan = explainCaptured(() -> categoryRepository.findCategoryByName("category-1"), "category-1");
+        assertPointQuery(plan, "categories");
+    }
+
+    @Test
+    void findAllCategoriesByNameInUsesUniqueIndex() throws Exception {
+        var plan = explainCaptured(() -> categoryRepository.findAllByNameIn(List.of("category-1", "category-2")),
+                                   "category-1", "category-2");
+        assertPointQuery(plan, "categories");
+    }
+
+    @Test
+    void findUserByUsernameUsesUsernameIndex() throws Exception {
+        var plan = explainCaptured(() -> userRepository.findByUsername("user-1@example.com"), "user-1@example.com");
+        assertPointQuery(plan, "users");
+        assertThat(plan.usesIndex("idx_users_username")).as("%s", plan).isTrue();
+    }
+
+    private void assertPointQuery(ExplainPlan plan, String... relations) {
+        assertThat(plan.hasSort()).as("%s", plan).isFalse();
+        for (String relation : relations) {
+            assertThat(plan.hasSeqScan(relation)).as("%s", plan).isFalse();
+        }
+        assertThat(plan.totalCost()).as("%s", plan).isLessThan(POINT_QUERY_MAX_COST);
+    }
+
+    /**
+     * Запрос по категории может сортировать строки одной категории, но не должен читать или сортировать всю таблицу.
+     */
+    private void assertCategoryQuery(ExplainPlan plan) {
+        assertThat(plan.hasSortOver(JOKES / 10)).as("%s", plan).isFalse();
+        assertThat(plan.hasSeqScan("jokes")).as("%s", plan).isFalse();
+        assertThat(plan.totalCost()).as("%s", plan).isLessThan(fullScanCost / 2);
+    }
+
+    private void assertReadsOnlyCategoryPartition(ExplainPlan plan, long categoryId) {
+        var partition = jdbcTemplate.queryForObject("select tableoid::regclass::text from jokes "
+                                                            + "where category_id = ? limit 1",
+                                                    String.class, categoryId);
+        assertThat(plan.scannedPartitions("jokes")).as("%s", plan).containsExactly(partition);
+    }
+
+    private ExplainPlan explainCaptured(Runnable query, Object... params) throws Exception {
+        return explain(capture(query, params), params);
+    }
+
+    private ExplainPlan analyzeCaptured(Runnable query, Object... params) throws Exception {
+        return analyze(capture(query, params), params);
+    }
+
+    private ExplainPlan analyze(String sql, Object... params) throws Exception {
+        var json = jdbcTemplate.queryForObject("explain (analyze, format json) " + sql, String.class, params);
+        return ExplainPlan.parse(objectMapper, sql, json);
+    }
+
+    private String capture(Runnable query, Object... params) {
+        CapturingStatementInspector.clear();
+        query.run();
+        var sql = CapturingStatementInspector.first();
+        assertThat(StringUtils.countMatches(sql, '?')).as(sql).isEqualTo(params.length);
+        return sql;
+    }
+
+    /**
+     * Запоминает запрос, выполненный через {@link JdbcTemplate} в обход Hibernate.
+     */
+    private String captureJdbc(Runnable query, Object... params) {
+        var events = sqlStatementCounter.count(query).getEvents();
+        assertThat(events).hasSize(1);
+        var sql = events.get(0).getSql();
+        assertThat(StringUtils.countMatches(sql, '?')).as(sql).isEqualTo(params.length);
+        return sql;
+    }
+
+    private ExplainPlan explain(String sql, Object... params) throws Exception {
+        var json = jdbcTemplate.queryForObject("explain (format json) " + sql, String.class, params);
+        return ExplainPlan.parse(objectMapper, sql, json);
+    }
+
+}
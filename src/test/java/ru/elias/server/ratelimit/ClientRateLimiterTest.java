@@ -0,0 +1,119 @@
+package ru.elias.server.ratelimit;
+
+import javax.validation.Validation;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.elias.server.config.properties.RateLimitProperties;
+import ru.elias.server.exception.RateLimitExceededException;
+import ru.elias.server.service.MessageSourceHelper;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ClientRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        var messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        var limit = new RateLimitProperties.Limit();
+        limit.setCapacity(3);
+        limit.setPeriod(Duration.ofSeconds(30));
+        var properties = new RateLimitProperties();
+        properties.getEndpoints().put(RateLimitedEndpoint.REPORTS, limit);
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new ClientRateLimiter(properties,
+                                            new MessageSourceHelper(messageSource),
+                                            meterRegistry,
+                                            now::get);
+        authenticate("alice");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void whenCapacityOrPeriodIsNotPositiveThenPropertiesAreInvalid() {
+        var limit = new RateLimitProperties.Limit();
+        limit.setCapacity(0);
+        limit.setPeriod(Duration.ZERO);
+        var properties = new RateLimitProperties();
+        properties.getEndpoints().put(RateLimitedEndpoint.REPORTS, limit);
+
+        var violations = Validation.buildDefaultValidatorFactory().getValidator().validate(properties);
+
+        assertThat(violations).extracting(violation -> violation.getPropertyPath().toString())
+                              .containsExactlyInAnyOrder("endpoints[REPORTS].capacity",
+                                                         "endpoints[REPORTS].period");
+    }
+
+    @Test
+    void whenBurstIsExhaustedThenRejectWithRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire(RateLimitedEndpoint.REPORTS);
+        }
+        assertThatThrownBy(() -> rateLimiter.acquire(RateLimitedEndpoint.REPORTS))
+                .isInstanceOf(RateLimitExceededException.class)
+                .hasMessageContaining("reports")
+                .extracting("retryAfterSeconds")
+                .isEqualTo(10L);
+        assertThat(meterRegistry.get("rate.limit.rejections").tag("endpoint", "reports").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void whenTokenIsRefilledThenAcceptAgain() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire(RateLimitedEndpoint.REPORTS);
+        }
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThatThrownBy(() -> rateLimiter.acquire(RateLimitedEndpoint.REPORTS))
+                .extracting("retryAfterSeconds")
+                .isEqualTo(1L);
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        rateLimiter.acquire(RateLimitedEndpoint.REPORTS);
+    }
+
+    @Test
+    void whenClientsDifferThenBucketsAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire(RateLimitedEndpoint.REPORTS);
+        }
+        authenticate("bob");
+        rateLimiter.acquire(RateLimitedEndpoint.REPORTS);
+        SecurityContextHolder.clearContext();
+        rateLimiter.acquire(RateLimitedEndpoint.REPORTS);
+        assertThat(meterRegistry.get("rate.limit.clients").tag("endpoint", "reports").gauge().value())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void whenEndpointIsNotConfiguredThenNeverReject() {
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.acquire(RateLimitedEndpoint.JOKES_AUTO_CREATE);
+        }
+        assertThat(meterRegistry.find("rate.limit.rejections").tag("endpoint", "jokes-auto-create").counter())
+                .isNull();
+    }
+
+    private static void authenticate(String name) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(name, null));
+    }
+
+}
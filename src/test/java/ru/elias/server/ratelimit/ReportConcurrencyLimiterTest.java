@@ -0,0 +1,177 @@
+package ru.elias.server.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import ru.elias.server.config.properties.ReportConcurrencyProperties;
+import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.ErrorType;
+import ru.elias.server.service.MessageSourceHelper;
+
+class ReportConcurrencyLimiterTest {
+
+    private ReportConcurrencyProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReportConcurrencyProperties();
+        properties.setInitialLimit(2);
+        properties.setRowsPerPermit(100);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void whenReportIsFastAndLimitIsUsedThenLimitGrows() {
+        var limiter = createLimiter();
+        limiter.execute(150, () -> {
+            assertThat(limiter.getInFlight()).isEqualTo(2);
+            return 0;
+        });
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(meterRegistry.get("report.concurrency.limit").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void whenReportIsSlowThenLimitShrinks() {
+        properties.setInitialLimit(4);
+        properties.setLatencyThreshold(Duration.ZERO);
+        var limiter = createLimiter();
+        limiter.execute(0, () -> 1);
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void whenOnlyTransferToClientIsSlowThenLimitIsUnchanged() {
+        properties.setInitialLimit(4);
+        properties.setLatencyThreshold(Duration.ofMillis(1));
+        var limiter = createLimiter();
+        limiter.execute(0, () -> {
+            sleep(10);
+            return 0;
+        });
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void whenReportFailsThenLimitIsUnchanged() {
+        var limiter = createLimiter();
+        assertThatThrownBy(() -> limiter.execute(0, () -> {
+            throw new IllegalStateException("render failed");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void whenEstimateExceedsLimitThenReportTakesWholeLimit() {
+        var limiter = createLimiter();
+        limiter.execute(1_000_000, () -> {
+            assertThat(limiter.getInFlight()).isEqualTo(2);
+            return 0;
+        });
+    }
+
+    @Test
+    void whenQueueIsFullThenRejectImmediately() {
+        properties.setMaxQueued(0);
+        var limiter = createLimiter();
+        limiter.execute(150, () -> {
+            assertThatThrownBy(() -> limiter.execute(0, () -> 0))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting("errorType")
+                    .isEqualTo(ErrorType.REPORT_OVERLOADED);
+            return 0;
+        });
+        assertThat(meterRegistry.get("report.concurrency.rejections").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenPermitsAreNotReleasedInTimeThenReject() {
+        properties.setQueueTimeout(Duration.ofMillis(50));
+        var limiter = createLimiter();
+        limiter.execute(150, () -> {
+            assertThatThrownBy(() -> limiter.execute(0, () -> 0))
+                    .isInstanceOf(BusinessException.class);
+            assertThat(limiter.getQueued()).isZero();
+            return 0;
+        });
+    }
+
+    @Test
+    void whenLargeReportIsQueuedThenSmallReportsDoNotOvertakeIt() throws Exception {
+        var limiter = createLimiter();
+        var running = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var completed = new ConcurrentLinkedQueue<String>();
+        var executor = Executors.newFixedThreadPool(3);
+        try {
+            var first = executor.submit(() -> limiter.execute(0, () -> {
+                running.countDown();
+                await(release);
+                completed.add("first");
+                return 0;
+            }));
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+            var large = executor.submit(() -> limiter.execute(150, () -> {
+                completed.add("large");
+                return 0;
+            }));
+            awaitQueued(limiter, 1);
+            var small = executor.submit(() -> limiter.execute(0, () -> {
+                completed.add("small");
+                return 0;
+            }));
+            awaitQueued(limiter, 2);
+            release.countDown();
+
+            first.get(5, TimeUnit.SECONDS);
+            large.get(5, TimeUnit.SECONDS);
+            small.get(5, TimeUnit.SECONDS);
+            assertThat(completed).containsExactly("first", "large", "small");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ReportConcurrencyLimiter createLimiter() {
+        var messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        return new ReportConcurrencyLimiter(properties, new MessageSourceHelper(messageSource), meterRegistry);
+    }
+
+    private void awaitQueued(ReportConcurrencyLimiter limiter, int queued) {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getQueued() < queued && System.nanoTime() < deadline) {
+            sleep(1);
+        }
+        assertThat(limiter.getQueued()).isEqualTo(queued);
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package ru.elias.server.security;
+
+import java.time.Instant;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import ru.elias.server.config.properties.JwtProperties;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private JwtDecoder delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        decoder = new CachingJwtDecoder(delegate, new JwtProperties(), meterRegistry);
+    }
+
+    @Test
+    void whenDecodeSameTokenTwiceThenVerifyOnlyOnce() {
+        when(delegate.decode(TOKEN)).thenReturn(jwt(Instant.now().plusSeconds(60)));
+        var first = decoder.decode(TOKEN);
+        var second = decoder.decode(TOKEN);
+        assertThat(second).isSameAs(first);
+        verify(delegate, Mockito.times(1)).decode(TOKEN);
+        assertThat(meterRegistry.get("jwt.verification").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void whenTokenIsExpiredThenVerifyAgain() {
+        when(delegate.decode(TOKEN)).thenReturn(jwt(Instant.now().minusSeconds(1)));
+        decoder.decode(TOKEN);
+        decoder.decode(TOKEN);
+        verify(delegate, Mockito.times(2)).decode(TOKEN);
+    }
+
+    @Test
+    void whenVerificationFailsThenErrorIsNotCached() {
+        when(delegate.decode(ArgumentMatchers.anyString())).thenThrow(new BadJwtException("bad signature"));
+        assertThatThrownBy(() -> decoder.decode(TOKEN)).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode(TOKEN)).isInstanceOf(BadJwtException.class);
+        verify(delegate, Mockito.times(2)).decode(TOKEN);
+    }
+
+    private Jwt jwt(Instant expiresAt) {
+        return Jwt.withTokenValue(TOKEN)
+                  .header("alg", "RS256")
+                  .subject("test@gmail.com")
+                  .issuedAt(expiresAt.minusSeconds(3600))
+                  .expiresAt(expiresAt)
+                  .build();
+    }
+
+}
@@ -0,0 +1,79 @@
+package ru.elias.server.security;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.core.io.ClassPathResource;
+import ru.elias.server.security.impl.FileJwkSetLoader;
+
+class RefreshingJwkSourceTest {
+
+    private static final JWKSelector TEST_KEY = new JWKSelector(new JWKMatcher.Builder().keyID("test-key").build());
+
+    @Test
+    void whenKeysAreLoadedFromLocalFileThenSelectKeyById() throws Exception {
+        var source = new RefreshingJwkSource(new FileJwkSetLoader(new ClassPathResource("security/jwks.json")),
+                                             Duration.ofSeconds(30),
+                                             new SimpleMeterRegistry());
+        source.refresh();
+        assertThat(source.get(TEST_KEY, null)).hasSize(1);
+    }
+
+    @Test
+    void whenRefreshFailsThenLastKnownGoodKeysAreUsed() throws Exception {
+        var fileLoader = new FileJwkSetLoader(new ClassPathResource("security/jwks.json"));
+        var loader = Mockito.mock(JwkSetLoader.class);
+        when(loader.load()).thenReturn(fileLoader.load())
+                           .thenThrow(new IOException("JWKS endpoint is unavailable"));
+        var source = new RefreshingJwkSource(loader, Duration.ofSeconds(30), new SimpleMeterRegistry());
+        source.refresh();
+        source.refresh();
+        assertThat(source.get(TEST_KEY, null)).hasSize(1);
+    }
+
+    @Test
+    void whenInitialLoadIsInProgressThenRequestWaitsForIt() throws Exception {
+        var keys = new FileJwkSetLoader(new ClassPathResource("security/jwks.json")).load();
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var loader = Mockito.mock(JwkSetLoader.class);
+        when(loader.load()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return keys;
+        });
+        var source = new RefreshingJwkSource(loader, Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+        var refresh = CompletableFuture.runAsync(source::refresh);
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        var request = CompletableFuture.supplyAsync(() -> {
+            try {
+                return source.get(TEST_KEY, null);
+            } catch (KeySourceException e) {
+                throw new CompletionException(e);
+            }
+        });
+        assertThatThrownBy(() -> request.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        release.countDown();
+
+        assertThat(request.get(5, TimeUnit.SECONDS)).hasSize(1);
+        refresh.get(5, TimeUnit.SECONDS);
+        verify(loader).load();
+    }
+
+}
@@ -1,5 +1,6 @@
 package ru.elias.server.service.impl.integration;
 
+import java.util.Collections;
 import java.util.List;
 
 import com.github.database.rider.core.api.dataset.DataSet;
@@ -15,10 +16,13 @@ import reactor.core.publisher.Mono;
 import ru.elias.server.AbstractDbRiderTest;
 import ru.elias.server.client.impl.JokeReactiveClientImpl;
 import ru.elias.server.dto.CategoryDto;
+import ru.elias.server.dto.bulk.BulkItemResult;
 import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.ErrorType;
 import ru.elias.server.model.Category;
 import ru.elias.server.repository.CategoryRepository;
 import ru.elias.server.service.impl.CategoryServiceImpl;
+import ru.elias.server.sql.SqlStatementCounter;
 
 class CategoryServiceIntegrationTest extends AbstractDbRiderTest {
 
@@ -31,6 +35,9 @@ class CategoryServiceIntegrationTest extends AbstractDbRiderTest {
     @Autowired
     private CategoryServiceImpl categoryService;
 
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
     @Test
     @DataSet(value = "data/yml/ethalonData.yml")
     void whenGetCategoryByNameThenReturnCategoryDto() {
@@ -48,6 +55,36 @@ class CategoryServiceIntegrationTest extends AbstractDbRiderTest {
                 .hasMessageContaining("Категория с названием asdsdsad не найдена!");
     }
 
+    @Test
+    @DataSet("data/yml/ethalonData.yml")
+    void whenCreateCategoriesInBulkThenSkipExistingAndDuplicates() {
+        var request = List.of(new CategoryDto("music"),
+                              new CategoryDto("dev"),
+                              new CategoryDto("music"),
+                              new CategoryDto(""));
+        var result = categoryService.createCategories(request);
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody().getCreated()).isEqualTo(1);
+        assertThat(result.getBody().getItems())
+                .extracting(BulkItemResult::getCode)
+                .containsExactly(null,
+                                 ErrorType.CATEGORY_ALREADY_EXISTS.getCode(),
+                                 ErrorType.CATEGORY_ALREADY_EXISTS.getCode(),
+                                 ErrorType.CATEGORY_NAME_INVALID.getCode());
+        assertThat(categoryRepository.findCategoryByName("music")).isPresent();
+    }
+
+    @Test
+    @DataSet("data/yml/ethalonData.yml")
+    void whenCreateCategoriesInBulkOverLimitThenThrowException() {
+        var request = Collections.nCopies(100_001, new CategoryDto("music"));
+        assertThatThrownBy(() -> categoryService.createCategories(request))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorType")
+                .isEqualTo(ErrorType.BULK_LIMIT_EXCEEDED);
+    }
+
     @Test
     @DataSet("data/yml/ethalonData.yml")
     void whenGetAllCategoriesThenReturnListDtoCategories() {
@@ -82,8 +119,27 @@ class CategoryServiceIntegrationTest extends AbstractDbRiderTest {
                                            "explicit", "fashion", "food", "history",
                                            "money", "movie", "music", "political",
                                            "religion", "science", "sport", "travel")));
+        sqlStatementCounter.start();
         var actual = categoryService.createCategories(true, null);
+        sqlStatementCounter.stop()
+                           .assertSelectCount(1)
+                           .assertInsertCount(16)
+                           .assertTotalCount(17);
         assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.CREATED);
     }
 
+    @Test
+    @DataSet("data/yml/ethalonData.yml")
+    void whenReadAndCreateCategoriesThenStayWithinSqlBudget() {
+        sqlStatementCounter.count(() -> categoryService.getAllCategories())
+                           .assertTotalCount(1);
+        sqlStatementCounter.count(() -> categoryService.getCategoryByName("dev"))
+                           .assertTotalCount(1);
+        var request = List.of(new CategoryDto("music"), new CategoryDto("movie"), new CategoryDto("dev"));
+        sqlStatementCounter.count(() -> categoryService.createCategories(request))
+                           .assertSelectCount(1)
+                           .assertInsertCount(1)
+                           .assertTotalCount(2);
+    }
+
 }
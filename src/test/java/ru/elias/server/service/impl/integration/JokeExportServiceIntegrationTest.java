@@ -0,0 +1,57 @@
+package ru.elias.server.service.impl.integration;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import com.github.database.rider.core.api.dataset.DataSet;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.elias.server.AbstractDbRiderTest;
+import ru.elias.server.exception.BusinessException;
+import ru.elias.server.service.impl.JokeExportServiceImpl;
+import ru.elias.server.transfer.JokeFileFormat;
+
+class JokeExportServiceIntegrationTest extends AbstractDbRiderTest {
+
+    @Autowired
+    private JokeExportServiceImpl jokeExportService;
+
+    @Test
+    @DataSet(value = "data/yml/ethalonData.yml")
+    void whenExportCsvThenWriteAllJokesInIdOrder() throws IOException {
+        var response = new MockHttpServletResponse();
+        jokeExportService.exportJokes(JokeFileFormat.CSV, null, false, response);
+        assertThat(response.getContentType()).startsWith("text/csv");
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8))
+                .isEqualTo("joke,category\n"
+                                   + "some-joke-1,dev\n"
+                                   + "some-joke-2,sport\n"
+                                   + "some-joke-3,animal\n");
+    }
+
+    @Test
+    @DataSet(value = "data/yml/ethalonData.yml")
+    void whenExportGzipNdjsonByCategoryThenWriteCompressedJokes() throws IOException {
+        var response = new MockHttpServletResponse();
+        jokeExportService.exportJokes(JokeFileFormat.NDJSON, "sport", true, response);
+        assertThat(response.getHeader("Content-Disposition")).contains("jokes.ndjson.gz");
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo("{\"joke\":\"some-joke-2\",\"category\":\"sport\"}\n");
+        }
+    }
+
+    @Test
+    @DataSet(value = "data/yml/ethalonData.yml")
+    void whenExportUnknownCategoryThenThrowBusinessException() {
+        var response = new MockHttpServletResponse();
+        assertThatThrownBy(() -> jokeExportService.exportJokes(JokeFileFormat.CSV, "unknown", false, response))
+                .isInstanceOf(BusinessException.class);
+    }
+
+}
@@ -0,0 +1,72 @@
+package ru.elias.server.service.impl.integration;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.github.database.rider.core.api.dataset.DataSet;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.elias.server.AbstractDbRiderTest;
+import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.ErrorType;
+import ru.elias.server.repository.JokeRepository;
+import ru.elias.server.service.impl.JokeImportServiceImpl;
+import ru.elias.server.transfer.JokeFileFormat;
+import ru.elias.server.util.QEntities;
+
+class JokeImportServiceIntegrationTest extends AbstractDbRiderTest {
+
+    @Autowired
+    private JokeRepository jokeRepository;
+
+    @Autowired
+    private JokeImportServiceImpl jokeImportService;
+
+    @Test
+    @DataSet(value = "data/yml/ethalonData.yml")
+    void whenImportCsvThenInsertNewJokesOnly() {
+        var csv = "joke,category\n"
+                + "some-joke-1,dev\n"
+                + "imported-joke,sport\n"
+                + "imported-joke,sport\n"
+                + "\"imported, quoted\",animal\n"
+                + "orphan-joke,unknown\n";
+        var status = jokeImportService.importJokes(JokeFileFormat.CSV, body(csv)).getBody();
+        assertThat(status).isNotNull();
+        assertThat(status.getRowsRead()).isEqualTo(5);
+        assertThat(status.getRowsRejected()).isEqualTo(1);
+        assertThat(status.getRowsImported()).isEqualTo(2);
+        assertThat(jokeRepository.count()).isEqualTo(5);
+        assertThat(jokeRepository.exists(QEntities.JOKE.name.eq("imported, quoted"))).isTrue();
+        assertThat(jokeImportService.getActiveImports().getBody()).isEmpty();
+    }
+
+    @Test
+    @DataSet(value = "data/yml/ethalonData.yml")
+    void whenImportNdjsonThenInsertJokes() {
+        var ndjson = "{\"joke\": \"ndjson-joke-1\", \"category\": \"dev\"}\n"
+                + "{\"joke\": \"ndjson-joke-2\", \"category\": \"sport\"}\n";
+        var status = jokeImportService.importJokes(JokeFileFormat.NDJSON, body(ndjson)).getBody();
+        assertThat(status).isNotNull();
+        assertThat(status.getRowsImported()).isEqualTo(2);
+        assertThat(jokeRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    @DataSet(value = "data/yml/ethalonData.yml")
+    void whenImportMalformedFileThenRollbackAndThrowBusinessException() {
+        var csv = "imported-joke,dev\n\"broken,dev\n";
+        assertThatThrownBy(() -> jokeImportService.importJokes(JokeFileFormat.CSV, body(csv)))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorType")
+                .isEqualTo(ErrorType.IMPORT_FORMAT_INVALID);
+        assertThat(jokeRepository.count()).isEqualTo(3);
+    }
+
+    private ByteArrayInputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
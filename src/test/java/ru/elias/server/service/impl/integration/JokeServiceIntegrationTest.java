@@ -1,11 +1,13 @@
 package ru.elias.server.service.impl.integration;
 
+import java.util.Arrays;
 import java.util.List;
 
 import com.github.database.rider.core.api.dataset.DataSet;
 import com.github.database.rider.core.api.dataset.ExpectedDataSet;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import static org.mockito.Mockito.when;
@@ -14,15 +16,22 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpStatus;
 import reactor.core.publisher.Mono;
 import ru.elias.server.AbstractDbRiderTest;
+import ru.elias.server.cache.JokeCache;
+import ru.elias.server.cache.JokeIdIndex;
 import ru.elias.server.client.impl.JokeReactiveClientImpl;
 import ru.elias.server.dto.JokeDto;
 import ru.elias.server.dto.JokesGeneralStatistic;
+import ru.elias.server.dto.bulk.BulkItemResult;
+import ru.elias.server.dto.bulk.BulkItemStatus;
 import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.ErrorType;
 import ru.elias.server.filter.JokeQueryCriteria;
 import ru.elias.server.filter.base.StringFilter;
 import ru.elias.server.model.Category;
 import ru.elias.server.repository.CategoryRepository;
+import ru.elias.server.repository.JokeRepository;
 import ru.elias.server.service.impl.JokeServiceImpl;
+import ru.elias.server.sql.SqlStatementCounter;
 
 class JokeServiceIntegrationTest extends AbstractDbRiderTest {
 
@@ -32,9 +41,27 @@ class JokeServiceIntegrationTest extends AbstractDbRiderTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private JokeRepository jokeRepository;
+
     @Autowired
     private JokeServiceImpl jokeService;
 
+    @Autowired
+    private JokeCache jokeCache;
+
+    @Autowired
+    private JokeIdIndex jokeIdIndex;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @BeforeEach
+    void setUp() {
+        jokeCache.invalidateAll();
+        jokeIdIndex.invalidateAll();
+    }
+
     @Test
     @DataSet(value = "data/yml/createJokeWithAutoModeIntegrationTest.yml")
     @ExpectedDataSet(value = "data/yml/createJokeWithAutoModeIntegrationTestExpected.yml",
@@ -78,6 +105,33 @@ class JokeServiceIntegrationTest extends AbstractDbRiderTest {
                 .hasMessageContaining("Категория с названием some-category не найдена!");
     }
 
+    @Test
+    @DataSet(value = "data/yml/ethalonData.yml")
+    void whenCreateJokesInBulkThenInsertValidAndReportInvalid() {
+        var request = Arrays.asList(
+                JokeDto.builder().joke("bulk-joke-1").category("dev").build(),
+                JokeDto.builder().joke(" ").category("dev").build(),
+                JokeDto.builder().joke("bulk-joke-2").category("some-category").build(),
+                null,
+                JokeDto.builder().joke("bulk-joke-3").category("sport").build()
+        );
+        var result = jokeService.createJokes(request);
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody().getCreated()).isEqualTo(2);
+        assertThat(result.getBody().getFailed()).isEqualTo(3);
+        assertThat(result.getBody().getItems())
+                .extracting(BulkItemResult::getStatus)
+                .containsExactly(BulkItemStatus.CREATED,
+                                 BulkItemStatus.FAILED,
+                                 BulkItemStatus.FAILED,
+                                 BulkItemStatus.FAILED,
+                                 BulkItemStatus.CREATED);
+        assertThat(result.getBody().getItems().get(2).getCode())
+                .isEqualTo(ErrorType.CATEGORY_NOT_FOUND_BY_NAME.getCode());
+        assertThat(jokeRepository.count()).isEqualTo(5);
+    }
+
     @Test
     @DataSet(value = "data/yml/ethalonData.yml")
     void whenGetRandomJokeThenReturnJokeDto() {
@@ -157,6 +211,62 @@ class JokeServiceIntegrationTest extends AbstractDbRiderTest {
                 .hasMessageContaining("Шутка про Чака с идентификатором 0 не найдена!");
     }
 
+    @Test
+    @DataSet(value = "data/yml/ethalonData.yml")
+    void whenReadJokesThenStayWithinSqlBudget() {
+        sqlStatementCounter.count(() -> jokeService.getJokeById(3L))
+                           .assertTotalCount(1);
+        sqlStatementCounter.count(() -> jokeService.getJokeById(3L))
+                           .assertTotalCount(0);
+        sqlStatementCounter.count(() -> jokeService.getRandomJoke())
+                           .assertSelectCount(2)
+                           .assertTotalCount(2);
+        sqlStatementCounter.count(() -> jokeService.getRandomJokeByCategory("sport"))
+                           .assertSelectCount(2)
+                           .assertTotalCount(2);
+        sqlStatementCounter.count(() -> jokeService.getJokesCountStatistics())
+                           .assertTotalCount(1);
+        sqlStatementCounter.count(() -> jokeService.getRandomJokeByCriteria(new JokeQueryCriteria()))
+                           .assertTotalCount(1);
+        sqlStatementCounter.count(() -> jokeService.getAllJokesByCategory("dev"))
+                           .assertTotalCount(1);
+    }
+
+    @Test
+    @DataSet(value = "data/yml/ethalonData.yml")
+    void whenGetRandomJokesThenReturnDistinctJokesInOneQuery() {
+        jokeService.getRandomJokes(null, 1);
+        sqlStatementCounter.start();
+        var actual = jokeService.getRandomJokes(null, 2).getBody();
+        sqlStatementCounter.stop()
+                           .assertTotalCount(1);
+        assertThat(actual)
+                .hasSize(2)
+                .extracting(JokeDto::getJoke)
+                .doesNotHaveDuplicates();
+        assertThat(jokeService.getRandomJokes("sport", 5).getBody())
+                .extracting(JokeDto::getJoke)
+                .containsExactly("some-joke-2");
+    }
+
+    @Test
+    @DataSet(value = "data/yml/ethalonData.yml")
+    void whenCreateJokesThenStayWithinSqlBudget() {
+        var dto = dataFactory.jokeDto();
+        dto.setCategory("dev");
+        sqlStatementCounter.count(() -> jokeService.createJoke(false, null, dto))
+                           .assertSelectCount(1)
+                           .assertInsertCount(1)
+                           .assertTotalCount(2);
+        var request = List.of(JokeDto.builder().joke("bulk-joke-1").category("dev").build(),
+                              JokeDto.builder().joke("bulk-joke-2").category("sport").build(),
+                              JokeDto.builder().joke("bulk-joke-3").category("animal").build());
+        sqlStatementCounter.count(() -> jokeService.createJokes(request))
+                           .assertSelectCount(1)
+                           .assertInsertCount(1)
+                           .assertTotalCount(2);
+    }
+
     private JokeQueryCriteria getCriteria() {
         var jokeFilter = new StringFilter();
         jokeFilter.setEndWith("joke-2");
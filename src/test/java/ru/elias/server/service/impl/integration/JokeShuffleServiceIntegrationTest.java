@@ -0,0 +1,99 @@
+package ru.elias.server.service.impl.integration;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import com.github.database.rider.core.api.dataset.DataSet;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.elias.server.AbstractDbRiderTest;
+import ru.elias.server.cache.JokeCache;
+import ru.elias.server.cache.JokeIdIndex;
+import ru.elias.server.dto.JokeDto;
+import ru.elias.server.exception.BusinessException;
+import ru.elias.server.exception.ErrorType;
+import ru.elias.server.service.JokeShuffleService;
+
+class JokeShuffleServiceIntegrationTest extends AbstractDbRiderTest {
+
+    @Autowired
+    private JokeShuffleService jokeShuffleService;
+
+    @Autowired
+    private JokeIdIndex jokeIdIndex;
+
+    @Autowired
+    private JokeCache jokeCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jokeIdIndex.invalidateAll();
+        jokeCache.invalidateAll();
+    }
+
+    @Test
+    @DataSet("data/yml/ethalonData.yml")
+    void whenFollowCursorThenEveryJokeIsReturnedOncePerCycle() {
+        var jokes = new ArrayList<String>();
+        String cursor = null;
+        for (int i = 0; i < 6; i++) {
+            var response = jokeShuffleService.getNextJoke(null, cursor);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            cursor = response.getHeaders().getFirst(JokeShuffleService.CURSOR_HEADER);
+            assertThat(cursor).isNotBlank();
+            jokes.add(response.getBody().getJoke());
+        }
+        assertThat(jokes.subList(0, 3)).containsExactlyInAnyOrder("some-joke-1", "some-joke-2", "some-joke-3");
+        assertThat(jokes.subList(3, 6)).containsExactlyInAnyOrder("some-joke-1", "some-joke-2", "some-joke-3");
+    }
+
+    @Test
+    @DataSet("data/yml/ethalonData.yml")
+    void whenJokeIsSoftDeletedMidCycleThenRemainingJokesAreNotRepeated() {
+        var first = jokeShuffleService.getNextJoke(null, null);
+        var remaining = new HashSet<>(List.of("some-joke-1", "some-joke-2", "some-joke-3"));
+        remaining.remove(first.getBody().getJoke());
+        var deleted = remaining.iterator().next();
+        remaining.remove(deleted);
+        jdbcTemplate.update("update jokes set deleted_at = current_timestamp where name = ?", deleted);
+        jokeIdIndex.invalidateAll();
+        jokeCache.invalidateAll();
+
+        var cursor = first.getHeaders().getFirst(JokeShuffleService.CURSOR_HEADER);
+        var second = jokeShuffleService.getNextJoke(null, cursor);
+
+        assertThat(second.getBody()).extracting(JokeDto::getJoke).isEqualTo(remaining.iterator().next());
+    }
+
+    @Test
+    @DataSet("data/yml/ethalonData.yml")
+    void whenShuffleByCategoryThenOnlyCategoryJokesAreReturned() {
+        var response = jokeShuffleService.getNextJoke("sport", null);
+        assertThat(response.getBody()).extracting(JokeDto::getJoke).isEqualTo("some-joke-2");
+        var next = jokeShuffleService.getNextJoke(
+                "sport", response.getHeaders().getFirst(JokeShuffleService.CURSOR_HEADER));
+        assertThat(next.getBody()).extracting(JokeDto::getJoke).isEqualTo("some-joke-2");
+    }
+
+    @Test
+    @DataSet("data/yml/ethalonData.yml")
+    void whenCursorBelongsToAnotherCategoryThenThrowBusinessException() {
+        var cursor = jokeShuffleService.getNextJoke("sport", null)
+                                       .getHeaders()
+                                       .getFirst(JokeShuffleService.CURSOR_HEADER);
+        assertThatThrownBy(() -> jokeShuffleService.getNextJoke("dev", cursor))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorType")
+                .isEqualTo(ErrorType.SHUFFLE_CURSOR_INVALID);
+    }
+
+}
@@ -0,0 +1,79 @@
+package ru.elias.server.service.impl.integration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.elias.server.AbstractDbRiderTest;
+import ru.elias.server.repository.SchedulerLeaseRepository;
+import ru.elias.server.service.impl.LeaderLeaseServiceImpl;
+
+/**
+ * Несколько узлов моделируются отдельными экземплярами сервиса аренды с разными идентификаторами,
+ * работающими с одной базой данных.
+ */
+class LeaderLeaseServiceIntegrationTest extends AbstractDbRiderTest {
+
+    private static final String LEASE = "integration-test-lease";
+
+    @Autowired
+    private SchedulerLeaseRepository leaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LeaderLeaseServiceImpl nodeA;
+
+    private LeaderLeaseServiceImpl nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = node("node-a", Duration.ofMinutes(1));
+        nodeB = node("node-b", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void whenLeaseIsHeldThenOtherNodeIsNotLeader() {
+        assertThat(nodeA.tryAcquire(LEASE)).isTrue();
+        assertThat(nodeB.tryAcquire(LEASE)).isFalse();
+        assertThat(nodeA.tryAcquire(LEASE)).isTrue();
+        assertThat(leaseRepository.findById(LEASE))
+                .hasValueSatisfying(lease -> assertThat(lease.getOwner()).isEqualTo("node-a"));
+    }
+
+    @Test
+    void whenLeaseExpiresThenOtherNodeTakesOver() {
+        var shortLivedNodeA = node("node-a", Duration.ZERO);
+        assertThat(shortLivedNodeA.tryAcquire(LEASE)).isTrue();
+        assertThat(nodeB.tryAcquire(LEASE)).isTrue();
+        assertThat(nodeA.tryAcquire(LEASE)).isFalse();
+        assertThat(meterRegistry.get("scheduler.lease.handovers").tag("lease", LEASE).counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void whenLeaderCompletesTaskThenAllNodesSeeCompletionTime() {
+        assertThat(nodeA.tryAcquire(LEASE)).isTrue();
+        nodeA.markCompleted(LEASE);
+        nodeB.markCompleted(LEASE);
+        assertThat(nodeB.getLastCompletedAt(LEASE)).isPresent();
+    }
+
+    private LeaderLeaseServiceImpl node(String nodeId, Duration leaseTtl) {
+        return new LeaderLeaseServiceImpl(leaseRepository,
+                                          transactionManager,
+                                          meterRegistry,
+                                          nodeId,
+                                          leaseTtl,
+                                          Clock.systemUTC());
+    }
+
+}
@@ -23,6 +23,7 @@ import ru.elias.server.exception.BusinessException;
 import ru.elias.server.exception.ErrorType;
 import ru.elias.server.mapper.CategoryMapper;
 import ru.elias.server.model.Category;
+import ru.elias.server.ratelimit.ClientRateLimiter;
 import ru.elias.server.repository.CategoryRepository;
 import ru.elias.server.service.MessageSourceHelper;
 import ru.elias.server.service.impl.CategoryServiceImpl;
@@ -42,6 +43,9 @@ class CategoryServiceImplTest {
     @Mock
     private MessageSourceHelper messageSourceHelper;
 
+    @Mock
+    private ClientRateLimiter clientRateLimiter;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -128,7 +132,7 @@ class CategoryServiceImplTest {
         assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         verify(jokeClient, Mockito.times(1)).getAllCategories();
         verify(categoryMapper, Mockito.times(3)).map(ArgumentMatchers.anyString());
-        verify(categoryRepository, Mockito.times(3)).findAll();
+        verify(categoryRepository, Mockito.times(1)).findAll();
         verify(categoryRepository, Mockito.times(1)).saveAll(ArgumentMatchers.any());
         verifyNoMoreInteractions(categoryMapper, jokeClient, messageSourceHelper);
     }
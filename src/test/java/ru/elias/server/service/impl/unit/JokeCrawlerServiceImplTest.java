@@ -0,0 +1,245 @@
+package ru.elias.server.service.impl.unit;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import reactor.core.publisher.Mono;
+import ru.elias.server.client.JokeReactiveClient;
+import ru.elias.server.config.properties.BulkProperties;
+import ru.elias.server.config.properties.CrawlerProperties;
+import ru.elias.server.dedup.DedupCheck;
+import ru.elias.server.dto.JokeCreatedEvent;
+import ru.elias.server.model.Category;
+import ru.elias.server.model.CrawlerCheckpoint;
+import ru.elias.server.model.CrawlerControl;
+import ru.elias.server.repository.BatchInsertRepository;
+import ru.elias.server.repository.CategoryRepository;
+import ru.elias.server.repository.CrawlerCheckpointRepository;
+import ru.elias.server.repository.CrawlerControlRepository;
+import ru.elias.server.repository.JokeRepository;
+import ru.elias.server.service.BulkRequestHelper;
+import ru.elias.server.service.JokeDedupService;
+import ru.elias.server.service.MessageSourceHelper;
+import ru.elias.server.service.impl.JokeCrawlerServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class JokeCrawlerServiceImplTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static final String CATEGORY = "dev";
+
+    @Mock
+    private CrawlerControlRepository controlRepository;
+
+    @Mock
+    private CrawlerCheckpointRepository checkpointRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private JokeRepository jokeRepository;
+
+    @Mock
+    private BatchInsertRepository batchInsertRepository;
+
+    @Mock
+    private JokeReactiveClient jokeClient;
+
+    @Mock
+    private JokeDedupService jokeDedupService;
+
+    @Mock
+    private MessageSourceHelper messageSourceHelper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CrawlerProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private JokeCrawlerServiceImpl jokeCrawlerService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CrawlerProperties();
+        properties.setBatchSize(4);
+        properties.setConcurrency(1);
+        meterRegistry = new SimpleMeterRegistry();
+        var bulkRequestHelper = new BulkRequestHelper(new BulkProperties(), messageSourceHelper);
+        jokeCrawlerService = new JokeCrawlerServiceImpl(controlRepository,
+                                                        checkpointRepository,
+                                                        categoryRepository,
+                                                        jokeRepository,
+                                                        batchInsertRepository,
+                                                        jokeClient,
+                                                        jokeDedupService,
+                                                        bulkRequestHelper,
+                                                        new ObjectMapper(),
+                                                        eventPublisher,
+                                                        transactionManager,
+                                                        properties,
+                                                        meterRegistry,
+                                                        Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void whenCrawlThenInsertNewJokesAndSaveCheckpoint() {
+        mockCategories();
+        when(checkpointRepository.findAll()).thenReturn(List.of());
+        when(jokeClient.getRandomJokeByCategory(CATEGORY)).thenReturn(response("first"),
+                                                                      response("second"),
+                                                                      response("stored"),
+                                                                      response("first"));
+        when(jokeRepository.findExistingNames(Set.of("first", "second", "stored"))).thenReturn(Set.of("stored"));
+        when(jokeDedupService.newBatch()).thenReturn(joke -> DedupCheck.skipped());
+
+        jokeCrawlerService.crawl();
+
+        var jokes = ArgumentCaptor.forClass(List.class);
+        verify(batchInsertRepository).insertJokes(jokes.capture());
+        assertThat(jokes.getValue()).extracting("name").containsExactly("first", "second");
+        var events = ArgumentCaptor.forClass(JokeCreatedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(JokeCreatedEvent::getJoke).containsExactly("first", "second");
+        assertThat(events.getAllValues()).extracting(JokeCreatedEvent::getCategory).containsOnly(CATEGORY);
+        verify(jokeDedupService).refresh();
+        var checkpoint = captureCheckpoint();
+        assertThat(checkpoint.getPulled()).isEqualTo(4);
+        assertThat(checkpoint.getCreated()).isEqualTo(2);
+        assertThat(checkpoint.getDuplicates()).isEqualTo(2);
+        assertThat(checkpoint.getDuplicateRatio()).isEqualTo(0.5);
+        assertThat(checkpoint.getNextRunAt()).isEqualTo(NOW.plus(properties.getMinDelay()));
+        assertThat(meterRegistry.get("crawler.jokes").tag("result", "created").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("crawler.jokes.created.per.minute").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("crawler.duplicate.ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void whenCategoryIsSaturatedThenIncreaseDelay() {
+        mockCategories();
+        when(checkpointRepository.findAll()).thenReturn(List.of(CrawlerCheckpoint.builder()
+                                                                                 .categoryName(CATEGORY)
+                                                                                 .pulled(100)
+                                                                                 .duplicateRatio(0.9)
+                                                                                 .delayMs(10_000)
+                                                                                 .nextRunAt(NOW)
+                                                                                 .updatedAt(NOW)
+                                                                                 .build()));
+        when(jokeClient.getRandomJokeByCategory(CATEGORY)).thenReturn(response("stored"));
+        when(jokeRepository.findExistingNames(Set.of("stored"))).thenReturn(Set.of("stored"));
+        when(jokeDedupService.newBatch()).thenReturn(joke -> DedupCheck.skipped());
+
+        jokeCrawlerService.crawl();
+
+        var checkpoint = captureCheckpoint();
+        assertThat(checkpoint.getDuplicateRatio()).isCloseTo(0.93, within(1e-9));
+        assertThat(checkpoint.getDelayMs()).isEqualTo(20_000);
+        assertThat(checkpoint.getNextRunAt()).isEqualTo(NOW.plusSeconds(20));
+        verify(jokeDedupService, never()).refresh();
+    }
+
+    @Test
+    void whenUpstreamFailsThenPauseAllCategories() {
+        mockCategories();
+        when(checkpointRepository.findAll()).thenReturn(List.of());
+        when(jokeClient.getRandomJokeByCategory(CATEGORY)).thenReturn(Mono.error(new IllegalStateException()));
+        when(jokeDedupService.newBatch()).thenReturn(joke -> DedupCheck.skipped());
+        when(controlRepository.findById(ArgumentMatchers.anyString())).thenReturn(Optional.empty());
+
+        jokeCrawlerService.crawl();
+        jokeCrawlerService.crawl();
+
+        verify(jokeClient, times(properties.getBatchSize())).getRandomJokeByCategory(CATEGORY);
+        assertThat(captureCheckpoint().getErrors()).isEqualTo(properties.getBatchSize());
+        assertThat(jokeCrawlerService.getStatus().getUpstreamPausedUntil())
+                .isEqualTo(NOW.plus(properties.getMinDelay()));
+        assertThat(meterRegistry.get("crawler.upstream.error.ratio").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void whenCategoryWasCrawledThenNotDueUntilItsNextRun() {
+        mockCategories();
+        when(checkpointRepository.findAll()).thenReturn(List.of());
+        when(jokeClient.getRandomJokeByCategory(CATEGORY)).thenReturn(response("first"));
+        when(jokeRepository.findExistingNames(Set.of("first"))).thenReturn(Set.of("first"));
+        when(jokeDedupService.newBatch()).thenReturn(joke -> DedupCheck.skipped());
+
+        assertThat(jokeCrawlerService.isDue()).isTrue();
+        jokeCrawlerService.crawl();
+
+        assertThat(jokeCrawlerService.isDue()).isFalse();
+    }
+
+    @Test
+    void whenDeferredToLeaderThenNotDue() {
+        jokeCrawlerService.deferToLeader();
+
+        assertThat(jokeCrawlerService.isDue()).isFalse();
+    }
+
+    @Test
+    void whenStopThenPersistControlForAllNodes() {
+        jokeCrawlerService.stop();
+
+        var control = ArgumentCaptor.forClass(CrawlerControl.class);
+        verify(controlRepository).save(control.capture());
+        assertThat(control.getValue().isRunning()).isFalse();
+        assertThat(jokeCrawlerService.isRunning()).isFalse();
+        verify(controlRepository, never()).findById(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void whenControlWasReadRecentlyThenDoNotQueryDatabaseOnEveryTick() {
+        properties.setAutoStart(true);
+        when(controlRepository.findById(ArgumentMatchers.anyString())).thenReturn(Optional.empty());
+
+        assertThat(jokeCrawlerService.isRunning()).isTrue();
+        assertThat(jokeCrawlerService.isRunning()).isTrue();
+
+        verify(controlRepository).findById(ArgumentMatchers.anyString());
+    }
+
+    private void mockCategories() {
+        when(jokeClient.getAllCategories()).thenReturn(Mono.just(List.of(CATEGORY)));
+        when(categoryRepository.findAllByNameIn(List.of(CATEGORY)))
+                .thenReturn(List.of(Category.builder().id(1L).name(CATEGORY).build()));
+    }
+
+    private CrawlerCheckpoint captureCheckpoint() {
+        var checkpoint = ArgumentCaptor.forClass(CrawlerCheckpoint.class);
+        verify(checkpointRepository).save(checkpoint.capture());
+        return checkpoint.getValue();
+    }
+
+    private static Mono<String> response(String joke) {
+        return Mono.just("{\"value\": \"" + joke + "\"}");
+    }
+
+}
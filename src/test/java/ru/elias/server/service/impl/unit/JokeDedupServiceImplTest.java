@@ -0,0 +1,203 @@
+package ru.elias.server.service.impl.unit;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.elias.server.cache.JokeCache;
+import ru.elias.server.cache.JokeIdIndex;
+import ru.elias.server.config.properties.BulkProperties;
+import ru.elias.server.config.properties.DedupProperties;
+import ru.elias.server.dedup.DuplicatePolicy;
+import ru.elias.server.dedup.MinHasher;
+import ru.elias.server.model.Joke;
+import ru.elias.server.repository.JokeSignatureRepository;
+import ru.elias.server.service.impl.JokeDedupServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class JokeDedupServiceImplTest {
+
+    private static final String JOKE =
+            "Chuck Norris can divide by zero and the result is always a roundhouse kick to the face.";
+
+    private static final String EDITED_JOKE =
+            "chuck norris can divide by zero, and the result is always a roundhouse kick to your face";
+
+    private static final String OTHER_JOKE =
+            "Chuck Norris counted to infinity twice and then had coffee with Bruce Lee.";
+
+    private static final String THIRD_JOKE =
+            "Chuck Norris does not sleep at night, he waits for the night to fall asleep first.";
+
+    @Mock
+    private JokeSignatureRepository signatureRepository;
+
+    @Mock
+    private JokeCache jokeCache;
+
+    @Mock
+    private JokeIdIndex jokeIdIndex;
+
+    private DedupProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private JokeDedupServiceImpl jokeDedupService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DedupProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        jokeDedupService = new JokeDedupServiceImpl(signatureRepository,
+                                                    jokeCache,
+                                                    jokeIdIndex,
+                                                    properties,
+                                                    new BulkProperties(),
+                                                    meterRegistry);
+    }
+
+    @Test
+    void whenBatchContainsNearDuplicatesThenRejectLaterItems() {
+        var batch = jokeDedupService.newBatch();
+
+        var first = batch.check(JOKE);
+        var second = batch.check(EDITED_JOKE);
+        var third = batch.check(OTHER_JOKE);
+
+        assertThat(first.isRejected()).isFalse();
+        assertThat(first.getMinhash()).hasSize(properties.getNumHashes() * Integer.BYTES);
+        assertThat(second.isRejected()).isTrue();
+        assertThat(third.isRejected()).isFalse();
+        assertThat(meterRegistry.get("jokes.dedup.check").tag("result", "duplicate").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenPolicyIsFlagThenKeepDuplicateWithOriginalId() {
+        properties.setPolicy(DuplicatePolicy.FLAG);
+        jokeDedupService.register(7L, jokeDedupService.check(JOKE));
+
+        var check = jokeDedupService.check(EDITED_JOKE);
+
+        assertThat(check.isRejected()).isFalse();
+        assertThat(check.getDuplicateOf()).isEqualTo(7L);
+        assertThat(meterRegistry.get("jokes.dedup.index.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void whenRegisterInTransactionThenAddToIndexOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            jokeDedupService.register(7L, jokeDedupService.check(JOKE));
+
+            assertThat(meterRegistry.get("jokes.dedup.index.size").gauge().value()).isZero();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(meterRegistry.get("jokes.dedup.index.size").gauge().value()).isEqualTo(1);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void whenShortTextThenSkipCheck() {
+        var check = jokeDedupService.check("bulk-joke-1");
+
+        assertThat(check.isRejected()).isFalse();
+        assertThat(check.getMinhash()).isNull();
+    }
+
+    @Test
+    void whenRefreshThenLoadOnlyJokesNotRegisteredByThisNode() {
+        jokeDedupService.register(1L, jokeDedupService.check(JOKE));
+        mockStoredSignatures(Map.of(1L, JOKE, 2L, OTHER_JOKE));
+
+        jokeDedupService.refresh();
+
+        assertThat(meterRegistry.get("jokes.dedup.index.size").gauge().value()).isEqualTo(2);
+        assertThat(jokeDedupService.check(OTHER_JOKE).isRejected()).isTrue();
+    }
+
+    @Test
+    void whenDedupeCorpusThenSignMissingAndSoftDeleteLaterDuplicates() {
+        when(signatureRepository.findUnsigned(0L, 1000))
+               .thenReturn(List.of(Joke.builder().id(3L).name(EDITED_JOKE).build(),
+                                   Joke.builder().id(4L).name("Short").build()));
+        mockStoredSignatures(Map.of(1L, JOKE, 2L, OTHER_JOKE, 3L, EDITED_JOKE));
+
+        var result = jokeDedupService.dedupeCorpus();
+
+        assertThat(result.getSigned()).isEqualTo(1);
+        assertThat(result.getChecked()).isEqualTo(3);
+        assertThat(result.getDuplicates()).isEqualTo(1);
+        verify(signatureRepository, Mockito.times(1))
+                .updateSignatures(ArgumentMatchers.argThat(signatures -> signatures.keySet().equals(Set.of(3L, 4L))
+                        && signatures.get(3L).length > 0
+                        && signatures.get(4L).length == 0));
+        verify(signatureRepository, Mockito.times(1)).softDeleteJokes(Map.of(3L, 1L));
+        verify(jokeIdIndex, Mockito.times(1)).invalidateAll();
+        assertThat(meterRegistry.get("jokes.dedup.index.size").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void whenJokeCommittedOutOfIdOrderThenLoadItOnNextRefresh() {
+        var stored = new HashMap<>(Map.of(1L, JOKE, 3L, OTHER_JOKE));
+        mockStoredSignatures(stored);
+        jokeDedupService.refresh();
+
+        stored.put(2L, THIRD_JOKE);
+        jokeDedupService.refresh();
+
+        assertThat(meterRegistry.get("jokes.dedup.index.size").gauge().value()).isEqualTo(3);
+        assertThat(jokeDedupService.check(THIRD_JOKE).isRejected()).isTrue();
+    }
+
+    @Test
+    void whenJokeRegisteredDuringCorpusCheckThenKeepItInRebuiltIndex() {
+        when(signatureRepository.findUnsigned(0L, 1000)).thenReturn(List.of());
+        var minHasher = new MinHasher(properties.getNumHashes(),
+                                      properties.getShingleSize(),
+                                      properties.getMinTextLength());
+        Mockito.doAnswer(invocation -> {
+            JokeSignatureRepository.SignatureHandler handler = invocation.getArgument(1);
+            jokeDedupService.register(4L, jokeDedupService.check(THIRD_JOKE));
+            handler.accept(1L, MinHasher.toBytes(minHasher.signature(JOKE)));
+            handler.accept(2L, MinHasher.toBytes(minHasher.signature(OTHER_JOKE)));
+            return null;
+        }).when(signatureRepository).streamSignatures(ArgumentMatchers.eq(0L), ArgumentMatchers.any());
+
+        jokeDedupService.dedupeCorpus();
+
+        assertThat(meterRegistry.get("jokes.dedup.index.size").gauge().value()).isEqualTo(3);
+        assertThat(jokeDedupService.check(THIRD_JOKE).isRejected()).isTrue();
+    }
+
+    private void mockStoredSignatures(Map<Long, String> jokes) {
+        var minHasher = new MinHasher(properties.getNumHashes(),
+                                      properties.getShingleSize(),
+                                      properties.getMinTextLength());
+        Mockito.doAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            JokeSignatureRepository.SignatureHandler handler = invocation.getArgument(1);
+            jokes.keySet()
+                 .stream()
+                 .sorted()
+                 .filter(id -> id > afterId)
+                 .forEach(id -> handler.accept(id, MinHasher.toBytes(minHasher.signature(jokes.get(id)))));
+            return null;
+        }).when(signatureRepository).streamSignatures(ArgumentMatchers.anyLong(), ArgumentMatchers.any());
+    }
+
+}
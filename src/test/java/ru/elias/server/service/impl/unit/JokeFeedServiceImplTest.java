@@ -0,0 +1,144 @@
+package ru.elias.server.service.impl.unit;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BaseSubscriber;
+import ru.elias.server.config.properties.JokeFeedProperties;
+import ru.elias.server.dto.JokeCreatedEvent;
+import ru.elias.server.exception.BusinessException;
+import ru.elias.server.model.Category;
+import ru.elias.server.repository.CategoryRepository;
+import ru.elias.server.service.MessageSourceHelper;
+import ru.elias.server.service.impl.JokeFeedServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class JokeFeedServiceImplTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private MessageSourceHelper messageSourceHelper;
+
+    private JokeFeedProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private JokeFeedServiceImpl jokeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JokeFeedProperties();
+        properties.setHeartbeat(Duration.ofHours(1));
+        properties.setBufferSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        jokeFeedService = new JokeFeedServiceImpl(properties, categoryRepository, messageSourceHelper, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jokeFeedService.shutdown();
+    }
+
+    @Test
+    void whenSubscribedToCategoryThenReceiveOnlyItsJokes() {
+        when(categoryRepository.findCategoryByName("dev"))
+                .thenReturn(Optional.of(Category.builder().name("dev").build()));
+        var received = jokeFeedService.subscribe("dev", null)
+                                      .take(2)
+                                      .collectList()
+                                      .toFuture();
+
+        publish(1L, "dev");
+        publish(2L, "sport");
+        publish(3L, "dev");
+
+        var events = received.join();
+        assertThat(events).extracting(event -> event.data().getId()).containsExactly(1L, 3L);
+        assertThat(Long.parseLong(events.get(1).id())).isGreaterThan(Long.parseLong(events.get(0).id()));
+    }
+
+    @Test
+    void whenResumedWithLastEventIdThenReplayMissedJokes() {
+        var first = jokeFeedService.subscribe(null, null).take(3).collectList().toFuture();
+        publish(1L, "dev");
+        publish(2L, "sport");
+        publish(3L, "dev");
+        var lastReceivedId = Long.parseLong(first.join().get(0).id());
+
+        var resumed = jokeFeedService.subscribe(null, lastReceivedId)
+                                     .take(2)
+                                     .map(ServerSentEvent::data)
+                                     .collectList()
+                                     .block(TIMEOUT);
+
+        assertThat(resumed).extracting(JokeCreatedEvent::getId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void whenSubscriberFallsBehindThenEvictIt() throws InterruptedException {
+        var completed = new CountDownLatch(1);
+        jokeFeedService.subscribe(null, null).subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // подписчик не запрашивает события
+            }
+
+            @Override
+            protected void hookOnComplete() {
+                completed.countDown();
+            }
+        });
+
+        publish(1L, "dev");
+        publish(2L, "dev");
+        publish(3L, "dev");
+
+        assertThat(completed.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(meterRegistry.get("joke.feed.evictions").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenTooManySubscribersThenThrowBusinessException() {
+        properties.setMaxSubscribers(0);
+
+        assertThatThrownBy(() -> jokeFeedService.subscribe(null, null))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void whenSlotIsReservedThenNextSubscribeIsRejectedUntilStreamFinishes() {
+        properties.setMaxSubscribers(1);
+
+        var first = jokeFeedService.subscribe(null, null);
+
+        assertThatThrownBy(() -> jokeFeedService.subscribe(null, null))
+                .isInstanceOf(BusinessException.class);
+
+        first.subscribe().dispose();
+
+        assertThat(jokeFeedService.subscribe(null, null)).isNotNull();
+    }
+
+    private void publish(Long id, String category) {
+        jokeFeedService.onJokeCreated(JokeCreatedEvent.builder().id(id).joke("joke-" + id).category(category).build());
+    }
+
+}
@@ -1,11 +1,14 @@
 package ru.elias.server.service.impl.unit;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -19,24 +22,36 @@ import org.mockito.Mockito;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import reactor.core.publisher.Mono;
+import ru.elias.server.cache.JokeCache;
+import ru.elias.server.cache.JokeIdIndex;
 import ru.elias.server.client.JokeReactiveClient;
+import ru.elias.server.config.properties.RandomJokeProperties;
+import ru.elias.server.dedup.DedupCheck;
+import ru.elias.server.dedup.NearDuplicate;
+import ru.elias.server.dto.JokeCreatedEvent;
 import ru.elias.server.dto.JokeDto;
 import ru.elias.server.dto.JokesGeneralStatistic;
 import ru.elias.server.exception.BusinessException;
 import ru.elias.server.exception.ErrorType;
+import ru.elias.server.exception.RateLimitExceededException;
 import ru.elias.server.filter.JokeQueryCriteria;
 import ru.elias.server.filter.base.StringFilter;
 import ru.elias.server.filter.common.CommonBooleanBuilder;
 import ru.elias.server.mapper.JokeMapper;
 import ru.elias.server.model.Category;
 import ru.elias.server.model.Joke;
+import ru.elias.server.ratelimit.ClientRateLimiter;
+import ru.elias.server.ratelimit.RateLimitedEndpoint;
 import ru.elias.server.repository.CategoryRepository;
 import ru.elias.server.repository.JokeQueryCustomRepository;
 import ru.elias.server.repository.JokeRepository;
+import ru.elias.server.service.JokeDedupService;
 import ru.elias.server.service.MessageSourceHelper;
 import ru.elias.server.service.impl.JokeServiceImpl;
+import ru.elias.server.util.QEntities;
 
 @ExtendWith(MockitoExtension.class)
 class JokeServiceImplTest {
@@ -65,6 +80,24 @@ class JokeServiceImplTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private JokeCache jokeCache;
+
+    @Mock
+    private JokeIdIndex jokeIdIndex;
+
+    @Mock
+    private RandomJokeProperties randomJokeProperties;
+
+    @Mock
+    private ClientRateLimiter clientRateLimiter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private JokeDedupService jokeDedupService;
+
     @InjectMocks
     private JokeServiceImpl jokeService;
 
@@ -77,14 +110,34 @@ class JokeServiceImplTest {
         when(jokeClient.getRandomJokeByCategory(ArgumentMatchers.anyString()))
                .thenReturn(jokeName);
         mockObjectMapper();
+        when(jokeDedupService.check("some-joke")).thenReturn(DedupCheck.skipped());
         var actual = jokeService.createJoke(true, mockedCategory.getName(), null);
         assertThat(actual.getBody()).isNull();
         assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         verify(jokeRepository, Mockito.times(1)).save(ArgumentMatchers.any(Joke.class));
-        verify(jokeRepository, Mockito.times(1)).exists(ArgumentMatchers.any(Predicate.class));
+        verify(jokeRepository, Mockito.times(1)).existsByName(ArgumentMatchers.anyString());
+        verify(jokeDedupService, Mockito.times(1)).register(ArgumentMatchers.any(), ArgumentMatchers.any());
+        verify(eventPublisher, Mockito.times(1)).publishEvent(ArgumentMatchers.any(JokeCreatedEvent.class));
         verifyNoMoreInteractions();
     }
 
+    @Test
+    void whenCreateJokeWithAutoModeAndNearDuplicateThenNotCreateJoke() throws JsonProcessingException {
+        var mockedCategory = Category.builder().name("some-cat").build();
+        when(categoryRepository.findCategoryByName(ArgumentMatchers.anyString()))
+               .thenReturn(Optional.of(mockedCategory));
+        when(jokeClient.getRandomJokeByCategory(ArgumentMatchers.anyString()))
+               .thenReturn(Mono.just(mockedCategory.getName()));
+        mockObjectMapper();
+        when(jokeDedupService.check("some-joke"))
+               .thenReturn(new DedupCheck(new int[] {1}, new NearDuplicate(42L, 0.9), true));
+        var actual = jokeService.createJoke(true, mockedCategory.getName(), null);
+        assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        verify(jokeRepository, Mockito.never()).save(ArgumentMatchers.any(Joke.class));
+        verify(jokeDedupService, Mockito.never()).register(ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     void whenCreateJokeWithAutoModeThenNotCreateJokeAndThrowBusinessExeption() {
         var mockedCategory = Category.builder().name("some-cat").build();
@@ -96,10 +149,21 @@ class JokeServiceImplTest {
                 .isInstanceOf(BusinessException.class)
                 .hasMessageContaining(ErrorType.CATEGORY_NOT_FOUND_BY_NAME.getMessage());
         verify(jokeRepository, Mockito.never()).save(ArgumentMatchers.any(Joke.class));
-        verify(jokeRepository, Mockito.never()).exists(ArgumentMatchers.any(Predicate.class));
+        verify(jokeRepository, Mockito.never()).existsByName(ArgumentMatchers.anyString());
+        Mockito.verifyNoInteractions(eventPublisher);
         verifyNoMoreInteractions();
     }
 
+    @Test
+    void whenCreateJokeWithAutoModeAndRateLimitExceededThenNotCallIntegration() {
+        Mockito.doThrow(new RateLimitExceededException(ErrorType.RATE_LIMIT_EXCEEDED.getMessage(), 6))
+               .when(clientRateLimiter).acquire(RateLimitedEndpoint.JOKES_AUTO_CREATE);
+        assertThatThrownBy(() -> jokeService.createJoke(true, "some-cat", null))
+                .isInstanceOf(RateLimitExceededException.class);
+        verify(jokeClient, Mockito.never()).getRandomJokeByCategory(ArgumentMatchers.anyString());
+        verify(jokeRepository, Mockito.never()).save(ArgumentMatchers.any(Joke.class));
+    }
+
     @Test
     void whenCreateJokeWithManualMode() {
         var mockedCategory = Category.builder().name("some-cat").build();
@@ -112,6 +176,8 @@ class JokeServiceImplTest {
         assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         verify(jokeMapper, Mockito.times(1)).map(ArgumentMatchers.any(JokeDto.class));
         verify(jokeRepository, Mockito.times(1)).save(ArgumentMatchers.any(Joke.class));
+        verify(eventPublisher, Mockito.times(1)).publishEvent(ArgumentMatchers.<JokeCreatedEvent>argThat(
+                event -> "some-cat".equals(event.getCategory()) && "some-joke".equals(event.getJoke())));
         verifyNoMoreInteractions();
     }
 
@@ -216,6 +282,28 @@ class JokeServiceImplTest {
         verifyNoMoreInteractions();
     }
 
+    @Test
+    void whenCategoryFilterMatchesNoCategoryThenReturnEmptyListWithoutQueryingJokes() {
+        Mockito.doAnswer(invocation -> {
+                   if (QEntities.CATEGORY.name.equals(invocation.getArgument(2))) {
+                       invocation.<BooleanBuilder>getArgument(0).and(QEntities.CATEGORY.name.eq("missing"));
+                   }
+                   return null;
+               })
+               .when(commonBooleanBuilder)
+               .andMatchStringFilter(ArgumentMatchers.any(),
+                                     ArgumentMatchers.any(),
+                                     ArgumentMatchers.any());
+        when(jokeQueryCustomRepository.findCategoryIdsByPredicate(ArgumentMatchers.any(Predicate.class)))
+               .thenReturn(List.of());
+
+        var actual = jokeService.getRandomJokeByCriteria(getCriteria());
+
+        assertThat(actual.getBody()).isEmpty();
+        verify(jokeQueryCustomRepository, Mockito.never())
+               .findJokesByPredicate(ArgumentMatchers.any(Predicate.class));
+    }
+
     @Test
     @DisplayName("Получение шутки из замоканной бд по идентификатору. "
             + "Ожидаемый результат - Dto с шуткой и категорией")
@@ -223,7 +311,7 @@ class JokeServiceImplTest {
         var mockedCategory = Category.builder().id(1L).name("some-cat").build();
         var mockedJoke = Joke.builder().name("some-joke").category(mockedCategory).build();
         var mockedJokeDto = JokeDto.builder().joke("some-joke").category("some-cat").build();
-        when(jokeRepository.findOne(ArgumentMatchers.any(Predicate.class)))
+        when(jokeRepository.findJokeById(ArgumentMatchers.anyLong()))
                 .thenReturn(Optional.of(mockedJoke));
         when(jokeMapper.map(ArgumentMatchers.any(Joke.class)))
                .thenReturn(mockedJokeDto);
@@ -231,8 +319,22 @@ class JokeServiceImplTest {
         assertThat(actual.getBody()).isNotNull();
         assertThat(actual.getBody().getJoke()).isEqualTo(mockedJokeDto.getJoke());
         assertThat(actual.getBody().getCategory()).isEqualTo(mockedJokeDto.getCategory());
-        verify(jokeRepository, Mockito.times(1)).findOne(ArgumentMatchers.any(Predicate.class));
+        verify(jokeRepository, Mockito.times(1)).findJokeById(ArgumentMatchers.anyLong());
         verify(jokeMapper, Mockito.times(1)).map(ArgumentMatchers.any(Joke.class));
+        verify(jokeCache, Mockito.times(1)).put(1L, mockedJokeDto);
+        verifyNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("Получение шутки по идентификатору из кэша. "
+            + "Ожидаемый результат - Dto из кэша без обращения к бд")
+    void whenGetCachedJokeByIdThenSkipRepository() {
+        var cachedJokeDto = JokeDto.builder().joke("some-joke").category("some-cat").build();
+        when(jokeCache.get(1L)).thenReturn(Optional.of(cachedJokeDto));
+        var actual = jokeService.getJokeById(1L);
+        assertThat(actual.getBody()).isSameAs(cachedJokeDto);
+        verify(jokeRepository, Mockito.never()).findJokeById(ArgumentMatchers.anyLong());
+        verify(jokeMapper, Mockito.never()).map(ArgumentMatchers.any(Joke.class));
         verifyNoMoreInteractions();
     }
 
@@ -240,18 +342,60 @@ class JokeServiceImplTest {
     @DisplayName("Получение шутки из замоканной бд по идентификатору. "
             + "Ожидаемый результат - Выбрасывание BusinessException из-за не найденной шутки")
     void whenGetJokeByIdThenThrowBusinessException() {
-        when(jokeRepository.findOne(ArgumentMatchers.any(Predicate.class)))
+        when(jokeRepository.findJokeById(ArgumentMatchers.anyLong()))
                 .thenReturn(Optional.empty());
         when(messageSourceHelper.getMessage(ArgumentMatchers.any(ErrorType.class), ArgumentMatchers.any()))
                .thenReturn(ErrorType.JOKE_NOT_FOUND_BY_ID.getMessage());
         assertThatThrownBy(() -> jokeService.getJokeById(1L))
                 .isInstanceOf(BusinessException.class)
                 .hasMessageContaining(ErrorType.JOKE_NOT_FOUND_BY_ID.getMessage());
-        verify(jokeRepository, Mockito.times(1)).findOne(ArgumentMatchers.any(Predicate.class));
+        verify(jokeRepository, Mockito.times(1)).findJokeById(ArgumentMatchers.anyLong());
         verify(jokeMapper, Mockito.never()).map(ArgumentMatchers.any(Joke.class));
         verifyNoMoreInteractions();
     }
 
+    @Test
+    @DisplayName("Получение нескольких случайных шуток. "
+            + "Ожидаемый результат - Лист Dto'шек с различными шутками, загруженными одним запросом")
+    void whenGetRandomJokesThenReturnDistinctJokes() {
+        when(randomJokeProperties.getMaxCount()).thenReturn(100);
+        when(jokeIdIndex.getIds(null)).thenReturn(new long[] {1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L});
+        when(jokeRepository.findAllWithCategoryByIdIn(ArgumentMatchers.anyCollection()))
+                .thenAnswer(invocation -> {
+                    Collection<Long> ids = invocation.getArgument(0);
+                    return ids.stream()
+                              .map(id -> Joke.builder().id(id).name("some-joke-" + id).build())
+                              .collect(Collectors.toList());
+                });
+        when(jokeMapper.map(ArgumentMatchers.any(Joke.class)))
+                .thenAnswer(invocation -> {
+                    Joke joke = invocation.getArgument(0);
+                    return JokeDto.builder().joke(joke.getName()).build();
+                });
+        var actual = jokeService.getRandomJokes(null, 3);
+        assertThat(actual.getBody())
+                .hasSize(3)
+                .extracting(JokeDto::getJoke)
+                .doesNotHaveDuplicates();
+        verify(jokeRepository, Mockito.times(1)).findAllWithCategoryByIdIn(ArgumentMatchers.anyCollection());
+        verify(jokeMapper, Mockito.times(3)).map(ArgumentMatchers.any(Joke.class));
+        verifyNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("Получение слишком большого количества случайных шуток. "
+            + "Ожидаемый результат - Выбрасывание BusinessException без обращения к бд")
+    void whenGetTooManyRandomJokesThenThrowBusinessException() {
+        when(randomJokeProperties.getMaxCount()).thenReturn(100);
+        when(messageSourceHelper.getMessage(ErrorType.JOKE_COUNT_INVALID, 100, 101))
+                .thenReturn(ErrorType.JOKE_COUNT_INVALID.getMessage());
+        assertThatThrownBy(() -> jokeService.getRandomJokes(null, 101))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorType")
+                .isEqualTo(ErrorType.JOKE_COUNT_INVALID);
+        Mockito.verifyNoInteractions(jokeRepository, jokeIdIndex);
+    }
+
     private void mockObjectMapper() throws JsonProcessingException {
         JsonNode mockNode = Mockito.mock(JsonNode.class);
         JsonNode innerMockNode = Mockito.mock(JsonNode.class);
@@ -0,0 +1,39 @@
+package ru.elias.server.shuffle;
+
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class FeistelPermutationTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 5, 17, 1000, 4096, 65_537})
+    void whenApplyToEveryIndexThenEachValueIsReturnedOnce(int size) {
+        var permutation = new FeistelPermutation(42L, size);
+        var seen = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            var value = permutation.apply(i);
+            assertThat(value).isBetween(0, size - 1);
+            assertThat(seen.get(value)).as("value %d returned twice", value).isFalse();
+            seen.set(value);
+        }
+        assertThat(seen.cardinality()).isEqualTo(size);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 2L, 3L})
+    void whenSeedDiffersThenOrderDiffers(long seed) {
+        var first = new FeistelPermutation(seed, 1000);
+        var second = new FeistelPermutation(seed + 100, 1000);
+        var same = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (first.apply(i) == second.apply(i)) {
+                same++;
+            }
+        }
+        assertThat(same).isLessThan(50);
+    }
+
+}
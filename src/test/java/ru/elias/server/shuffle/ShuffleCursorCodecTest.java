@@ -0,0 +1,67 @@
+package ru.elias.server.shuffle;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import ru.elias.server.config.properties.ShuffleProperties;
+
+class ShuffleCursorCodecTest {
+
+    private final ShuffleCursorCodec codec = new ShuffleCursorCodec(properties("secret"));
+
+    @Test
+    void whenCursorIsEncodedThenItIsDecodedBack() {
+        var token = codec.encode(new ShuffleCursor(7L, -123L, 1_000_000, 5_000_000L, 999));
+        assertThat(token).hasSize(66);
+        assertThat(codec.decode(token))
+                .hasValueSatisfying(cursor -> {
+                    assertThat(cursor.getCategoryId()).isEqualTo(7L);
+                    assertThat(cursor.getSeed()).isEqualTo(-123L);
+                    assertThat(cursor.getSize()).isEqualTo(1_000_000);
+                    assertThat(cursor.getMaxId()).isEqualTo(5_000_000L);
+                    assertThat(cursor.getPosition()).isEqualTo(999);
+                });
+    }
+
+    @Test
+    void whenCursorIsTamperedOrSignedWithAnotherKeyThenItIsRejected() {
+        var token = codec.encode(new ShuffleCursor(0L, 1L, 10, 10L, 1));
+        var bytes = Base64.getUrlDecoder().decode(token);
+        bytes[bytes.length - 20]++;
+        var tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        assertThat(codec.decode(tampered)).isEmpty();
+        assertThat(codec.decode("not a cursor")).isEmpty();
+        assertThat(new ShuffleCursorCodec(properties("other")).decode(token)).isEmpty();
+    }
+
+    @Test
+    void whenTokenHasNoMaxIdThenCursorCoversWholeIndex() throws Exception {
+        var buffer = ByteBuffer.allocate(41).put((byte) 1).putLong(7L).putLong(-123L).putInt(10).putInt(3);
+        var mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec("secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        mac.update(buffer.array(), 0, 25);
+        buffer.put(Arrays.copyOf(mac.doFinal(), 16));
+        var token = Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+
+        assertThat(codec.decode(token))
+                .hasValueSatisfying(cursor -> {
+                    assertThat(cursor.getSize()).isEqualTo(10);
+                    assertThat(cursor.getPosition()).isEqualTo(3);
+                    assertThat(cursor.contains(Long.MAX_VALUE)).isTrue();
+                });
+    }
+
+    private static ShuffleProperties properties(String secret) {
+        var properties = new ShuffleProperties();
+        properties.setSecret(secret);
+        return properties;
+    }
+
+}
@@ -0,0 +1,51 @@
+package ru.elias.server.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+import ru.elias.server.monitoring.JdbcStatementEvent;
+import ru.elias.server.monitoring.JdbcStatementListener;
+
+/**
+ * Считает JDBC-запросы, выполненные в текущем потоке между {@link #start()} и {@link #stop()}.
+ * Запросы фоновых задач и наборов данных DBRider в подсчет не попадают.
+ */
+@Component
+public class SqlStatementCounter implements JdbcStatementListener {
+
+    private final ThreadLocal<List<JdbcStatementEvent>> recorded = new ThreadLocal<>();
+
+    @Override
+    public void afterExecute(JdbcStatementEvent event) {
+        var events = recorded.get();
+        if (events != null) {
+            events.add(event);
+        }
+    }
+
+    public void start() {
+        recorded.set(new ArrayList<>());
+    }
+
+    public SqlStatements stop() {
+        var events = recorded.get();
+        recorded.remove();
+        return new SqlStatements(events == null ? List.of() : events);
+    }
+
+    /**
+     * @return Запросы, выполненные блоком. Если блок выбросил исключение, подсчет прерывается вместе с ним.
+     */
+    public SqlStatements count(Runnable block) {
+        start();
+        try {
+            block.run();
+        } catch (RuntimeException | Error e) {
+            recorded.remove();
+            throw e;
+        }
+        return stop();
+    }
+
+}
@@ -0,0 +1,80 @@
+package ru.elias.server.sql;
+
+import java.util.List;
+
+import ru.elias.server.monitoring.JdbcStatementEvent;
+
+/**
+ * Запросы, записанные {@link SqlStatementCounter}, и проверки бюджета запросов по их типам.
+ * Пакет ({@code executeBatch}) считается одним запросом. При нарушении бюджета в сообщение
+ * выводятся все записанные запросы.
+ */
+public class SqlStatements {
+
+    private final List<JdbcStatementEvent> events;
+
+    SqlStatements(List<JdbcStatementEvent> events) {
+        this.events = List.copyOf(events);
+    }
+
+    public List<JdbcStatementEvent> getEvents() {
+        return events;
+    }
+
+    public long count(String statementType) {
+        return events.stream()
+                     .filter(event -> event.getStatementType().equals(statementType))
+                     .count();
+    }
+
+    public SqlStatements assertSelectCount(int expected) {
+        return assertCount("select", expected);
+    }
+
+    public SqlStatements assertInsertCount(int expected) {
+        return assertCount("insert", expected);
+    }
+
+    public SqlStatements assertUpdateCount(int expected) {
+        return assertCount("update", expected);
+    }
+
+    public SqlStatements assertDeleteCount(int expected) {
+        return assertCount("delete", expected);
+    }
+
+    public SqlStatements assertTotalCount(int expected) {
+        if (events.size() != expected) {
+            throw new AssertionError(String.format("Expected %d SQL statements but was %d:%n%s",
+                                                   expected, events.size(), this));
+        }
+        return this;
+    }
+
+    private SqlStatements assertCount(String statementType, int expected) {
+        var actual = count(statementType);
+        if (actual != expected) {
+            throw new AssertionError(String.format("Expected %d %s statements but was %d:%n%s",
+                                                   expected, statementType, actual, this));
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        if (events.isEmpty()) {
+            return "<no statements>";
+        }
+        var description = new StringBuilder();
+        for (int i = 0; i < events.size(); i++) {
+            var event = events.get(i);
+            description.append(i + 1).append(". ").append(event.getSql());
+            if (event.getBatchSize() > 1) {
+                description.append(" [batch of ").append(event.getBatchSize()).append(']');
+            }
+            description.append(System.lineSeparator());
+        }
+        return description.toString();
+    }
+
+}
@@ -0,0 +1,49 @@
+package ru.elias.server.transfer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+import ru.elias.server.dto.JokeDto;
+
+class CsvJokeRecordReaderTest {
+
+    @Test
+    void whenReadCsvWithHeaderAndQuotesThenReturnRecords() throws IOException {
+        var csv = "joke,category\r\n"
+                + "simple joke,dev\n"
+                + "\n"
+                + "\"with, comma and \"\"quotes\"\"\",sport\n"
+                + "\"multi\nline\",animal";
+        try (var reader = reader(csv)) {
+            assertThat(reader.read()).isEqualTo(new JokeDto("simple joke", "dev"));
+            assertThat(reader.read()).isEqualTo(new JokeDto("with, comma and \"quotes\"", "sport"));
+            assertThat(reader.read()).isEqualTo(new JokeDto("multi\nline", "animal"));
+            assertThat(reader.read()).isNull();
+        }
+    }
+
+    @Test
+    void whenQuoteIsNotClosedThenThrowMalformedRecordException() {
+        assertThatThrownBy(() -> reader("joke,dev\n\"broken,dev\n").read())
+                .isInstanceOf(MalformedRecordException.class);
+    }
+
+    @Test
+    void whenColumnIsMissingThenThrowMalformedRecordException() throws IOException {
+        try (var reader = reader("only-joke\n")) {
+            assertThatThrownBy(reader::read)
+                    .isInstanceOf(MalformedRecordException.class)
+                    .extracting("line")
+                    .isEqualTo(2L);
+        }
+    }
+
+    private CsvJokeRecordReader reader(String csv) {
+        return new CsvJokeRecordReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
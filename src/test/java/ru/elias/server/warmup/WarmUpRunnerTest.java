@@ -0,0 +1,90 @@
+package ru.elias.server.warmup;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.ResponseEntity;
+import ru.elias.server.client.JokeReactiveClient;
+import ru.elias.server.config.properties.RandomJokeProperties;
+import ru.elias.server.config.properties.WarmUpProperties;
+import ru.elias.server.dto.JokeDto;
+import ru.elias.server.dto.JokesGeneralStatistic;
+import ru.elias.server.dto.report.ReportFormat;
+import ru.elias.server.service.CategoryService;
+import ru.elias.server.service.JokeService;
+import ru.elias.server.service.report.BaseReportService;
+import ru.elias.server.util.ApiPathConstants;
+
+@ExtendWith(MockitoExtension.class)
+class WarmUpRunnerTest {
+
+    @Mock
+    private JokeService jokeService;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private JokeReactiveClient jokeClient;
+
+    @Mock
+    private BaseReportService<String, Object> report;
+
+    @Test
+    void whenWarmUpFinishesThenReportIterationsAndSkipFailedSteps() {
+        var properties = new WarmUpProperties();
+        properties.setIterations(5);
+        properties.setReportIterations(2);
+        properties.setUpstream(false);
+        when(jokeService.getRandomJoke())
+                .thenReturn(ResponseEntity.ok(JokeDto.builder().joke("some-joke").category("dev").build()));
+        when(jokeService.getRandomJokes(null, 10)).thenReturn(ResponseEntity.ok(List.of()));
+        when(jokeService.getJokesCountStatistics()).thenReturn(ResponseEntity.ok(List.of(
+                new JokesGeneralStatistic("dev", 3L),
+                new JokesGeneralStatistic("sport", 1L),
+                new JokesGeneralStatistic("empty", 0L)
+        )));
+        when(categoryService.getAllCategories()).thenThrow(new IllegalStateException("db is down"));
+        var healthIndicator = new WarmUpHealthIndicator();
+        var meterRegistry = new SimpleMeterRegistry();
+        var runner = new WarmUpRunner(properties,
+                                      new RandomJokeProperties(),
+                                      jokeService,
+                                      categoryService,
+                                      jokeClient,
+                                      new ObjectMapper(),
+                                      Map.of(ApiPathConstants.JOKE_BY_CATEGORY_REPORT, report),
+                                      healthIndicator,
+                                      meterRegistry);
+
+        runner.run(null);
+
+        verify(jokeService, Mockito.times(5)).getRandomJoke();
+        verify(categoryService, Mockito.times(1)).getAllCategories();
+        verify(report, Mockito.times(2))
+                .writeReport(ArgumentMatchers.eq("sport"),
+                             ArgumentMatchers.eq(ReportFormat.PDF),
+                             ArgumentMatchers.any(OutputStream.class));
+        Mockito.verifyNoInteractions(jokeClient);
+        var health = healthIndicator.health();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails())
+                .containsEntry("iterations", 5)
+                .containsEntry("failedSteps", List.of("categories"));
+        assertThat(meterRegistry.get("warmup.duration").timer().count()).isEqualTo(1);
+    }
+
+}